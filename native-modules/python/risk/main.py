@@ -18,7 +18,12 @@ from fastapi import FastAPI, HTTPException
 from contextlib import asynccontextmanager
 
 from config import SERVER_PORT
-from models.schemas import RiskCheckRequest, RiskCheckResponse
+from models.schemas import (
+    RiskCheckBatchRequest,
+    RiskCheckBatchResponse,
+    RiskCheckRequest,
+    RiskCheckResponse,
+)
 from services.self_trade_checker import SelfTradeChecker
 
 # ── 日志配置 ─────────────────────────────────────────────────
@@ -42,6 +47,7 @@ async def lifespan(app: FastAPI):
     logger.info(" Python 风控服务启动成功")
     logger.info(" 端口         : %d", SERVER_PORT)
     logger.info(" 风控检查     : POST /api/risk/check")
+    logger.info(" 批量风控检查 : POST /api/risk/check/batch")
     logger.info(" 健康检查     : GET  /api/risk/health")
     logger.info(" API 文档     : http://localhost:%d/docs", SERVER_PORT)
     logger.info("=" * 55)
@@ -82,6 +88,28 @@ async def risk_check(request: RiskCheckRequest) -> RiskCheckResponse:
         raise HTTPException(status_code=500, detail=f"风控检查异常：{str(e)}")
 
 
+@app.post("/api/risk/check/batch", response_model=RiskCheckBatchResponse)
+async def risk_check_batch(request: RiskCheckBatchRequest) -> RiskCheckBatchResponse:
+    """
+    批量对敲风控检查
+
+    Java 主控的 RiskServiceClient 将多笔检查合并为一次请求（keep-alive 连接复用），
+    每笔检查只携带同一股东在同一股票上的反向挂单。
+
+    请求/响应协议：
+      - 请求：protocol/ipc/risk_check_batch_request.schema.json
+      - 响应：protocol/ipc/risk_check_batch_response.schema.json
+    results 与 checks 按下标一一对应。
+    """
+    try:
+        return RiskCheckBatchResponse(
+            results=[self_trade_checker.check(check) for check in request.checks]
+        )
+    except Exception as e:
+        logger.error("批量风控检查异常：%s", str(e), exc_info=True)
+        raise HTTPException(status_code=500, detail=f"批量风控检查异常：{str(e)}")
+
+
 @app.get("/api/risk/health")
 async def health_check():
     """
@@ -4,6 +4,8 @@
 - protocol/order.schema.json          → Order
 - protocol/ipc/risk_check_request.schema.json  → RiskCheckRequest
 - protocol/ipc/risk_check_response.schema.json → RiskCheckResponse
+- protocol/ipc/risk_check_batch_request.schema.json  → RiskCheckBatchRequest
+- protocol/ipc/risk_check_batch_response.schema.json → RiskCheckBatchResponse
 - protocol/enums.md                   → SideEnum, OrderStatusEnum, MarketEnum
 
 注意：protocol/order.schema.json 中 side 的枚举值为 "B"/"S"，
@@ -33,6 +35,7 @@ class OrderStatusEnum(str, Enum):
     """
     NEW = "NEW"
     VALID = "VALID"
+    PENDING_TRIGGER = "PENDING_TRIGGER"
     RISK_REJECT = "RISK_REJECT"
     MATCHING = "MATCHING"
     PART_FILLED = "PART_FILLED"
@@ -51,6 +54,27 @@ class MarketEnum(str, Enum):
     BJSE = "BJSE"   # 北交所
 
 
+class OrderTypeEnum(str, Enum):
+    """
+    订单类型枚举（缺省为 LIMIT）
+    对应 protocol/enums.md → OrderType、Java OrderTypeEnum
+    """
+    LIMIT = "LIMIT"
+    MARKET = "MARKET"
+    STOP = "STOP"
+    STOP_LIMIT = "STOP_LIMIT"
+
+
+class TimeInForceEnum(str, Enum):
+    """
+    有效期类型枚举（缺省为 DAY）
+    对应 protocol/enums.md → TimeInForce、Java TimeInForceEnum
+    """
+    DAY = "DAY"
+    IOC = "IOC"
+    FOK = "FOK"
+
+
 class Order(BaseModel):
     """
     订单模型
@@ -63,9 +87,12 @@ class Order(BaseModel):
     securityId: str = Field(..., max_length=6, description="股票代码")
     side: SideEnum = Field(..., description="买卖方向 BUY/SELL")
     qty: int = Field(..., ge=1, description="订单数量（>0）")
-    price: float = Field(..., ge=0, description="订单价格（>=0）")
+    price: Optional[float] = Field(None, ge=0, description="订单价格（>=0），LIMIT/STOP_LIMIT必填，MARKET/STOP不填")
     status: Optional[OrderStatusEnum] = Field(None, description="订单状态")
     timestamp: Optional[int] = Field(None, description="订单提交时间戳（毫秒）")
+    ordType: Optional[OrderTypeEnum] = Field(None, description="订单类型，缺省为LIMIT")
+    timeInForce: Optional[TimeInForceEnum] = Field(None, description="有效期类型，缺省为DAY")
+    stopPrice: Optional[float] = Field(None, gt=0, description="止损触发价（STOP/STOP_LIMIT必填）")
 
     @field_validator("side", mode="before")
     @classmethod
@@ -93,3 +120,19 @@ class RiskCheckResponse(BaseModel):
     """
     allow: bool = Field(..., description="是否允许订单进入撮合")
     reason: Optional[str] = Field(None, description="拒绝原因（allow=false 时填写）")
+
+
+class RiskCheckBatchRequest(BaseModel):
+    """
+    批量风控检查请求（Java 客户端将多笔检查合并为一次 HTTP 请求）
+    对应 protocol/ipc/risk_check_batch_request.schema.json
+    """
+    checks: List[RiskCheckRequest] = Field(..., description="待检查的请求列表")
+
+
+class RiskCheckBatchResponse(BaseModel):
+    """
+    批量风控检查响应，results 与 checks 按下标一一对应
+    对应 protocol/ipc/risk_check_batch_response.schema.json
+    """
+    results: List[RiskCheckResponse] = Field(..., description="检查结果列表")
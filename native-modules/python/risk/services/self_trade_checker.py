@@ -62,7 +62,7 @@ class SelfTradeChecker:
 
         logger.info(
             "开始对敲风控检查 | 订单[%s] 股东号[%s] 股票[%s] 方向[%s] "
-            "价格[%.2f] 数量[%d] | 已有订单数=%d",
+            "价格[%s] 数量[%d] | 已有订单数=%d",
             incoming.clOrderId,
             incoming.shareholderId,
             incoming.securityId,
@@ -128,7 +128,9 @@ class SelfTradeChecker:
 
     @staticmethod
     def _price_crossable(incoming: Order, existing: Order) -> bool:
-        """买价 >= 卖价 → 可成交"""
+        """买价 >= 卖价 → 可成交；市价单无价格，与任意挂单可成交（与 Java SelfTradeChecker 一致）"""
+        if incoming.price is None or existing.price is None:
+            return True
         if incoming.side == SideEnum.BUY:
             return incoming.price >= existing.price
         else:
@@ -13,6 +13,7 @@ import os
 sys.path.insert(0, os.path.join(os.path.dirname(__file__), ".."))
 
 import pytest
+from typing import Optional
 from fastapi.testclient import TestClient
 
 from main import app
@@ -35,7 +36,7 @@ def make_order(
     cl_order_id: str = "ORD001",
     shareholder_id: str = "SH1",
     side: SideEnum = SideEnum.BUY,
-    price: float = 10.5,
+    price: Optional[float] = 10.5,
     qty: int = 100,
     security_id: str = "600030",
     market: MarketEnum = MarketEnum.XSHG,
@@ -76,6 +77,16 @@ class TestSelfTradeChecker:
         assert resp.allow is False
         assert resp.reason == "SELF_TRADE_DETECTED"
 
+    def test_market_order_without_price_detected(self):
+        """市价单不带价格 → 与任意反向挂单可成交 → 拦截"""
+        incoming = make_order("B1", "SH1", SideEnum.BUY, price=None)
+        req = RiskCheckRequest(
+            incomingOrder=incoming,
+            existingOrders=[make_order("S1", "SH1", SideEnum.SELL, price=99.0)],
+        )
+        assert incoming.price is None
+        assert self.checker.check(req).allow is False
+
     def test_different_shareholder_pass(self):
         """不同股东号 → 放行"""
         req = RiskCheckRequest(
@@ -350,3 +361,74 @@ class TestRiskAPI:
         body = {"incomingOrder": {"clOrderId": "B1"}, "existingOrders": []}
         resp = self.client.post("/api/risk/check", json=body)
         assert resp.status_code == 422
+
+    def test_risk_check_batch(self):
+        """批量接口：results 与 checks 按下标一一对应"""
+        def order(cl_order_id, shareholder_id, side, price):
+            return {
+                "clOrderId": cl_order_id,
+                "shareholderId": shareholder_id,
+                "market": "XSHG",
+                "securityId": "600030",
+                "side": side,
+                "qty": 100,
+                "price": price,
+                "status": "MATCHING",
+                "timestamp": 1700000000000,
+            }
+
+        body = {
+            "checks": [
+                {
+                    "incomingOrder": order("B1", "SH1", "BUY", 10.5),
+                    "existingOrders": [order("S1", "SH1", "SELL", 10.5)],
+                },
+                {
+                    "incomingOrder": order("B2", "SH2", "BUY", 10.5),
+                    "existingOrders": [],
+                },
+            ]
+        }
+        resp = self.client.post("/api/risk/check/batch", json=body)
+        assert resp.status_code == 200
+        results = resp.json()["results"]
+        assert len(results) == 2
+        assert results[0]["allow"] is False
+        assert results[0]["reason"] == "SELF_TRADE_DETECTED"
+        assert results[1]["allow"] is True
+
+    def test_risk_check_batch_with_unpriced_orders(self):
+        """批量中含市价单/止损单（不带 price）→ 整批正常校验，不返回 422"""
+        market = {
+            "clOrderId": "B1",
+            "shareholderId": "SH1",
+            "market": "XSHG",
+            "securityId": "600030",
+            "side": "B",
+            "qty": 100,
+            "ordType": "MARKET",
+            "timeInForce": "IOC",
+        }
+        stop = dict(market, clOrderId="B2", shareholderId="SH2", ordType="STOP", stopPrice=10.8,
+                    timeInForce="DAY")
+        resting = {
+            "clOrderId": "S1",
+            "shareholderId": "SH1",
+            "market": "XSHG",
+            "securityId": "600030",
+            "side": "S",
+            "qty": 100,
+            "price": 10.5,
+            "timestamp": 1700000000000,
+        }
+        body = {
+            "checks": [
+                {"incomingOrder": market, "existingOrders": [resting]},
+                {"incomingOrder": stop, "existingOrders": []},
+            ]
+        }
+        resp = self.client.post("/api/risk/check/batch", json=body)
+        assert resp.status_code == 200
+        results = resp.json()["results"]
+        assert results[0]["allow"] is False
+        assert results[1]["allow"] is True
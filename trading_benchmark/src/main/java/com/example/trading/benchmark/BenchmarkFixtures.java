@@ -0,0 +1,101 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.MarketDataListener;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.engine.SkipListOrderBook;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.engine.TickLadderOrderBook;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.EngineClock;
+import com.example.trading.util.IdGenerator;
+
+/**
+ * 基准公共构造（不启动Spring容器，直接组装撮合组件）
+ */
+final class BenchmarkFixtures {
+    static final String SKIP_LIST = "SKIP_LIST";
+    static final String TICK_LADDER = "TICK_LADDER";
+
+    private BenchmarkFixtures() {
+    }
+
+    static OrderBook newOrderBook(String type) {
+        return newOrderBook(type, new CallAuction());
+    }
+
+    /**
+     * 支持集合竞价的订单簿（须与newMatchingEngine(OrderBook, CallAuction)使用同一CallAuction）
+     */
+    static OrderBook newOrderBook(String type, CallAuction callAuction) {
+        return TICK_LADDER.equals(type) ? new TickLadderOrderBook(MarketDataListener.NONE, callAuction)
+                : new SkipListOrderBook(MarketDataListener.NONE, callAuction);
+    }
+
+    /**
+     * 默认撮合配置：MID_PRICE成交价、全部股票FIFO
+     */
+    static PriceGenerator newPriceGenerator() {
+        return new PriceGenerator(new MatchingConfig());
+    }
+
+    static MatchingPolicySelector fifo() {
+        return new MatchingPolicySelector(new MatchingConfig());
+    }
+
+    /**
+     * 撮合引擎（成交事件直接丢弃，只测撮合本身）
+     */
+    static MatchingEngine newMatchingEngine(OrderBook orderBook) {
+        return newMatchingEngine(orderBook, fifo(), new CallAuction(), new StopOrderBook());
+    }
+
+    static MatchingEngine newMatchingEngine(OrderBook orderBook, MatchingPolicySelector policySelector) {
+        return newMatchingEngine(orderBook, policySelector, new CallAuction(), new StopOrderBook());
+    }
+
+    static MatchingEngine newMatchingEngine(OrderBook orderBook, CallAuction callAuction) {
+        return newMatchingEngine(orderBook, fifo(), callAuction, new StopOrderBook());
+    }
+
+    static MatchingEngine newMatchingEngine(OrderBook orderBook, StopOrderBook stopOrderBook) {
+        return newMatchingEngine(orderBook, fifo(), new CallAuction(), stopOrderBook);
+    }
+
+    private static MatchingEngine newMatchingEngine(OrderBook orderBook, MatchingPolicySelector policySelector,
+                                                    CallAuction callAuction, StopOrderBook stopOrderBook) {
+        return new MatchingEngine(orderBook, newPriceGenerator(), trade -> { }, new IdGenerator(),
+                MarketDataListener.NONE, policySelector, callAuction, stopOrderBook, EngineClock.SYSTEM);
+    }
+
+    static String securityId(int index) {
+        return String.format("%06d", 600000 + index);
+    }
+
+    static Order order(String clOrderId, String securityId, SideEnum side, int qty, double price, String shareholderId) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId(securityId)
+                .side(side)
+                .qty(qty)
+                .price(price)
+                .shareholderId(shareholderId)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    /**
+     * 价位价格：卖方从10.01向上，买方从10.00向下，每档0.01
+     */
+    static double levelPrice(SideEnum side, int level) {
+        return side == SideEnum.SELL
+                ? Math.round((10.01 + level * 0.01) * 100.0) / 100.0
+                : Math.round((10.00 - level * 0.01) * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.trading.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准入口：java -jar target/benchmarks.jar [JMH参数]
+ * 未指定-t时按线程数列表依次运行（默认1/2/4/8/16/32，可用-Dbench.threads=1,4覆盖），
+ * 每个线程数的结果以JSON写入{结果目录}/jmh-result-{线程数}t.json（默认target，可用-Dbench.result-dir覆盖），
+ * 便于不同提交间用同一套参数对比
+ */
+public class BenchmarkRunner {
+    private static final String DEFAULT_THREAD_COUNTS = "1,2,4,8,16,32";
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.getThreads().hasValue()) {
+            new Runner(cmdOptions).run();
+            return;
+        }
+        String resultDir = System.getProperty("bench.result-dir", "target");
+        for (String value : System.getProperty("bench.threads", DEFAULT_THREAD_COUNTS).split(",")) {
+            int threads = Integer.parseInt(value.trim());
+            Options options = new OptionsBuilder()
+                    .parent(cmdOptions)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir + "/jmh-result-" + threads + "t.json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.model.AuctionResult;
+import com.example.trading.domain.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 集合竞价基准（单股票10万笔挂单，价格在9.00~11.00随机分布，买卖交叉）
+ * - indicative：查询虚拟参考价（累计量曲线二分）
+ * - collect：集合竞价阶段新增一笔挂单并撤销（挂单+曲线增量维护）
+ * - uncross：集中撮合全部可成交挂单（每次迭代重新构建订单簿，单次计时）
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class CallAuctionBenchmark {
+    private static final String SECURITY_ID = BenchmarkFixtures.securityId(0);
+    private static final int ORDERS = 100_000;
+
+    @State(Scope.Thread)
+    public static class AuctionState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+
+        CallAuction callAuction;
+        MatchingEngine engine;
+        OrderBook book;
+        long sequence;
+
+        void build() {
+            callAuction = new CallAuction();
+            book = BenchmarkFixtures.newOrderBook(orderBook, callAuction);
+            engine = BenchmarkFixtures.newMatchingEngine(book, callAuction);
+            engine.beginAuction(SECURITY_ID);
+            Random random = new Random(42);
+            for (int i = 0; i < ORDERS; i++) {
+                SideEnum side = i % 2 == 0 ? SideEnum.BUY : SideEnum.SELL;
+                double price = (900 + random.nextInt(201)) / 100.0;
+                engine.match(BenchmarkFixtures.order("A" + i, SECURITY_ID, side, 100 * (1 + random.nextInt(10)), price,
+                        side == SideEnum.BUY ? "SH00000002" : "SH00000001"));
+            }
+        }
+    }
+
+    public static class CollectingState extends AuctionState {
+        @Setup(Level.Trial)
+        public void setUp() {
+            build();
+        }
+    }
+
+    public static class UncrossState extends AuctionState {
+        @Setup(Level.Iteration)
+        public void setUp() {
+            build();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public AuctionResult indicative(CollectingState state) {
+        return state.engine.indicativeAuction(SECURITY_ID, 10.00);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public boolean collect(CollectingState state) {
+        Order order = state.engine.match(BenchmarkFixtures.order("C" + (state.sequence++), SECURITY_ID, SideEnum.BUY,
+                100, 10.00, "SH00000002"));
+        return state.book.removeOrder(order);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public AuctionResult uncross(UncrossState state) {
+        return state.engine.uncross(SECURITY_ID, 10.00, new ArrayList<>());
+    }
+}
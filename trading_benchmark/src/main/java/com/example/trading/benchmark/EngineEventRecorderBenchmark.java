@@ -0,0 +1,65 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 撮合事件记录开销基准（后台线程持续取出并丢弃，缓冲区不会写满）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class EngineEventRecorderBenchmark {
+    private volatile boolean running;
+    private Thread drainer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EngineEventRecorder.get().enable(4096);
+        running = true;
+        drainer = new Thread(() -> {
+            while (running) {
+                if (EngineEventRecorder.get().drain((threadName, nanoTime, event, ref0, ref1, args) -> { }) == 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        }, "engine-event-drainer");
+        drainer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        drainer.join();
+        EngineEventRecorder.get().disable();
+        long dropped = EngineEventRecorder.get().takeDropped();
+        if (dropped > 0) {
+            System.out.println("丢弃事件数：" + dropped);
+        }
+    }
+
+    @Benchmark
+    public void recordOrderAdded() {
+        EngineEventRecorder.record(EngineEvent.BOOK_ORDER_ADDED, "CL00000000000001", "600030",
+                SideEnum.BUY.ordinal(), EngineEventRecorder.bits(10.5), 3, 0);
+    }
+}
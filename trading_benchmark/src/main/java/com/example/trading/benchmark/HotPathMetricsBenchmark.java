@@ -0,0 +1,56 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.config.MetricsConfig;
+import com.example.trading.infrastructure.metrics.HotPathMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热路径监控记录开销基准：一次阶段耗时记录（含两次System.nanoTime）、只写直方图、一次计数
+ * 配合-prof gc查看gc.alloc.rate.norm，记录过程应无对象分配
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class HotPathMetricsBenchmark {
+    private HotPathMetrics metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metrics = new HotPathMetrics(new MetricsConfig(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void recordStage() {
+        metrics.record(HotPathMetrics.Stage.MATCH, metrics.start());
+    }
+
+    /**
+     * 只写直方图（不含System.nanoTime）
+     */
+    @Benchmark
+    public void recordHistogram() {
+        metrics.histogram(HotPathMetrics.Stage.MATCH).record(1_234L);
+    }
+
+    @Benchmark
+    public void countReject() {
+        metrics.rejected(ErrorCodeEnum.SELF_TRADE);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 成交编号生成基准：分片序列 vs 共享序列 vs UUID
+ * 线程数由BenchmarkRunner按1/2/4/8/16/32依次传入（-t参数）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class IdGeneratorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GeneratorState {
+        final IdGenerator idGenerator = new IdGenerator();
+        final AtomicInteger threadCounter = new AtomicInteger();
+    }
+
+    /**
+     * 每个基准线程模拟一个撮合分片，独占一个前缀序列
+     */
+    @State(Scope.Thread)
+    public static class ShardState {
+        IdGenerator.Sequence sequence;
+
+        @Setup
+        public void setUp(GeneratorState generatorState) {
+            sequence = generatorState.idGenerator.sequence(generatorState.threadCounter.getAndIncrement());
+        }
+    }
+
+    @Benchmark
+    public String shardSequence(ShardState shardState) {
+        return shardState.sequence.nextExecId();
+    }
+
+    @Benchmark
+    public String sharedSequence(GeneratorState generatorState) {
+        return generatorState.idGenerator.nextExecId();
+    }
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, IdGenerator.EXEC_ID_LENGTH);
+    }
+}
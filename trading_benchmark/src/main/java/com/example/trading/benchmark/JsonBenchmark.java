@@ -0,0 +1,94 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.util.JsonUtils;
+import com.example.trading.util.OrderJsonCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON解析/序列化基准（委托请求解析、[确认回报, 成交回报]序列化及往返）
+ * 反射Gson路径（JsonUtils）与手写流式编解码（OrderJsonCodec）对比，分配量用 -prof gc 查看
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+    private static final String ORDER_JSON = "{\"clOrderId\":\"CL00000000000001\",\"market\":\"XSHG\","
+            + "\"securityId\":\"600030\",\"side\":\"BUY\",\"qty\":100,\"price\":10.5,\"shareholderId\":\"SH00000001\"}";
+    private static final byte[] ORDER_BYTES = ORDER_JSON.getBytes(StandardCharsets.UTF_8);
+
+    private final Order order = BenchmarkFixtures.order("CL00000000000001", "600030", SideEnum.BUY, 100, 10.5,
+            "SH00000001");
+    private final Trade trade = Trade.builder()
+            .clOrderId("CL00000000000001")
+            .market("XSHG")
+            .securityId("600030")
+            .side(SideEnum.BUY)
+            .qty(100)
+            .price(10.5)
+            .shareholderId("SH00000001")
+            .execId("000000000001")
+            .execQty(100)
+            .execPrice(10.5)
+            .timestamp(1_700_000_000_000L)
+            .build();
+
+    @Benchmark
+    public Order parseOrder() {
+        return JsonUtils.fromJson(ORDER_JSON, Order.class);
+    }
+
+    @Benchmark
+    public String serializeReports() {
+        return JsonUtils.toJson(List.of(order, trade));
+    }
+
+    @Benchmark
+    public String roundTrip() {
+        Order parsed = JsonUtils.fromJson(ORDER_JSON, Order.class);
+        return JsonUtils.toJson(List.of(parsed, trade));
+    }
+
+    @Benchmark
+    public Order parseOrderCodec() {
+        return OrderJsonCodec.parseOrder(ORDER_BYTES, 0, ORDER_BYTES.length);
+    }
+
+    @Benchmark
+    public String serializeReportsCodec() {
+        StringBuilder out = OrderJsonCodec.buffer();
+        out.append('[');
+        OrderJsonCodec.writeOrder(out, order);
+        out.append(',');
+        OrderJsonCodec.writeTrade(out, trade);
+        return out.append(']').toString();
+    }
+
+    @Benchmark
+    public String roundTripCodec() {
+        Order parsed = OrderJsonCodec.parseOrder(ORDER_BYTES, 0, ORDER_BYTES.length);
+        StringBuilder out = OrderJsonCodec.buffer();
+        out.append('[');
+        OrderJsonCodec.writeOrder(out, parsed);
+        out.append(',');
+        OrderJsonCodec.writeTrade(out, trade);
+        return out.append(']').toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.config.MarketConfig;
+import com.example.trading.domain.model.MarketData;
+import com.example.trading.infrastructure.market.MarketDataStreamService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行情推送扇出基准：一轮发布（securities个股票各一个快照）推送给全部订阅方的总成本
+ * 发送任务在调用线程直接执行（不经线程池），推送通道为Blackhole，结果包含入待发区、按档位序列化（每快照一次）与逐订阅方写出；
+ * 单个订阅方的扇出成本 ≈ 结果 / subscribers；每个基准线程独占一个推送服务（与单一行情发布线程的约定一致）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Thread)
+public class MarketDataFanoutBenchmark {
+    @Param({"1000", "10000"})
+    public int subscribers;
+    @Param({"1", "100"})
+    public int securities;
+
+    private MarketDataStreamService streamService;
+    private List<MarketData> snapshots;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        MarketConfig marketConfig = new MarketConfig();
+        marketConfig.setDepthLevels(5);
+        marketConfig.setStreamMaxSubscribers(subscribers);
+        streamService = new MarketDataStreamService(marketConfig, new SimpleMeterRegistry(), Runnable::run);
+        for (int i = 0; i < subscribers; i++) {
+            // 每个订阅方订阅一个股票，一半订阅方取1档、一半取5档
+            streamService.subscribe(Set.of(BenchmarkFixtures.securityId(i % securities)), i % 2 == 0 ? 1 : 5,
+                    blackhole::consume);
+        }
+        snapshots = new ArrayList<>(securities);
+        for (int i = 0; i < securities; i++) {
+            snapshots.add(snapshot(BenchmarkFixtures.securityId(i)));
+        }
+    }
+
+    @Benchmark
+    public void publishRound() {
+        sequence++;
+        List<MarketData> round = new ArrayList<>(snapshots.size());
+        for (MarketData snapshot : snapshots) {
+            round.add(snapshot.toBuilder().sequence(sequence).build());
+        }
+        streamService.onMarketData(round);
+    }
+
+    private static MarketData snapshot(String securityId) {
+        List<MarketData.PriceLevel> bids = new ArrayList<>();
+        List<MarketData.PriceLevel> asks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bids.add(new MarketData.PriceLevel((1000 - i) / 100.0, 100L * (i + 1), i + 1));
+            asks.add(new MarketData.PriceLevel((1001 + i) / 100.0, 100L * (i + 1), i + 1));
+        }
+        return MarketData.builder().market("XSHG").securityId(securityId).bids(bids).asks(asks)
+                .bidPrice(10.00).bidQty(100L).askPrice(10.01).askQty(100L).lastPrice(10.00).lastQty(100)
+                .volume(1_000_000L).turnover(10_000_000.0).vwap(10.0).timestamp(1_700_000_000_000L).build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MatchingEngine.match基准（不同订单簿实现、不同挂单深度）
+ * 每个基准线程独占一只股票（多股票场景，符合单写者约定），热点单股票场景见ShardedMatchingBenchmark
+ * - crossing：买单吃掉最优卖价的一笔挂单，再补挂一笔同价卖单保持深度（两次match）
+ * - resting：不触价的买单挂入订单簿，再撤掉（一次match+一次removeOrder）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class MatchingEngineBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class EngineState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+
+        OrderBook book;
+        MatchingEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            book = BenchmarkFixtures.newOrderBook(orderBook);
+            engine = BenchmarkFixtures.newMatchingEngine(book);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SymbolState {
+        /**
+         * 每个方向的挂单价位数（每价位一笔挂单）
+         */
+        @Param({"10", "1000", "100000"})
+        public int depth;
+
+        String securityId;
+        double bestAsk;
+        double passiveBid;
+        long sequence;
+
+        @Setup(Level.Trial)
+        public void setUp(EngineState engineState, ThreadParams threadParams) {
+            securityId = BenchmarkFixtures.securityId(threadParams.getThreadIndex());
+            for (int level = 0; level < depth; level++) {
+                engineState.engine.match(BenchmarkFixtures.order("S" + level, securityId, SideEnum.SELL, 100,
+                        BenchmarkFixtures.levelPrice(SideEnum.SELL, level), "SH00000001"));
+                engineState.engine.match(BenchmarkFixtures.order("B" + level, securityId, SideEnum.BUY, 100,
+                        BenchmarkFixtures.levelPrice(SideEnum.BUY, level), "SH00000002"));
+            }
+            bestAsk = BenchmarkFixtures.levelPrice(SideEnum.SELL, 0);
+            passiveBid = BenchmarkFixtures.levelPrice(SideEnum.BUY, depth);
+        }
+
+        String nextId(String prefix) {
+            return prefix + (sequence++);
+        }
+    }
+
+    @Benchmark
+    public Order crossing(EngineState engineState, SymbolState symbol) {
+        engineState.engine.match(BenchmarkFixtures.order(symbol.nextId("XB"), symbol.securityId, SideEnum.BUY, 100,
+                symbol.bestAsk, "SH00000003"));
+        return engineState.engine.match(BenchmarkFixtures.order(symbol.nextId("XS"), symbol.securityId, SideEnum.SELL,
+                100, symbol.bestAsk, "SH00000001"));
+    }
+
+    @Benchmark
+    public boolean resting(EngineState engineState, SymbolState symbol) {
+        Order order = engineState.engine.match(BenchmarkFixtures.order(symbol.nextId("RB"), symbol.securityId,
+                SideEnum.BUY, 100, symbol.passiveBid, "SH00000002"));
+        return engineState.book.removeOrder(order);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 撮合算法抽象开销基准（场景同MatchingEngineBenchmark.crossing，深度10档）
+ * - FIFO：全部股票价格-时间优先（默认配置）
+ * - FIFO_MIXED：被测股票FIFO，另有股票配置PRO_RATA/TOP_ORDER_PRO_RATA且预热时已撮合过，验证FIFO调用点不受影响
+ * - PRO_RATA：被测股票按比例分配（每价位一笔挂单，反映价位快照与分配计算的额外开销）
+ * 与改造前MatchingEngineBenchmark.crossing（depth=10）对比即为抽象本身的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class MatchingPolicyBenchmark {
+    private static final String SECURITY_ID = BenchmarkFixtures.securityId(0);
+    private static final int DEPTH = 10;
+
+    @State(Scope.Thread)
+    public static class EngineState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+
+        @Param({"FIFO", "FIFO_MIXED", "PRO_RATA"})
+        public String policy;
+
+        OrderBook book;
+        MatchingEngine engine;
+        double bestAsk;
+        long sequence;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            book = BenchmarkFixtures.newOrderBook(orderBook);
+            MatchingConfig matchingConfig = new MatchingConfig();
+            Map<String, String> overrides = new HashMap<>();
+            if ("PRO_RATA".equals(policy)) {
+                matchingConfig.setPolicy(MatchingPolicySelector.PRO_RATA);
+            } else if ("FIFO_MIXED".equals(policy)) {
+                overrides.put(BenchmarkFixtures.securityId(1), MatchingPolicySelector.PRO_RATA);
+                overrides.put(BenchmarkFixtures.securityId(2), MatchingPolicySelector.TOP_ORDER_PRO_RATA);
+            }
+            matchingConfig.setPolicyOverrides(overrides);
+            engine = BenchmarkFixtures.newMatchingEngine(book, new MatchingPolicySelector(matchingConfig));
+
+            // 其他股票的撮合算法也走过一遍，使通用调用点见到多种实现
+            for (int i = 1; i <= 2; i++) {
+                String securityId = BenchmarkFixtures.securityId(i);
+                for (int n = 0; n < 20_000; n++) {
+                    engine.match(BenchmarkFixtures.order("WS" + n, securityId, SideEnum.SELL, 100, 10.01, "SH00000001"));
+                    engine.match(BenchmarkFixtures.order("WB" + n, securityId, SideEnum.BUY, 100, 10.01, "SH00000003"));
+                }
+            }
+            for (int level = 0; level < DEPTH; level++) {
+                engine.match(BenchmarkFixtures.order("S" + level, SECURITY_ID, SideEnum.SELL, 100,
+                        BenchmarkFixtures.levelPrice(SideEnum.SELL, level), "SH00000001"));
+                engine.match(BenchmarkFixtures.order("B" + level, SECURITY_ID, SideEnum.BUY, 100,
+                        BenchmarkFixtures.levelPrice(SideEnum.BUY, level), "SH00000002"));
+            }
+            bestAsk = BenchmarkFixtures.levelPrice(SideEnum.SELL, 0);
+        }
+
+        String nextId(String prefix) {
+            return prefix + (sequence++);
+        }
+    }
+
+    @Benchmark
+    public Order crossing(EngineState state) {
+        state.engine.match(BenchmarkFixtures.order(state.nextId("XB"), SECURITY_ID, SideEnum.BUY, 100,
+                state.bestAsk, "SH00000003"));
+        return state.engine.match(BenchmarkFixtures.order(state.nextId("XS"), SECURITY_ID, SideEnum.SELL, 100,
+                state.bestAsk, "SH00000001"));
+    }
+}
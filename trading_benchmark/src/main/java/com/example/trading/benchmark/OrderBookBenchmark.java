@@ -0,0 +1,83 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderBook.addOrder/removeOrder基准（两种实现、不同挂单深度，每个基准线程独占一只股票）
+ * 预先生成一批订单轮流挂入/撤出，挂单价位在整个深度范围内分散（非只在最优价）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class OrderBookBenchmark {
+    private static final int ORDER_POOL = 1024;
+
+    @State(Scope.Benchmark)
+    public static class BookState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+
+        OrderBook book;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            book = BenchmarkFixtures.newOrderBook(orderBook);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SymbolState {
+        @Param({"10", "1000", "100000"})
+        public int depth;
+
+        String securityId;
+        Order[] orders;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(BookState bookState, ThreadParams threadParams) {
+            securityId = BenchmarkFixtures.securityId(threadParams.getThreadIndex());
+            for (int level = 0; level < depth; level++) {
+                bookState.book.addOrder(BenchmarkFixtures.order("R" + level, securityId, SideEnum.BUY, 100,
+                        BenchmarkFixtures.levelPrice(SideEnum.BUY, level), "SH00000001"));
+            }
+            orders = new Order[ORDER_POOL];
+            for (int i = 0; i < ORDER_POOL; i++) {
+                int level = (int) ((i * 2654435761L) % depth);
+                orders[i] = BenchmarkFixtures.order("P" + i, securityId, SideEnum.BUY, 100,
+                        BenchmarkFixtures.levelPrice(SideEnum.BUY, level), "SH00000002");
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean addThenRemove(BookState bookState, SymbolState symbol) {
+        Order order = symbol.orders[symbol.next++ & (ORDER_POOL - 1)];
+        bookState.book.addOrder(order);
+        return bookState.book.removeOrder(order);
+    }
+
+    @Benchmark
+    public Order findOrder(BookState bookState, SymbolState symbol) {
+        return bookState.book.findOrder(symbol.securityId, "R" + (symbol.next++ % symbol.depth));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单类型基准（单股票）
+ * - fokCancelled：对手方depth档、每档10笔挂单，FOK委托数量超过全部可成交量，按各价位累计量预检后整单撤销（订单簿不变）
+ * - tradeWithPendingStops：一买一卖在10.00成交，订单簿外另有stops笔未被越过的买卖止损单（只检查触发索引头部）
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OrderTypesBenchmark {
+    private static final String SECURITY_ID = BenchmarkFixtures.securityId(0);
+    private static final int ORDERS_PER_LEVEL = 10;
+
+    @State(Scope.Thread)
+    public static class FokState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+
+        @Param({"10", "1000"})
+        public int depth;
+
+        MatchingEngine engine;
+        Order fok;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            OrderBook book = BenchmarkFixtures.newOrderBook(orderBook);
+            engine = BenchmarkFixtures.newMatchingEngine(book);
+            for (int level = 0; level < depth; level++) {
+                for (int i = 0; i < ORDERS_PER_LEVEL; i++) {
+                    book.addOrder(BenchmarkFixtures.order("S" + level + "-" + i, SECURITY_ID, SideEnum.SELL, 100,
+                            BenchmarkFixtures.levelPrice(SideEnum.SELL, level), "SH00000001"));
+                }
+            }
+            fok = BenchmarkFixtures.order("FOK", SECURITY_ID, SideEnum.BUY, depth * ORDERS_PER_LEVEL * 100 + 100,
+                    BenchmarkFixtures.levelPrice(SideEnum.SELL, depth), "SH00000002");
+            fok.setTimeInForce(TimeInForceEnum.FOK);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class StopState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+
+        @Param({"0", "10000"})
+        public int stops;
+
+        MatchingEngine engine;
+        long sequence;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            StopOrderBook stopOrderBook = new StopOrderBook();
+            engine = BenchmarkFixtures.newMatchingEngine(BenchmarkFixtures.newOrderBook(orderBook), stopOrderBook);
+            for (int i = 0; i < stops; i++) {
+                SideEnum side = i % 2 == 0 ? SideEnum.BUY : SideEnum.SELL;
+                Order stop = BenchmarkFixtures.order("T" + i, SECURITY_ID, side, 100, 0, "SH00000003");
+                stop.setPrice(null);
+                stop.setOrdType(OrderTypeEnum.STOP);
+                // 买止损在10.50以上、卖止损在9.50以下，10.00的成交不越过任何触发价
+                stop.setStopPrice(side == SideEnum.BUY ? (1050 + i % 500) / 100.0 : (950 - i % 500) / 100.0);
+                engine.match(stop);
+            }
+        }
+    }
+
+    @Benchmark
+    public Order fokCancelled(FokState state) {
+        Order fok = state.fok;
+        fok.setQty(fok.getQty() + fok.getCumQty());
+        fok.setCumQty(0);
+        return state.engine.match(fok);
+    }
+
+    @Benchmark
+    public Order tradeWithPendingStops(StopState state) {
+        long sequence = state.sequence++;
+        state.engine.match(BenchmarkFixtures.order("S" + sequence, SECURITY_ID, SideEnum.SELL, 100, 10.00,
+                "SH00000001"));
+        return state.engine.match(BenchmarkFixtures.order("B" + sequence, SECURITY_ID, SideEnum.BUY, 100, 10.00,
+                "SH00000002"));
+    }
+}
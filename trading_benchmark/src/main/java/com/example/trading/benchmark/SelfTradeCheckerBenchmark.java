@@ -0,0 +1,89 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.risk.SelfTradeChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SelfTradeChecker.check基准
+ * securities=1为热点单股票，securities=1000为多股票；预先登记一批随机股东/股票/方向/价格的挂单，
+ * 检查订单的股东号、股票、方向随机（含对敲拦截）
+ * 检查过程中挂单均有效、不限时间窗口，索引只读，多线程共享同一检查器不违反单写者约定
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class SelfTradeCheckerBenchmark {
+    private static final int ORDER_POOL = 4096;
+
+    @State(Scope.Benchmark)
+    public static class CheckerState {
+        @Param({"1", "1000"})
+        public int securities;
+        @Param({"10000"})
+        public int shareholders;
+        @Param({"10000"})
+        public int restingOrders;
+
+        SelfTradeChecker checker;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            RiskConfig riskConfig = new RiskConfig();
+            riskConfig.setEnable(true);
+            checker = new SelfTradeChecker(riskConfig);
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < restingOrders; i++) {
+                Order order = BenchmarkFixtures.order("R" + i, BenchmarkFixtures.securityId(random.nextInt(securities)),
+                        random.nextBoolean() ? SideEnum.BUY : SideEnum.SELL, 100, 9.90 + random.nextInt(21) * 0.01,
+                        String.format("SH%08d", random.nextInt(shareholders)));
+                order.setStatus(OrderStatusEnum.MATCHING);
+                checker.track(order);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OrderState {
+        Order[] orders;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(CheckerState checkerState, ThreadParams threadParams) {
+            SplittableRandom random = new SplittableRandom(threadParams.getThreadIndex());
+            orders = new Order[ORDER_POOL];
+            for (int i = 0; i < ORDER_POOL; i++) {
+                orders[i] = BenchmarkFixtures.order("C" + i,
+                        BenchmarkFixtures.securityId(random.nextInt(checkerState.securities)),
+                        random.nextBoolean() ? SideEnum.BUY : SideEnum.SELL, 100, 10.00,
+                        String.format("SH%08d", random.nextInt(checkerState.shareholders)));
+            }
+        }
+    }
+
+    @Benchmark
+    public ErrorCodeEnum check(CheckerState checkerState, OrderState orderState) {
+        return checkerState.checker.check(orderState.orders[orderState.next++ & (ORDER_POOL - 1)]);
+    }
+}
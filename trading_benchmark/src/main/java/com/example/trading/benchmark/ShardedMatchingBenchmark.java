@@ -0,0 +1,94 @@
+package com.example.trading.benchmark;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 经撮合分片执行器提交的端到端撮合基准（多个请求线程并发提交，请求线程等待结果）
+ * symbols=1为热点单股票（全部请求落到同一分片串行执行），symbols=64为多股票分散到各分片
+ * 每次操作在分片线程内挂一笔卖单再用买单吃掉，订单簿保持稳态
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class ShardedMatchingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ExecutorState {
+        @Param({BenchmarkFixtures.SKIP_LIST, BenchmarkFixtures.TICK_LADDER})
+        public String orderBook;
+        @Param({"1", "64"})
+        public int symbols;
+        @Param({"4"})
+        public int shardCount;
+
+        ShardedMatchingExecutor executor;
+        MatchingEngine engine;
+        String[] securityIds;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            MatchingConfig config = new MatchingConfig();
+            config.setShardCount(shardCount);
+            executor = new ShardedMatchingExecutor(config, new IdGenerator());
+            engine = BenchmarkFixtures.newMatchingEngine(BenchmarkFixtures.newOrderBook(orderBook));
+            securityIds = new String[symbols];
+            for (int i = 0; i < symbols; i++) {
+                securityIds[i] = BenchmarkFixtures.securityId(i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            executor.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+        String prefix;
+        long sequence;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            prefix = "T" + threadParams.getThreadIndex() + "-";
+            next = threadParams.getThreadIndex();
+        }
+    }
+
+    @Benchmark
+    public Order submitAndMatch(ExecutorState state, ClientState client) {
+        String securityId = state.securityIds[client.next++ % state.securityIds.length];
+        Order sell = BenchmarkFixtures.order(client.prefix + (client.sequence++), securityId, SideEnum.SELL, 100,
+                10.00, "SH00000001");
+        Order buy = BenchmarkFixtures.order(client.prefix + (client.sequence++), securityId, SideEnum.BUY, 100,
+                10.00, "SH00000002");
+        return state.executor.submit(securityId, () -> {
+            state.engine.match(sell);
+            return state.engine.match(buy);
+        }).join();
+    }
+}
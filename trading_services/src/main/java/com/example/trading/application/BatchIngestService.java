@@ -0,0 +1,322 @@
+package com.example.trading.application;
+
+import com.example.trading.config.DataConfig;
+import com.example.trading.util.JsonUtils;
+import com.example.trading.util.NdjsonReader;
+import com.example.trading.util.OrderJsonCodec;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.MalformedJsonException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 批量导入服务（流程编排）
+ * 核心逻辑：
+ * 1. 读取input-path下的NDJSON文件（也兼容单个JSON数组），按行流式读取、OrderJsonCodec逐条解析，不整文件读入内存；
+ *    单条记录格式错误或处理异常时该条写出错误行，不影响其余记录；
+ * 2. 三段流水线：调用线程解析+校验并投递撮合分片 → 分片线程风控+撮合 → 写出线程按输入顺序等待结果并写回报；
+ * 3. 已投递未写出的记录数不超过ingest-window，撮合/写出跟不上时解析线程阻塞（背压），内存有界；
+ * 4. 回报按输入顺序逐行写入output-path/{文件名}.report.ndjson（先写.tmp，完成后改名），并输出每秒处理记录数。
+ * 含origClOrderId字段的记录按撤单处理，其余按委托处理。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchIngestService {
+    private static final String REPORT_SUFFIX = ".report.ndjson";
+    private static final String TMP_SUFFIX = ".tmp";
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final long PROGRESS_INTERVAL = 1_000_000L;
+    /**
+     * 写出线程结束标记
+     */
+    private static final Supplier<String> END_OF_INPUT = () -> null;
+
+    private final ExchangeService exchangeService;
+    private final CancelService cancelService;
+    private final DataConfig dataConfig;
+
+    /**
+     * 按文件名顺序导入input-path下的全部文件
+     */
+    public List<IngestReport> ingestAll() throws IOException {
+        Path inputDir = Paths.get(dataConfig.getInputPath());
+        List<IngestReport> reports = new ArrayList<>();
+        if (!Files.isDirectory(inputDir)) {
+            log.warn("批量导入目录[{}]不存在", inputDir.toAbsolutePath());
+            return reports;
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(inputDir)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().endsWith(TMP_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            reports.add(ingest(file, outputFileFor(file)));
+        }
+        return reports;
+    }
+
+    /**
+     * 导入input-path下的指定文件
+     */
+    public IngestReport ingest(String fileName) throws IOException {
+        Path inputDir = Paths.get(dataConfig.getInputPath()).toAbsolutePath().normalize();
+        Path inputFile = inputDir.resolve(fileName).normalize();
+        if (!inputFile.startsWith(inputDir) || !Files.isRegularFile(inputFile)) {
+            throw new IllegalArgumentException("导入文件不存在或不在input-path下：" + fileName);
+        }
+        return ingest(inputFile, outputFileFor(inputFile));
+    }
+
+    /**
+     * 流水线导入单个文件（导入失败时删除未完成的回报临时文件）
+     */
+    public IngestReport ingest(Path inputFile, Path outputFile) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(outputFile.toAbsolutePath().getParent());
+        Path tmpFile = outputFile.resolveSibling(outputFile.getFileName() + TMP_SUFFIX);
+        BlockingQueue<Supplier<String>> pending = new ArrayBlockingQueue<>(Math.max(1, dataConfig.getIngestWindow()));
+        ReportWriter writer = new ReportWriter(tmpFile, pending);
+        Thread writerThread = new Thread(writer, "ingest-writer");
+        writerThread.start();
+
+        IngestReport report = new IngestReport();
+        report.setInputFile(inputFile.toString());
+        report.setOutputFile(outputFile.toString());
+        boolean completed = false;
+        try {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(inputFile), READ_BUFFER_SIZE)) {
+                if (startsWithArray(in)) {
+                    ingestArray(in, pending, report, start);
+                } else {
+                    NdjsonReader.read(in, (lineNo, bytes, offset, length) -> {
+                        enqueue(pending, submit(bytes, offset, length, report), report, start);
+                        return true;
+                    });
+                }
+            } finally {
+                put(pending, END_OF_INPUT);
+                join(writerThread);
+            }
+            if (writer.failure != null) {
+                throw writer.failure;
+            }
+            Files.move(tmpFile, outputFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            completed = true;
+        } finally {
+            if (!completed) {
+                Files.deleteIfExists(tmpFile);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setRecordsPerSecond(ratePerSecond(report.getRecords(), elapsedNanos));
+        log.info("批量导入完成：文件[{}]，记录[{}]条（委托{}，撤单{}，无法解析{}），耗时[{}]ms，[{}]条/秒，回报写入[{}]",
+                inputFile.getFileName(), report.getRecords(), report.getOrders(), report.getCancels(),
+                report.getErrors(), report.getElapsedMillis(), report.getRecordsPerSecond(), outputFile);
+        return report;
+    }
+
+    /**
+     * 单个JSON数组格式：逐个元素解析；数组本身格式错误时无法定位下一条记录，记一条错误后结束本文件
+     */
+    private void ingestArray(InputStream in, BlockingQueue<Supplier<String>> pending, IngestReport report, long start)
+            throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.setLenient(true);
+        try {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                byte[] record = JsonParser.parseReader(reader).toString().getBytes(StandardCharsets.UTF_8);
+                enqueue(pending, submit(record, 0, record.length, report), report, start);
+            }
+        } catch (JsonParseException | MalformedJsonException | EOFException e) {
+            report.setRecords(report.getRecords() + 1);
+            enqueue(pending, error(report.getRecords(), e, report), report, start);
+        }
+    }
+
+    /**
+     * 首个非空白字节是否为'['（跳过UTF-8 BOM），读取后复位
+     */
+    private static boolean startsWithArray(InputStream in) throws IOException {
+        in.mark(READ_BUFFER_SIZE);
+        try {
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b > ' ' && b != 0xEF && b != 0xBB && b != 0xBF) {
+                    return b == '[';
+                }
+            }
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    private void enqueue(BlockingQueue<Supplier<String>> pending, Supplier<String> item, IngestReport report,
+                         long start) {
+        put(pending, item);
+        if (report.getRecords() % PROGRESS_INTERVAL == 0) {
+            log.info("批量导入[{}]进行中：已处理[{}]条，[{}]条/秒", report.getInputFile(), report.getRecords(),
+                    ratePerSecond(report.getRecords(), System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * 解析单条记录并投递（解析线程），返回写出线程获取回报的句柄
+     * 与HTTP接口、差异回放使用同一解析器（OrderJsonCodec，兼容B/S与BUY/SELL），单条记录的任何异常只写出该条的错误行
+     */
+    private Supplier<String> submit(byte[] bytes, int offset, int length, IngestReport report) {
+        long recordNo = report.getRecords() + 1;
+        report.setRecords(recordNo);
+        try {
+            if (OrderJsonCodec.isCancel(bytes, offset, length)) {
+                report.setCancels(report.getCancels() + 1);
+                CompletableFuture<CancelService.CancelOutcome> future = cancelService.submitCancel(
+                        OrderJsonCodec.parseCancel(bytes, offset, length));
+                return () -> cancelService.buildResponse(future.join());
+            }
+            report.setOrders(report.getOrders() + 1);
+            CompletableFuture<ExchangeService.MatchOutcome> future = exchangeService.submitOrder(
+                    OrderJsonCodec.parseOrder(bytes, offset, length));
+            return () -> exchangeService.buildResponse(future.join());
+        } catch (RuntimeException e) {
+            return error(recordNo, e, report);
+        }
+    }
+
+    private static Supplier<String> error(long recordNo, Exception e, IngestReport report) {
+        report.setErrors(report.getErrors() + 1);
+        log.warn("第{}条记录无法处理：{}", recordNo, e.getMessage());
+        String error = JsonUtils.toJson(new IngestError(recordNo, String.valueOf(e.getMessage())));
+        return () -> error;
+    }
+
+    private Path outputFileFor(Path inputFile) {
+        return Paths.get(dataConfig.getOutputPath()).resolve(inputFile.getFileName() + REPORT_SUFFIX);
+    }
+
+    private static long ratePerSecond(long records, long elapsedNanos) {
+        return elapsedNanos <= 0 ? records : records * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private static void put(BlockingQueue<Supplier<String>> pending, Supplier<String> item) {
+        try {
+            pending.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("批量导入被中断", e);
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("批量导入被中断", e);
+        }
+    }
+
+    /**
+     * 写出线程：按投递顺序等待每条记录的处理结果并逐行写出（第N行对应第N条记录）
+     * 单条记录处理异常时写出错误行；写文件失败后继续消费队列（丢弃结果），避免解析线程在满队列上永久阻塞
+     */
+    private static final class ReportWriter implements Runnable {
+        private final Path file;
+        private final BlockingQueue<Supplier<String>> pending;
+        private long recordNo;
+        private volatile IOException failure;
+
+        private ReportWriter(Path file, BlockingQueue<Supplier<String>> pending) {
+            this.file = file;
+            this.pending = pending;
+        }
+
+        @Override
+        public void run() {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                Supplier<String> item;
+                while ((item = pending.take()) != END_OF_INPUT) {
+                    if (failure == null) {
+                        write(out, item);
+                    }
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(BufferedWriter out, Supplier<String> item) {
+            recordNo++;
+            String line;
+            try {
+                line = item.get();
+            } catch (RuntimeException e) {
+                log.error("第{}条记录处理异常", recordNo, e);
+                line = JsonUtils.toJson(new IngestError(recordNo, String.valueOf(e.getMessage())));
+            }
+            try {
+                out.write(line);
+                out.newLine();
+            } catch (IOException e) {
+                log.error("写出批量导入回报失败：{}", file, e);
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * 单个文件的导入结果
+     */
+    @lombok.Data
+    public static class IngestReport {
+        private String inputFile;
+        private String outputFile;
+        private long records;
+        private long orders;
+        private long cancels;
+        private long errors;
+        private long elapsedMillis;
+        private long recordsPerSecond;
+    }
+
+    /**
+     * 无法解析的记录对应的回报行
+     */
+    @lombok.Value
+    private static class IngestError {
+        long recordNo;
+        String error;
+    }
+}
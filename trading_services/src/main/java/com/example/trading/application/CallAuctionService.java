@@ -0,0 +1,47 @@
+package com.example.trading.application;
+
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.model.AuctionResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 集合竞价服务（流程编排）
+ * 阶段切换与集中撮合投递到股票所属撮合分片执行（步骤见ShardProcessor），与该股票的委托、撤单串行；
+ * 阶段切换先写预写日志再执行，集中撮合的成交随后写入同一分片日志，恢复时按日志重新进入集合竞价/集中撮合
+ */
+@Service
+@RequiredArgsConstructor
+public class CallAuctionService {
+    private final ShardProcessor shardProcessor;
+    private final ShardedMatchingExecutor matchingExecutor;
+
+    /**
+     * 股票进入集合竞价阶段（之后的委托只挂单不撮合）
+     * @return 已处于集合竞价阶段时返回false
+     */
+    public CompletableFuture<Boolean> beginAuction(String securityId) {
+        return matchingExecutor.submit(securityId, () -> shardProcessor.beginAuction(securityId));
+    }
+
+    /**
+     * 集中撮合并回到连续竞价
+     * @param referencePrice 参考价（如前收盘价），<=0表示无参考价
+     * @return 未处于集合竞价阶段时返回null
+     */
+    public CompletableFuture<AuctionResult> uncross(String securityId, double referencePrice) {
+        return matchingExecutor.submit(securityId,
+                () -> shardProcessor.uncross(securityId, referencePrice, new ArrayList<>()));
+    }
+
+    /**
+     * 查询集合竞价虚拟参考价（不成交）
+     * @return 未处于集合竞价阶段时返回null
+     */
+    public CompletableFuture<AuctionResult> indicative(String securityId, double referencePrice) {
+        return matchingExecutor.submit(securityId, () -> shardProcessor.indicative(securityId, referencePrice));
+    }
+}
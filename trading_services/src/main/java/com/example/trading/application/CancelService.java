@@ -1,4 +1,116 @@
 package com.example.trading.application;
 
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import com.example.trading.util.OrderJsonCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 撤单服务（流程编排）
+ * 分片内定位原订单与撤单步骤见ShardProcessor
+ */
+@Service
+@RequiredArgsConstructor
 public class CancelService {
+    private final ShardProcessor shardProcessor;
+    private final ShardedMatchingExecutor matchingExecutor;
+
+    /**
+     * 处理撤单全流程：校验→定位原订单→撤单→返回回报JSON
+     * 撤单与撮合投递到同一撮合分片串行执行，不会与同股票的撮合交错
+     * cancelJson:
+     *   {
+     *     "clOrderId": "CL12345678901235",
+     *     "origClOrderId": "CL12345678901234",
+     *     "market": "XSHG",
+     *     "securityId": "600030",
+     *     "shareholderId": "SH00000001",
+     *     "side": "B"
+     *   }
+     */
+    public String processCancel(String cancelJson) {
+        return process(OrderJsonCodec.parseCancel(cancelJson));
+    }
+
+    /**
+     * 处理撤单全流程（请求体原始UTF-8字节，省去字符串解码）
+     */
+    public String processCancel(byte[] cancelJson) {
+        return process(OrderJsonCodec.parseCancel(cancelJson, 0, cancelJson.length));
+    }
+
+    private String process(CancelRequest cancel) {
+        // 2~4. 校验→定位原订单→撤单，请求线程等待分片处理完成
+        CancelOutcome outcome = submitCancel(cancel).join();
+        // 5. 在请求线程构建回报（使用分片内生成的原订单快照）
+        return buildResponse(outcome);
+    }
+
+    /**
+     * 校验撤单并投递到撮合分片（不等待结果，供批量导入流水线、二进制网关使用）
+     * 校验在调用线程完成，校验失败时返回已完成的拒绝结果
+     */
+    public CompletableFuture<CancelOutcome> submitCancel(CancelRequest cancel) {
+        EngineEventRecorder.record(EngineEvent.CANCEL_RECEIVED, cancel.getClOrderId(), cancel.getOrigClOrderId());
+
+        // 2. 基础校验
+        ErrorCodeEnum validateError = shardProcessor.validateCancel(cancel);
+        if (validateError != null) {
+            return CompletableFuture.completedFuture(CancelOutcome.rejected(cancel, validateError));
+        }
+
+        // 3~4. 定位原订单并撤单（分片线程执行）
+        return matchingExecutor.submit(cancel.getSecurityId(), () -> shardProcessor.cancelOrder(cancel));
+    }
+
+    /**
+     * 根据分片处理结果构建回报JSON（撤单确认回报或撤单拒绝回报）
+     */
+    public String buildResponse(CancelOutcome outcome) {
+        if (outcome.getRejectCode() != null) {
+            return buildRejectResponse(outcome.getCancel(), outcome.getRejectCode());
+        }
+        return buildAckResponse(outcome.getCancel(), outcome.getOrder(), outcome.getCanceledQty());
+    }
+
+    /**
+     * 构建撤单确认回报JSON（qty = cumQty + canceledQty）
+     */
+    private String buildAckResponse(CancelRequest cancel, Order order, int canceledQty) {
+        StringBuilder out = OrderJsonCodec.buffer();
+        OrderJsonCodec.writeCancelAck(out, cancel, order, canceledQty);
+        return out.toString();
+    }
+
+    /**
+     * 构建撤单拒绝回报JSON
+     */
+    private String buildRejectResponse(CancelRequest cancel, ErrorCodeEnum errorCode) {
+        StringBuilder out = OrderJsonCodec.buffer();
+        OrderJsonCodec.writeCancelReject(out, cancel, errorCode);
+        return out.toString();
+    }
+
+    /**
+     * 分片内撤单结果（撤单成功时携带原订单快照与撤销数量，拒绝时携带错误码）
+     */
+    @lombok.Value
+    public static class CancelOutcome {
+        CancelRequest cancel;
+        Order order;
+        int canceledQty;
+        ErrorCodeEnum rejectCode;
+
+        static CancelOutcome rejected(CancelRequest cancel, ErrorCodeEnum rejectCode) {
+            return new CancelOutcome(cancel, null, 0, rejectCode);
+        }
+    }
+
 }
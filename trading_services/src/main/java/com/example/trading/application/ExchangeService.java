@@ -1,31 +1,43 @@
 package com.example.trading.application;
 
 import com.example.trading.common.enums.ErrorCodeEnum;
-import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
 import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
 import com.example.trading.common.enums.OrderStatusEnum;
 import com.example.trading.domain.risk.SelfTradeChecker;
-import com.example.trading.domain.validation.OrderValidator;
-import com.example.trading.util.JsonUtils;
+import com.example.trading.infrastructure.metrics.HotPathMetrics;
+import com.example.trading.infrastructure.metrics.HotPathMetrics.Stage;
+import com.example.trading.infrastructure.risk.RiskCheckRequest;
+import com.example.trading.infrastructure.risk.RiskServiceClient;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import com.example.trading.util.OrderJsonCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 交易所核心服务（流程编排）
+ * 分片内的校验、风控、撮合步骤见ShardProcessor；各阶段耗时与订单/成交/拒绝计数记录到HotPathMetrics
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ExchangeService {
-    private final OrderValidator orderValidator;
+    private final ShardProcessor shardProcessor;
     private final SelfTradeChecker selfTradeChecker;
-    private final MatchingEngine matchingEngine;
+    private final ShardedMatchingExecutor matchingExecutor;
+    private final RiskServiceClient riskServiceClient;
+    private final HotPathMetrics metrics;
 
     /**
      * 处理订单全流程：校验→风控→撮合→返回回报JSON
+     * 校验在请求线程完成；风控与撮合投递到股票所属的撮合分片串行执行，请求线程等待完成句柄
      * orderJson:
      *   {
      *     "clOrderId": "CL1234567890123456",
@@ -38,75 +50,115 @@ public class ExchangeService {
      *   }
      */
     public String processOrder(String orderJson) {
-        // 1. JSON转订单对象
-        Order order = JsonUtils.fromJson(orderJson, Order.class);
-        order.setTimestamp(System.currentTimeMillis());
-        order.setStatus(OrderStatusEnum.NEW);
-        log.info("开始处理订单：{}", order.getClOrderId());
+        long start = metrics.start();
+        Order order = OrderJsonCodec.parseOrder(orderJson);
+        metrics.record(Stage.PARSE, start);
+        return process(order);
+    }
+
+    /**
+     * 处理订单全流程（请求体原始UTF-8字节，省去字符串解码）
+     */
+    public String processOrder(byte[] orderJson) {
+        long start = metrics.start();
+        Order order = OrderJsonCodec.parseOrder(orderJson, 0, orderJson.length);
+        metrics.record(Stage.PARSE, start);
+        return process(order);
+    }
+
+    private String process(Order order) {
+        // 2~4. 校验→风控→撮合，请求线程等待分片处理完成
+        MatchOutcome outcome = submitOrder(order).join();
+        // 5. 在请求线程构建回报（使用分片内生成的订单快照，避免与后续撮合并发读写）
+        return buildResponse(outcome);
+    }
+
+    /**
+     * 校验订单并投递到撮合分片（不等待结果，供批量导入流水线、二进制网关使用）
+     * 校验在调用线程完成，校验失败时返回已完成的拒绝结果
+     */
+    public CompletableFuture<MatchOutcome> submitOrder(Order order) {
+        EngineEventRecorder.record(EngineEvent.ORDER_RECEIVED, order.getClOrderId());
+        metrics.orderReceived();
 
         // 2. 基础校验
-        List<ErrorCodeEnum> validateErrors = orderValidator.validate(order);
-        if (!validateErrors.isEmpty()) {
-            order.setStatus(OrderStatusEnum.REJECTED);
-            log.warn("订单{}基础校验失败：{}", order.getClOrderId(), validateErrors);
-            return buildRejectResponse(order, validateErrors.get(0));
+        ErrorCodeEnum validateError = shardProcessor.acceptOrder(order);
+        if (validateError != null) {
+            return CompletableFuture.completedFuture(new MatchOutcome(order, List.of(), validateError));
         }
-        order.setStatus(OrderStatusEnum.VALID);
 
-        // 3. 对敲风控检查
-        ErrorCodeEnum riskError = selfTradeChecker.check(order);
-        if (riskError != null) {
-            order.setStatus(OrderStatusEnum.RISK_REJECT);
-            log.warn("订单{}风控拦截：{}", order.getClOrderId(), riskError.getMsg());
-            return buildRejectResponse(order, riskError);
+        // 3~4. 风控、撮合在分片线程执行
+        if (riskServiceClient.isAvailable()) {
+            return submitWithRiskService(order);
         }
+        return matchingExecutor.submit(order.getSecurityId(),
+                () -> shardProcessor.matchOrder(order, new ArrayList<>()));
+    }
 
-        // 4. 撮合引擎处理
-        Order matchedOrder = matchingEngine.match(order);
+    /**
+     * 启用Python风控服务时的流程：分片线程取相关挂单快照→风控服务批量检查（不占用分片线程）→分片线程本地风控+撮合
+     * 风控服务在时间预算内未应答或已熔断时，按本地风控结果处理
+     */
+    private CompletableFuture<MatchOutcome> submitWithRiskService(Order order) {
+        String securityId = order.getSecurityId();
+        return matchingExecutor.submit(securityId, () -> new RiskCheckRequest(order.toBuilder().build(),
+                        selfTradeChecker.restingCounterOrders(order)))
+                .thenCompose(riskServiceClient::check)
+                .thenComposeAsync(remoteError -> {
+                    if (remoteError != null) {
+                        order.setStatus(OrderStatusEnum.RISK_REJECT);
+                        metrics.rejected(remoteError);
+                        log.warn("订单{}风控服务拦截：{}", order.getClOrderId(), remoteError.getMsg());
+                        return CompletableFuture.completedFuture(new MatchOutcome(order, List.of(), remoteError));
+                    }
+                    // 本地风控在撮合前再检查一次（取挂单快照之后该股东可能又有新挂单）
+                    return matchingExecutor.submit(securityId,
+                            () -> shardProcessor.matchOrder(order, new ArrayList<>()));
+                }, riskServiceClient.callbackExecutor());
+    }
 
-        // 5. 构建成功回报
-        return buildSuccessResponse(matchedOrder);
+    /**
+     * 根据分片处理结果构建回报JSON（成功：[订单确认回报, 成交回报...]；拒绝：拒绝回报）
+     */
+    String buildResponse(MatchOutcome outcome) {
+        long start = metrics.start();
+        String response = outcome.getRejectCode() != null
+                ? buildRejectResponse(outcome.getOrder(), outcome.getRejectCode())
+                : buildSuccessResponse(outcome.getOrder(), outcome.getTrades());
+        metrics.record(Stage.SERIALIZE, start);
+        return response;
     }
 
     /**
-     * 构建成功回报JSON
+     * 构建成功回报JSON：[订单确认回报, 成交回报...]
      */
-    private String buildSuccessResponse(Order order) {
-        return JsonUtils.toJson(order);
+    private String buildSuccessResponse(Order order, List<Trade> trades) {
+        StringBuilder out = OrderJsonCodec.buffer();
+        out.append('[');
+        OrderJsonCodec.writeOrder(out, order);
+        for (Trade trade : trades) {
+            out.append(',');
+            OrderJsonCodec.writeTrade(out, trade);
+        }
+        return out.append(']').toString();
     }
 
     /**
      * 构建拒绝回报JSON
      */
     private String buildRejectResponse(Order order, ErrorCodeEnum errorCode) {
-        RejectResponse rejectResponse = RejectResponse.builder()
-                .clOrderId(order.getClOrderId())
-                .market(order.getMarket())
-                .securityId(order.getSecurityId())
-                .side(order.getSide().getCode())
-                .qty(order.getQty())
-                .price(order.getPrice())
-                .shareholderId(order.getShareholderId())
-                .rejectCode(errorCode.getCode())
-                .rejectText(errorCode.getMsg())
-                .build();
-        return JsonUtils.toJson(rejectResponse);
+        StringBuilder out = OrderJsonCodec.buffer();
+        OrderJsonCodec.writeOrderReject(out, order, errorCode);
+        return out.toString();
     }
 
     /**
-     * 拒绝回报实体（对应题目JSON结构）
+     * 分片内处理结果（订单快照+本方成交回报，风控拦截时携带错误码）
      */
-    @lombok.Data
-    @lombok.Builder
-    private static class RejectResponse {
-        private String clOrderId;
-        private String market;
-        private String securityId;
-        private String side;
-        private Integer qty;
-        private Double price;
-        private String shareholderId;
-        private Integer rejectCode;
-        private String rejectText;
+    @lombok.Value
+    public static class MatchOutcome {
+        Order order;
+        List<Trade> trades;
+        ErrorCodeEnum rejectCode;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,222 @@
+package com.example.trading.application;
+
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.MarketDataListener;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.risk.SelfTradeChecker;
+import com.example.trading.infrastructure.persistence.Journal;
+import com.example.trading.infrastructure.persistence.OrderStore;
+import com.example.trading.infrastructure.persistence.SnapshotStore;
+import com.example.trading.infrastructure.persistence.TradeStore;
+import com.example.trading.infrastructure.persistence.WriteAheadLog;
+import com.example.trading.util.EngineClock;
+import com.example.trading.util.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 启动恢复服务（流程编排）
+ * 核心逻辑：
+ * 1. 所有单例创建完成后、Web服务开始接收请求前执行，恢复完成前不受理新订单；
+ * 2. 每个撮合分片在自己的线程中并行恢复：加载最新快照中的挂单，再从快照切点回放日志尾部；
+ * 3. 回放委托时重新撮合（成交不再下发回报、不再写日志，但照常通知行情），回放撤单时从订单簿移除，
+ *    回放集合竞价阶段切换时重新进入集合竞价/按同一参考价集中撮合，止损单随回放的成交重新触发；
+ *    对敲风控索引随挂单同步重建（日志中的委托当时已通过风控，不再重复检查）；
+ * 4. 切点之前日志中的成交记录只通知行情，恢复最新价、成交量、成交额（快照只含挂单）；
+ * 5. 恢复完成后输出耗时并启动定时快照。
+ */
+@Slf4j
+@Service
+public class RecoveryService implements SmartInitializingSingleton {
+    private final OrderBook orderBook;
+    private final SelfTradeChecker selfTradeChecker;
+    private final ShardedMatchingExecutor matchingExecutor;
+    private final WriteAheadLog writeAheadLog;
+    private final SnapshotStore snapshotStore;
+    private final StopOrderBook stopOrderBook;
+    private final MarketDataListener marketDataListener;
+    /**
+     * 回放专用撮合引擎：与线上共用订单簿与行情，成交事件丢弃（恢复前的回报已下发过）
+     */
+    private final MatchingEngine replayEngine;
+
+    /**
+     * 回放引擎与线上使用同一撮合算法选择、集合竞价状态、止损单触发索引、行情与撮合时钟，保证重新撮合结果一致
+     */
+    public RecoveryService(OrderBook orderBook, PriceGenerator priceGenerator, SelfTradeChecker selfTradeChecker,
+                           ShardedMatchingExecutor matchingExecutor, WriteAheadLog writeAheadLog,
+                           SnapshotStore snapshotStore, IdGenerator idGenerator,
+                           MatchingPolicySelector policySelector, CallAuction callAuction,
+                           StopOrderBook stopOrderBook, MarketDataListener marketDataListener,
+                           EngineClock clock) {
+        this.orderBook = orderBook;
+        this.selfTradeChecker = selfTradeChecker;
+        this.matchingExecutor = matchingExecutor;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotStore = snapshotStore;
+        this.stopOrderBook = stopOrderBook;
+        this.marketDataListener = marketDataListener;
+        this.replayEngine = new MatchingEngine(orderBook, priceGenerator, trade -> { }, idGenerator,
+                marketDataListener, policySelector, callAuction, stopOrderBook, clock);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (writeAheadLog.isEnabled()) {
+            recover();
+        }
+        snapshotStore.start();
+    }
+
+    /**
+     * 从快照+日志恢复全部分片
+     */
+    public RecoveryStats recover() {
+        long start = System.nanoTime();
+        List<CompletableFuture<RecoveryStats>> futures = new ArrayList<>();
+        for (int i = 0; i < matchingExecutor.getShardCount(); i++) {
+            int shardIndex = i;
+            futures.add(matchingExecutor.submitToShard(shardIndex, () -> recoverShard(shardIndex)));
+        }
+        RecoveryStats total = new RecoveryStats();
+        for (CompletableFuture<RecoveryStats> future : futures) {
+            total.add(future.join());
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("启动恢复完成：快照挂单[{}]笔，回放日志[{}]条（委托{}，撤单{}，成交{}），行情恢复成交[{}]笔，耗时[{}]ms",
+                total.snapshotOrders, total.replayedRecords(), total.replayedOrders,
+                total.replayedCancels, total.journaledExecutions, total.restoredTrades, elapsedMillis);
+        return total;
+    }
+
+    /**
+     * 恢复单个分片（仅在该分片线程中执行）
+     */
+    private RecoveryStats recoverShard(int shardIndex) {
+        RecoveryStats stats = new RecoveryStats();
+        try {
+            long cut = snapshotStore.load(shardIndex, order -> {
+                if (order.getStatus() == OrderStatusEnum.PENDING_TRIGGER) {
+                    stopOrderBook.add(order);
+                } else {
+                    orderBook.addOrder(order);
+                    selfTradeChecker.track(order);
+                }
+                stats.snapshotOrders++;
+            });
+            // 从日志开头扫描（校验本就逐条进行）：切点之前只取成交记录恢复行情，切点起按记录类型回放
+            Journal.replay(writeAheadLog.getDirectory(), WriteAheadLog.journalName(shardIndex), 0L,
+                    (type, sequence, timestamp, payload) -> {
+                        if (sequence < cut) {
+                            if (type == Journal.TYPE_EXECUTION) {
+                                marketDataListener.onTrade(TradeStore.decodeTrade(payload, timestamp));
+                                stats.restoredTrades++;
+                            }
+                            return;
+                        }
+                        switch (type) {
+                            case Journal.TYPE_ORDER -> replayOrder(OrderStore.decodeOrder(payload, timestamp), stats);
+                            case Journal.TYPE_CANCEL -> replayCancel(OrderStore.decodeCancel(payload), stats);
+                            case Journal.TYPE_EXECUTION -> stats.journaledExecutions++;
+                            case Journal.TYPE_AUCTION -> OrderStore.decodeAuction(payload,
+                                    (securityId, phase, referencePrice) -> replayAuction(securityId, phase,
+                                            referencePrice, stats));
+                            default -> log.warn("分片[{}]日志记录{}类型未知：{}", shardIndex, sequence, type);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("分片[" + shardIndex + "]恢复失败", e);
+        }
+        return stats;
+    }
+
+    private void replayOrder(Order order, RecoveryStats stats) {
+        order.setStatus(OrderStatusEnum.VALID);
+        List<Order> triggeredOrders = new ArrayList<>();
+        selfTradeChecker.track(replayEngine.match(order, new ArrayList<>(), triggeredOrders, null));
+        trackTriggered(triggeredOrders);
+        stats.replayedOrders++;
+    }
+
+    private void trackTriggered(List<Order> triggeredOrders) {
+        for (Order triggeredOrder : triggeredOrders) {
+            selfTradeChecker.track(triggeredOrder);
+        }
+    }
+
+    private void replayCancel(CancelRequest cancel, RecoveryStats stats) {
+        Order order = orderBook.findOrder(cancel.getSecurityId(), cancel.getOrigClOrderId());
+        if (order == null) {
+            order = stopOrderBook.findOrder(cancel.getSecurityId(), cancel.getOrigClOrderId());
+            if (order != null) {
+                stopOrderBook.removeOrder(order);
+            }
+        } else {
+            orderBook.removeOrder(order);
+        }
+        if (order == null) {
+            log.warn("回放撤单{}时原订单{}不在订单簿中", cancel.getClOrderId(), cancel.getOrigClOrderId());
+            return;
+        }
+        order.setStatus(OrderStatusEnum.CANCELLED);
+        selfTradeChecker.untrack(order);
+        stats.replayedCancels++;
+    }
+
+    private void replayAuction(String securityId, byte phase, double referencePrice, RecoveryStats stats) {
+        if (phase == OrderStore.AUCTION_BEGIN) {
+            replayEngine.beginAuction(securityId);
+        } else {
+            // 参与集中撮合的挂单已在回放委托时登记到对敲风控索引，成交后按订单状态失效
+            List<Order> triggeredOrders = new ArrayList<>();
+            replayEngine.uncross(securityId, referencePrice, new ArrayList<>(), triggeredOrders);
+            trackTriggered(triggeredOrders);
+        }
+        stats.replayedAuctions++;
+    }
+
+    /**
+     * 恢复统计
+     */
+    @lombok.Data
+    public static class RecoveryStats {
+        private long snapshotOrders;
+        private long replayedOrders;
+        private long replayedCancels;
+        private long replayedAuctions;
+        private long journaledExecutions;
+        /**
+         * 切点之前的成交记录（只用于恢复行情，不计入回放记录数）
+         */
+        private long restoredTrades;
+
+        public long replayedRecords() {
+            return replayedOrders + replayedCancels + replayedAuctions + journaledExecutions;
+        }
+
+        private void add(RecoveryStats other) {
+            snapshotOrders += other.snapshotOrders;
+            replayedOrders += other.replayedOrders;
+            replayedCancels += other.replayedCancels;
+            replayedAuctions += other.replayedAuctions;
+            journaledExecutions += other.journaledExecutions;
+            restoredTrades += other.restoredTrades;
+        }
+    }
+}
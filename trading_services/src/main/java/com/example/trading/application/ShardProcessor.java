@@ -0,0 +1,226 @@
+package com.example.trading.application;
+
+import com.example.trading.application.CancelService.CancelOutcome;
+import com.example.trading.application.ExchangeService.MatchOutcome;
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.model.AuctionResult;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.domain.risk.SelfTradeChecker;
+import com.example.trading.domain.validation.CancelValidator;
+import com.example.trading.domain.validation.OrderValidator;
+import com.example.trading.infrastructure.metrics.HotPathMetrics;
+import com.example.trading.infrastructure.metrics.HotPathMetrics.Stage;
+import com.example.trading.infrastructure.persistence.OrderStore;
+import com.example.trading.infrastructure.persistence.TradeStore;
+import com.example.trading.util.EngineClock;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 委托、撤单、集合竞价的处理步骤（ExchangeService、CancelService、CallAuctionService与确定性回放共用）
+ * 核心逻辑：
+ * 1. acceptOrder/validateCancel在调用线程做基础校验，其余方法只在股票所属撮合分片线程（回放时为回放线程）中执行；
+ * 2. 委托：重复编号检查→对敲风控→写预写日志→撮合→成交写入日志→剩余挂单与被触发止损单登记到对敲风控索引；
+ * 3. 撤单：订单索引定位原订单（订单簿中没有时查待触发止损单，都没有时区分已完全成交与不存在）→核对方向/市场/股东→移除→写预写日志；
+ * 4. 集合竞价：阶段切换先写预写日志再执行，集中撮合的成交随后写入同一分片日志；
+ * 5. 时间统一取EngineClock，回放链路传入逻辑时钟与关闭的预写日志，处理顺序与线上完全一致。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ShardProcessor {
+    private final OrderValidator orderValidator;
+    private final CancelValidator cancelValidator;
+    private final SelfTradeChecker selfTradeChecker;
+    private final MatchingEngine matchingEngine;
+    private final OrderBook orderBook;
+    private final StopOrderBook stopOrderBook;
+    private final CallAuction callAuction;
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+    private final HotPathMetrics metrics;
+    private final EngineClock clock;
+
+    /**
+     * 受理委托并做基础校验（调用线程执行）
+     * @return 校验失败时返回第一个错误码（订单状态置为REJECTED），通过时返回null（状态置为VALID）
+     */
+    public ErrorCodeEnum acceptOrder(Order order) {
+        order.setTimestamp(clock.currentTimeMillis());
+        order.setStatus(OrderStatusEnum.NEW);
+        order.setCumQty(0);
+
+        long start = metrics.start();
+        List<ErrorCodeEnum> validateErrors = orderValidator.validate(order);
+        metrics.record(Stage.VALIDATE, start);
+        if (!validateErrors.isEmpty()) {
+            order.setStatus(OrderStatusEnum.REJECTED);
+            metrics.rejected(validateErrors.get(0));
+            log.warn("订单{}基础校验失败：{}", order.getClOrderId(), validateErrors);
+            return validateErrors.get(0);
+        }
+        order.setStatus(OrderStatusEnum.VALID);
+        return null;
+    }
+
+    /**
+     * 对敲风控+撮合（仅在股票所属撮合分片线程中执行）
+     * 通过风控的委托先写预写日志再撮合，成交随后写入同一分片日志
+     * @param triggeredOrders 输出：本次成交触发的止损单
+     */
+    public MatchOutcome matchOrder(Order order, List<Order> triggeredOrders) {
+        // 3. 订单编号与未完成订单（挂单或待触发止损单）重复时在撮合前拒绝，否则撮合后无法挂单，撤单也无法区分
+        if (orderBook.findOrder(order.getSecurityId(), order.getClOrderId()) != null
+                || stopOrderBook.findOrder(order.getSecurityId(), order.getClOrderId()) != null) {
+            order.setStatus(OrderStatusEnum.REJECTED);
+            metrics.rejected(ErrorCodeEnum.DUPLICATE_ORDER);
+            log.warn("订单{}编号重复：与未完成订单冲突", order.getClOrderId());
+            return new MatchOutcome(order, List.of(), ErrorCodeEnum.DUPLICATE_ORDER);
+        }
+
+        // 3. 对敲风控检查
+        long start = metrics.start();
+        ErrorCodeEnum riskError = selfTradeChecker.check(order);
+        metrics.record(Stage.SELF_TRADE_CHECK, start);
+        if (riskError != null) {
+            order.setStatus(OrderStatusEnum.RISK_REJECT);
+            metrics.rejected(riskError);
+            log.warn("订单{}风控拦截：{}", order.getClOrderId(), riskError.getMsg());
+            return new MatchOutcome(order, List.of(), riskError);
+        }
+
+        // 4. 写预写日志后撮合（成交事件同时异步下发给下游消费者）
+        orderStore.appendOrder(order);
+        List<Trade> trades = new ArrayList<>();
+        List<Trade> triggeredTrades = new ArrayList<>();
+        start = metrics.start();
+        Order matchedOrder = matchingEngine.match(order, trades, triggeredOrders, triggeredTrades);
+        metrics.record(Stage.MATCH, start);
+        metrics.fills(trades.size() + triggeredTrades.size());
+        if (matchedOrder.getStatus() == OrderStatusEnum.REJECTED) {
+            metrics.rejected(ErrorCodeEnum.MATCH_FAILED);
+        }
+        for (Trade trade : trades) {
+            tradeStore.appendTrade(trade);
+        }
+        // 被触发止损单的成交回报已由撮合引擎下发，此处只写入成交历史
+        for (Trade trade : triggeredTrades) {
+            tradeStore.appendTrade(trade);
+        }
+        // 5. 剩余挂单（含被触发后挂单的止损限价单）登记到对敲风控索引
+        selfTradeChecker.track(matchedOrder);
+        for (Order triggeredOrder : triggeredOrders) {
+            selfTradeChecker.track(triggeredOrder);
+        }
+        return new MatchOutcome(matchedOrder.toBuilder().build(), trades, null);
+    }
+
+    /**
+     * 撤单基础校验（调用线程执行）
+     * @return 校验失败时返回第一个错误码，通过时返回null
+     */
+    public ErrorCodeEnum validateCancel(CancelRequest cancel) {
+        List<ErrorCodeEnum> validateErrors = cancelValidator.validate(cancel);
+        if (!validateErrors.isEmpty()) {
+            log.warn("撤单{}基础校验失败：{}", cancel.getClOrderId(), validateErrors);
+            return validateErrors.get(0);
+        }
+        return null;
+    }
+
+    /**
+     * 定位原订单并从订单簿（或止损单触发索引）移除（仅在股票所属撮合分片线程中执行）
+     */
+    public CancelOutcome cancelOrder(CancelRequest cancel) {
+        // 3. 通过订单索引O(1)定位原订单，订单簿中没有时再查待触发止损单
+        Order order = orderBook.findOrder(cancel.getSecurityId(), cancel.getOrigClOrderId());
+        boolean pendingStop = false;
+        if (order == null) {
+            order = stopOrderBook.findOrder(cancel.getSecurityId(), cancel.getOrigClOrderId());
+            pendingStop = order != null;
+        }
+        if (order == null && matchingEngine.isFullyFilled(cancel.getSecurityId(), cancel.getOrigClOrderId())) {
+            log.warn("撤单{}失败：原订单{}已完全成交", cancel.getClOrderId(), cancel.getOrigClOrderId());
+            return CancelOutcome.rejected(cancel, ErrorCodeEnum.CANCEL_ORDER_FILLED);
+        }
+        if (order == null || order.getSide() != cancel.getSide() || !order.getMarket().equals(cancel.getMarket())) {
+            log.warn("撤单{}失败：原订单{}不存在或已完成", cancel.getClOrderId(), cancel.getOrigClOrderId());
+            return CancelOutcome.rejected(cancel, ErrorCodeEnum.CANCEL_ORDER_NOT_FOUND);
+        }
+        if (!order.getShareholderId().equals(cancel.getShareholderId())) {
+            log.warn("撤单{}失败：股东号{}无权撤销原订单{}",
+                    cancel.getClOrderId(), cancel.getShareholderId(), cancel.getOrigClOrderId());
+            return CancelOutcome.rejected(cancel, ErrorCodeEnum.CANCEL_NO_PERMISSION);
+        }
+
+        // 4. 从订单簿移除，剩余未成交数量即撤销数量
+        if (pendingStop) {
+            stopOrderBook.removeOrder(order);
+        } else {
+            orderBook.removeOrder(order);
+        }
+        order.setStatus(OrderStatusEnum.CANCELLED);
+        selfTradeChecker.untrack(order);
+        int canceledQty = order.getQty();
+        orderStore.appendCancel(cancel, clock.currentTimeMillis());
+        EngineEventRecorder.record(EngineEvent.CANCEL_DONE, cancel.getClOrderId(), order.getClOrderId(),
+                order.getCumQty(), canceledQty);
+
+        return new CancelOutcome(cancel, order.toBuilder().build(), canceledQty, null);
+    }
+
+    /**
+     * 股票进入集合竞价阶段（仅在股票所属撮合分片线程中执行）
+     * @return 已处于集合竞价阶段时返回false
+     */
+    public boolean beginAuction(String securityId) {
+        if (callAuction.isCollecting(securityId)) {
+            return false;
+        }
+        orderStore.appendAuction(securityId, OrderStore.AUCTION_BEGIN, 0D, clock.currentTimeMillis());
+        return matchingEngine.beginAuction(securityId);
+    }
+
+    /**
+     * 集中撮合并回到连续竞价（仅在股票所属撮合分片线程中执行）
+     * @param triggeredOrders 输出：参考价触发的止损单
+     * @return 未处于集合竞价阶段时返回null
+     */
+    public AuctionResult uncross(String securityId, double referencePrice, List<Order> triggeredOrders) {
+        if (!callAuction.isCollecting(securityId)) {
+            return null;
+        }
+        orderStore.appendAuction(securityId, OrderStore.AUCTION_UNCROSS, referencePrice, clock.currentTimeMillis());
+        List<Trade> trades = new ArrayList<>();
+        AuctionResult result = matchingEngine.uncross(securityId, referencePrice, trades, triggeredOrders);
+        for (Trade trade : trades) {
+            tradeStore.appendTrade(trade);
+        }
+        // 参考价触发的止损限价单可能挂单，登记到对敲风控索引
+        for (Order triggeredOrder : triggeredOrders) {
+            selfTradeChecker.track(triggeredOrder);
+        }
+        return result;
+    }
+
+    /**
+     * 查询集合竞价虚拟参考价（不成交，仅在股票所属撮合分片线程中执行）
+     * @return 未处于集合竞价阶段时返回null
+     */
+    public AuctionResult indicative(String securityId, double referencePrice) {
+        return matchingEngine.indicativeAuction(securityId, referencePrice);
+    }
+}
@@ -1,4 +1,20 @@
 package com.example.trading.common;
 
+import java.util.regex.Pattern;
+
 public class Constants {
+    /**
+     * 编号字段最大长度（字符数），取自protocol/order.schema.json的maxLength
+     * 二进制网关定长字段、历史成交列宽与预写日志记录都按此长度容纳，超长字段在基础校验阶段拒绝
+     */
+    public static final int MAX_CL_ORDER_ID_LENGTH = 16;
+    public static final int MAX_SHAREHOLDER_ID_LENGTH = 10;
+    public static final int MAX_SECURITY_ID_LENGTH = 6;
+    /**
+     * 股票代码直接作为历史成交分区内的文件名，只接受字母数字，防止路径穿越
+     */
+    public static final Pattern SECURITY_ID_PATTERN = Pattern.compile("[0-9A-Za-z]{1," + MAX_SECURITY_ID_LENGTH + "}");
+
+    private Constants() {
+    }
 }
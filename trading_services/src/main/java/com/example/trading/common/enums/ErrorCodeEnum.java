@@ -12,11 +12,20 @@ public enum ErrorCodeEnum {
     MARKET_INVALID(1002, "交易市场不合法（仅支持XSHG/XSHE/BJSE）"),
     SIDE_INVALID(1003, "买卖方向不合法（仅支持B/S）"),
     QTY_INVALID(1004, "订单数量必须大于0"),
-    PRICE_INVALID(1005, "订单价格必须大于等于0"),
+    PRICE_INVALID(1005, "订单价格必须大于等于0且为0.01元的整数倍"),
+    ORDER_TYPE_INVALID(1006, "订单类型与价格不匹配（市价单不填价格）"),
+    STOP_PRICE_INVALID(1007, "止损单触发价不合法"),
+    FIELD_TOO_LONG(1008, "编号字段超长"),
+    SECURITY_ID_INVALID(1009, "股票代码不合法（仅支持字母数字）"),
     // 风控错误
     SELF_TRADE(2001, "同一股东号存在对敲交易"),
     // 撮合错误
-    MATCH_FAILED(3001, "撮合失败");
+    MATCH_FAILED(3001, "撮合失败"),
+    DUPLICATE_ORDER(3002, "订单编号与未完成订单重复"),
+    // 撤单错误
+    CANCEL_ORDER_NOT_FOUND(4001, "原订单不存在"),
+    CANCEL_ORDER_FILLED(4002, "订单已完全成交"),
+    CANCEL_NO_PERMISSION(4003, "无权限撤单");
 
     private final int code;
     private final String msg;
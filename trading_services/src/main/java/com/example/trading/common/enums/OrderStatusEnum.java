@@ -9,6 +9,7 @@ import lombok.Getter;
 public enum OrderStatusEnum {
     NEW("NEW", "新建订单"),
     VALID("VALID", "校验通过"),
+    PENDING_TRIGGER("PENDING_TRIGGER", "止损待触发"),
     RISK_REJECT("RISK_REJECT", "风控拦截"),
     MATCHING("MATCHING", "撮合中"),
     PART_FILLED("PART_FILLED", "部分成交"),
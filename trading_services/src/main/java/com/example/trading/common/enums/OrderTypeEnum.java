@@ -0,0 +1,46 @@
+package com.example.trading.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 订单类型枚举（未指定时按限价单处理）
+ */
+@Getter
+public enum OrderTypeEnum {
+    LIMIT("LIMIT", "限价", true, false),
+    MARKET("MARKET", "市价", false, false),
+    STOP("STOP", "止损市价", false, true),
+    STOP_LIMIT("STOP_LIMIT", "止损限价", true, true);
+
+    private final String code;
+    private final String desc;
+    /**
+     * 是否带限价（市价、止损市价不带价格）
+     */
+    private final boolean priced;
+    /**
+     * 是否为止损单（成交价触及触发价后才进入撮合）
+     */
+    private final boolean stop;
+
+    OrderTypeEnum(String code, String desc, boolean priced, boolean stop) {
+        this.code = code;
+        this.desc = desc;
+        this.priced = priced;
+        this.stop = stop;
+    }
+
+    /**
+     * 未指定订单类型（兼容原有委托）按限价单处理
+     */
+    public static OrderTypeEnum orLimit(OrderTypeEnum type) {
+        return type == null ? LIMIT : type;
+    }
+
+    /**
+     * 止损单触发后的订单类型（止损市价→市价，止损限价→限价）
+     */
+    public OrderTypeEnum triggered() {
+        return this == STOP ? MARKET : this == STOP_LIMIT ? LIMIT : this;
+    }
+}
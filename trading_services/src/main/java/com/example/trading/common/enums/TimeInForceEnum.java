@@ -0,0 +1,28 @@
+package com.example.trading.common.enums;
+
+import lombok.Getter;
+
+/**
+ * 订单有效期枚举（未指定时按当日有效处理）
+ */
+@Getter
+public enum TimeInForceEnum {
+    DAY("DAY", "当日有效"),
+    IOC("IOC", "即时成交剩余撤销"),
+    FOK("FOK", "全额成交或撤销");
+
+    private final String code;
+    private final String desc;
+
+    TimeInForceEnum(String code, String desc) {
+        this.code = code;
+        this.desc = desc;
+    }
+
+    /**
+     * 未指定有效期（兼容原有委托）按当日有效处理
+     */
+    public static TimeInForceEnum orDay(TimeInForceEnum timeInForce) {
+        return timeInForce == null ? DAY : timeInForce;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 成交分析配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.analysis")
+public class AnalysisConfig {
+
+    // 对应yml中的enable属性：是否消费成交回报维护K线与成交统计
+    private boolean enable = true;
+    // 对应yml中的bar-periods属性：K线周期（如1s,1m,5m）
+    private List<Duration> barPeriods = List.of(Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(5));
+    // 对应yml中的bar-history属性：每个股票每个周期在内存中保留的已收盘K线根数
+    private int barHistory = 64;
+    // 对应yml中的flush-block-size属性：已收盘K线攒满多少根写一个列式块
+    private int flushBlockSize = 4096;
+    // 对应yml中的flush-interval-millis属性：未攒满时最长多久写一次列式块（毫秒）
+    private long flushIntervalMillis = 1000;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public List<Duration> getBarPeriods() {
+        return barPeriods;
+    }
+
+    public void setBarPeriods(List<Duration> barPeriods) {
+        this.barPeriods = barPeriods;
+    }
+
+    public int getBarHistory() {
+        return barHistory;
+    }
+
+    public void setBarHistory(int barHistory) {
+        this.barHistory = barHistory;
+    }
+
+    public int getFlushBlockSize() {
+        return flushBlockSize;
+    }
+
+    public void setFlushBlockSize(int flushBlockSize) {
+        this.flushBlockSize = flushBlockSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+}
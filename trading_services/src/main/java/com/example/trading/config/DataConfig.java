@@ -0,0 +1,54 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据存储目录配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.data")
+public class DataConfig {
+
+    // 对应yml中的input-path属性：批量输入文件目录
+    private String inputPath = "./data/input/";
+    // 对应yml中的output-path属性：回报/分析结果输出目录
+    private String outputPath = "./data/output/";
+    // 对应yml中的history-path属性：历史数据（编号序列/日志/快照）目录
+    private String historyPath = "./data/history/";
+    // 对应yml中的ingest-window属性：批量导入时已投递撮合、尚未写出回报的最大记录数（限制内存）
+    private int ingestWindow = 8192;
+
+    public String getInputPath() {
+        return inputPath;
+    }
+
+    public void setInputPath(String inputPath) {
+        this.inputPath = inputPath;
+    }
+
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    public void setOutputPath(String outputPath) {
+        this.outputPath = outputPath;
+    }
+
+    public String getHistoryPath() {
+        return historyPath;
+    }
+
+    public void setHistoryPath(String historyPath) {
+        this.historyPath = historyPath;
+    }
+
+    public int getIngestWindow() {
+        return ingestWindow;
+    }
+
+    public void setIngestWindow(int ingestWindow) {
+        this.ingestWindow = ingestWindow;
+    }
+}
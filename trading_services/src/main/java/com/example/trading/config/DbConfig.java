@@ -0,0 +1,104 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据库异步落库配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.data.db")
+public class DbConfig {
+
+    // 对应yml中的enable属性：是否把委托状态与成交异步写入数据库
+    private boolean enable = false;
+    // 对应yml中的url属性：JDBC连接串
+    private String url = "jdbc:mysql://localhost:3306/trading";
+    // 对应yml中的username属性：数据库用户名
+    private String username = "root";
+    // 对应yml中的password属性：数据库密码
+    private String password = "";
+    // 对应yml中的pool-size属性：连接池大小
+    private int poolSize = 2;
+    // 对应yml中的batch-size属性：单批（单事务）最多写入的事件数
+    private int batchSize = 500;
+    // 对应yml中的linger-millis属性：未攒满一批时最长等待多久再写（毫秒）
+    private long lingerMillis = 20;
+    // 对应yml中的queue-capacity属性：待落库事件队列容量（2的幂），满时生产方等待
+    private int queueCapacity = 65536;
+    // 对应yml中的init-schema属性：启动时是否自动建表（CREATE TABLE IF NOT EXISTS）
+    private boolean initSchema = true;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public void setLingerMillis(long lingerMillis) {
+        this.lingerMillis = lingerMillis;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public boolean isInitSchema() {
+        return initSchema;
+    }
+
+    public void setInitSchema(boolean initSchema) {
+        this.initSchema = initSchema;
+    }
+}
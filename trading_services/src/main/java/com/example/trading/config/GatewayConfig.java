@@ -0,0 +1,64 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 二进制TCP网关配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.gateway")
+public class GatewayConfig {
+
+    // 对应yml中的enable属性：是否启动二进制TCP网关（与REST接口并存）
+    private boolean enable = false;
+    // 对应yml中的port属性：监听端口（0表示随机端口）
+    private int port = 9101;
+    // 对应yml中的read-buffer-size属性：每个连接的入站直接内存缓冲区大小（字节）
+    private int readBufferSize = 65536;
+    // 对应yml中的write-buffer-size属性：每个连接的出站直接内存缓冲区大小（字节）
+    private int writeBufferSize = 65536;
+    // 对应yml中的max-in-flight属性：每个连接已投递但回报尚未编码写出的请求上限，达到上限时暂停读取该连接
+    private int maxInFlight = 1024;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getReadBufferSize() {
+        return readBufferSize;
+    }
+
+    public void setReadBufferSize(int readBufferSize) {
+        this.readBufferSize = readBufferSize;
+    }
+
+    public int getWriteBufferSize() {
+        return writeBufferSize;
+    }
+
+    public void setWriteBufferSize(int writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+}
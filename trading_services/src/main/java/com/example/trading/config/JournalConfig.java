@@ -0,0 +1,54 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 预写日志配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.data.journal")
+public class JournalConfig {
+
+    // 对应yml中的enable属性：是否记录预写日志
+    private boolean enable = true;
+    // 对应yml中的segment-size属性：单个日志段文件大小（字节）
+    private int segmentSize = 64 * 1024 * 1024;
+    // 对应yml中的fsync-batch-size属性：每累计多少条记录刷一次盘，<=0表示只按时间刷盘
+    private int fsyncBatchSize = 256;
+    // 对应yml中的fsync-interval-micros属性：后台刷盘间隔（微秒），<=0表示只按条数刷盘
+    private long fsyncIntervalMicros = 1000;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getFsyncBatchSize() {
+        return fsyncBatchSize;
+    }
+
+    public void setFsyncBatchSize(int fsyncBatchSize) {
+        this.fsyncBatchSize = fsyncBatchSize;
+    }
+
+    public long getFsyncIntervalMicros() {
+        return fsyncIntervalMicros;
+    }
+
+    public void setFsyncIntervalMicros(long fsyncIntervalMicros) {
+        this.fsyncIntervalMicros = fsyncIntervalMicros;
+    }
+}
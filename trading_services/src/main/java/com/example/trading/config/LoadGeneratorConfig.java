@@ -0,0 +1,204 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 压测流量生成配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.load-generator")
+public class LoadGeneratorConfig {
+
+    // 对应yml中的enable属性：是否开放压测（IN_PROCESS方式的模拟委托直接进入本实例的订单簿、预写日志与成交历史，仅在压测环境开启）
+    private boolean enable = false;
+    // 对应yml中的mode属性：发送方式（IN_PROCESS：进程内直接调用 / HTTP：REST接口 / TCP：二进制网关）
+    private String mode = "IN_PROCESS";
+    // 对应yml中的url属性：HTTP方式的服务地址（含context-path）
+    private String url = "http://localhost:8081/trading";
+    // 对应yml中的host属性：TCP方式的网关地址
+    private String host = "localhost";
+    // 对应yml中的port属性：TCP方式的网关端口
+    private int port = 9101;
+    // 对应yml中的threads属性：发送线程数（股票按线程划分，每个线程独立的委托流）
+    private int threads = 4;
+    // 对应yml中的target-rate属性：目标总发送速率（委托+撤单，笔/秒），各线程均分
+    private double targetRate = 20000;
+    // 对应yml中的duration-seconds属性：统计时长（秒，不含预热）
+    private int durationSeconds = 30;
+    // 对应yml中的warmup-seconds属性：预热时长（秒），预热期间的应答不计入统计
+    private int warmupSeconds = 5;
+    // 对应yml中的symbols属性：股票数
+    private int symbols = 100;
+    // 对应yml中的shareholders属性：股东数
+    private int shareholders = 1000;
+    // 对应yml中的base-price属性：各股票的初始（均值回复中心）价格
+    private double basePrice = 10.00;
+    // 对应yml中的mean-reversion属性：每个事件中间价向中心回复的比例（0~1）
+    private double meanReversion = 0.02;
+    // 对应yml中的volatility-ticks属性：每个事件中间价随机扰动的标准差（tick）
+    private double volatilityTicks = 1.5;
+    // 对应yml中的cancel-ratio属性：撤单占全部事件的比例（0~1）
+    private double cancelRatio = 0.2;
+    // 对应yml中的crossing-rate属性：委托中越过中间价、可立即成交的比例（0~1）
+    private double crossingRate = 0.3;
+    // 对应yml中的max-in-flight属性：每个线程已发送未应答的最大请求数，达到时等待（计划发送时刻不变）
+    private int maxInFlight = 1024;
+    // 对应yml中的drain-timeout-seconds属性：发送结束后等待在途应答的最长时间（秒），超时未应答计为失败
+    private int drainTimeoutSeconds = 10;
+    // 对应yml中的seed属性：随机种子（相同种子、线程数生成相同的委托流）
+    private long seed = 42;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public void setTargetRate(double targetRate) {
+        this.targetRate = targetRate;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public void setWarmupSeconds(int warmupSeconds) {
+        this.warmupSeconds = warmupSeconds;
+    }
+
+    public int getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(int symbols) {
+        this.symbols = symbols;
+    }
+
+    public int getShareholders() {
+        return shareholders;
+    }
+
+    public void setShareholders(int shareholders) {
+        this.shareholders = shareholders;
+    }
+
+    public double getBasePrice() {
+        return basePrice;
+    }
+
+    public void setBasePrice(double basePrice) {
+        this.basePrice = basePrice;
+    }
+
+    public double getMeanReversion() {
+        return meanReversion;
+    }
+
+    public void setMeanReversion(double meanReversion) {
+        this.meanReversion = meanReversion;
+    }
+
+    public double getVolatilityTicks() {
+        return volatilityTicks;
+    }
+
+    public void setVolatilityTicks(double volatilityTicks) {
+        this.volatilityTicks = volatilityTicks;
+    }
+
+    public double getCancelRatio() {
+        return cancelRatio;
+    }
+
+    public void setCancelRatio(double cancelRatio) {
+        this.cancelRatio = cancelRatio;
+    }
+
+    public double getCrossingRate() {
+        return crossingRate;
+    }
+
+    public void setCrossingRate(double crossingRate) {
+        this.crossingRate = crossingRate;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getDrainTimeoutSeconds() {
+        return drainTimeoutSeconds;
+    }
+
+    public void setDrainTimeoutSeconds(int drainTimeoutSeconds) {
+        this.drainTimeoutSeconds = drainTimeoutSeconds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -1,4 +1,74 @@
 package com.example.trading.config;
 
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 实时行情配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.market")
 public class MarketConfig {
+
+    // 对应yml中的enable属性：是否维护并发布实时行情
+    private boolean enable = true;
+    // 对应yml中的depth-levels属性：行情快照中每个方向的档位数
+    private int depthLevels = 5;
+    // 对应yml中的publish-interval-millis属性：合并发布行情快照的间隔（毫秒）
+    private long publishIntervalMillis = 100;
+    // 对应yml中的stream-sender-threads属性：行情推送（SSE）发送线程数
+    private int streamSenderThreads = 4;
+    // 对应yml中的stream-max-subscribers属性：行情推送最大订阅数
+    private int streamMaxSubscribers = 10000;
+    // 对应yml中的stream-timeout-millis属性：行情推送连接超时（毫秒），0表示不超时
+    private long streamTimeoutMillis = 0;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public int getDepthLevels() {
+        return depthLevels;
+    }
+
+    public void setDepthLevels(int depthLevels) {
+        this.depthLevels = depthLevels;
+    }
+
+    public long getPublishIntervalMillis() {
+        return publishIntervalMillis;
+    }
+
+    public void setPublishIntervalMillis(long publishIntervalMillis) {
+        this.publishIntervalMillis = publishIntervalMillis;
+    }
+
+    public int getStreamSenderThreads() {
+        return streamSenderThreads;
+    }
+
+    public void setStreamSenderThreads(int streamSenderThreads) {
+        this.streamSenderThreads = streamSenderThreads;
+    }
+
+    public int getStreamMaxSubscribers() {
+        return streamMaxSubscribers;
+    }
+
+    public void setStreamMaxSubscribers(int streamMaxSubscribers) {
+        this.streamMaxSubscribers = streamMaxSubscribers;
+    }
+
+    public long getStreamTimeoutMillis() {
+        return streamTimeoutMillis;
+    }
+
+    public void setStreamTimeoutMillis(long streamTimeoutMillis) {
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
 }
@@ -0,0 +1,87 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 撮合配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.matching")
+public class MatchingConfig {
+
+    // 对应yml中的order-book属性：订单簿实现（SKIP_LIST / TICK_LADDER）
+    private String orderBook = "SKIP_LIST";
+    // 对应yml中的shard-count属性：撮合分片（线程）数，<=0时取CPU核数
+    private int shardCount;
+    // 对应yml中的ring-buffer-size属性：每个分片的环形队列容量（自动向上取2的幂）
+    private int ringBufferSize = 4096;
+    // 对应yml中的price-strategy属性：成交价生成策略（MID_PRICE / BUY_PRICE / SELL_PRICE）
+    private String priceStrategy = "MID_PRICE";
+    // 对应yml中的policy属性：默认撮合算法（FIFO / PRO_RATA / TOP_ORDER_PRO_RATA）
+    private String policy = "FIFO";
+    // 对应yml中的policy-overrides属性：按股票代码单独指定的撮合算法
+    private Map<String, String> policyOverrides = new HashMap<>();
+    // 对应yml中的pro-rata-min-qty属性：按比例分配时单笔最小分配数量
+    private int proRataMinQty = 1;
+
+    public String getOrderBook() {
+        return orderBook;
+    }
+
+    public void setOrderBook(String orderBook) {
+        this.orderBook = orderBook;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    public int getRingBufferSize() {
+        return ringBufferSize;
+    }
+
+    public void setRingBufferSize(int ringBufferSize) {
+        this.ringBufferSize = ringBufferSize;
+    }
+
+    public String getPriceStrategy() {
+        return priceStrategy;
+    }
+
+    public void setPriceStrategy(String priceStrategy) {
+        this.priceStrategy = priceStrategy;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    public Map<String, String> getPolicyOverrides() {
+        return policyOverrides;
+    }
+
+    public void setPolicyOverrides(Map<String, String> policyOverrides) {
+        this.policyOverrides = policyOverrides;
+    }
+
+    public int getProRataMinQty() {
+        return proRataMinQty;
+    }
+
+    public void setProRataMinQty(int proRataMinQty) {
+        this.proRataMinQty = proRataMinQty;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 热路径监控指标配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.metrics")
+public class MetricsConfig {
+
+    // 对应yml中的enable属性：是否记录下单各阶段耗时与订单/成交/拒绝计数
+    private boolean enable = true;
+    // 对应yml中的percentiles属性：各阶段耗时发布的分位数
+    private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.99, 0.999));
+    // 对应yml中的histogram-expiry属性：分位数/最大值统计的窗口长度
+    private Duration histogramExpiry = Duration.ofMinutes(1);
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public List<Double> getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(List<Double> percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public Duration getHistogramExpiry() {
+        return histogramExpiry;
+    }
+
+    public void setHistogramExpiry(Duration histogramExpiry) {
+        this.histogramExpiry = histogramExpiry;
+    }
+}
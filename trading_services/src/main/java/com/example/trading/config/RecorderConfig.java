@@ -0,0 +1,44 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 撮合事件记录器配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.recorder")
+public class RecorderConfig {
+
+    // 对应yml中的enable属性：是否记录撮合热路径事件（关闭时热路径不输出逐单明细）
+    private boolean enable = false;
+    // 对应yml中的ring-size属性：每个线程的事件缓冲区记录数（2的幂），写满后新事件丢弃并计数
+    private int ringSize = 4096;
+    // 对应yml中的drain-interval-millis属性：后台输出线程取事件的间隔（毫秒）
+    private long drainIntervalMillis = 1;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public int getRingSize() {
+        return ringSize;
+    }
+
+    public void setRingSize(int ringSize) {
+        this.ringSize = ringSize;
+    }
+
+    public long getDrainIntervalMillis() {
+        return drainIntervalMillis;
+    }
+
+    public void setDrainIntervalMillis(long drainIntervalMillis) {
+        this.drainIntervalMillis = drainIntervalMillis;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 成交回报管道配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.report")
+public class ReportConfig {
+
+    // 对应yml中的queue-capacity属性：撮合线程→回报线程的环形队列容量
+    private int queueCapacity = 65536;
+    // 对应yml中的max-batch-size属性：单批最多聚合的成交回报条数
+    private int maxBatchSize = 512;
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+}
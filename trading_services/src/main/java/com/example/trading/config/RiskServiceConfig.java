@@ -0,0 +1,104 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Python风控服务客户端配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.risk.python-service")
+public class RiskServiceConfig {
+
+    // 对应yml中的enable属性：是否在本地对敲风控之后调用Python风控服务（关闭时仅使用本地风控）
+    private boolean enable = false;
+    // 对应yml中的url属性：风控服务基础地址
+    private String url = "http://localhost:9002";
+    // 对应yml中的timeout属性：单次批量HTTP请求超时（毫秒）
+    private long timeout = 200;
+    // 对应yml中的time-budget-micros属性：单笔订单等待风控服务应答的时间预算（微秒），超时按本地风控结果放行
+    private long timeBudgetMicros = 2000;
+    // 对应yml中的max-batch-size属性：单个批量请求最多合并的检查数
+    private int maxBatchSize = 256;
+    // 对应yml中的max-in-flight属性：同时在途的批量请求数（keep-alive连接池并发上限）
+    private int maxInFlight = 4;
+    // 对应yml中的queue-capacity属性：待发送检查队列容量，队列满时直接按本地风控结果放行
+    private int queueCapacity = 65536;
+    // 对应yml中的failure-threshold属性：连续失败（异常/非200/超出时间预算）多少次后熔断
+    private int failureThreshold = 5;
+    // 对应yml中的open-millis属性：熔断持续时间（毫秒），到期后放行一笔探测请求
+    private long openMillis = 5000;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getTimeBudgetMicros() {
+        return timeBudgetMicros;
+    }
+
+    public void setTimeBudgetMicros(long timeBudgetMicros) {
+        this.timeBudgetMicros = timeBudgetMicros;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public void setOpenMillis(long openMillis) {
+        this.openMillis = openMillis;
+    }
+}
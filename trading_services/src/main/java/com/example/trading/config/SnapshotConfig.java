@@ -0,0 +1,44 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 订单簿快照配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.data.snapshot")
+public class SnapshotConfig {
+
+    // 对应yml中的enable属性：是否定期生成快照（需同时开启预写日志）
+    private boolean enable = true;
+    // 对应yml中的interval-seconds属性：快照间隔（秒）
+    private long intervalSeconds = 300;
+    // 对应yml中的retain-count属性：每个分片保留的快照数
+    private int retainCount = 2;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(long intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public int getRetainCount() {
+        return retainCount;
+    }
+
+    public void setRetainCount(int retainCount) {
+        this.retainCount = retainCount;
+    }
+}
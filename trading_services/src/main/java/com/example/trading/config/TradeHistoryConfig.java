@@ -0,0 +1,54 @@
+package com.example.trading.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 历史成交存储配置属性绑定类
+ * prefix指定配置的前缀，要和yml中的层级对应
+ */
+@Component
+@ConfigurationProperties(prefix = "trading.data.trade-history")
+public class TradeHistoryConfig {
+
+    // 对应yml中的enable属性：是否按日期/股票分区写入列式历史成交
+    private boolean enable = true;
+    // 对应yml中的block-size属性：单个列式块最多容纳的成交条数（每块一条稀疏时间索引）
+    private int blockSize = 4096;
+    // 对应yml中的flush-interval-millis属性：缓冲的成交写盘间隔（毫秒），查询最多滞后一个间隔
+    private long flushIntervalMillis = 1000;
+    // 对应yml中的shareholder-buckets属性：每日股东索引按股东号哈希分成的文件数
+    private int shareholderBuckets = 16;
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public void setEnable(boolean enable) {
+        this.enable = enable;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public int getShareholderBuckets() {
+        return shareholderBuckets;
+    }
+
+    public void setShareholderBuckets(int shareholderBuckets) {
+        this.shareholderBuckets = shareholderBuckets;
+    }
+}
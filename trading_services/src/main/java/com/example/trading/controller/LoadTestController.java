@@ -0,0 +1,32 @@
+package com.example.trading.controller;
+
+import com.example.trading.loadgen.LoadGenerator;
+import com.example.trading.util.JsonUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 压测控制器（接口层）
+ * 仅在trading.load-generator.enable=true时注册：IN_PROCESS方式的模拟委托会写入本实例的订单簿、预写日志与成交历史
+ */
+@RestController
+@RequestMapping("/api/trading")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "trading.load-generator", name = "enable", havingValue = "true")
+public class LoadTestController {
+    private final LoadGenerator loadGenerator;
+
+    /**
+     * 按trading.load-generator配置生成模拟委托流压测（阻塞到结束），返回吞吐量与时延分位数
+     * targetRate（笔/秒）、durationSeconds不传时取配置
+     */
+    @PostMapping("/load-test")
+    public String runLoadTest(@RequestParam(required = false) Double targetRate,
+                              @RequestParam(required = false) Integer durationSeconds) {
+        return JsonUtils.toJson(loadGenerator.run(targetRate, durationSeconds));
+    }
+}
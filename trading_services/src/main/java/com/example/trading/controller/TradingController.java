@@ -1,11 +1,31 @@
 package com.example.trading.controller;
 
+import com.example.trading.application.BatchIngestService;
+import com.example.trading.application.CallAuctionService;
+import com.example.trading.application.CancelService;
 import com.example.trading.application.ExchangeService;
+import com.example.trading.domain.model.MarketData;
+import com.example.trading.infrastructure.analysis.TradeAnalysisService;
+import com.example.trading.infrastructure.market.MarketDataManager;
+import com.example.trading.infrastructure.market.MarketDataStreamService;
+import com.example.trading.replay.DifferentialReplayer;
+import com.example.trading.repository.TradeRepository;
+import com.example.trading.util.JsonUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 /**
  * 交易控制器（接口层）
@@ -15,12 +35,150 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class TradingController {
     private final ExchangeService exchangeService;
+    private final CancelService cancelService;
+    private final BatchIngestService batchIngestService;
+    private final CallAuctionService callAuctionService;
+    private final MarketDataManager marketDataManager;
+    private final MarketDataStreamService marketDataStreamService;
+    private final TradeAnalysisService tradeAnalysisService;
+    private final TradeRepository tradeRepository;
+    private final DifferentialReplayer differentialReplayer;
 
     /**
      * 接收订单JSON，返回回报JSON
+     * 成功：[订单确认回报, 成交回报...]（JSON数组）；失败：非法回报（JSON对象）
      */
     @PostMapping("/order")
-    public String processOrder(@RequestBody String orderJson) {
+    public String processOrder(@RequestBody byte[] orderJson) {
         return exchangeService.processOrder(orderJson);
     }
-}
\ No newline at end of file
+
+    /**
+     * 接收撤单JSON，返回撤单确认/拒绝回报JSON
+     */
+    @PostMapping("/cancel")
+    public String processCancel(@RequestBody byte[] cancelJson) {
+        return cancelService.processCancel(cancelJson);
+    }
+
+    /**
+     * 批量导入input-path下的委托/撤单文件，回报写入output-path，返回各文件导入统计JSON
+     * 指定file时只导入该文件，否则按文件名顺序导入全部文件
+     */
+    @PostMapping("/batch")
+    public String processBatch(@RequestParam(required = false) String file) throws IOException {
+        if (file != null && !file.isEmpty()) {
+            return JsonUtils.toJson(List.of(batchIngestService.ingest(file)));
+        }
+        return JsonUtils.toJson(batchIngestService.ingestAll());
+    }
+
+    /**
+     * 股票进入集合竞价阶段（开盘/收盘集合竞价），之后的委托只挂单不撮合
+     * 返回是否切换成功（已处于集合竞价阶段时为false）
+     */
+    @PostMapping("/auction/begin")
+    public String beginAuction(@RequestParam String securityId) {
+        return JsonUtils.toJson(callAuctionService.beginAuction(securityId).join());
+    }
+
+    /**
+     * 集合竞价集中撮合并回到连续竞价，返回成交价/成交量/盈余量/成交笔数（未处于集合竞价阶段时为null）
+     * referencePrice为参考价（如前收盘价），多个价格满足条件时取最接近者
+     */
+    @PostMapping("/auction/uncross")
+    public String uncrossAuction(@RequestParam String securityId,
+                                 @RequestParam(defaultValue = "0") double referencePrice) {
+        return JsonUtils.toJson(callAuctionService.uncross(securityId, referencePrice).join());
+    }
+
+    /**
+     * 查询集合竞价虚拟参考价（不成交，未处于集合竞价阶段时为null）
+     */
+    @GetMapping("/auction/indicative")
+    public String queryIndicativeAuction(@RequestParam String securityId,
+                                         @RequestParam(defaultValue = "0") double referencePrice) {
+        return JsonUtils.toJson(callAuctionService.indicative(securityId, referencePrice).join());
+    }
+
+    /**
+     * 查询最近一次发布的行情快照（最多滞后一个发布间隔）
+     * 指定securityId时返回该股票行情对象（无行情时为null），否则返回全部股票行情数组
+     */
+    @GetMapping("/market-data")
+    public String queryMarketData(@RequestParam(required = false) String securityId) {
+        if (securityId != null && !securityId.isEmpty()) {
+            MarketData marketData = marketDataManager.getMarketData(securityId);
+            return JsonUtils.toJson(marketData);
+        }
+        return JsonUtils.toJson(List.copyOf(marketDataManager.getAllMarketData()));
+    }
+
+    /**
+     * 订阅行情推送（Server-Sent Events，事件名market-data，数据为行情快照JSON）
+     * securityIds为逗号分隔的股票代码，不传表示全部股票；depth为每个方向的档位数
+     */
+    @GetMapping(value = "/market-data/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMarketData(@RequestParam(required = false) Set<String> securityIds,
+                                       @RequestParam(defaultValue = "5") int depth) {
+        return marketDataStreamService.openSseStream(securityIds == null ? Set.of() : securityIds, depth);
+    }
+
+    /**
+     * 查询最近count根K线（按时间升序，最后一根可能尚未收盘）
+     * period为bar-periods中配置的周期（如1s、1m、5m）
+     */
+    @GetMapping("/analysis/bars")
+    public String queryBars(@RequestParam String securityId,
+                            @RequestParam(defaultValue = "1m") String period,
+                            @RequestParam(defaultValue = "1") int count) {
+        return JsonUtils.toJson(tradeAnalysisService.getBars(securityId, DurationStyle.detectAndParse(period), count));
+    }
+
+    /**
+     * 查询股票成交规模分布（第i个元素为成交数量在[2^i, 2^(i+1))内的成交笔数，无成交时为null）
+     */
+    @GetMapping("/analysis/trade-size")
+    public String queryTradeSizeHistogram(@RequestParam String securityId) {
+        return JsonUtils.toJson(tradeAnalysisService.getTradeSizeHistogram(securityId));
+    }
+
+    /**
+     * 查询股东累计成交量（无成交时为null）
+     */
+    @GetMapping("/analysis/shareholder")
+    public String queryShareholderVolume(@RequestParam String shareholderId) {
+        return JsonUtils.toJson(tradeAnalysisService.getShareholderVolume(shareholderId));
+    }
+
+    /**
+     * 查询某股票在[from, to)（毫秒时间戳）内的历史成交（最多滞后一个写盘间隔）
+     */
+    @GetMapping("/history/trades")
+    public String queryTradeHistory(@RequestParam String securityId, @RequestParam long from, @RequestParam long to) {
+        return JsonUtils.toJson(tradeRepository.findBySecurity(securityId, from, to));
+    }
+
+    /**
+     * 查询某股东某日（yyyy-MM-dd，默认当天）的历史成交
+     */
+    @GetMapping("/history/shareholder-trades")
+    public String queryShareholderTradeHistory(@RequestParam String shareholderId,
+                                               @RequestParam(required = false) String date) {
+        LocalDate day = date == null || date.isEmpty() ? LocalDate.now() : LocalDate.parse(date);
+        return JsonUtils.toJson(tradeRepository.findByShareholder(shareholderId, day));
+    }
+
+    /**
+     * 差异回放校验：把同一输入同时回放到left、right两种订单簿实现（SKIP_LIST / TICK_LADDER），
+     * 逐事件比较回报与最终订单簿，返回统计与第一处差异
+     * 指定file时回放input-path下的该NDJSON文件，否则回放预写日志目录
+     */
+    @PostMapping("/replay/verify")
+    public String verifyReplay(@RequestParam(required = false) String file,
+                               @RequestParam(defaultValue = DifferentialReplayer.SKIP_LIST) String left,
+                               @RequestParam(defaultValue = DifferentialReplayer.TICK_LADDER) String right)
+            throws IOException {
+        return JsonUtils.toJson(differentialReplayer.verify(file, left, right));
+    }
+}
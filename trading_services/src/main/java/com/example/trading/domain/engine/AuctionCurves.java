@@ -0,0 +1,280 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+
+/**
+ * 集合竞价买卖累计量曲线（单个股票，树状数组）
+ * 核心逻辑：
+ * 1. 价格按tick（0.01元）映射为数组下标，买卖各一棵树状数组维护各价位挂单量，挂单/撤单/成交时O(log n)增量更新；
+ * 2. 累计买量B(p) = 价格≥p的买单总量，累计卖量A(p) = 价格≤p的卖单总量，可成交量V(p) = min(B(p), A(p))；
+ * 3. 盈余量S(p) = B(p) − A(p)随价格单调不增，参考价只需在树状数组上二分确定（O(log² n)），无需排序挂单；
+ * 4. 价格超出当前数组范围时成倍扩容并重新居中（O(n)重建）；
+ * 5. 非线程安全：只由股票所属撮合分片线程访问。
+ */
+final class AuctionCurves {
+    /**
+     * 无参考价
+     */
+    static final long NO_REFERENCE = Long.MIN_VALUE;
+    private static final int INITIAL_SIZE = 1024;
+    /**
+     * 最大跨度（约4万元价差），与TickLadderOrderBook价位阶梯一致
+     */
+    private static final int MAX_SIZE = 1 << 22;
+
+    /**
+     * 下标1对应的tick（树状数组下标从1开始）
+     */
+    private long baseTick;
+    private int size;
+    /**
+     * 各价位挂单量（重建树状数组用）与对应的树状数组
+     */
+    private long[] bidQty;
+    private long[] askQty;
+    private long[] bidTree;
+    private long[] askTree;
+    private long bidTotal;
+    private long askTotal;
+
+    /**
+     * 增减指定价位的挂单量
+     */
+    void add(SideEnum side, long tick, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        int index = indexOf(tick);
+        if (side == SideEnum.BUY) {
+            bidQty[index] += delta;
+            bidTotal += delta;
+            update(bidTree, index, delta);
+        } else {
+            askQty[index] += delta;
+            askTotal += delta;
+            update(askTree, index, delta);
+        }
+    }
+
+    long getBidTotal() {
+        return bidTotal;
+    }
+
+    long getAskTotal() {
+        return askTotal;
+    }
+
+    /**
+     * 计算集合竞价参考价
+     * 依次按以下规则确定：1. 可成交量最大；2. 盈余量绝对值最小；
+     * 3. 仍有多个价格时，买方盈余取最高价、卖方盈余取最低价；4. 盈余为0的价格区间取最接近参考价者（无参考价取区间中点）
+     * @param referenceTick 参考价tick（如前收盘价、最近成交价），无参考价时传NO_REFERENCE
+     * @return 买卖无法成交时返回null
+     */
+    Equilibrium equilibrium(long referenceTick) {
+        if (bidTotal == 0 || askTotal == 0) {
+            return null;
+        }
+        // 1. 可成交量在盈余量由正转为非正处取得最大值
+        int cross = firstSurplusAtOrBelow(1, size, 0);
+        long volume = cross <= size ? executable(cross) : 0L;
+        if (cross > 1) {
+            volume = Math.max(volume, executable(cross - 1));
+        }
+        if (volume == 0) {
+            return null;
+        }
+
+        // 2. 可成交量最大的价格区间[low, high]：A(p) >= volume 且 B(p) >= volume
+        int low = lastPrefixAtOrBelow(askTree, volume - 1) + 1;
+        int high = Math.min(size, lastPrefixAtOrBelow(bidTree, bidTotal - volume) + 1);
+
+        // 3. 区间内盈余量绝对值最小（盈余量单调，只需看符号变化处）
+        int first = Math.max(low, cross);
+        int index;
+        if (first > high) {
+            // 区间内始终买方盈余：取最高价
+            index = high;
+        } else if (surplus(first) == 0) {
+            int last = Math.min(high, firstSurplusAtOrBelow(first, high, -1) - 1);
+            index = closest(referenceTick, first, last);
+        } else if (first == low) {
+            // 区间内始终卖方盈余：取最低价
+            index = low;
+        } else {
+            long buySurplus = surplus(first - 1);
+            long sellSurplus = -surplus(first);
+            index = buySurplus < sellSurplus ? first - 1
+                    : sellSurplus < buySurplus ? first : closest(referenceTick, first - 1, first);
+        }
+        return new Equilibrium(tickOf(index), executable(index), surplus(index));
+    }
+
+    /**
+     * [from, to]中第一个盈余量不大于threshold的下标，不存在时返回to + 1
+     */
+    private int firstSurplusAtOrBelow(int from, int to, long threshold) {
+        int low = from;
+        int high = to + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (surplus(mid) <= threshold) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * [from, to]中最接近参考价的下标（无参考价取中点）
+     */
+    private int closest(long referenceTick, int from, int to) {
+        if (referenceTick == NO_REFERENCE) {
+            return (from + to) >>> 1;
+        }
+        long referenceIndex = referenceTick - baseTick + 1;
+        return (int) Math.max(from, Math.min(to, referenceIndex));
+    }
+
+    private long executable(int index) {
+        return Math.min(bidAtOrAbove(index), prefix(askTree, index));
+    }
+
+    private long surplus(int index) {
+        return bidAtOrAbove(index) - prefix(askTree, index);
+    }
+
+    private long bidAtOrAbove(int index) {
+        return bidTotal - prefix(bidTree, index - 1);
+    }
+
+    private long tickOf(int index) {
+        return baseTick + index - 1;
+    }
+
+    private long prefix(long[] tree, int index) {
+        long sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void update(long[] tree, int index, long delta) {
+        for (int i = index; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * 前缀和不超过target的最大下标（0~size，树上逐位下降，O(log n)）
+     */
+    private int lastPrefixAtOrBelow(long[] tree, long target) {
+        int position = 0;
+        long sum = 0;
+        for (int step = size; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= size && sum + tree[next] <= target) {
+                position = next;
+                sum += tree[next];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * 计算tick对应的下标，超出当前范围时扩容并重新居中
+     */
+    private int indexOf(long tick) {
+        if (size == 0) {
+            allocate(INITIAL_SIZE);
+            baseTick = tick - INITIAL_SIZE / 2;
+        }
+        long offset = tick - baseTick + 1;
+        if (offset < 1 || offset > size) {
+            grow(tick);
+            offset = tick - baseTick + 1;
+        }
+        return (int) offset;
+    }
+
+    private void allocate(int newSize) {
+        size = newSize;
+        bidQty = new long[newSize + 1];
+        askQty = new long[newSize + 1];
+        bidTree = new long[newSize + 1];
+        askTree = new long[newSize + 1];
+    }
+
+    private void grow(long tick) {
+        long low = Math.min(baseTick, tick);
+        long high = Math.max(tickOf(size), tick);
+        long span = high - low + 1;
+        if (span * 2 > MAX_SIZE) {
+            throw new IllegalStateException("价格tick[" + tick + "]超出集合竞价曲线范围");
+        }
+        int newSize = size;
+        while (newSize < span * 2) {
+            newSize <<= 1;
+        }
+        long newBase = low - (newSize - span) / 2;
+        int shift = (int) (baseTick - newBase);
+        long[] oldBidQty = bidQty;
+        long[] oldAskQty = askQty;
+        int oldSize = size;
+        allocate(newSize);
+        System.arraycopy(oldBidQty, 1, bidQty, 1 + shift, oldSize);
+        System.arraycopy(oldAskQty, 1, askQty, 1 + shift, oldSize);
+        baseTick = newBase;
+        build(bidTree, bidQty);
+        build(askTree, askQty);
+    }
+
+    /**
+     * 按各价位数量线性构建树状数组（O(n)）
+     */
+    private void build(long[] tree, long[] values) {
+        System.arraycopy(values, 1, tree, 1, size);
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * 参考价计算结果
+     */
+    static final class Equilibrium {
+        private final long tick;
+        private final long volume;
+        private final long surplus;
+
+        private Equilibrium(long tick, long volume, long surplus) {
+            this.tick = tick;
+            this.volume = volume;
+            this.surplus = surplus;
+        }
+
+        long getTick() {
+            return tick;
+        }
+
+        /**
+         * 参考价下的可成交量
+         */
+        long getVolume() {
+            return volume;
+        }
+
+        /**
+         * 参考价下的盈余量（正数为买方剩余，负数为卖方剩余）
+         */
+        long getSurplus() {
+            return surplus;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 集合竞价阶段状态（开盘/收盘集合竞价）
+ * 核心逻辑：
+ * 1. 股票进入集合竞价后，撮合引擎只把委托挂入订单簿不撮合，直到集中撮合（MatchingEngine.uncross）；
+ * 2. 接收订单簿增量事件（订单簿构造时组合到其MarketDataListener），只为处于集合竞价阶段的股票维护买卖累计量曲线：
+ *    挂单、撤单、成交（含恢复回放）都经订单簿事件同步，调用方无需单独维护；
+ * 3. 连续竞价阶段的股票只做一次空表判断，不影响连续撮合；
+ * 4. 每个股票的曲线只由其所属撮合分片线程修改（单写者），阶段表可供其他线程读取。
+ */
+@Slf4j
+@Component
+public class CallAuction {
+    /**
+     * 处于集合竞价阶段的股票 → 买卖累计量曲线
+     */
+    private final ConcurrentMap<String, AuctionCurves> auctions = new ConcurrentHashMap<>();
+    private final MarketDataListener curveListener = new MarketDataListener() {
+        @Override
+        public void onOrderAdded(Order order) {
+            apply(order, order.getQty());
+        }
+
+        @Override
+        public void onOrderRemoved(Order order, int remainingQty) {
+            apply(order, -remainingQty);
+        }
+
+        @Override
+        public void onOrderFilled(Order restingOrder, int matchQty, boolean removed) {
+            apply(restingOrder, -matchQty);
+        }
+
+        @Override
+        public void onBookCleared(String securityId) {
+            if (auctions.replace(securityId, new AuctionCurves()) != null) {
+                log.info("股票[{}]订单簿已清空，集合竞价曲线同步清空", securityId);
+            }
+        }
+    };
+
+    /**
+     * 订单簿事件监听（由订单簿在构造时与行情监听组合）
+     */
+    MarketDataListener curveListener() {
+        return curveListener;
+    }
+
+    /**
+     * 股票是否处于集合竞价阶段
+     */
+    public boolean isCollecting(String securityId) {
+        return !auctions.isEmpty() && auctions.containsKey(securityId);
+    }
+
+    /**
+     * 处于集合竞价阶段的股票
+     */
+    public Set<String> getCollectingSecurityIds() {
+        return auctions.keySet();
+    }
+
+    /**
+     * 进入集合竞价：按订单簿现有挂单构建累计量曲线（仅在股票所属撮合分片线程中调用）
+     * @return 已处于集合竞价阶段时返回false
+     */
+    boolean begin(String securityId, OrderBook orderBook) {
+        if (auctions.containsKey(securityId)) {
+            return false;
+        }
+        AuctionCurves curves = new AuctionCurves();
+        for (SideEnum side : SideEnum.values()) {
+            orderBook.forEachOrder(securityId, side,
+                    order -> curves.add(side, TickLadderOrderBook.toTicks(order.getPrice()), order.getQty()));
+        }
+        auctions.put(securityId, curves);
+        log.info("股票[{}]进入集合竞价，已有买量[{}]、卖量[{}]", securityId, curves.getBidTotal(), curves.getAskTotal());
+        return true;
+    }
+
+    /**
+     * 当前累计量曲线（仅在股票所属撮合分片线程中调用）
+     * @return 未处于集合竞价阶段时返回null
+     */
+    AuctionCurves curves(String securityId) {
+        return auctions.get(securityId);
+    }
+
+    /**
+     * 结束集合竞价（之后订单簿事件不再更新曲线）
+     * @return 未处于集合竞价阶段时返回null
+     */
+    AuctionCurves end(String securityId) {
+        return auctions.remove(securityId);
+    }
+
+    private void apply(Order order, long delta) {
+        if (auctions.isEmpty()) {
+            return;
+        }
+        AuctionCurves curves = auctions.get(order.getSecurityId());
+        if (curves != null) {
+            curves.add(order.getSide(), TickLadderOrderBook.toTicks(order.getPrice()), delta);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+
+import java.util.List;
+
+/**
+ * 价格优先+时间优先撮合（默认）
+ * 逐笔取对手方最优价位的队首订单成交，成交数量取双方剩余数量的最小值
+ * final类+单例：撮合引擎对其直接调用，调用点恒为单态，可被JIT内联
+ */
+public final class FifoMatchingPolicy implements MatchingPolicy {
+    public static final FifoMatchingPolicy INSTANCE = new FifoMatchingPolicy();
+
+    private FifoMatchingPolicy() {
+    }
+
+    @Override
+    public void match(Order newOrder, OrderBook orderBook, MatchingEngine engine, List<Trade> trades) {
+        String securityId = newOrder.getSecurityId();
+        SideEnum side = newOrder.getSide();
+        SideEnum counterSide = MatchingPolicy.counterSide(side);
+        while (newOrder.getQty() > 0) {
+            Order counterOrder = orderBook.peekBest(securityId, counterSide);
+            // 终止条件：对手方无挂单 或 最优价格不满足撮合条件
+            if (counterOrder == null || !MatchingPolicy.isPriceMatch(side, newOrder.getPrice(), counterOrder.getPrice())) {
+                return;
+            }
+            engine.fill(newOrder, counterOrder, Math.min(newOrder.getQty(), counterOrder.getQty()), trades);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FIFO";
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+
+/**
+ * 行情增量事件监听接口（订单簿/撮合引擎在股票所属撮合分片线程中调用，实现方不得阻塞撮合）
+ * 事件只描述变化量，实现方据此增量维护行情，无需回扫订单簿价格层
+ */
+public interface MarketDataListener {
+    /**
+     * 不关注行情时使用的空实现
+     */
+    MarketDataListener NONE = new MarketDataListener() {
+    };
+
+    /**
+     * 组合两个监听方：每个事件先通知first，再通知second
+     */
+    static MarketDataListener compose(MarketDataListener first, MarketDataListener second) {
+        return new MarketDataListener() {
+            @Override
+            public void onOrderAdded(Order order) {
+                first.onOrderAdded(order);
+                second.onOrderAdded(order);
+            }
+
+            @Override
+            public void onOrderRemoved(Order order, int remainingQty) {
+                first.onOrderRemoved(order, remainingQty);
+                second.onOrderRemoved(order, remainingQty);
+            }
+
+            @Override
+            public void onOrderFilled(Order restingOrder, int matchQty, boolean removed) {
+                first.onOrderFilled(restingOrder, matchQty, removed);
+                second.onOrderFilled(restingOrder, matchQty, removed);
+            }
+
+            @Override
+            public void onTrade(Trade trade) {
+                first.onTrade(trade);
+                second.onTrade(trade);
+            }
+
+            @Override
+            public void onBookCleared(String securityId) {
+                first.onBookCleared(securityId);
+                second.onBookCleared(securityId);
+            }
+        };
+    }
+
+    /**
+     * 订单挂入订单簿（挂单数量取订单当前qty）
+     */
+    default void onOrderAdded(Order order) {
+    }
+
+    /**
+     * 订单从订单簿移除（撤单）
+     * @param remainingQty 移除时的剩余挂单数量
+     */
+    default void onOrderRemoved(Order order, int remainingQty) {
+    }
+
+    /**
+     * 挂单成交
+     * @param matchQty 本次成交数量
+     * @param removed 挂单是否已完全成交出队
+     */
+    default void onOrderFilled(Order restingOrder, int matchQty, boolean removed) {
+    }
+
+    /**
+     * 单笔成交（主动方成交回报，每个成交编号调用一次）
+     */
+    default void onTrade(Trade trade) {
+    }
+
+    /**
+     * 指定股票订单簿被清空
+     */
+    default void onBookCleared(String securityId) {
+    }
+}
@@ -2,13 +2,24 @@ package com.example.trading.domain.engine;
 
 import com.example.trading.domain.model.Order;
 import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
 import com.example.trading.common.enums.SideEnum;
-import lombok.RequiredArgsConstructor;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.AuctionResult;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.util.EngineClock;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import com.example.trading.util.IdGenerator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 撮合引擎
@@ -16,133 +27,387 @@ import java.util.concurrent.ConcurrentSkipListMap;
  * 1. 买订单（BUY）优先匹配卖队列的最低价格；
  * 2. 卖订单（SELL）优先匹配买队列的最高价格；
  * 3. 支持部分成交，剩余订单继续挂单；
- * 4. 全程线程安全，基于OrderBook的线程安全容器实现。
+ * 4. 单写者模型：同一股票的撮合只在其所属撮合分片线程中执行（见ShardedMatchingExecutor），无需加锁；
+ * 5. 每笔成交生成买卖双方成交事件，经TradeEventPublisher异步下发，不阻塞撮合；
+ * 6. 每笔成交同步通知MarketDataListener（最新价/成交量），订单簿深度变化由订单簿自身通知；
+ * 7. 同价位内的数量分配由股票对应的撮合算法（MatchingPolicy）决定，默认价格-时间优先（FIFO）；
+ * 8. 处于集合竞价阶段的股票只挂单不撮合，集中撮合时按累计量曲线确定的参考价一次性成交（见CallAuction）；
+ * 9. 市价单不限价、以对手方挂单价成交；IOC/市价单未成交部分撤销，FOK先按各价位累计挂单量预检能否全部成交，不能则整单撤销（不触碰订单簿）；
+ * 10. 止损单先进入触发索引（见StopOrderBook），之后的成交价越过触发价时转为市价/限价单撮合，其成交可继续触发其他止损单。
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class MatchingEngine {
     private final OrderBook orderBook;
     private final PriceGenerator priceGenerator;
+    private final TradeEventPublisher tradeEventPublisher;
+    private final IdGenerator idGenerator;
+    private final MarketDataListener marketDataListener;
+    private final MatchingPolicySelector policySelector;
+    private final CallAuction callAuction;
+    private final StopOrderBook stopOrderBook;
+    private final EngineClock clock;
+    /**
+     * 各股票已完全成交的订单编号（撤单时区分“已完全成交”与“不存在”），内层集合只由股票所属撮合分片线程读写
+     */
+    private final ConcurrentMap<String, Set<String>> filledOrderIds = new ConcurrentHashMap<>();
+
+    /**
+     * @param callAuction   集合竞价状态，须与订单簿构造时使用的为同一实例
+     * @param stopOrderBook 止损单触发索引
+     * @param clock         成交时间戳的时钟（确定性回放时为逻辑时钟）
+     */
+    public MatchingEngine(OrderBook orderBook, PriceGenerator priceGenerator, TradeEventPublisher tradeEventPublisher,
+                          IdGenerator idGenerator, MarketDataListener marketDataListener,
+                          MatchingPolicySelector policySelector, CallAuction callAuction,
+                          StopOrderBook stopOrderBook, EngineClock clock) {
+        this.orderBook = orderBook;
+        this.priceGenerator = priceGenerator;
+        this.tradeEventPublisher = tradeEventPublisher;
+        this.idGenerator = idGenerator;
+        this.marketDataListener = marketDataListener;
+        this.policySelector = policySelector;
+        this.callAuction = callAuction;
+        this.stopOrderBook = stopOrderBook;
+        this.clock = clock;
+    }
 
     /**
-     * 执行撮合逻辑（价格优先+时间优先）
+     * 执行撮合逻辑（价格优先，同价位按股票对应的撮合算法分配）
      * @param newOrder 新提交的订单
      * @return 撮合后的订单（包含成交状态/剩余数量）
      */
     public Order match(Order newOrder) {
+        return match(newOrder, new ArrayList<>());
+    }
+
+    /**
+     * 执行撮合逻辑（价格优先，同价位按股票对应的撮合算法分配）
+     * @param newOrder 新提交的订单
+     * @param trades 输出参数：新订单一方的成交回报（按成交顺序追加）
+     * @return 撮合后的订单（包含成交状态/剩余数量）
+     */
+    public Order match(Order newOrder, List<Trade> trades) {
+        return match(newOrder, trades, null, null);
+    }
+
+    /**
+     * 执行撮合逻辑（价格优先，同价位按股票对应的撮合算法分配），并撮合本次成交触发的止损单
+     * @param newOrder 新提交的订单
+     * @param trades 输出参数：新订单一方的成交回报（按成交顺序追加）
+     * @param triggeredOrders 输出参数：被触发并已撮合的止损单（按触发顺序追加，可为null）
+     * @param triggeredTrades 输出参数：被触发止损单一方的成交回报（可为null）
+     * @return 撮合后的订单（包含成交状态/剩余数量，止损单未触发时为PENDING_TRIGGER）
+     */
+    public Order match(Order newOrder, List<Trade> trades, List<Order> triggeredOrders,
+                       List<Trade> triggeredTrades) {
         if (newOrder == null || newOrder.getQty() <= 0) {
             log.error("新订单非法，无法撮合：{}", newOrder);
             newOrder.setStatus(OrderStatusEnum.REJECTED);
             return newOrder;
         }
 
-        String securityId = newOrder.getSecurityId();
-        SideEnum newOrderSide = newOrder.getSide();
-        int remainingQty = newOrder.getQty(); // 剩余未成交数量
+        if (OrderTypeEnum.orLimit(newOrder.getOrdType()).isStop()) {
+            acceptStop(newOrder);
+            return newOrder;
+        }
+        int firstTrade = trades.size();
+        execute(newOrder, trades);
+        if (trades.size() > firstTrade) {
+            triggerStops(newOrder.getSecurityId(), trades, firstTrade, triggeredOrders, triggeredTrades);
+        }
+        return newOrder;
+    }
+
+    /**
+     * 撮合单个非止损订单：吃对手方订单簿，剩余部分按订单类型/有效期挂单或撤销
+     */
+    private void execute(Order newOrder, List<Trade> trades) {
         newOrder.setStatus(OrderStatusEnum.MATCHING);
 
         try {
-            // 1. 获取对手方的价格有序Map（买找卖，卖找买）
-            SideEnum counterSide = newOrderSide == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY;
-            ConcurrentSkipListMap<Double, Queue<Order>> counterPriceMap = orderBook.getPriceMap(securityId, counterSide);
-
-            // 2. 遍历对手方最优价格，逐笔撮合（直到剩余数量为0或无匹配价格）
-            for (Double counterPrice : counterPriceMap.keySet()) {
-                // 终止条件：剩余数量为0 或 当前价格不满足撮合条件
-                if (remainingQty <= 0 || !isPriceMatch(newOrderSide, newOrder.getPrice(), counterPrice)) {
-                    break;
-                }
-
-                // 3. 获取当前价格下的对手方订单队列
-                Queue<Order> counterOrderQueue = counterPriceMap.get(counterPrice);
-                if (counterOrderQueue == null || counterOrderQueue.isEmpty()) {
-                    continue;
-                }
-
-                // 4. 逐笔匹配队列中的订单（时间优先）
-                while (remainingQty > 0 && !counterOrderQueue.isEmpty()) {
-                    Order counterOrder = counterOrderQueue.peek(); // 取队首订单（不移除）
-                    if (counterOrder == null) {
-                        break;
-                    }
-
-                    // 5. 计算成交数量（取新订单剩余量 和 对手方订单剩余量的最小值）
-                    int matchQty = Math.min(remainingQty, counterOrder.getQty());
-                    // 6. 生成成交价
-                    double matchPrice = priceGenerator.generatePrice(newOrder, counterOrder);
-
-                    // 7. 执行成交逻辑
-                    executeMatch(newOrder, counterOrder, matchQty, matchPrice);
-
-                    // 8. 更新剩余数量
-                    remainingQty -= matchQty;
-
-                    // 9. 若对手方订单完全成交，从队列移除
-                    if (counterOrder.getQty() == 0) {
-                        counterOrderQueue.poll(); // 移除队首订单
-                        log.info("对手方订单[{}]完全成交，已从队列移除", counterOrder.getClOrderId());
-                    }
-
-                    // 10. 若新订单剩余量为0，终止撮合
-                    if (remainingQty <= 0) {
-                        break;
-                    }
+            String securityId = newOrder.getSecurityId();
+            TimeInForceEnum timeInForce = TimeInForceEnum.orDay(newOrder.getTimeInForce());
+            boolean restable = OrderTypeEnum.orLimit(newOrder.getOrdType()) == OrderTypeEnum.LIMIT
+                    && timeInForce == TimeInForceEnum.DAY;
+            if (restable && !orderBook.canRest(newOrder)) {
+                // 价格超出订单簿可挂单范围：撮合前拒绝，避免已成交后挂单失败导致状态与回报不一致
+                log.warn("委托[{}]价格{}超出股票[{}]订单簿可挂单范围，拒绝", newOrder.getClOrderId(),
+                        newOrder.getPrice(), securityId);
+                newOrder.setStatus(OrderStatusEnum.REJECTED);
+                return;
+            }
+            if (callAuction.isCollecting(securityId)) {
+                // 集合竞价阶段只挂单不撮合，不能挂单的市价/IOC/FOK委托直接拒绝
+                if (!restable) {
+                    log.warn("股票[{}]处于集合竞价阶段，拒绝不可挂单的委托[{}]", securityId, newOrder.getClOrderId());
+                    newOrder.setStatus(OrderStatusEnum.REJECTED);
+                    return;
                 }
-
-                // 11. 若当前价格队列空，移除该价格节点
-                if (counterOrderQueue.isEmpty()) {
-                    counterPriceMap.remove(counterPrice);
-                    log.info("股票[{}]对手方[{}]价格[{}]队列已空，移除该价格节点",
-                            securityId, counterSide.getDesc(), counterPrice);
+            } else if (timeInForce == TimeInForceEnum.FOK && !canFillCompletely(newOrder)) {
+                // FOK预检：对手方可成交量不足时整单撤销，订单簿不变
+                newOrder.setStatus(OrderStatusEnum.CANCELLED);
+                EngineEventRecorder.record(EngineEvent.MATCH_CANCELLED, newOrder.getClOrderId(), null,
+                        newOrder.getQty(), 0);
+                return;
+            } else {
+                // 1~7. 按股票对应的撮合算法逐档吃对手方订单簿，每笔成交后新订单qty随之扣减
+                MatchingPolicy policy = policySelector.forSecurity(securityId);
+                if (policy instanceof FifoMatchingPolicy fifo) {
+                    // 默认算法：对final类直接调用，调用点恒为单态，不受其他股票配置的算法影响
+                    fifo.match(newOrder, orderBook, this, trades);
+                } else {
+                    policy.match(newOrder, orderBook, this, trades);
                 }
             }
+            int remainingQty = newOrder.getQty();
 
             // 8. 更新新订单状态
             updateNewOrderStatus(newOrder, remainingQty);
 
-            // 9. 若新订单未完全成交，添加到订单簿挂单
-            if (remainingQty > 0) {
-                newOrder.setQty(remainingQty);
+            // 9. 若新订单未完全成交：限价当日有效单挂单，市价/IOC/FOK单撤销剩余部分
+            if (remainingQty <= 0) {
+                EngineEventRecorder.record(EngineEvent.MATCH_FILLED, newOrder.getClOrderId());
+            } else if (restable) {
                 orderBook.addOrder(newOrder);
-                log.info("新订单[{}]部分成交，剩余数量[{}]已挂单", newOrder.getClOrderId(), remainingQty);
+                EngineEventRecorder.record(EngineEvent.MATCH_RESTED, newOrder.getClOrderId(), null, remainingQty, 0);
             } else {
-                log.info("新订单[{}]完全成交，无需挂单", newOrder.getClOrderId());
+                newOrder.setStatus(OrderStatusEnum.CANCELLED);
+                EngineEventRecorder.record(EngineEvent.MATCH_CANCELLED, newOrder.getClOrderId(), null,
+                        remainingQty, 0);
             }
 
         } catch (Exception e) {
             log.error("撮合订单[{}]时发生异常", newOrder.getClOrderId(), e);
             newOrder.setStatus(OrderStatusEnum.REJECTED);
         }
+    }
 
-        return newOrder;
+    /**
+     * FOK预检：对手方在限价内（市价单不限价）的累计挂单量能否覆盖全部委托数量
+     */
+    private boolean canFillCompletely(Order newOrder) {
+        SideEnum counterSide = newOrder.getSide() == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY;
+        int qty = newOrder.getQty();
+        return orderBook.availableQty(newOrder.getSecurityId(), counterSide, newOrder.getPrice(), qty) >= qty;
+    }
+
+    /**
+     * 受理止损单：进入触发索引等待后续成交触发（提交时不按已有成交价触发，回放结果只取决于日志顺序）
+     */
+    private void acceptStop(Order stopOrder) {
+        stopOrder.setStatus(OrderStatusEnum.PENDING_TRIGGER);
+        stopOrderBook.add(stopOrder);
+        EngineEventRecorder.record(EngineEvent.STOP_ACCEPTED, stopOrder.getClOrderId(), null,
+                EngineEventRecorder.bits(stopOrder.getStopPrice()), 0);
+    }
+
+    /**
+     * 按一批成交的价格区间触发止损单并依次撮合（止损转市价、止损限价转限价）；
+     * 触发单的成交价区间继续触发其他止损单，直到不再有新的触发
+     * @param from 本批成交在trades中的起始下标
+     */
+    private void triggerStops(String securityId, List<Trade> trades, int from, List<Order> triggeredOrders,
+                              List<Trade> triggeredTrades) {
+        if (!stopOrderBook.hasStops(securityId)) {
+            return;
+        }
+        List<Order> pending = new ArrayList<>();
+        collectTriggered(securityId, trades, from, pending);
+        List<Trade> stopTrades = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            Order stopOrder = pending.get(i);
+            stopOrder.setOrdType(OrderTypeEnum.orLimit(stopOrder.getOrdType()).triggered());
+            stopTrades.clear();
+            execute(stopOrder, stopTrades);
+            if (triggeredOrders != null) {
+                triggeredOrders.add(stopOrder);
+            }
+            if (!stopTrades.isEmpty()) {
+                collectTriggered(securityId, stopTrades, 0, pending);
+                if (triggeredTrades != null) {
+                    triggeredTrades.addAll(stopTrades);
+                }
+            }
+        }
+    }
+
+    private void collectTriggered(String securityId, List<Trade> trades, int from, List<Order> out) {
+        long lowTick = Long.MAX_VALUE;
+        long highTick = Long.MIN_VALUE;
+        for (int i = from; i < trades.size(); i++) {
+            long tick = TickLadderOrderBook.toTicks(trades.get(i).getExecPrice());
+            lowTick = Math.min(lowTick, tick);
+            highTick = Math.max(highTick, tick);
+        }
+        stopOrderBook.trigger(securityId, lowTick, highTick, out);
+    }
+
+    /**
+     * 股票进入集合竞价阶段（仅在股票所属撮合分片线程中调用）：之后的委托只挂单不撮合，
+     * 订单簿已有挂单计入累计量曲线
+     * @return 已处于集合竞价阶段时返回false
+     */
+    public boolean beginAuction(String securityId) {
+        return callAuction.begin(securityId, orderBook);
+    }
+
+    /**
+     * 集合竞价虚拟参考价（不成交，仅在股票所属撮合分片线程中调用）
+     * @param referencePrice 参考价（如前收盘价），<=0表示无参考价
+     * @return 未处于集合竞价阶段时返回null
+     */
+    public AuctionResult indicativeAuction(String securityId, double referencePrice) {
+        AuctionCurves curves = callAuction.curves(securityId);
+        return curves == null ? null : toResult(securityId, curves.equilibrium(referenceTick(referencePrice)), 0);
+    }
+
+    /**
+     * 集合竞价集中撮合（仅在股票所属撮合分片线程中调用）
+     * 核心逻辑：
+     * 1. 由累计量曲线确定参考价（可成交量最大→盈余量最小→按盈余方向→最接近参考价），不排序挂单；
+     * 2. 结束集合竞价阶段，按价格优先、时间优先依次取买卖双方最优挂单，以参考价成交，直到一方价格不再满足参考价；
+     * 3. 成交回报经TradeEventPublisher下发买卖双方，未成交部分继续挂单进入连续竞价。
+     * @param referencePrice 参考价（如前收盘价），<=0表示无参考价
+     * @param trades 输出参数：买方一侧的成交回报
+     * @return 未处于集合竞价阶段时返回null；买卖无法成交时price为null
+     */
+    public AuctionResult uncross(String securityId, double referencePrice, List<Trade> trades) {
+        return uncross(securityId, referencePrice, trades, null);
+    }
+
+    /**
+     * 集合竞价集中撮合，并按参考价触发止损单（仅在股票所属撮合分片线程中调用）
+     * @param trades 输出参数：买方一侧的成交回报，之后追加被触发止损单一方的成交回报
+     * @param triggeredOrders 输出参数：被触发并已撮合的止损单（可为null）
+     */
+    public AuctionResult uncross(String securityId, double referencePrice, List<Trade> trades,
+                                 List<Order> triggeredOrders) {
+        AuctionCurves curves = callAuction.end(securityId);
+        if (curves == null) {
+            log.warn("股票[{}]未处于集合竞价阶段，无法集中撮合", securityId);
+            return null;
+        }
+        AuctionCurves.Equilibrium equilibrium = curves.equilibrium(referenceTick(referencePrice));
+        int firstTrade = trades.size();
+        int tradeCount = 0;
+        if (equilibrium != null) {
+            long tick = equilibrium.getTick();
+            double price = TickLadderOrderBook.toPrice(tick);
+            while (true) {
+                Order bid = orderBook.peekBest(securityId, SideEnum.BUY);
+                Order ask = orderBook.peekBest(securityId, SideEnum.SELL);
+                if (bid == null || ask == null || TickLadderOrderBook.toTicks(bid.getPrice()) < tick
+                        || TickLadderOrderBook.toTicks(ask.getPrice()) > tick) {
+                    break;
+                }
+                int matchQty = Math.min(bid.getQty(), ask.getQty());
+                trades.add(executeMatch(bid, ask, matchQty, price));
+                bid.setStatus(bid.getQty() == 0 ? OrderStatusEnum.FULL_FILLED : OrderStatusEnum.PART_FILLED);
+                orderBook.fill(bid, matchQty);
+                orderBook.fill(ask, matchQty);
+                tradeCount++;
+            }
+        }
+        AuctionResult result = toResult(securityId, equilibrium, tradeCount);
+        log.info("股票[{}]集合竞价集中撮合完成：成交价[{}]，成交量[{}]，成交笔数[{}]",
+                securityId, result.getPrice(), result.getVolume(), tradeCount);
+        if (tradeCount > 0) {
+            triggerStops(securityId, trades, firstTrade, triggeredOrders, trades);
+        }
+        return result;
+    }
+
+    private static long referenceTick(double referencePrice) {
+        return referencePrice > 0 ? TickLadderOrderBook.toTicks(referencePrice) : AuctionCurves.NO_REFERENCE;
+    }
+
+    private static AuctionResult toResult(String securityId, AuctionCurves.Equilibrium equilibrium, int tradeCount) {
+        return AuctionResult.builder()
+                .securityId(securityId)
+                .price(equilibrium == null ? null : TickLadderOrderBook.toPrice(equilibrium.getTick()))
+                .volume(equilibrium == null ? 0L : equilibrium.getVolume())
+                .surplus(equilibrium == null ? 0L : equilibrium.getSurplus())
+                .tradeCount(tradeCount)
+                .build();
     }
 
     /**
-     * 判断价格是否满足撮合条件
-     * - 买订单：买价 >= 卖价
-     * - 卖订单：卖价 <= 买价
+     * 新订单与一笔对手方挂单成交（由撮合算法调用）：生成成交价、执行成交、同步订单簿
+     * @param trades 输出参数：追加新订单一方的成交回报
      */
-    private boolean isPriceMatch(SideEnum newOrderSide, double newOrderPrice, double counterPrice) {
-        return newOrderSide == SideEnum.BUY
-                ? newOrderPrice >= counterPrice
-                : newOrderPrice <= counterPrice;
+    void fill(Order newOrder, Order counterOrder, int matchQty, List<Trade> trades) {
+        // 生成成交价（市价单以对手方挂单价成交）
+        double matchPrice = newOrder.getPrice() == null ? counterOrder.getPrice()
+                : priceGenerator.generatePrice(newOrder, counterOrder);
+        // 执行成交逻辑
+        trades.add(executeMatch(newOrder, counterOrder, matchQty, matchPrice));
+        // 同步订单簿（对手方完全成交则出队，价格档位空则移除）
+        orderBook.fill(counterOrder, matchQty);
     }
 
     /**
-     * 执行单笔成交逻辑（更新订单数量+状态，记录成交日志）
+     * 执行单笔成交逻辑（更新订单数量+状态，发布双方成交事件，记录成交日志）
+     * @return 新订单一方的成交回报
      */
-    private void executeMatch(Order newOrder, Order counterOrder, int matchQty, double matchPrice) {
+    private Trade executeMatch(Order newOrder, Order counterOrder, int matchQty, double matchPrice) {
         // 更新新订单数量
         newOrder.setQty(newOrder.getQty() - matchQty);
-        // 更新对手方订单数量
+        newOrder.setCumQty(newOrder.getCumQty() + matchQty);
+        // 更新对手方订单数量+状态
         counterOrder.setQty(counterOrder.getQty() - matchQty);
+        counterOrder.setCumQty(counterOrder.getCumQty() + matchQty);
+        counterOrder.setStatus(counterOrder.getQty() == 0 ? OrderStatusEnum.FULL_FILLED : OrderStatusEnum.PART_FILLED);
+        if (counterOrder.getQty() == 0) {
+            markFilled(counterOrder);
+        }
+        if (newOrder.getQty() == 0) {
+            markFilled(newOrder);
+        }
 
-        // 日志记录成交信息
-        log.info("撮合成交：新订单[{}] vs 对手方订单[{}] | 成交价格[{}] | 成交数量[{}] | " +
-                        "新订单剩余[{}] | 对手方剩余[{}]",
-                newOrder.getClOrderId(), counterOrder.getClOrderId(),
-                matchPrice, matchQty, newOrder.getQty(), counterOrder.getQty());
+        // 记录成交事件
+        EngineEventRecorder.record(EngineEvent.MATCH_EXECUTED, newOrder.getClOrderId(), counterOrder.getClOrderId(),
+                EngineEventRecorder.bits(matchPrice), matchQty, newOrder.getQty(), counterOrder.getQty());
+
+        // 发布买卖双方成交事件（同一成交编号）
+        String execId = idGenerator.nextExecId();
+        long timestamp = clock.currentTimeMillis();
+        Trade newOrderTrade = buildTrade(newOrder, execId, matchQty, matchPrice, timestamp);
+        tradeEventPublisher.publish(newOrderTrade);
+        tradeEventPublisher.publish(buildTrade(counterOrder, execId, matchQty, matchPrice, timestamp));
+        marketDataListener.onTrade(newOrderTrade);
+        return newOrderTrade;
+    }
+
+    private void markFilled(Order order) {
+        filledOrderIds.computeIfAbsent(order.getSecurityId(), key -> new HashSet<>()).add(order.getClOrderId());
+    }
+
+    /**
+     * 订单是否已完全成交（仅在股票所属撮合分片线程中调用）
+     */
+    public boolean isFullyFilled(String securityId, String clOrderId) {
+        Set<String> filled = filledOrderIds.get(securityId);
+        return filled != null && filled.contains(clOrderId);
+    }
+
+    /**
+     * 构建单边成交回报（qty为原始委托数量 = 剩余数量 + 累计成交数量）
+     */
+    private Trade buildTrade(Order order, String execId, int execQty, double execPrice, long timestamp) {
+        return Trade.builder()
+                .clOrderId(order.getClOrderId())
+                .market(order.getMarket())
+                .securityId(order.getSecurityId())
+                .side(order.getSide())
+                .qty(order.getQty() + order.getCumQty())
+                .price(order.getPrice())
+                .shareholderId(order.getShareholderId())
+                .execId(execId)
+                .execQty(execQty)
+                .execPrice(execPrice)
+                .timestamp(timestamp)
+                .build();
     }
 
     /**
@@ -151,7 +416,7 @@ public class MatchingEngine {
     private void updateNewOrderStatus(Order newOrder, int remainingQty) {
         if (remainingQty <= 0) {
             newOrder.setStatus(OrderStatusEnum.FULL_FILLED); // 完全成交
-        } else if (remainingQty < newOrder.getQty()) {
+        } else if (newOrder.getCumQty() > 0) {
             newOrder.setStatus(OrderStatusEnum.PART_FILLED); // 部分成交
         } else {
             newOrder.setStatus(OrderStatusEnum.MATCHING); // 未成交，挂单中
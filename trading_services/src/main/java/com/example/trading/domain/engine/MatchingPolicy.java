@@ -0,0 +1,49 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+
+import java.util.List;
+
+/**
+ * 撮合算法（同价位内成交数量如何在对手方挂单间分配）
+ * 核心约定：
+ * 1. 价格优先由各实现统一遵守：逐档吃对手方最优价位，直到新订单数量为0或最优价不再满足价格条件；
+ * 2. 每笔成交通过MatchingEngine.fill执行（生成成交价与回报、同步订单簿），新订单qty随之扣减；
+ * 3. 实现类无状态或只使用线程本地的临时缓冲，可被多个撮合分片线程共用；
+ * 4. 按股票在启动时选定（见MatchingPolicySelector），撮合时不再解析配置。
+ */
+public interface MatchingPolicy {
+
+    /**
+     * 用新订单吃对手方订单簿
+     * @param newOrder 新订单（qty为剩余未成交数量，撮合过程中扣减）
+     * @param orderBook 订单簿
+     * @param engine 成交执行方
+     * @param trades 输出参数：新订单一方的成交回报
+     */
+    void match(Order newOrder, OrderBook orderBook, MatchingEngine engine, List<Trade> trades);
+
+    /**
+     * 对手方方向（买找卖，卖找买）
+     */
+    static SideEnum counterSide(SideEnum side) {
+        return side == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY;
+    }
+
+    /**
+     * 判断价格是否满足撮合条件
+     * - 买订单：买价 >= 卖价
+     * - 卖订单：卖价 <= 买价
+     * - 市价订单（价格为null）：与任意对手方价格成交
+     */
+    static boolean isPriceMatch(SideEnum newOrderSide, Double newOrderPrice, double counterPrice) {
+        if (newOrderPrice == null) {
+            return true;
+        }
+        return newOrderSide == SideEnum.BUY
+                ? newOrderPrice >= counterPrice
+                : newOrderPrice <= counterPrice;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.config.MatchingConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按股票选择撮合算法
+ * 核心逻辑：
+ * 1. 启动时把配置 trading.matching.policy / policy-overrides 解析为算法实例，未知算法名直接启动失败；
+ * 2. 撮合时只做一次查表：未配置按股票覆盖时直接返回默认算法，不查表；
+ * 3. 可选算法：FIFO（价格-时间优先）、PRO_RATA（按比例分配）、TOP_ORDER_PRO_RATA（队首订单优先+按比例分配）。
+ */
+@Slf4j
+@Component
+public class MatchingPolicySelector {
+    public static final String FIFO = "FIFO";
+    public static final String PRO_RATA = "PRO_RATA";
+    public static final String TOP_ORDER_PRO_RATA = "TOP_ORDER_PRO_RATA";
+
+    private final MatchingPolicy defaultPolicy;
+    private final Map<String, MatchingPolicy> overrides;
+
+    public MatchingPolicySelector(MatchingConfig matchingConfig) {
+        this.defaultPolicy = create(matchingConfig.getPolicy(), matchingConfig.getProRataMinQty());
+        this.overrides = Map.copyOf(createAll(matchingConfig.getPolicyOverrides(), matchingConfig.getProRataMinQty()));
+        log.info("撮合算法：默认[{}]，按股票覆盖{}", defaultPolicy, overrides);
+    }
+
+    /**
+     * 指定股票的撮合算法
+     */
+    public MatchingPolicy forSecurity(String securityId) {
+        if (overrides.isEmpty()) {
+            return defaultPolicy;
+        }
+        return overrides.getOrDefault(securityId, defaultPolicy);
+    }
+
+    /**
+     * 按算法名创建撮合算法（忽略大小写）
+     * @param proRataMinQty 按比例分配时单笔最小分配数量
+     */
+    public static MatchingPolicy create(String name, int proRataMinQty) {
+        String policy = name == null ? FIFO : name.trim().toUpperCase(Locale.ROOT);
+        switch (policy) {
+            case FIFO:
+                return FifoMatchingPolicy.INSTANCE;
+            case PRO_RATA:
+                return new ProRataMatchingPolicy(false, proRataMinQty);
+            case TOP_ORDER_PRO_RATA:
+                return new ProRataMatchingPolicy(true, proRataMinQty);
+            default:
+                throw new IllegalArgumentException("未知的撮合算法[" + name + "]");
+        }
+    }
+
+    private static Map<String, MatchingPolicy> createAll(Map<String, String> names, int proRataMinQty) {
+        Map<String, MatchingPolicy> policies = new HashMap<>();
+        if (names != null) {
+            names.forEach((securityId, name) -> policies.put(securityId, create(name, proRataMinQty)));
+        }
+        return policies;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.util.IdGenerator;
+import com.example.trading.util.MpscRingBuffer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 撮合分片（单写线程）
+ * 核心特性：
+ * 1. 每个分片独占一个线程，按提交顺序串行执行任务，同一股票的订单簿只会被该线程修改；
+ * 2. 任务经有界无锁环形队列投递，队列满时生产者自旋/让出CPU（背压），不丢任务；
+ * 3. 空闲时依次自旋→让出CPU→休眠，生产者投递后按需唤醒；
+ * 4. 分片线程持有本分片专属的编号序列（前缀=分片下标），生成成交编号无竞争。
+ */
+@Slf4j
+class MatchingShard implements Runnable {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 1_000_000L;
+
+    private final int index;
+    private final MpscRingBuffer<Runnable> ringBuffer;
+    private final Thread thread;
+    private volatile boolean running = true;
+    /**
+     * 消费线程是否准备休眠（生产者据此决定是否unpark）
+     */
+    private volatile boolean parked;
+
+    MatchingShard(int index, int ringBufferSize, IdGenerator.Sequence idSequence) {
+        this.index = index;
+        this.ringBuffer = new MpscRingBuffer<>(ringBufferSize);
+        this.thread = new ShardThread(this, "matching-shard-" + index, idSequence);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * 投递任务（任意线程调用）
+     */
+    void publish(Runnable task) {
+        if (!running) {
+            throw new IllegalStateException("撮合分片[" + index + "]已停止");
+        }
+        while (!ringBuffer.offer(task)) {
+            Thread.yield();
+        }
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        int idleCount = 0;
+        while (running || !ringBuffer.isEmpty()) {
+            Runnable task = ringBuffer.poll();
+            if (task == null) {
+                idle(++idleCount);
+                continue;
+            }
+            idleCount = 0;
+            try {
+                task.run();
+            } catch (Throwable e) {
+                log.error("撮合分片[{}]执行任务异常", index, e);
+            }
+        }
+        log.info("撮合分片[{}]已退出", index);
+    }
+
+    private void idle(int idleCount) {
+        if (idleCount < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idleCount < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            parked = true;
+            if (ringBuffer.isEmpty() && running) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            parked = false;
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    void awaitTermination(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    int getQueueDepth() {
+        return ringBuffer.size();
+    }
+
+    /**
+     * 分片线程（携带本分片编号序列）
+     */
+    private static final class ShardThread extends Thread implements IdGenerator.SequenceOwner {
+        private final IdGenerator.Sequence idSequence;
+
+        private ShardThread(Runnable task, String name, IdGenerator.Sequence idSequence) {
+            super(task, name);
+            this.idSequence = idSequence;
+        }
+
+        @Override
+        public IdGenerator.Sequence idSequence() {
+            return idSequence;
+        }
+    }
+}
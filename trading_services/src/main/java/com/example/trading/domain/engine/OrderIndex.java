@@ -0,0 +1,148 @@
+package com.example.trading.domain.engine;
+
+import java.util.Arrays;
+
+/**
+ * 订单编号索引（clOrderId → 订单簿节点）
+ * 核心特性：
+ * 1. 开放寻址+线性探测，键值存放在平铺数组中，put/get/remove不创建任何对象（扩容除外）；
+ * 2. 删除采用后移填补（backward shift），不留墓碑，探测链长度稳定；
+ * 3. 非线程安全：每个股票一份，只由股票所属撮合分片线程访问。
+ */
+final class OrderIndex<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    OrderIndex(int expectedSize) {
+        allocate(tableSizeFor(Math.max(MIN_CAPACITY, expectedSize * 2)));
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(String key) {
+        int slot = slotOf(key);
+        String existing;
+        while ((existing = keys[slot]) != null) {
+            if (existing.equals(key)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 写入索引
+     * @return 旧值（不存在时为null）
+     */
+    @SuppressWarnings("unchecked")
+    V put(String key, V value) {
+        int slot = slotOf(key);
+        String existing;
+        while ((existing = keys[slot]) != null) {
+            if (existing.equals(key)) {
+                V old = (V) values[slot];
+                values[slot] = value;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return null;
+    }
+
+    /**
+     * 删除索引
+     * @return 被删除的值（不存在时为null）
+     */
+    @SuppressWarnings("unchecked")
+    V remove(String key) {
+        int slot = slotOf(key);
+        String existing;
+        while ((existing = keys[slot]) != null) {
+            if (existing.equals(key)) {
+                V old = (V) values[slot];
+                deleteSlot(slot);
+                size--;
+                return old;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * 后移填补：把探测链上后续元素前移，保证查找时不会提前遇到空槽
+     */
+    private void deleteSlot(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            String key = keys[slot];
+            if (key == null) {
+                break;
+            }
+            int home = slotOf(key);
+            // home落在(hole, slot]区间（环形）内的元素无需移动
+            boolean stay = hole <= slot ? (hole < home && home <= slot) : (hole < home || home <= slot);
+            if (!stay) {
+                keys[hole] = key;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = null;
+        values[hole] = null;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            String key = oldKeys[i];
+            if (key != null) {
+                int slot = slotOf(key);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity >>> 1;
+    }
+
+    private int slotOf(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return 1 << (32 - Integer.numberOfLeadingZeros(capacity - 1));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.domain.model.Order;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 同价格订单队列（侵入式双向链表）
+ * 核心特性：
+ * 1. 队首为最早到达的订单（时间优先），入队/出队O(1)；
+ * 2. append返回节点句柄，配合订单索引可O(1)摘除任意订单（撤单）；
+ * 3. 维护价位挂单总量：入队加挂单数量，摘除减剩余数量，部分成交由订单簿调用reduce扣减；
+ * 4. 非线程安全：只由股票所属撮合分片线程修改。
+ */
+final class OrderQueue extends AbstractQueue<Order> {
+    private Node head;
+    private Node tail;
+    private int size;
+    private long totalQty;
+
+    /**
+     * 订单入队，返回节点句柄
+     */
+    Node append(Order order) {
+        Node node = new Node(order, this);
+        node.prev = tail;
+        if (tail == null) {
+            head = node;
+        } else {
+            tail.next = node;
+        }
+        tail = node;
+        size++;
+        totalQty += order.getQty();
+        return node;
+    }
+
+    /**
+     * 摘除指定节点（价位总量扣减订单当前剩余数量）
+     * @return 节点已不在队列中时返回false
+     */
+    boolean unlink(Node node) {
+        if (node.removed) {
+            return false;
+        }
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.removed = true;
+        size--;
+        totalQty -= node.order.getQty();
+        return true;
+    }
+
+    /**
+     * 队列中订单成交后扣减价位总量（订单数量已由撮合引擎扣减）
+     */
+    void reduce(int matchQty) {
+        totalQty -= matchQty;
+    }
+
+    /**
+     * 价位挂单总量（剩余未成交数量之和）
+     */
+    long getTotalQty() {
+        return totalQty;
+    }
+
+    @Override
+    public boolean offer(Order order) {
+        append(order);
+        return true;
+    }
+
+    @Override
+    public Order poll() {
+        Node first = head;
+        if (first == null) {
+            return null;
+        }
+        unlink(first);
+        return first.order;
+    }
+
+    @Override
+    public Order peek() {
+        return head == null ? null : head.order;
+    }
+
+    Node peekNode() {
+        return head;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Order> iterator() {
+        return new Iterator<>() {
+            private Node next = head;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Order next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Order order = next.order;
+                next = next.next;
+                return order;
+            }
+        };
+    }
+
+    /**
+     * 队列节点
+     */
+    static final class Node {
+        private final Order order;
+        private final OrderQueue queue;
+        private Node prev;
+        private Node next;
+        private boolean removed;
+
+        private Node(Order order, OrderQueue queue) {
+            this.order = order;
+            this.queue = queue;
+        }
+
+        Order getOrder() {
+            return order;
+        }
+
+        /**
+         * 节点所在的价位队列
+         */
+        OrderQueue getQueue() {
+            return queue;
+        }
+    }
+}
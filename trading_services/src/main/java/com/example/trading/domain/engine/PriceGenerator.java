@@ -1,24 +1,45 @@
 package com.example.trading.domain.engine;
 
 import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MatchingConfig;
 import com.example.trading.domain.model.Order;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * 成交价生成器（扩展版）
- * 支持3种可配置的价格生成策略：
+ * 支持3种可配置的价格生成策略（见PriceStrategy）：
  * 1. MID_PRICE：中间价（(买价+卖价)/2）；
  * 2. BUY_PRICE：买方价格；
  * 3. SELL_PRICE：卖方价格。
+ * 策略在构造时解析为枚举，每笔成交不再解析配置字符串
  */
 @Slf4j
 @Component
 public class PriceGenerator {
-    // 从配置文件读取价格生成策略（默认中间价）
-    @Value("${trading.matching.price-strategy:MID_PRICE}")
-    private String priceStrategy;
+    private final PriceStrategy priceStrategy;
+
+    /**
+     * 从配置 trading.matching.price-strategy 读取价格生成策略（默认中间价，未知策略按中间价处理）
+     */
+    public PriceGenerator(MatchingConfig matchingConfig) {
+        this.priceStrategy = resolve(matchingConfig.getPriceStrategy());
+    }
+
+    private static PriceStrategy resolve(String name) {
+        PriceStrategy strategy = PriceStrategy.of(name);
+        if (strategy == null) {
+            log.warn("未知的价格生成策略[{}]，使用默认中间价", name);
+            return PriceStrategy.MID_PRICE;
+        }
+        return strategy;
+    }
+
+    public PriceStrategy getPriceStrategy() {
+        return priceStrategy;
+    }
 
     /**
      * 生成成交价格（线程安全）
@@ -38,34 +59,15 @@ public class PriceGenerator {
 
         double buyPrice = realBuyOrder.getPrice();
         double sellPrice = realSellOrder.getPrice();
-        double finalPrice = 0.0;
 
         // 第二步：按策略生成价格
-        switch (priceStrategy.toUpperCase()) {
-            case "MID_PRICE":
-                // 中间价（默认）
-                finalPrice = (buyPrice + sellPrice) / 2;
-                break;
-            case "BUY_PRICE":
-                // 买方价格
-                finalPrice = buyPrice;
-                break;
-            case "SELL_PRICE":
-                // 卖方价格
-                finalPrice = sellPrice;
-                break;
-            default:
-                // 未知策略，默认中间价
-                log.warn("未知的价格生成策略[{}]，使用默认中间价", priceStrategy);
-                finalPrice = (buyPrice + sellPrice) / 2;
-                break;
-        }
+        double finalPrice = priceStrategy.price(buyPrice, sellPrice);
 
         // 第三步：保留2位小数（符合证券交易价格精度）
         finalPrice = Math.round(finalPrice * 100.0) / 100.0;
-        log.info("生成成交价：策略[{}] | 买价[{}] | 卖价[{}] | 成交价[{}]",
-                priceStrategy, buyPrice, sellPrice, finalPrice);
+        EngineEventRecorder.record(EngineEvent.PRICE_GENERATED, priceStrategy, null, EngineEventRecorder.bits(buyPrice),
+                EngineEventRecorder.bits(sellPrice), EngineEventRecorder.bits(finalPrice), 0);
 
         return finalPrice;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.example.trading.domain.engine;
+
+/**
+ * 成交价生成策略（由配置 trading.matching.price-strategy 在启动时解析一次）
+ * 1. MID_PRICE：中间价（(买价+卖价)/2）；
+ * 2. BUY_PRICE：买方价格；
+ * 3. SELL_PRICE：卖方价格。
+ */
+public enum PriceStrategy {
+    MID_PRICE {
+        @Override
+        double price(double buyPrice, double sellPrice) {
+            return (buyPrice + sellPrice) / 2;
+        }
+    },
+    BUY_PRICE {
+        @Override
+        double price(double buyPrice, double sellPrice) {
+            return buyPrice;
+        }
+    },
+    SELL_PRICE {
+        @Override
+        double price(double buyPrice, double sellPrice) {
+            return sellPrice;
+        }
+    };
+
+    /**
+     * 按策略计算成交价（未取整）
+     */
+    abstract double price(double buyPrice, double sellPrice);
+
+    /**
+     * 按名称查找策略（忽略大小写）
+     * @return 名称为空或未知时返回null
+     */
+    public static PriceStrategy of(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (PriceStrategy strategy : values()) {
+            if (strategy.name().equalsIgnoreCase(name.trim())) {
+                return strategy;
+            }
+        }
+        return null;
+    }
+}
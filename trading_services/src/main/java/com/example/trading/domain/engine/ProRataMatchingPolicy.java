@@ -0,0 +1,120 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按比例分配撮合（价格优先，同价位按挂单数量比例分配）
+ * 核心逻辑：
+ * 1. 新订单数量不小于最优价位总挂单量时，该价位全部成交，继续下一价位；
+ * 2. 否则每笔挂单分得 floor(新订单剩余量 × 挂单量 / 价位总量)，不足minAllocation的分配记为0；
+ * 3. 取整后剩余的数量按时间优先依次补给尚未满额的挂单；
+ * 4. topOrderPriority为true时（TOP_ORDER_PRO_RATA），价位队首订单先按其全部数量成交，剩余数量再在其余挂单间按比例分配；
+ * 5. 价位挂单快照与分配数组为线程本地缓冲，各撮合分片线程互不干扰，稳态不分配对象。
+ */
+public final class ProRataMatchingPolicy implements MatchingPolicy {
+    private static final ThreadLocal<Allocation> ALLOCATION = ThreadLocal.withInitial(Allocation::new);
+
+    private final boolean topOrderPriority;
+    private final int minAllocation;
+
+    public ProRataMatchingPolicy(boolean topOrderPriority, int minAllocation) {
+        this.topOrderPriority = topOrderPriority;
+        this.minAllocation = Math.max(1, minAllocation);
+    }
+
+    @Override
+    public void match(Order newOrder, OrderBook orderBook, MatchingEngine engine, List<Trade> trades) {
+        String securityId = newOrder.getSecurityId();
+        SideEnum side = newOrder.getSide();
+        SideEnum counterSide = MatchingPolicy.counterSide(side);
+        Allocation allocation = ALLOCATION.get();
+        List<Order> levelOrders = allocation.orders;
+        try {
+            while (newOrder.getQty() > 0) {
+                Order best = orderBook.peekBest(securityId, counterSide);
+                if (best == null || !MatchingPolicy.isPriceMatch(side, newOrder.getPrice(), best.getPrice())) {
+                    return;
+                }
+                levelOrders.clear();
+                orderBook.bestLevelOrders(securityId, counterSide, levelOrders);
+                int[] quantities = allocate(newOrder.getQty(), levelOrders, allocation);
+                for (int i = 0; i < levelOrders.size(); i++) {
+                    if (quantities[i] > 0) {
+                        engine.fill(newOrder, levelOrders.get(i), quantities[i], trades);
+                    }
+                }
+            }
+        } finally {
+            levelOrders.clear();
+        }
+    }
+
+    /**
+     * 计算同价位各挂单的分配数量（下标与levelOrders一致，合计 = min(incomingQty, 价位总量)）
+     */
+    int[] allocate(int incomingQty, List<Order> levelOrders, Allocation allocation) {
+        int count = levelOrders.size();
+        int[] quantities = allocation.quantities(count);
+        int remaining = incomingQty;
+        int first = 0;
+        if (topOrderPriority && count > 0) {
+            quantities[0] = Math.min(remaining, levelOrders.get(0).getQty());
+            remaining -= quantities[0];
+            first = 1;
+        }
+
+        long levelQty = 0;
+        for (int i = first; i < count; i++) {
+            levelQty += levelOrders.get(i).getQty();
+        }
+        if (remaining >= levelQty) {
+            for (int i = first; i < count; i++) {
+                quantities[i] = levelOrders.get(i).getQty();
+            }
+            return quantities;
+        }
+
+        // 按比例取整分配
+        int allocated = 0;
+        for (int i = first; i < count; i++) {
+            int share = (int) (remaining * (long) levelOrders.get(i).getQty() / levelQty);
+            quantities[i] = share < minAllocation ? 0 : share;
+            allocated += quantities[i];
+        }
+        // 取整余量按时间优先补足
+        int leftover = remaining - allocated;
+        for (int i = first; i < count && leftover > 0; i++) {
+            int extra = Math.min(leftover, levelOrders.get(i).getQty() - quantities[i]);
+            quantities[i] += extra;
+            leftover -= extra;
+        }
+        return quantities;
+    }
+
+    @Override
+    public String toString() {
+        return topOrderPriority ? "TOP_ORDER_PRO_RATA" : "PRO_RATA";
+    }
+
+    /**
+     * 线程本地的价位快照与分配数组
+     */
+    static final class Allocation {
+        private final List<Order> orders = new ArrayList<>();
+        private int[] quantities = new int[16];
+
+        private int[] quantities(int count) {
+            if (quantities.length < count) {
+                quantities = new int[Math.max(count, quantities.length << 1)];
+            }
+            Arrays.fill(quantities, 0, count, 0);
+            return quantities;
+        }
+    }
+}
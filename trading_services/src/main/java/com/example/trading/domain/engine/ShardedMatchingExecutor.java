@@ -0,0 +1,95 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.util.IdGenerator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 分片撮合执行器
+ * 核心逻辑：
+ * 1. 按securityId哈希到固定分片，同一股票的所有撮合任务由同一线程串行执行（单写者，无需加锁）；
+ * 2. 不同股票分散到多个分片并行处理，吞吐随CPU核数扩展；
+ * 3. 调用方提交任务后获得CompletableFuture，可同步等待撮合结果。
+ */
+@Slf4j
+@Component
+public class ShardedMatchingExecutor {
+    private final MatchingShard[] shards;
+
+    public ShardedMatchingExecutor(MatchingConfig matchingConfig, IdGenerator idGenerator) {
+        int shardCount = matchingConfig.getShardCount() > 0
+                ? matchingConfig.getShardCount()
+                : Runtime.getRuntime().availableProcessors();
+        this.shards = new MatchingShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new MatchingShard(i, matchingConfig.getRingBufferSize(), idGenerator.sequence(i));
+            shards[i].start();
+        }
+        log.info("撮合分片执行器启动：分片数[{}]，队列容量[{}]", shardCount, matchingConfig.getRingBufferSize());
+    }
+
+    /**
+     * 提交股票相关任务到所属分片执行
+     * @param securityId 股票代码（决定分片）
+     * @param task 在分片线程中执行的任务
+     * @return 完成句柄（任务异常时以异常完成）
+     */
+    public <T> CompletableFuture<T> submit(String securityId, Supplier<T> task) {
+        return submitToShard(shardIndex(securityId), task);
+    }
+
+    /**
+     * 提交任务到指定分片执行（快照/恢复等按分片处理的任务使用）
+     * 同一分片的任务按提交顺序执行，任务执行时该分片所有股票处于一致状态
+     */
+    public <T> CompletableFuture<T> submitToShard(int shardIndex, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        shards[shardIndex].publish(() -> {
+            try {
+                future.complete(task.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 计算股票所属分片下标
+     */
+    public int shardIndex(String securityId) {
+        int hash = securityId == null ? 0 : securityId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 指定分片当前排队任务数
+     */
+    public int getQueueDepth(int shardIndex) {
+        return shards[shardIndex].getQueueDepth();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (MatchingShard shard : shards) {
+            shard.shutdown();
+        }
+        for (MatchingShard shard : shards) {
+            try {
+                shard.awaitTermination(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
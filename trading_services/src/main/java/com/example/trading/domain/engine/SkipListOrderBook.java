@@ -0,0 +1,274 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.domain.model.Order;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * 订单簿（跳表实现，默认）
+ * 核心特性：
+ * 1. 买队列（BUY）：价格降序排列（高价优先），同价格按时间戳升序；
+ * 2. 卖队列（SELL）：价格升序排列（低价优先），同价格按时间戳升序；
+ * 3. 写操作由股票所属撮合分片线程串行执行（单写者），价格层ConcurrentSkipListMap可供其他线程安全读取；
+ * 4. 按股票代码隔离订单簿，避免跨股票撮合；
+ * 5. 同价格订单存放在侵入式双向链表（OrderQueue），配合clOrderId索引可O(1)撤单；
+ * 6. 每个价位维护挂单总量，FOK流动性预检查按价位累加，不逐笔遍历。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "trading.matching", name = "order-book", havingValue = "SKIP_LIST", matchIfMissing = true)
+public class SkipListOrderBook implements OrderBook {
+    /**
+     * 订单簿核心存储结构：
+     * - 第一层Key：securityId（股票代码）
+     * - 第二层Key：SideEnum（买卖方向）
+     * - 第三层：ConcurrentSkipListMap（价格有序Map），Key=价格，Value=该价格下的订单队列
+     */
+    private final ConcurrentMap<String, ConcurrentMap<SideEnum, ConcurrentSkipListMap<Double, OrderQueue>>> orderBookMap =
+            new ConcurrentHashMap<>();
+    private static final int INITIAL_INDEX_SIZE = 1024;
+    /**
+     * 订单索引：Key=securityId，Value=该股票 clOrderId → 队列节点 的索引（与订单簿同步维护）
+     */
+    private final ConcurrentMap<String, OrderIndex<OrderQueue.Node>> orderIndexMap = new ConcurrentHashMap<>();
+    private final MarketDataListener marketDataListener;
+
+    /**
+     * 订单簿事件同时通知集合竞价（维护处于集合竞价阶段股票的累计量曲线）
+     */
+    public SkipListOrderBook(MarketDataListener marketDataListener, CallAuction callAuction) {
+        this.marketDataListener = MarketDataListener.compose(callAuction.curveListener(), marketDataListener);
+    }
+
+    /**
+     * 初始化指定股票的订单簿（首次访问时自动初始化）
+     */
+    private void initOrderBook(String securityId) {
+        orderBookMap.computeIfAbsent(securityId, key -> {
+            // 初始化买卖方向的价格有序Map
+            ConcurrentMap<SideEnum, ConcurrentSkipListMap<Double, OrderQueue>> sideMap = new ConcurrentHashMap<>();
+
+            // 买队列：价格降序（高价优先），Comparator.reverseOrder()实现降序
+            sideMap.put(SideEnum.BUY, new ConcurrentSkipListMap<>(Comparator.reverseOrder()));
+            // 卖队列：价格升序（低价优先），自然序（默认）
+            sideMap.put(SideEnum.SELL, new ConcurrentSkipListMap<>(Comparator.naturalOrder()));
+
+            orderIndexMap.put(securityId, new OrderIndex<>(INITIAL_INDEX_SIZE));
+
+            log.info("初始化股票[{}]的订单簿", securityId);
+            return sideMap;
+        });
+    }
+
+    /**
+     * 跳表按价格动态分层，任意价格均可挂单
+     */
+    @Override
+    public boolean canRest(Order order) {
+        return true;
+    }
+
+    /**
+     * 添加订单到订单簿（线程安全）
+     * 逻辑：按「股票+方向+价格」分层存储，同价格订单按时间戳排队
+     */
+    @Override
+    public void addOrder(Order order) {
+        if (order == null || order.getSecurityId() == null || order.getSide() == null) {
+            log.error("订单参数非法，无法添加到订单簿：{}", order);
+            return;
+        }
+
+        String securityId = order.getSecurityId();
+        SideEnum side = order.getSide();
+        double price = order.getPrice();
+
+        // 1. 初始化订单簿（若未初始化）
+        initOrderBook(securityId);
+
+        // 2. 重复订单编号不予挂单（保证索引与订单簿一一对应）
+        OrderIndex<OrderQueue.Node> orderIndex = orderIndexMap.get(securityId);
+        if (orderIndex.get(order.getClOrderId()) != null) {
+            log.error("订单[{}]已在订单簿中，重复订单编号不予挂单", order.getClOrderId());
+            return;
+        }
+
+        // 3. 获取该股票+方向的价格有序Map，按价格获取/创建订单队列
+        ConcurrentSkipListMap<Double, OrderQueue> priceMap = orderBookMap.get(securityId).get(side);
+        OrderQueue orderQueue = priceMap.computeIfAbsent(price, k -> new OrderQueue());
+
+        // 4. 订单入队并登记索引
+        orderIndex.put(order.getClOrderId(), orderQueue.append(order));
+        marketDataListener.onOrderAdded(order);
+        EngineEventRecorder.record(EngineEvent.BOOK_ORDER_ADDED, order.getClOrderId(), securityId,
+                side.ordinal(), EngineEventRecorder.bits(price), orderQueue.size(), 0);
+    }
+
+    /**
+     * 获取指定股票+方向的价格有序Map（按价格优先排序，只读遍历使用）
+     */
+    ConcurrentSkipListMap<Double, OrderQueue> getPriceMap(String securityId, SideEnum side) {
+        initOrderBook(securityId);
+        return orderBookMap.get(securityId).get(side);
+    }
+
+    @Override
+    public Order peekBest(String securityId, SideEnum side) {
+        Map.Entry<Double, OrderQueue> bestEntry = getPriceMap(securityId, side).firstEntry();
+        return bestEntry == null ? null : bestEntry.getValue().peek();
+    }
+
+    @Override
+    public int bestLevelOrders(String securityId, SideEnum side, List<Order> out) {
+        Map.Entry<Double, OrderQueue> bestEntry = getPriceMap(securityId, side).firstEntry();
+        if (bestEntry == null) {
+            return 0;
+        }
+        for (Order order : bestEntry.getValue()) {
+            out.add(order);
+        }
+        return bestEntry.getValue().size();
+    }
+
+    @Override
+    public long availableQty(String securityId, SideEnum side, Double limitPrice, long targetQty) {
+        ConcurrentSkipListMap<Double, OrderQueue> priceMap = getPriceMap(securityId, side);
+        // 价格有序Map按本方向优先顺序排列，headMap即价格不劣于限价的价位
+        Map<Double, OrderQueue> levels = limitPrice == null ? priceMap : priceMap.headMap(limitPrice, true);
+        long total = 0;
+        for (OrderQueue orderQueue : levels.values()) {
+            total += orderQueue.getTotalQty();
+            if (total >= targetQty) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 挂单成交后同步订单簿（订单数量即挂单数量，调用前撮合引擎已扣减）
+     * 按索引节点定位价位队列扣减总量，完全成交的订单O(1)摘除，不要求位于队首
+     */
+    @Override
+    public void fill(Order restingOrder, int matchQty) {
+        String securityId = restingOrder.getSecurityId();
+        OrderIndex<OrderQueue.Node> orderIndex = orderIndexMap.get(securityId);
+        OrderQueue.Node node = orderIndex == null ? null : orderIndex.get(restingOrder.getClOrderId());
+        if (node == null || node.getOrder() != restingOrder) {
+            log.error("订单[{}]不在价格[{}]队列中，无法同步成交数量", restingOrder.getClOrderId(), restingOrder.getPrice());
+            return;
+        }
+        OrderQueue orderQueue = node.getQueue();
+        orderQueue.reduce(matchQty);
+        if (restingOrder.getQty() > 0) {
+            marketDataListener.onOrderFilled(restingOrder, matchQty, false);
+            return;
+        }
+
+        // 完全成交，从队列和索引移除
+        SideEnum side = restingOrder.getSide();
+        ConcurrentSkipListMap<Double, OrderQueue> priceMap = getPriceMap(securityId, side);
+        orderQueue.unlink(node);
+        orderIndex.remove(restingOrder.getClOrderId());
+        marketDataListener.onOrderFilled(restingOrder, matchQty, true);
+        EngineEventRecorder.record(EngineEvent.BOOK_ORDER_FILLED, restingOrder.getClOrderId(), securityId);
+
+        // 若当前价格队列空，移除该价格节点
+        if (orderQueue.isEmpty()) {
+            priceMap.remove(restingOrder.getPrice());
+            EngineEventRecorder.record(EngineEvent.BOOK_LEVEL_REMOVED, securityId, null,
+                    side.ordinal(), EngineEventRecorder.bits(restingOrder.getPrice()));
+        }
+    }
+
+    @Override
+    public Order findOrder(String securityId, String clOrderId) {
+        OrderIndex<OrderQueue.Node> orderIndex = orderIndexMap.get(securityId);
+        OrderQueue.Node node = orderIndex == null ? null : orderIndex.get(clOrderId);
+        return node == null ? null : node.getOrder();
+    }
+
+    /**
+     * 从订单簿移除指定订单（线程安全）
+     */
+    @Override
+    public boolean removeOrder(Order order) {
+        if (order == null || order.getSecurityId() == null || order.getSide() == null) {
+            log.error("订单参数非法，无法从订单簿移除：{}", order);
+            return false;
+        }
+
+        String securityId = order.getSecurityId();
+        SideEnum side = order.getSide();
+
+        // 1. 通过索引定位订单节点（O(1)）
+        OrderIndex<OrderQueue.Node> orderIndex = orderIndexMap.get(securityId);
+        OrderQueue.Node node = orderIndex == null ? null : orderIndex.get(order.getClOrderId());
+        if (node == null || node.getOrder().getSide() != side) {
+            log.warn("订单[{}]不存在于[{}]方向订单簿，股票[{}]", order.getClOrderId(), side.getDesc(), securityId);
+            return false;
+        }
+
+        // 2. 从价格队列摘除节点并删除索引（以订单簿中挂单的价格为准）
+        double price = node.getOrder().getPrice();
+        ConcurrentSkipListMap<Double, OrderQueue> priceMap = orderBookMap.get(securityId).get(side);
+        OrderQueue orderQueue = priceMap.get(price);
+        orderQueue.unlink(node);
+        orderIndex.remove(order.getClOrderId());
+        marketDataListener.onOrderRemoved(node.getOrder(), node.getOrder().getQty());
+
+        // 3. 若队列空，移除该价格节点（避免空队列占用内存）
+        if (orderQueue.isEmpty()) {
+            priceMap.remove(price);
+            EngineEventRecorder.record(EngineEvent.BOOK_LEVEL_REMOVED, securityId, null,
+                    side.ordinal(), EngineEventRecorder.bits(price));
+        }
+
+        EngineEventRecorder.record(EngineEvent.BOOK_ORDER_REMOVED, order.getClOrderId(), securityId,
+                side.ordinal(), EngineEventRecorder.bits(price));
+        return true;
+    }
+
+    @Override
+    public void forEachOrder(String securityId, SideEnum side, Consumer<Order> consumer) {
+        ConcurrentMap<SideEnum, ConcurrentSkipListMap<Double, OrderQueue>> sideMap = orderBookMap.get(securityId);
+        if (sideMap == null) {
+            return;
+        }
+        for (OrderQueue orderQueue : sideMap.get(side).values()) {
+            orderQueue.forEach(consumer);
+        }
+    }
+
+    @Override
+    public Set<String> getSecurityIds() {
+        return orderBookMap.keySet();
+    }
+
+    /**
+     * 清空指定股票的订单簿（测试/重置时使用）
+     */
+    @Override
+    public void clearOrderBook(String securityId) {
+        if (orderBookMap.containsKey(securityId)) {
+            orderBookMap.get(securityId).get(SideEnum.BUY).clear();
+            orderBookMap.get(securityId).get(SideEnum.SELL).clear();
+            orderIndexMap.get(securityId).clear();
+            marketDataListener.onBookCleared(securityId);
+            log.info("股票[{}]的订单簿已清空", securityId);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+
+/**
+ * 止损单触发索引（待触发的止损单不进入订单簿，不参与撮合）
+ * 核心逻辑：
+ * 1. 每个股票买卖方向各一个按触发价tick排序的有序Map，同一触发价按到达顺序排队：
+ *    买止损按触发价升序（成交价≥触发价时触发），卖止损按触发价降序（成交价≤触发价时触发）；
+ * 2. 每批成交后只从两个Map头部取出被成交价区间越过的触发价，未越过的触发价不扫描；
+ * 3. 按clOrderId索引，撤单直接定位到触发价队列；
+ * 4. 每个股票的状态只由其所属撮合分片线程修改（单写者），股票表可供其他线程读取。
+ */
+@Slf4j
+@Component
+public class StopOrderBook {
+    private final ConcurrentMap<String, SecurityStops> stops = new ConcurrentHashMap<>();
+
+    /**
+     * 股票是否有待触发的止损单（无止损单时只做一次空表判断）
+     */
+    public boolean hasStops(String securityId) {
+        if (stops.isEmpty()) {
+            return false;
+        }
+        SecurityStops securityStops = stops.get(securityId);
+        return securityStops != null && !securityStops.index.isEmpty();
+    }
+
+    /**
+     * 加入待触发止损单（按触发价排队）
+     */
+    public void add(Order order) {
+        SecurityStops securityStops = stops.computeIfAbsent(order.getSecurityId(), k -> new SecurityStops());
+        long tick = TickLadderOrderBook.toTicks(order.getStopPrice());
+        securityStops.side(order.getSide()).computeIfAbsent(tick, k -> new ArrayDeque<>()).addLast(order);
+        securityStops.index.put(order.getClOrderId(), order);
+    }
+
+    /**
+     * 按订单号查找待触发止损单
+     * @return 不存在时返回null
+     */
+    public Order findOrder(String securityId, String clOrderId) {
+        SecurityStops securityStops = stops.get(securityId);
+        return securityStops == null ? null : securityStops.index.get(clOrderId);
+    }
+
+    /**
+     * 移除待触发止损单（撤单）
+     * @return 止损单不存在时返回false
+     */
+    public boolean removeOrder(Order order) {
+        SecurityStops securityStops = stops.get(order.getSecurityId());
+        if (securityStops == null || securityStops.index.remove(order.getClOrderId()) == null) {
+            return false;
+        }
+        TreeMap<Long, ArrayDeque<Order>> sideStops = securityStops.side(order.getSide());
+        long tick = TickLadderOrderBook.toTicks(order.getStopPrice());
+        ArrayDeque<Order> queue = sideStops.get(tick);
+        if (queue != null && queue.remove(order) && queue.isEmpty()) {
+            sideStops.remove(tick);
+        }
+        return true;
+    }
+
+    /**
+     * 取出被成交价区间[lowTick, highTick]越过的止损单（按触发价由近及远、同价按到达顺序追加到out）
+     * @return 触发的止损单数量
+     */
+    int trigger(String securityId, long lowTick, long highTick, List<Order> out) {
+        SecurityStops securityStops = stops.get(securityId);
+        if (securityStops == null || securityStops.index.isEmpty()) {
+            return 0;
+        }
+        int before = out.size();
+        // 买止损：触发价升序，头部触发价 <= 最高成交价即被越过
+        drain(securityStops, securityStops.buyStops, tick -> tick <= highTick, out);
+        // 卖止损：触发价降序，头部触发价 >= 最低成交价即被越过
+        drain(securityStops, securityStops.sellStops, tick -> tick >= lowTick, out);
+        return out.size() - before;
+    }
+
+    private void drain(SecurityStops securityStops, TreeMap<Long, ArrayDeque<Order>> sideStops,
+                       LongPredicate crossed, List<Order> out) {
+        while (!sideStops.isEmpty()) {
+            Map.Entry<Long, ArrayDeque<Order>> head = sideStops.firstEntry();
+            if (!crossed.test(head.getKey())) {
+                return;
+            }
+            sideStops.pollFirstEntry();
+            for (Order order : head.getValue()) {
+                securityStops.index.remove(order.getClOrderId());
+                EngineEventRecorder.record(EngineEvent.STOP_TRIGGERED, order.getClOrderId(), null,
+                        EngineEventRecorder.bits(order.getStopPrice()), 0);
+                out.add(order);
+            }
+        }
+    }
+
+    /**
+     * 遍历股票的待触发止损单（快照/查询用，仅在股票所属撮合分片线程中调用）
+     */
+    public void forEachOrder(String securityId, Consumer<Order> consumer) {
+        SecurityStops securityStops = stops.get(securityId);
+        if (securityStops == null) {
+            return;
+        }
+        for (ArrayDeque<Order> queue : securityStops.buyStops.values()) {
+            queue.forEach(consumer);
+        }
+        for (ArrayDeque<Order> queue : securityStops.sellStops.values()) {
+            queue.forEach(consumer);
+        }
+    }
+
+    /**
+     * 有止损单记录的股票
+     */
+    public Set<String> getSecurityIds() {
+        return stops.keySet();
+    }
+
+    /**
+     * 单个股票的买卖止损单
+     */
+    private static final class SecurityStops {
+        private final TreeMap<Long, ArrayDeque<Order>> buyStops = new TreeMap<>();
+        private final TreeMap<Long, ArrayDeque<Order>> sellStops = new TreeMap<>(Comparator.reverseOrder());
+        private final Map<String, Order> index = new HashMap<>();
+
+        private TreeMap<Long, ArrayDeque<Order>> side(SideEnum side) {
+            return side == SideEnum.BUY ? buyStops : sellStops;
+        }
+    }
+}
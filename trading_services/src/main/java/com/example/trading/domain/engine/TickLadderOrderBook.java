@@ -0,0 +1,481 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * 订单簿（定点价格+数组价位实现）
+ * 核心特性：
+ * 1. 价格以long型tick存储（1 tick = 0.01元，与PriceGenerator保留2位小数一致），无Double装箱；
+ * 2. 每个方向一条数组价位阶梯（下标 = tick - baseTick），围绕当前最优价分配，越界时成倍扩容并重新居中；
+ * 3. 同价位订单挂在侵入式双向链表上，节点对象池化复用，按clOrderId索引可O(1)摘除；
+ * 4. 稳态（价位与节点预热后）添加/成交/撤单均不分配对象；
+ * 5. 每个股票的状态只由其所属撮合分片线程访问（单写者），内部结构不加锁。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "trading.matching", name = "order-book", havingValue = "TICK_LADDER")
+public class TickLadderOrderBook implements OrderBook {
+    /**
+     * 每元对应的tick数
+     */
+    public static final long TICKS_PER_UNIT = 100L;
+    private static final int INITIAL_LADDER_SIZE = 1024;
+    /**
+     * 单条价位阶梯最大长度（扩容时保留一倍余量，可容纳的价差约2万元），防止异常价格撑爆内存
+     */
+    private static final int MAX_LADDER_SIZE = 1 << 22;
+    private static final int INITIAL_INDEX_SIZE = 1024;
+
+    private final ConcurrentMap<String, SymbolBook> symbolBooks = new ConcurrentHashMap<>();
+    private final MarketDataListener marketDataListener;
+
+    /**
+     * 订单簿事件同时通知集合竞价（维护处于集合竞价阶段股票的累计量曲线）
+     */
+    public TickLadderOrderBook(MarketDataListener marketDataListener, CallAuction callAuction) {
+        this.marketDataListener = MarketDataListener.compose(callAuction.curveListener(), marketDataListener);
+    }
+
+    public static long toTicks(double price) {
+        return Math.round(price * TICKS_PER_UNIT);
+    }
+
+    public static double toPrice(long ticks) {
+        return ticks / (double) TICKS_PER_UNIT;
+    }
+
+    /**
+     * 价格是否为整数个tick（容忍十进制小数的二进制表示误差），非整数tick的价格在基础校验阶段拒绝，
+     * 否则本实现会四舍五入到相邻价位，与跳表实现的撮合结果不一致
+     */
+    public static boolean onTick(double price) {
+        return Math.abs(price * TICKS_PER_UNIT - toTicks(price)) < 1e-6;
+    }
+
+    @Override
+    public boolean canRest(Order order) {
+        SymbolBook book = symbolBooks.get(order.getSecurityId());
+        return book == null || book.ladder(order.getSide()).fits(toTicks(order.getPrice()));
+    }
+
+    @Override
+    public void addOrder(Order order) {
+        if (order == null || order.getSecurityId() == null || order.getSide() == null) {
+            log.error("订单参数非法，无法添加到订单簿：{}", order);
+            return;
+        }
+
+        SymbolBook book = symbolBook(order.getSecurityId());
+        if (book.index.get(order.getClOrderId()) != null) {
+            log.error("订单[{}]已在订单簿中，重复订单编号不予挂单", order.getClOrderId());
+            return;
+        }
+
+        Node node = book.acquireNode();
+        node.order = order;
+        node.tick = toTicks(order.getPrice());
+        node.qty = order.getQty();
+        book.ladder(order.getSide()).append(node);
+        book.index.put(order.getClOrderId(), node);
+        marketDataListener.onOrderAdded(order);
+        EngineEventRecorder.record(EngineEvent.BOOK_ORDER_ADDED, order.getClOrderId(), order.getSecurityId(),
+                order.getSide().ordinal(), EngineEventRecorder.bits(order.getPrice()), node.level.orderCount, 0);
+    }
+
+    @Override
+    public boolean removeOrder(Order order) {
+        if (order == null || order.getSecurityId() == null || order.getSide() == null) {
+            log.error("订单参数非法，无法从订单簿移除：{}", order);
+            return false;
+        }
+
+        SymbolBook book = symbolBooks.get(order.getSecurityId());
+        Node node = book == null ? null : book.index.get(order.getClOrderId());
+        if (node == null || node.order.getSide() != order.getSide()) {
+            log.warn("订单[{}]不存在于股票[{}]订单簿", order.getClOrderId(), order.getSecurityId());
+            return false;
+        }
+        int remainingQty = node.qty;
+        Order bookOrder = node.order;
+        book.unlink(node);
+        marketDataListener.onOrderRemoved(bookOrder, remainingQty);
+        EngineEventRecorder.record(EngineEvent.BOOK_ORDER_REMOVED, order.getClOrderId(), order.getSecurityId(),
+                order.getSide().ordinal(), EngineEventRecorder.bits(order.getPrice()));
+        return true;
+    }
+
+    @Override
+    public Order peekBest(String securityId, SideEnum side) {
+        SymbolBook book = symbolBooks.get(securityId);
+        if (book == null) {
+            return null;
+        }
+        Node best = book.ladder(side).bestNode();
+        return best == null ? null : best.order;
+    }
+
+    @Override
+    public int bestLevelOrders(String securityId, SideEnum side, List<Order> out) {
+        SymbolBook book = symbolBooks.get(securityId);
+        Node best = book == null ? null : book.ladder(side).bestNode();
+        if (best == null) {
+            return 0;
+        }
+        for (Node node = best; node != null; node = node.next) {
+            out.add(node.order);
+        }
+        return best.level.orderCount;
+    }
+
+    @Override
+    public long availableQty(String securityId, SideEnum side, Double limitPrice, long targetQty) {
+        SymbolBook book = symbolBooks.get(securityId);
+        return book == null ? 0L : book.ladder(side).availableQty(limitPrice == null ? null : toTicks(limitPrice),
+                targetQty);
+    }
+
+    @Override
+    public void fill(Order restingOrder, int matchQty) {
+        SymbolBook book = symbolBooks.get(restingOrder.getSecurityId());
+        Node node = book == null ? null : book.index.get(restingOrder.getClOrderId());
+        if (node == null || node.order != restingOrder) {
+            log.error("订单[{}]不在订单簿中，无法同步成交数量", restingOrder.getClOrderId());
+            return;
+        }
+        node.qty -= matchQty;
+        node.level.totalQty -= matchQty;
+        boolean removed = node.qty <= 0;
+        if (removed) {
+            book.unlink(node);
+            EngineEventRecorder.record(EngineEvent.BOOK_ORDER_FILLED, restingOrder.getClOrderId(),
+                    restingOrder.getSecurityId());
+        }
+        marketDataListener.onOrderFilled(restingOrder, matchQty, removed);
+    }
+
+    @Override
+    public Order findOrder(String securityId, String clOrderId) {
+        SymbolBook book = symbolBooks.get(securityId);
+        Node node = book == null ? null : book.index.get(clOrderId);
+        return node == null ? null : node.order;
+    }
+
+    @Override
+    public void forEachOrder(String securityId, SideEnum side, Consumer<Order> consumer) {
+        SymbolBook book = symbolBooks.get(securityId);
+        if (book != null) {
+            book.ladder(side).forEachOrder(consumer);
+        }
+    }
+
+    @Override
+    public Set<String> getSecurityIds() {
+        return symbolBooks.keySet();
+    }
+
+    @Override
+    public void clearOrderBook(String securityId) {
+        if (symbolBooks.remove(securityId) != null) {
+            marketDataListener.onBookCleared(securityId);
+            log.info("股票[{}]的订单簿已清空", securityId);
+        }
+    }
+
+    private SymbolBook symbolBook(String securityId) {
+        SymbolBook book = symbolBooks.get(securityId);
+        if (book == null) {
+            book = symbolBooks.computeIfAbsent(securityId, key -> new SymbolBook());
+            log.info("初始化股票[{}]的订单簿", securityId);
+        }
+        return book;
+    }
+
+    /**
+     * 单个股票的订单簿（买卖两条价位阶梯+订单索引+节点池）
+     */
+    private static final class SymbolBook {
+        private final PriceLadder bids = new PriceLadder(true);
+        private final PriceLadder asks = new PriceLadder(false);
+        private final OrderIndex<Node> index = new OrderIndex<>(INITIAL_INDEX_SIZE);
+        /**
+         * 空闲节点链表（通过next串联）
+         */
+        private Node freeNodes;
+
+        private PriceLadder ladder(SideEnum side) {
+            return side == SideEnum.BUY ? bids : asks;
+        }
+
+        private Node acquireNode() {
+            Node node = freeNodes;
+            if (node == null) {
+                return new Node();
+            }
+            freeNodes = node.next;
+            node.next = null;
+            return node;
+        }
+
+        /**
+         * 摘除节点：出链表、删索引、归还节点池
+         */
+        private void unlink(Node node) {
+            ladder(node.order.getSide()).remove(node);
+            index.remove(node.order.getClOrderId());
+            node.order = null;
+            node.level = null;
+            node.prev = null;
+            node.next = freeNodes;
+            freeNodes = node;
+        }
+    }
+
+    /**
+     * 单方向价位阶梯
+     */
+    private static final class PriceLadder {
+        private final boolean bid;
+        private Level[] levels;
+        private long baseTick;
+        /**
+         * 最优价位下标（-1表示无挂单）
+         */
+        private int bestIndex = -1;
+        /**
+         * 非空价位数
+         */
+        private int activeLevels;
+
+        private PriceLadder(boolean bid) {
+            this.bid = bid;
+        }
+
+        private Node bestNode() {
+            return bestIndex < 0 ? null : levels[bestIndex].head;
+        }
+
+        private void append(Node node) {
+            int index = indexOf(node.tick);
+            Level level = levels[index];
+            if (level == null) {
+                level = new Level(node.tick);
+                levels[index] = level;
+            }
+            level.append(node);
+            if (level.orderCount == 1) {
+                activeLevels++;
+                if (bestIndex < 0 || isBetter(index, bestIndex)) {
+                    bestIndex = index;
+                }
+            }
+        }
+
+        private void remove(Node node) {
+            Level level = node.level;
+            level.unlink(node);
+            if (level.orderCount == 0) {
+                activeLevels--;
+                if ((int) (level.tick - baseTick) == bestIndex) {
+                    advanceBest();
+                }
+            }
+        }
+
+        /**
+         * 最优价位被清空后，沿价格变差方向查找下一个非空价位
+         */
+        private void advanceBest() {
+            if (activeLevels == 0) {
+                bestIndex = -1;
+                return;
+            }
+            int step = bid ? -1 : 1;
+            int index = bestIndex + step;
+            while (levels[index] == null || levels[index].orderCount == 0) {
+                index += step;
+            }
+            bestIndex = index;
+        }
+
+        /**
+         * 从最优价位沿价格变差方向累加各价位挂单总量，越过限价、达到目标数量或已累加全部非空价位时停止
+         * @param limitTick 限价tick（null表示不限价格）
+         */
+        private long availableQty(Long limitTick, long targetQty) {
+            if (bestIndex < 0) {
+                return 0L;
+            }
+            int step = bid ? -1 : 1;
+            int lastIndex = bid ? 0 : levels.length - 1;
+            if (limitTick != null) {
+                long limitIndex = limitTick - baseTick;
+                if (bid ? limitIndex > bestIndex : limitIndex < bestIndex) {
+                    return 0L;
+                }
+                lastIndex = (int) Math.max(0, Math.min(levels.length - 1, limitIndex));
+            }
+            long total = 0;
+            int visited = 0;
+            for (int index = bestIndex; visited < activeLevels; index += step) {
+                Level level = levels[index];
+                if (level != null && level.orderCount > 0) {
+                    total += level.totalQty;
+                    visited++;
+                    if (total >= targetQty) {
+                        break;
+                    }
+                }
+                if (index == lastIndex) {
+                    break;
+                }
+            }
+            return total;
+        }
+
+        /**
+         * 从最优价位沿价格变差方向遍历全部挂单
+         */
+        private void forEachOrder(Consumer<Order> consumer) {
+            if (bestIndex < 0) {
+                return;
+            }
+            int step = bid ? -1 : 1;
+            for (int index = bestIndex; index >= 0 && index < levels.length; index += step) {
+                Level level = levels[index];
+                for (Node node = level == null ? null : level.head; node != null; node = node.next) {
+                    consumer.accept(node.order);
+                }
+            }
+        }
+
+        private boolean isBetter(int index, int otherIndex) {
+            return bid ? index > otherIndex : index < otherIndex;
+        }
+
+        /**
+         * 计算tick对应的数组下标，超出当前阶梯范围时扩容并重新居中
+         */
+        private int indexOf(long tick) {
+            if (levels == null) {
+                levels = new Level[INITIAL_LADDER_SIZE];
+                baseTick = tick - INITIAL_LADDER_SIZE / 2;
+            }
+            long offset = tick - baseTick;
+            if (offset < 0 || offset >= levels.length) {
+                grow(tick);
+                offset = tick - baseTick;
+            }
+            return (int) offset;
+        }
+
+        /**
+         * tick能否落在阶梯内（已在范围内，或扩容后不超过最大长度）
+         */
+        private boolean fits(long tick) {
+            if (levels == null) {
+                return true;
+            }
+            long offset = tick - baseTick;
+            return offset >= 0 && offset < levels.length || span(tick) <= MAX_LADDER_SIZE / 2;
+        }
+
+        /**
+         * 现有阶梯与tick合并后的跨度（溢出时返回Long.MAX_VALUE）
+         */
+        private long span(long tick) {
+            long low = Math.min(baseTick, tick);
+            long high = Math.max(baseTick + levels.length - 1, tick);
+            long span = high - low + 1;
+            return span <= 0 ? Long.MAX_VALUE : span;
+        }
+
+        private void grow(long tick) {
+            long span = span(tick);
+            if (span > MAX_LADDER_SIZE / 2) {
+                throw new IllegalStateException("价格tick[" + tick + "]超出订单簿价位阶梯范围");
+            }
+            long low = Math.min(baseTick, tick);
+            int newSize = levels.length;
+            while (newSize < span * 2) {
+                newSize <<= 1;
+            }
+            long newBase = low - (newSize - span) / 2;
+            int shift = (int) (baseTick - newBase);
+            Level[] newLevels = new Level[newSize];
+            System.arraycopy(levels, 0, newLevels, shift, levels.length);
+            if (bestIndex >= 0) {
+                bestIndex += shift;
+            }
+            levels = newLevels;
+            baseTick = newBase;
+        }
+    }
+
+    /**
+     * 价位：同价格订单的侵入式双向链表（头部最早）
+     */
+    private static final class Level {
+        private final long tick;
+        private Node head;
+        private Node tail;
+        private long totalQty;
+        private int orderCount;
+
+        private Level(long tick) {
+            this.tick = tick;
+        }
+
+        private void append(Node node) {
+            node.level = this;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            totalQty += node.qty;
+            orderCount++;
+        }
+
+        private void unlink(Node node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            totalQty -= node.qty;
+            orderCount--;
+        }
+    }
+
+    /**
+     * 挂单节点（池化复用）
+     */
+    private static final class Node {
+        private Order order;
+        private long tick;
+        private int qty;
+        private Level level;
+        private Node prev;
+        private Node next;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.domain.model.Trade;
+
+/**
+ * 成交事件发布接口（撮合线程调用，实现方不得阻塞撮合）
+ */
+public interface TradeEventPublisher {
+
+    /**
+     * 发布单边成交事件
+     */
+    void publish(Trade trade);
+}
@@ -0,0 +1,38 @@
+package com.example.trading.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 集合竞价结果（集中撮合结果或虚拟参考价）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionResult implements Serializable {
+    /**
+     * 股票代码（char[6]）
+     */
+    private String securityId;
+    /**
+     * 参考价（成交价），买卖无法成交时为null
+     */
+    private Double price;
+    /**
+     * 参考价下的成交量
+     */
+    private Long volume;
+    /**
+     * 参考价下的盈余量（正数为未成交买量，负数为未成交卖量）
+     */
+    private Long surplus;
+    /**
+     * 成交笔数（仅查询参考价时为0）
+     */
+    private Integer tradeCount;
+}
@@ -0,0 +1,62 @@
+package com.example.trading.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * K线实体类（OHLCV，每笔成交只按买方一侧计一次）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Bar implements Serializable {
+    /**
+     * 股票代码（char[6]）
+     */
+    private String securityId;
+    /**
+     * K线周期（秒）
+     */
+    private Long periodSeconds;
+    /**
+     * 周期起始时间戳（毫秒，按周期对齐）
+     */
+    private Long startTime;
+    /**
+     * 开盘价
+     */
+    private Double open;
+    /**
+     * 最高价
+     */
+    private Double high;
+    /**
+     * 最低价
+     */
+    private Double low;
+    /**
+     * 收盘价
+     */
+    private Double close;
+    /**
+     * 成交量
+     */
+    private Long volume;
+    /**
+     * 成交额
+     */
+    private Double turnover;
+    /**
+     * 成交笔数
+     */
+    private Integer tradeCount;
+    /**
+     * 是否已收盘（该周期之后已有成交）
+     */
+    private Boolean closed;
+}
@@ -0,0 +1,43 @@
+package com.example.trading.domain.model;
+
+import com.example.trading.common.enums.SideEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 撤单请求实体（对应protocol/cancel.schema.json）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CancelRequest implements Serializable {
+    /**
+     * 撤单请求编号（char[16]）
+     */
+    private String clOrderId;
+    /**
+     * 待撤原订单编号（char[16]）
+     */
+    private String origClOrderId;
+    /**
+     * 交易市场（XSHG/XSHE/BJSE）
+     */
+    private String market;
+    /**
+     * 股票代码（char[6]）
+     */
+    private String securityId;
+    /**
+     * 股东号（char[10]）
+     */
+    private String shareholderId;
+    /**
+     * 买卖方向
+     */
+    private SideEnum side;
+}
@@ -1,4 +1,91 @@
 package com.example.trading.domain.model;
 
-public class MarketData {
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 行情快照实体类（对应protocol/market_data.schema.json）
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketData implements Serializable {
+    /**
+     * 交易市场（XSHG/XSHE/BJSE）
+     */
+    private String market;
+    /**
+     * 股票代码（char[6]）
+     */
+    private String securityId;
+    /**
+     * 最优买价（无买盘时为null）
+     */
+    private Double bidPrice;
+    /**
+     * 最优买价挂单总量
+     */
+    private Long bidQty;
+    /**
+     * 最优卖价（无卖盘时为null）
+     */
+    private Double askPrice;
+    /**
+     * 最优卖价挂单总量
+     */
+    private Long askQty;
+    /**
+     * 买盘档位（价格降序，最多depth-levels档）
+     */
+    private List<PriceLevel> bids;
+    /**
+     * 卖盘档位（价格升序，最多depth-levels档）
+     */
+    private List<PriceLevel> asks;
+    /**
+     * 最新成交价（尚无成交时为null）
+     */
+    private Double lastPrice;
+    /**
+     * 最新成交数量
+     */
+    private Integer lastQty;
+    /**
+     * 累计成交量
+     */
+    private Long volume;
+    /**
+     * 累计成交额
+     */
+    private Double turnover;
+    /**
+     * 成交量加权均价（turnover / volume，尚无成交时为null）
+     */
+    private Double vwap;
+    /**
+     * 行情更新序号（每次行情变化递增，合并发布时可能跳号）
+     */
+    private Long sequence;
+    /**
+     * 快照时间戳（毫秒）
+     */
+    private Long timestamp;
+
+    /**
+     * 单个价格档位
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceLevel implements Serializable {
+        private Double price;
+        private Long qty;
+        private Integer orderCount;
+    }
 }
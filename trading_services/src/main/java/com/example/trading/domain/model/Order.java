@@ -1,7 +1,9 @@
 package com.example.trading.domain.model;
 
 import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
 import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +15,7 @@ import java.io.Serializable;
  * 订单实体类（对应题目JSON结构）
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order implements Serializable {
@@ -38,11 +40,16 @@ public class Order implements Serializable {
      */
     private SideEnum side;
     /**
-     * 订单数量（uint32）
+     * 订单数量（uint32，撮合后为剩余未成交数量）
      */
     private Integer qty;
     /**
-     * 订单价格
+     * 累计成交数量（原始委托数量 = qty + cumQty）
+     */
+    @Builder.Default
+    private Integer cumQty = 0;
+    /**
+     * 订单价格（市价、止损市价单为null）
      */
     private Double price;
     /**
@@ -53,4 +60,16 @@ public class Order implements Serializable {
      * 订单提交时间戳
      */
     private Long timestamp;
+    /**
+     * 订单类型（null按限价单处理）
+     */
+    private OrderTypeEnum ordType;
+    /**
+     * 有效期（null按当日有效处理）
+     */
+    private TimeInForceEnum timeInForce;
+    /**
+     * 止损触发价（仅止损单）：买单在成交价>=触发价、卖单在成交价<=触发价时触发
+     */
+    private Double stopPrice;
 }
\ No newline at end of file
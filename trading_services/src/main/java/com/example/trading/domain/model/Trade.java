@@ -1,4 +1,64 @@
 package com.example.trading.domain.model;
 
-public class Trade {
+import com.example.trading.common.enums.SideEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 成交回报实体（对应protocol/trade.schema.json，每笔成交买卖双方各一条）
+ * 生成后不再修改，可安全跨线程传递
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Trade implements Serializable {
+    /**
+     * 订单唯一编号（char[16]）
+     */
+    private String clOrderId;
+    /**
+     * 交易市场（XSHG/XSHE/BJSE）
+     */
+    private String market;
+    /**
+     * 股票代码（char[6]）
+     */
+    private String securityId;
+    /**
+     * 买卖方向
+     */
+    private SideEnum side;
+    /**
+     * 原始委托数量
+     */
+    private Integer qty;
+    /**
+     * 委托价格
+     */
+    private Double price;
+    /**
+     * 股东号（char[10]）
+     */
+    private String shareholderId;
+    /**
+     * 成交编号（char[12]，买卖双方相同）
+     */
+    private String execId;
+    /**
+     * 成交数量
+     */
+    private Integer execQty;
+    /**
+     * 成交价格
+     */
+    private Double execPrice;
+    /**
+     * 成交时间戳
+     */
+    private Long timestamp;
 }
@@ -1,60 +1,320 @@
 package com.example.trading.domain.risk;
 
 import com.example.trading.common.enums.ErrorCodeEnum;
-import com.example.trading.domain.model.Order;
+import com.example.trading.common.enums.OrderStatusEnum;
 import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * 对敲风控检查器（检测同一股东号自买自卖）
+ * 对敲风控检查器（检测同一股东号自买自卖，判定条件与Python风控服务self_trade_checker.py一致）
+ * 判定条件（全部满足则拦截）：同一股东号、同一股票、同一市场、相反方向、价格可成交（买价>=卖价）、在时间窗口内
+ * 核心逻辑：
+ * 1. 按 股票 → 股东号 两级索引该股东在该股票上的挂单，每个方向缓存最优价格挂单（买最高/卖最低），检查时直接比较，无字符串拼接；
+ * 2. 最优挂单已成交/撤单/超出时间窗口时才扫描该股东该方向的挂单并重算（通常只有几笔），清除失效条目；
+ * 3. 新订单撮合后仍有剩余挂单时由调用方登记（track），撤单时移除（untrack），完全成交的挂单在下次访问时清除；
+ * 4. 每个股票的索引只由其所属撮合分片线程访问（单写者），股东索引不加锁；条目数超过阈值时整体清理一次失效条目，内存有界；
+ * 5. 时间以订单时间戳计（回放时取日志中的时间戳，结果可复现），time-window<=0表示不限时间。
  */
 @Slf4j
 @Component
 public class SelfTradeChecker {
+    private static final int INITIAL_SWEEP_THRESHOLD = 64;
+
+    private final boolean enable;
+    private final long timeWindow;
     /**
-     * 风控缓存：key=shareholderId+securityId，value=订单方向
-     * ConcurrentHashMap保证线程安全
+     * 挂单索引：key=securityId，value=该股票 股东号 → 挂单 的索引
      */
-    private final Map<String, SideEnum> selfTradeCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SecurityIndex> securityIndexes = new ConcurrentHashMap<>();
+
+    public SelfTradeChecker(RiskConfig riskConfig) {
+        this.enable = riskConfig.isEnable();
+        this.timeWindow = riskConfig.getTimeWindow();
+        log.info("对敲风控：开启[{}]，时间窗口[{}]ms", enable, timeWindow);
+    }
 
     /**
-     * 检查是否存在对敲交易
+     * 检查是否存在对敲交易（须在股票所属撮合分片线程中调用）
      * @return 错误码（null则通过）
      */
     public ErrorCodeEnum check(Order order) {
-        String cacheKey = order.getShareholderId() + "_" + order.getSecurityId();
-        SideEnum existSide = selfTradeCache.get(cacheKey);
-
-        // 1. 缓存中无该股东号-股票的订单，存入缓存
-        if (existSide == null) {
-            selfTradeCache.put(cacheKey, order.getSide());
-            log.info("订单{}风控检查通过，无对敲风险", order.getClOrderId());
+        if (!enable) {
+            return null;
+        }
+        SecurityIndex securityIndex = securityIndexes.get(order.getSecurityId());
+        ShareholderOrders shareholderOrders = securityIndex == null
+                ? null : securityIndex.shareholders.get(order.getShareholderId());
+        if (shareholderOrders == null) {
+            EngineEventRecorder.record(EngineEvent.SELF_TRADE_PASSED, order.getClOrderId());
             return null;
         }
 
-        // 2. 缓存中有相反方向订单，判定为对敲
-        if (!existSide.equals(order.getSide())) {
-            log.warn("订单{}触发对敲风控：股东号{}，股票{}，存在相反方向订单",
-                    order.getClOrderId(), order.getShareholderId(), order.getSecurityId());
+        SideOrders counterOrders = shareholderOrders.side(order.getSide() == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY);
+        Order matched = counterOrders.findCrossing(order, timestamp(order), timeWindow);
+        if (matched != null) {
+            EngineEventRecorder.record(EngineEvent.SELF_TRADE_REJECTED, order.getClOrderId(), matched.getClOrderId());
             return ErrorCodeEnum.SELF_TRADE;
         }
-
-        // 3. 同方向订单，更新缓存（不影响）
-        selfTradeCache.put(cacheKey, order.getSide());
-        log.info("订单{}风控检查通过，同方向订单", order.getClOrderId());
+        EngineEventRecorder.record(EngineEvent.SELF_TRADE_PASSED, order.getClOrderId());
         return null;
     }
 
     /**
-     * 订单成交/撤单后，移除风控缓存
+     * 登记撮合后仍在订单簿中挂单的订单（须在股票所属撮合分片线程中调用；已完全成交/被拒的订单忽略）
+     */
+    public void track(Order order) {
+        if (!enable || !isResting(order)) {
+            return;
+        }
+        SecurityIndex securityIndex = securityIndexes.computeIfAbsent(order.getSecurityId(), key -> new SecurityIndex());
+        securityIndex.shareholders.computeIfAbsent(order.getShareholderId(), key -> new ShareholderOrders())
+                .side(order.getSide()).add(order, timestamp(order), timeWindow);
+        securityIndex.sweepIfNeeded(timestamp(order), timeWindow);
+    }
+
+    /**
+     * 撤单后移除挂单（须在股票所属撮合分片线程中调用）
+     */
+    public void untrack(Order order) {
+        SecurityIndex securityIndex = securityIndexes.get(order.getSecurityId());
+        ShareholderOrders shareholderOrders = securityIndex == null
+                ? null : securityIndex.shareholders.get(order.getShareholderId());
+        if (shareholderOrders == null) {
+            return;
+        }
+        shareholderOrders.side(order.getSide()).remove(order);
+        if (shareholderOrders.isEmpty()) {
+            securityIndex.shareholders.remove(order.getShareholderId());
+        }
+        EngineEventRecorder.record(EngineEvent.SELF_TRADE_CACHE_REMOVED, order.getShareholderId(), order.getSecurityId());
+    }
+
+    /**
+     * 取出与新订单相关的挂单快照：同一股东、同一股票、反方向、仍在挂单且在时间窗口内（须在股票所属撮合分片线程中调用）
+     * 供远程风控服务检查使用，只发送可能构成对敲的挂单，而不是整个订单簿
+     */
+    public List<Order> restingCounterOrders(Order order) {
+        SecurityIndex securityIndex = securityIndexes.get(order.getSecurityId());
+        ShareholderOrders shareholderOrders = securityIndex == null
+                ? null : securityIndex.shareholders.get(order.getShareholderId());
+        if (shareholderOrders == null) {
+            return List.of();
+        }
+        SideOrders counterOrders = shareholderOrders.side(order.getSide() == SideEnum.BUY ? SideEnum.SELL : SideEnum.BUY);
+        counterOrders.prune(timestamp(order), timeWindow);
+        List<Order> snapshot = new ArrayList<>(counterOrders.size);
+        for (int i = 0; i < counterOrders.size; i++) {
+            snapshot.add(counterOrders.orders[i].toBuilder().build());
+        }
+        return snapshot;
+    }
+
+    /**
+     * 当前索引中的挂单数（含尚未清除的失效条目）
+     */
+    public int trackedOrderCount() {
+        int count = 0;
+        for (SecurityIndex securityIndex : securityIndexes.values()) {
+            count += securityIndex.orderCount();
+        }
+        return count;
+    }
+
+    private static long timestamp(Order order) {
+        return order.getTimestamp() == null ? 0L : order.getTimestamp();
+    }
+
+    /**
+     * 订单仍在订单簿中挂单（挂单数量、状态由撮合分片线程同步更新）
+     */
+    private static boolean isResting(Order order) {
+        OrderStatusEnum status = order.getStatus();
+        return order.getQty() != null && order.getQty() > 0
+                && (status == OrderStatusEnum.MATCHING || status == OrderStatusEnum.PART_FILLED);
+    }
+
+    private static boolean isExpired(Order resting, long now, long timeWindow) {
+        return timeWindow > 0 && now - timestamp(resting) > timeWindow;
+    }
+
+    /**
+     * 单个股票的股东挂单索引
+     */
+    private static final class SecurityIndex {
+        private final Map<String, ShareholderOrders> shareholders = new HashMap<>();
+        private int sweepThreshold = INITIAL_SWEEP_THRESHOLD;
+
+        /**
+         * 股东数超过阈值时清理失效条目，阈值随清理后的规模翻倍，摊还O(1)
+         */
+        private void sweepIfNeeded(long now, long timeWindow) {
+            if (shareholders.size() < sweepThreshold) {
+                return;
+            }
+            Iterator<ShareholderOrders> iterator = shareholders.values().iterator();
+            while (iterator.hasNext()) {
+                ShareholderOrders shareholderOrders = iterator.next();
+                shareholderOrders.buys.prune(now, timeWindow);
+                shareholderOrders.sells.prune(now, timeWindow);
+                if (shareholderOrders.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            sweepThreshold = Math.max(INITIAL_SWEEP_THRESHOLD, shareholders.size() * 2);
+        }
+
+        private int orderCount() {
+            int count = 0;
+            for (ShareholderOrders shareholderOrders : shareholders.values()) {
+                count += shareholderOrders.buys.size + shareholderOrders.sells.size;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 单个股东在单个股票上的买卖挂单
+     */
+    private static final class ShareholderOrders {
+        private final SideOrders buys = new SideOrders(true);
+        private final SideOrders sells = new SideOrders(false);
+
+        private SideOrders side(SideEnum side) {
+            return side == SideEnum.BUY ? buys : sells;
+        }
+
+        private boolean isEmpty() {
+            return buys.size == 0 && sells.size == 0;
+        }
+    }
+
+    /**
+     * 单方向挂单列表 + 最优价格挂单缓存
      */
-    public void removeCache(String shareholderId, String securityId) {
-        String cacheKey = shareholderId + "_" + securityId;
-        selfTradeCache.remove(cacheKey);
-        log.info("移除风控缓存：{}", cacheKey);
+    private static final class SideOrders {
+        private final boolean buy;
+        private Order[] orders = new Order[2];
+        private int size;
+        /**
+         * 最优价格挂单（null表示需要重算）
+         */
+        private Order best;
+
+        private SideOrders(boolean buy) {
+            this.buy = buy;
+        }
+
+        private void add(Order order, long now, long timeWindow) {
+            if (size == orders.length) {
+                // 扩容前先清除失效挂单，列表长度只随有效挂单增长
+                prune(now, timeWindow);
+            }
+            boolean wasEmpty = size == 0;
+            if (size == orders.length) {
+                Order[] grown = new Order[size * 2];
+                System.arraycopy(orders, 0, grown, 0, size);
+                orders = grown;
+            }
+            orders[size++] = order;
+            if (wasEmpty || (best != null && isBetter(order, best))) {
+                best = order;
+            }
+        }
+
+        private void remove(Order order) {
+            for (int i = 0; i < size; i++) {
+                if (orders[i] == order) {
+                    removeAt(i);
+                    break;
+                }
+            }
+            if (best == order) {
+                best = null;
+            }
+        }
+
+        /**
+         * 查找与新订单构成对敲的挂单
+         * 快速路径：最优挂单有效时只比较一次价格；最优挂单失效时清理并重算
+         */
+        private Order findCrossing(Order incoming, long now, long timeWindow) {
+            if (size == 0) {
+                return null;
+            }
+            if (best == null || !isResting(best) || isExpired(best, now, timeWindow)) {
+                prune(now, timeWindow);
+                if (best == null) {
+                    return null;
+                }
+            }
+            if (!crosses(incoming.getPrice(), best.getPrice())) {
+                return null;
+            }
+            if (best.getMarket().equals(incoming.getMarket())) {
+                return best;
+            }
+            // 同一股票代码跨市场（罕见）：逐笔比对，与最优挂单同样只认有效且在时间窗口内的挂单
+            for (int i = 0; i < size; i++) {
+                Order resting = orders[i];
+                if (isResting(resting) && !isExpired(resting, now, timeWindow)
+                        && resting.getMarket().equals(incoming.getMarket())
+                        && crosses(incoming.getPrice(), resting.getPrice())) {
+                    return resting;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 清除已成交/撤单/超出时间窗口的挂单，并重算最优挂单
+         */
+        private void prune(long now, long timeWindow) {
+            best = null;
+            int i = 0;
+            while (i < size) {
+                Order resting = orders[i];
+                if (!isResting(resting) || isExpired(resting, now, timeWindow)) {
+                    removeAt(i);
+                    continue;
+                }
+                if (best == null || isBetter(resting, best)) {
+                    best = resting;
+                }
+                i++;
+            }
+        }
+
+        private void removeAt(int index) {
+            orders[index] = orders[--size];
+            orders[size] = null;
+        }
+
+        /**
+         * 新订单价格与本方向挂单价格可成交（本方向为买：挂单买价>=新卖单价；本方向为卖：挂单卖价<=新买单价；
+         * 市价单无价格，与任意挂单可成交）
+         */
+        private boolean crosses(Double incomingPrice, double restingPrice) {
+            if (incomingPrice == null) {
+                return true;
+            }
+            return buy ? restingPrice >= incomingPrice : restingPrice <= incomingPrice;
+        }
+
+        private boolean isBetter(Order order, Order other) {
+            return buy ? order.getPrice() > other.getPrice() : order.getPrice() < other.getPrice();
+        }
     }
-}
\ No newline at end of file
+}
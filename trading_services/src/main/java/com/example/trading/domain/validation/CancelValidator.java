@@ -1,4 +1,72 @@
 package com.example.trading.domain.validation;
 
+import com.example.trading.common.Constants;
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 撤单基础校验器（无业务含义的基础校验）
+ */
+@Slf4j
+@Component
 public class CancelValidator {
+    // 合法交易市场
+    private static final Set<String> VALID_MARKETS = Set.of("XSHG", "XSHE", "BJSE");
+
+    /**
+     * 校验撤单请求合法性
+     * @return 错误信息列表（空则校验通过）
+     */
+    public List<ErrorCodeEnum> validate(CancelRequest cancel) {
+        List<ErrorCodeEnum> errors = new ArrayList<>();
+
+        // 1. 必填字段非空校验
+        if (cancel.getClOrderId() == null || cancel.getClOrderId().isEmpty()) {
+            errors.add(ErrorCodeEnum.PARAM_NULL);
+        }
+        if (cancel.getOrigClOrderId() == null || cancel.getOrigClOrderId().isEmpty()) {
+            errors.add(ErrorCodeEnum.PARAM_NULL);
+        }
+        if (cancel.getMarket() == null || cancel.getMarket().isEmpty()) {
+            errors.add(ErrorCodeEnum.PARAM_NULL);
+        }
+        if (cancel.getSecurityId() == null || cancel.getSecurityId().isEmpty()) {
+            errors.add(ErrorCodeEnum.PARAM_NULL);
+        }
+        if (cancel.getShareholderId() == null || cancel.getShareholderId().isEmpty()) {
+            errors.add(ErrorCodeEnum.PARAM_NULL);
+        }
+        if (cancel.getSide() == null) {
+            errors.add(ErrorCodeEnum.PARAM_NULL);
+        }
+
+        // 2. 交易市场合法性
+        if (cancel.getMarket() != null && !VALID_MARKETS.contains(cancel.getMarket())) {
+            errors.add(ErrorCodeEnum.MARKET_INVALID);
+        }
+
+        // 3. 编号字段长度
+        if (OrderValidator.tooLong(cancel.getClOrderId(), Constants.MAX_CL_ORDER_ID_LENGTH)
+                || OrderValidator.tooLong(cancel.getOrigClOrderId(), Constants.MAX_CL_ORDER_ID_LENGTH)
+                || OrderValidator.tooLong(cancel.getShareholderId(), Constants.MAX_SHAREHOLDER_ID_LENGTH)
+                || OrderValidator.tooLong(cancel.getSecurityId(), Constants.MAX_SECURITY_ID_LENGTH)) {
+            errors.add(ErrorCodeEnum.FIELD_TOO_LONG);
+        }
+
+        // 4. 股票代码字符
+        if (OrderValidator.securityIdInvalid(cancel.getSecurityId())) {
+            errors.add(ErrorCodeEnum.SECURITY_ID_INVALID);
+        }
+
+        EngineEventRecorder.record(EngineEvent.CANCEL_VALIDATED, cancel.getClOrderId(), null, errors.size(), 0);
+        return errors;
+    }
 }
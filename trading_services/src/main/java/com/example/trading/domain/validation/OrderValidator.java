@@ -1,8 +1,13 @@
 package com.example.trading.domain.validation;
 
+import com.example.trading.common.Constants;
 import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
 import com.example.trading.domain.model.Order;
 import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.TickLadderOrderBook;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -25,6 +30,7 @@ public class OrderValidator {
      */
     public List<ErrorCodeEnum> validate(Order order) {
         List<ErrorCodeEnum> errors = new ArrayList<>();
+        OrderTypeEnum ordType = OrderTypeEnum.orLimit(order.getOrdType());
 
         // 1. 必填字段非空校验
         if (order.getClOrderId() == null || order.getClOrderId().isEmpty()) {
@@ -42,7 +48,7 @@ public class OrderValidator {
         if (order.getQty() == null) {
             errors.add(ErrorCodeEnum.PARAM_NULL);
         }
-        if (order.getPrice() == null) {
+        if (order.getPrice() == null && ordType.isPriced()) {
             errors.add(ErrorCodeEnum.PARAM_NULL);
         }
         if (order.getShareholderId() == null || order.getShareholderId().isEmpty()) {
@@ -55,10 +61,8 @@ public class OrderValidator {
         }
 
         // 3. 买卖方向合法性
-        if (order.getSide() == null && order.getSide().getCode() != null) {
-            if (SideEnum.getByCode(order.getSide().getCode()) == null) {
-                errors.add(ErrorCodeEnum.SIDE_INVALID);
-            }
+        if (order.getSide() != null && SideEnum.getByCode(order.getSide().getCode()) == null) {
+            errors.add(ErrorCodeEnum.SIDE_INVALID);
         }
 
         // 4. 数量合法性
@@ -66,12 +70,47 @@ public class OrderValidator {
             errors.add(ErrorCodeEnum.QTY_INVALID);
         }
 
-        // 5. 价格合法性
-        if (order.getPrice() != null && order.getPrice() < 0) {
+        // 5. 价格合法性：非负且为整数个tick（两种订单簿实现看到相同的价位）
+        if (order.getPrice() != null && (order.getPrice() < 0 || !TickLadderOrderBook.onTick(order.getPrice()))) {
             errors.add(ErrorCodeEnum.PRICE_INVALID);
         }
 
-        log.info("订单{}基础校验完成，错误数：{}", order.getClOrderId(), errors.size());
+        // 6. 订单类型与价格：市价、止损市价单不带价格（撮合时以对手方价格成交）
+        if (order.getPrice() != null && !ordType.isPriced()) {
+            errors.add(ErrorCodeEnum.ORDER_TYPE_INVALID);
+        }
+
+        // 7. 止损触发价：仅止损单指定，大于0且为整数个tick
+        if (ordType.isStop() ? order.getStopPrice() == null || order.getStopPrice() <= 0
+                || !TickLadderOrderBook.onTick(order.getStopPrice()) : order.getStopPrice() != null) {
+            errors.add(ErrorCodeEnum.STOP_PRICE_INVALID);
+        }
+
+        // 8. 编号字段长度
+        if (tooLong(order.getClOrderId(), Constants.MAX_CL_ORDER_ID_LENGTH)
+                || tooLong(order.getShareholderId(), Constants.MAX_SHAREHOLDER_ID_LENGTH)
+                || tooLong(order.getSecurityId(), Constants.MAX_SECURITY_ID_LENGTH)) {
+            errors.add(ErrorCodeEnum.FIELD_TOO_LONG);
+        }
+
+        // 9. 股票代码字符（用作历史成交文件名）
+        if (securityIdInvalid(order.getSecurityId())) {
+            errors.add(ErrorCodeEnum.SECURITY_ID_INVALID);
+        }
+
+        EngineEventRecorder.record(EngineEvent.ORDER_VALIDATED, order.getClOrderId(), null, errors.size(), 0);
         return errors;
     }
+
+    static boolean tooLong(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+
+    /**
+     * 非空、未超长但含字母数字以外字符的股票代码（空值与超长已由前面的校验报告）
+     */
+    static boolean securityIdInvalid(String securityId) {
+        return securityId != null && !securityId.isEmpty() && !tooLong(securityId, Constants.MAX_SECURITY_ID_LENGTH)
+                && !Constants.SECURITY_ID_PATTERN.matcher(securityId).matches();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,501 @@
+package com.example.trading.gateway;
+
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.google.gson.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制网关消息编解码（定长布局，对应protocol/下的JSON Schema）
+ * 帧格式：帧头4字节（u16整帧长度 + u8消息类型 + u8版本），消息体字段按固定宽度依次排列，大端字节序
+ * 字段编码：
+ *   char[N]：ASCII，不足N字节补0x00，全0表示空；rejectText为UTF-8，超长按字符边界截断
+ *   side：1字节'B'/'S'；qty等整数：int32；price等价格：float64
+ *   ordType：1字节'L'/'M'/'S'/'T'（限价/市价/止损市价/止损限价）；timeInForce：1字节'D'/'I'/'F'；0x00表示未指定
+ * 消息体：
+ *   ORDER v2       同ACK + ordType timeInForce stopPrice（可空价格price/stopPrice以NaN表示空）
+ *   ORDER v1       同ACK（只能表示限价当日有效单，兼容旧客户端）
+ *   ACK            clOrderId[16] market[4] securityId[6] side qty price shareholderId[10]
+ *   REJECT         同ACK + rejectCode rejectText[64]
+ *   TRADE          同ACK + execId[12] execQty execPrice
+ *   CANCEL         clOrderId[16] origClOrderId[16] market[4] securityId[6] shareholderId[10] side
+ *   CANCEL_ACK     同CANCEL + qty price cumQty canceledQty
+ *   CANCEL_REJECT  clOrderId[16] origClOrderId[16] rejectCode rejectText[64]
+ * 解码直接从（直接内存）缓冲区按绝对下标读取字段，不经过JSON文本和中间对象
+ */
+public final class BinaryCodec {
+    public static final byte VERSION = 1;
+    /**
+     * 委托帧当前版本（v2增加订单类型、有效期与止损触发价），网关同时接受v1委托帧
+     */
+    public static final byte ORDER_VERSION = 2;
+    public static final int HEADER_LENGTH = 4;
+
+    public static final byte ORDER = 1;
+    public static final byte CANCEL = 2;
+    public static final byte ACK = 3;
+    public static final byte REJECT = 4;
+    public static final byte TRADE = 5;
+    public static final byte CANCEL_ACK = 6;
+    public static final byte CANCEL_REJECT = 7;
+
+    public static final int CL_ORDER_ID_WIDTH = 16;
+    public static final int MARKET_WIDTH = 4;
+    public static final int SECURITY_ID_WIDTH = 6;
+    public static final int SHAREHOLDER_ID_WIDTH = 10;
+    public static final int EXEC_ID_WIDTH = 12;
+    public static final int REJECT_TEXT_WIDTH = 64;
+
+    private static final int ORDER_BODY = CL_ORDER_ID_WIDTH + MARKET_WIDTH + SECURITY_ID_WIDTH + 1 + 4 + 8
+            + SHAREHOLDER_ID_WIDTH;
+    private static final int CANCEL_BODY = CL_ORDER_ID_WIDTH * 2 + MARKET_WIDTH + SECURITY_ID_WIDTH
+            + SHAREHOLDER_ID_WIDTH + 1;
+
+    public static final int ACK_LENGTH = HEADER_LENGTH + ORDER_BODY;
+    public static final int ORDER_V1_LENGTH = ACK_LENGTH;
+    public static final int ORDER_LENGTH = ACK_LENGTH + 1 + 1 + 8;
+    public static final int REJECT_LENGTH = ACK_LENGTH + 4 + REJECT_TEXT_WIDTH;
+    public static final int TRADE_LENGTH = ACK_LENGTH + EXEC_ID_WIDTH + 4 + 8;
+    public static final int CANCEL_LENGTH = HEADER_LENGTH + CANCEL_BODY;
+    public static final int CANCEL_ACK_LENGTH = CANCEL_LENGTH + 4 + 8 + 4 + 4;
+    public static final int CANCEL_REJECT_LENGTH = HEADER_LENGTH + CL_ORDER_ID_WIDTH * 2 + 4 + REJECT_TEXT_WIDTH;
+    /**
+     * 最长帧长度（出站缓冲区至少容纳一帧）
+     */
+    public static final int MAX_FRAME_LENGTH = Math.max(TRADE_LENGTH, Math.max(REJECT_LENGTH, CANCEL_REJECT_LENGTH));
+
+    private static final byte BUY = 'B';
+    private static final byte SELL = 'S';
+    private static final byte UNSPECIFIED = 0;
+    private static final byte LIMIT = 'L';
+    private static final byte MARKET = 'M';
+    private static final byte STOP = 'S';
+    private static final byte STOP_LIMIT = 'T';
+    private static final byte DAY = 'D';
+    private static final byte IOC = 'I';
+    private static final byte FOK = 'F';
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * 读取帧头中的整帧长度（offset为帧起始下标）
+     */
+    public static int frameLength(ByteBuffer buffer, int offset) {
+        return Short.toUnsignedInt(buffer.getShort(offset));
+    }
+
+    public static byte frameType(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 2);
+    }
+
+    public static byte frameVersion(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + 3);
+    }
+
+    /**
+     * 各消息类型、版本的定长帧长度（未知类型或版本返回-1）
+     */
+    public static int expectedLength(byte type, byte version) {
+        if (type == ORDER) {
+            return version == ORDER_VERSION ? ORDER_LENGTH : version == VERSION ? ORDER_V1_LENGTH : -1;
+        }
+        if (version != VERSION) {
+            return -1;
+        }
+        switch (type) {
+            case CANCEL:
+                return CANCEL_LENGTH;
+            case ACK:
+                return ACK_LENGTH;
+            case REJECT:
+                return REJECT_LENGTH;
+            case TRADE:
+                return TRADE_LENGTH;
+            case CANCEL_ACK:
+                return CANCEL_ACK_LENGTH;
+            case CANCEL_REJECT:
+                return CANCEL_REJECT_LENGTH;
+            default:
+                return -1;
+        }
+    }
+
+    // ======================== 入站：委托/撤单 ========================
+
+    /**
+     * 从缓冲区offset处解码委托帧（不移动position），v1帧的订单类型与有效期保持未指定（限价、当日有效）
+     * @param scratch 解码定长字符串用的暂存数组（长度>=16，每个连接一个，复用）
+     * @throws IllegalArgumentException 订单类型或有效期编码不合法（帧无法表示确定的委托）
+     */
+    public static Order decodeOrder(ByteBuffer buffer, int offset, byte[] scratch) {
+        int index = offset + HEADER_LENGTH;
+        Order order = new Order();
+        order.setClOrderId(getAscii(buffer, index, CL_ORDER_ID_WIDTH, scratch));
+        index += CL_ORDER_ID_WIDTH;
+        order.setMarket(getAscii(buffer, index, MARKET_WIDTH, scratch));
+        index += MARKET_WIDTH;
+        order.setSecurityId(getAscii(buffer, index, SECURITY_ID_WIDTH, scratch));
+        index += SECURITY_ID_WIDTH;
+        order.setSide(getSide(buffer, index));
+        index += 1;
+        order.setQty(buffer.getInt(index));
+        index += 4;
+        boolean v2 = frameVersion(buffer, offset) == ORDER_VERSION;
+        if (v2) {
+            order.setPrice(getNullableDouble(buffer, index));
+        } else {
+            order.setPrice(buffer.getDouble(index));
+        }
+        index += 8;
+        order.setShareholderId(getAscii(buffer, index, SHAREHOLDER_ID_WIDTH, scratch));
+        index += SHAREHOLDER_ID_WIDTH;
+        if (v2) {
+            order.setOrdType(getOrdType(buffer, index));
+            order.setTimeInForce(getTimeInForce(buffer, index + 1));
+            order.setStopPrice(getNullableDouble(buffer, index + 2));
+        }
+        return order;
+    }
+
+    /**
+     * 从缓冲区offset处解码撤单帧（不移动position）
+     */
+    public static CancelRequest decodeCancel(ByteBuffer buffer, int offset, byte[] scratch) {
+        int index = offset + HEADER_LENGTH;
+        CancelRequest cancel = new CancelRequest();
+        cancel.setClOrderId(getAscii(buffer, index, CL_ORDER_ID_WIDTH, scratch));
+        index += CL_ORDER_ID_WIDTH;
+        cancel.setOrigClOrderId(getAscii(buffer, index, CL_ORDER_ID_WIDTH, scratch));
+        index += CL_ORDER_ID_WIDTH;
+        cancel.setMarket(getAscii(buffer, index, MARKET_WIDTH, scratch));
+        index += MARKET_WIDTH;
+        cancel.setSecurityId(getAscii(buffer, index, SECURITY_ID_WIDTH, scratch));
+        index += SECURITY_ID_WIDTH;
+        cancel.setShareholderId(getAscii(buffer, index, SHAREHOLDER_ID_WIDTH, scratch));
+        index += SHAREHOLDER_ID_WIDTH;
+        cancel.setSide(getSide(buffer, index));
+        return cancel;
+    }
+
+    /**
+     * 编码委托帧（客户端使用，按当前版本ORDER_VERSION）
+     */
+    public static void encodeOrder(ByteBuffer out, Order order) {
+        out.putShort((short) ORDER_LENGTH).put(ORDER).put(ORDER_VERSION);
+        putAscii(out, order.getClOrderId(), CL_ORDER_ID_WIDTH);
+        putAscii(out, order.getMarket(), MARKET_WIDTH);
+        putAscii(out, order.getSecurityId(), SECURITY_ID_WIDTH);
+        putSide(out, order.getSide());
+        out.putInt(intValue(order.getQty()));
+        putNullableDouble(out, order.getPrice());
+        putAscii(out, order.getShareholderId(), SHAREHOLDER_ID_WIDTH);
+        putOrdType(out, order.getOrdType());
+        putTimeInForce(out, order.getTimeInForce());
+        putNullableDouble(out, order.getStopPrice());
+    }
+
+    /**
+     * 编码撤单帧（客户端使用）
+     */
+    public static void encodeCancel(ByteBuffer out, CancelRequest cancel) {
+        putHeader(out, CANCEL, CANCEL_LENGTH);
+        putCancelBody(out, cancel.getClOrderId(), cancel.getOrigClOrderId(), cancel.getMarket(),
+                cancel.getSecurityId(), cancel.getShareholderId(), cancel.getSide());
+    }
+
+    // ======================== 出站：回报 ========================
+
+    /**
+     * 订单确认回报（撮合后的订单快照，qty为剩余未成交数量）
+     */
+    public static void encodeAck(ByteBuffer out, Order order) {
+        putHeader(out, ACK, ACK_LENGTH);
+        putOrderBody(out, order.getClOrderId(), order.getMarket(), order.getSecurityId(), order.getSide(),
+                order.getQty(), order.getPrice(), order.getShareholderId());
+    }
+
+    public static void encodeReject(ByteBuffer out, Order order, int rejectCode, String rejectText) {
+        putHeader(out, REJECT, REJECT_LENGTH);
+        putOrderBody(out, order.getClOrderId(), order.getMarket(), order.getSecurityId(), order.getSide(),
+                order.getQty(), order.getPrice(), order.getShareholderId());
+        out.putInt(rejectCode);
+        putUtf8(out, rejectText, REJECT_TEXT_WIDTH);
+    }
+
+    public static void encodeTrade(ByteBuffer out, Trade trade) {
+        putHeader(out, TRADE, TRADE_LENGTH);
+        putOrderBody(out, trade.getClOrderId(), trade.getMarket(), trade.getSecurityId(), trade.getSide(),
+                trade.getQty(), trade.getPrice(), trade.getShareholderId());
+        putAscii(out, trade.getExecId(), EXEC_ID_WIDTH);
+        out.putInt(intValue(trade.getExecQty()));
+        out.putDouble(doubleValue(trade.getExecPrice()));
+    }
+
+    /**
+     * 撤单确认回报（qty = cumQty + canceledQty）
+     */
+    public static void encodeCancelAck(ByteBuffer out, CancelRequest cancel, Order order, int canceledQty) {
+        putHeader(out, CANCEL_ACK, CANCEL_ACK_LENGTH);
+        putCancelBody(out, cancel.getClOrderId(), order.getClOrderId(), order.getMarket(), order.getSecurityId(),
+                order.getShareholderId(), order.getSide());
+        out.putInt(intValue(order.getCumQty()) + canceledQty);
+        out.putDouble(doubleValue(order.getPrice()));
+        out.putInt(intValue(order.getCumQty()));
+        out.putInt(canceledQty);
+    }
+
+    public static void encodeCancelReject(ByteBuffer out, CancelRequest cancel, int rejectCode, String rejectText) {
+        putHeader(out, CANCEL_REJECT, CANCEL_REJECT_LENGTH);
+        putAscii(out, cancel.getClOrderId(), CL_ORDER_ID_WIDTH);
+        putAscii(out, cancel.getOrigClOrderId(), CL_ORDER_ID_WIDTH);
+        out.putInt(rejectCode);
+        putUtf8(out, rejectText, REJECT_TEXT_WIDTH);
+    }
+
+    /**
+     * 读取回报帧的clOrderId（各回报帧消息体的第一个字段，客户端按它匹配请求）
+     */
+    public static String clOrderId(ByteBuffer buffer, int offset, byte[] scratch) {
+        return getAscii(buffer, offset + HEADER_LENGTH, CL_ORDER_ID_WIDTH, scratch);
+    }
+
+    // ======================== 调试/客户端：任意帧转JSON ========================
+
+    /**
+     * 把offset处的一帧解码为JSON对象，字段名与protocol/下对应Schema一致（side为B/S）
+     */
+    public static JsonObject toJson(ByteBuffer buffer, int offset) {
+        byte type = frameType(buffer, offset);
+        int index = offset + HEADER_LENGTH;
+        byte[] scratch = new byte[REJECT_TEXT_WIDTH];
+        JsonObject json = new JsonObject();
+        if (type == CANCEL || type == CANCEL_ACK || type == CANCEL_REJECT) {
+            json.addProperty("clOrderId", getAscii(buffer, index, CL_ORDER_ID_WIDTH, scratch));
+            index += CL_ORDER_ID_WIDTH;
+            json.addProperty("origClOrderId", getAscii(buffer, index, CL_ORDER_ID_WIDTH, scratch));
+            index += CL_ORDER_ID_WIDTH;
+            if (type == CANCEL_REJECT) {
+                json.addProperty("rejectCode", buffer.getInt(index));
+                json.addProperty("rejectText", getUtf8(buffer, index + 4, REJECT_TEXT_WIDTH, scratch));
+                return json;
+            }
+            json.addProperty("market", getAscii(buffer, index, MARKET_WIDTH, scratch));
+            index += MARKET_WIDTH;
+            json.addProperty("securityId", getAscii(buffer, index, SECURITY_ID_WIDTH, scratch));
+            index += SECURITY_ID_WIDTH;
+            json.addProperty("shareholderId", getAscii(buffer, index, SHAREHOLDER_ID_WIDTH, scratch));
+            index += SHAREHOLDER_ID_WIDTH;
+            json.addProperty("side", String.valueOf((char) buffer.get(index)));
+            index += 1;
+            if (type == CANCEL_ACK) {
+                json.addProperty("qty", buffer.getInt(index));
+                json.addProperty("price", buffer.getDouble(index + 4));
+                json.addProperty("cumQty", buffer.getInt(index + 12));
+                json.addProperty("canceledQty", buffer.getInt(index + 16));
+            }
+            return json;
+        }
+        byte version = frameVersion(buffer, offset);
+        if (expectedLength(type, version) < 0) {
+            throw new IllegalArgumentException("未知消息类型/版本：" + type + "/" + version);
+        }
+        json.addProperty("clOrderId", getAscii(buffer, index, CL_ORDER_ID_WIDTH, scratch));
+        index += CL_ORDER_ID_WIDTH;
+        json.addProperty("market", getAscii(buffer, index, MARKET_WIDTH, scratch));
+        index += MARKET_WIDTH;
+        json.addProperty("securityId", getAscii(buffer, index, SECURITY_ID_WIDTH, scratch));
+        index += SECURITY_ID_WIDTH;
+        json.addProperty("side", String.valueOf((char) buffer.get(index)));
+        index += 1;
+        json.addProperty("qty", buffer.getInt(index));
+        index += 4;
+        double price = buffer.getDouble(index);
+        if (!Double.isNaN(price)) {
+            json.addProperty("price", price);
+        }
+        index += 8;
+        json.addProperty("shareholderId", getAscii(buffer, index, SHAREHOLDER_ID_WIDTH, scratch));
+        index += SHAREHOLDER_ID_WIDTH;
+        if (type == ORDER && version == ORDER_VERSION) {
+            OrderTypeEnum ordType = getOrdType(buffer, index);
+            if (ordType != null) {
+                json.addProperty("ordType", ordType.getCode());
+            }
+            TimeInForceEnum timeInForce = getTimeInForce(buffer, index + 1);
+            if (timeInForce != null) {
+                json.addProperty("timeInForce", timeInForce.getCode());
+            }
+            Double stopPrice = getNullableDouble(buffer, index + 2);
+            if (stopPrice != null) {
+                json.addProperty("stopPrice", stopPrice);
+            }
+        } else if (type == REJECT) {
+            json.addProperty("rejectCode", buffer.getInt(index));
+            json.addProperty("rejectText", getUtf8(buffer, index + 4, REJECT_TEXT_WIDTH, scratch));
+        } else if (type == TRADE) {
+            json.addProperty("execId", getAscii(buffer, index, EXEC_ID_WIDTH, scratch));
+            index += EXEC_ID_WIDTH;
+            json.addProperty("execQty", buffer.getInt(index));
+            json.addProperty("execPrice", buffer.getDouble(index + 4));
+        }
+        return json;
+    }
+
+    // ======================== 字段编解码 ========================
+
+    private static void putHeader(ByteBuffer out, byte type, int length) {
+        out.putShort((short) length).put(type).put(VERSION);
+    }
+
+    private static void putOrderBody(ByteBuffer out, String clOrderId, String market, String securityId,
+                                     SideEnum side, Integer qty, Double price, String shareholderId) {
+        putAscii(out, clOrderId, CL_ORDER_ID_WIDTH);
+        putAscii(out, market, MARKET_WIDTH);
+        putAscii(out, securityId, SECURITY_ID_WIDTH);
+        putSide(out, side);
+        out.putInt(intValue(qty));
+        out.putDouble(doubleValue(price));
+        putAscii(out, shareholderId, SHAREHOLDER_ID_WIDTH);
+    }
+
+    private static void putCancelBody(ByteBuffer out, String clOrderId, String origClOrderId, String market,
+                                      String securityId, String shareholderId, SideEnum side) {
+        putAscii(out, clOrderId, CL_ORDER_ID_WIDTH);
+        putAscii(out, origClOrderId, CL_ORDER_ID_WIDTH);
+        putAscii(out, market, MARKET_WIDTH);
+        putAscii(out, securityId, SECURITY_ID_WIDTH);
+        putAscii(out, shareholderId, SHAREHOLDER_ID_WIDTH);
+        putSide(out, side);
+    }
+
+    /**
+     * 定长ASCII字段：不足补0，超长或含非ASCII字符时抛出IllegalArgumentException（定长布局无法表示）
+     */
+    private static void putAscii(ByteBuffer out, String value, int width) {
+        int length = value == null ? 0 : value.length();
+        if (length > width) {
+            throw new IllegalArgumentException("字段超出定长[" + width + "]：" + value);
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                throw new IllegalArgumentException("字段含非ASCII字符：" + value);
+            }
+            out.put((byte) c);
+        }
+        for (int i = length; i < width; i++) {
+            out.put((byte) 0);
+        }
+    }
+
+    private static String getAscii(ByteBuffer buffer, int index, int width, byte[] scratch) {
+        buffer.get(index, scratch, 0, width);
+        int length = 0;
+        while (length < width && scratch[length] != 0) {
+            length++;
+        }
+        return length == 0 ? null : new String(scratch, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 定长UTF-8字段：超长时按字符边界截断，不足补0
+     */
+    private static void putUtf8(ByteBuffer out, String value, int width) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, width);
+        // 截断点落在多字节字符中间时回退到该字符起始字节
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        out.put(bytes, 0, length);
+        for (int i = length; i < width; i++) {
+            out.put((byte) 0);
+        }
+    }
+
+    private static String getUtf8(ByteBuffer buffer, int index, int width, byte[] scratch) {
+        buffer.get(index, scratch, 0, width);
+        int length = 0;
+        while (length < width && scratch[length] != 0) {
+            length++;
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static void putSide(ByteBuffer out, SideEnum side) {
+        out.put(side == null ? 0 : side == SideEnum.BUY ? BUY : SELL);
+    }
+
+    private static SideEnum getSide(ByteBuffer buffer, int index) {
+        byte value = buffer.get(index);
+        return value == BUY ? SideEnum.BUY : value == SELL ? SideEnum.SELL : null;
+    }
+
+    private static void putOrdType(ByteBuffer out, OrderTypeEnum ordType) {
+        out.put(ordType == null ? UNSPECIFIED : ordType == OrderTypeEnum.LIMIT ? LIMIT
+                : ordType == OrderTypeEnum.MARKET ? MARKET : ordType == OrderTypeEnum.STOP ? STOP : STOP_LIMIT);
+    }
+
+    private static OrderTypeEnum getOrdType(ByteBuffer buffer, int index) {
+        byte value = buffer.get(index);
+        switch (value) {
+            case UNSPECIFIED:
+                return null;
+            case LIMIT:
+                return OrderTypeEnum.LIMIT;
+            case MARKET:
+                return OrderTypeEnum.MARKET;
+            case STOP:
+                return OrderTypeEnum.STOP;
+            case STOP_LIMIT:
+                return OrderTypeEnum.STOP_LIMIT;
+            default:
+                throw new IllegalArgumentException("非法订单类型编码：" + value);
+        }
+    }
+
+    private static void putTimeInForce(ByteBuffer out, TimeInForceEnum timeInForce) {
+        out.put(timeInForce == null ? UNSPECIFIED : timeInForce == TimeInForceEnum.DAY ? DAY
+                : timeInForce == TimeInForceEnum.IOC ? IOC : FOK);
+    }
+
+    private static TimeInForceEnum getTimeInForce(ByteBuffer buffer, int index) {
+        byte value = buffer.get(index);
+        switch (value) {
+            case UNSPECIFIED:
+                return null;
+            case DAY:
+                return TimeInForceEnum.DAY;
+            case IOC:
+                return TimeInForceEnum.IOC;
+            case FOK:
+                return TimeInForceEnum.FOK;
+            default:
+                throw new IllegalArgumentException("非法有效期编码：" + value);
+        }
+    }
+
+    private static void putNullableDouble(ByteBuffer out, Double value) {
+        out.putDouble(value == null ? Double.NaN : value);
+    }
+
+    private static Double getNullableDouble(ByteBuffer buffer, int index) {
+        double value = buffer.getDouble(index);
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static int intValue(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static double doubleValue(Double value) {
+        return value == null ? 0D : value;
+    }
+}
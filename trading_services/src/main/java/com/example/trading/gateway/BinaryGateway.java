@@ -0,0 +1,362 @@
+package com.example.trading.gateway;
+
+import com.example.trading.application.CancelService;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.config.GatewayConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 二进制TCP网关（与REST接口并存，消息格式见BinaryCodec）
+ * 核心逻辑：
+ * 1. 单个网络线程（NIO Selector）负责接入、读、写，每个连接一对直接内存缓冲区，内核数据直接读入直接内存；
+ * 2. 读到完整帧后按绝对下标从缓冲区解码为委托/撤单，直接投递ExchangeService/CancelService，不经过JSON；
+ * 3. 撮合分片完成后只把结果放入连接的待发队列并唤醒网络线程（合并唤醒），编码与写socket都在网络线程，不占用撮合分片线程；
+ * 4. 回报按完成先后写出：委托为确认回报+本方成交回报（或拒绝回报），撤单为撤单确认/拒绝回报，客户端按clOrderId关联；
+ * 5. 出站缓冲区写满时登记OP_WRITE，socket可写后继续写出剩余回报；帧长度/类型非法时关闭连接；
+ * 6. 每个连接的在途请求（已投递、回报尚未编码进出站缓冲区）达到max-in-flight时停止解码并取消OP_READ，
+ *    回报写出后恢复；客户端只发不收时待发回报与撮合分片积压都有上限。
+ */
+@Slf4j
+@Component
+public class BinaryGateway {
+    private final ExchangeService exchangeService;
+    private final CancelService cancelService;
+    private final int readBufferSize;
+    private final int writeBufferSize;
+    private final int maxInFlight;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread ioThread;
+    /**
+     * 有待发回报的连接（撮合分片线程写入，网络线程取出）
+     */
+    private final Queue<Connection> writeReady = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    public BinaryGateway(GatewayConfig gatewayConfig, ExchangeService exchangeService,
+                         CancelService cancelService) throws IOException {
+        this.exchangeService = exchangeService;
+        this.cancelService = cancelService;
+        this.readBufferSize = Math.max(BinaryCodec.MAX_FRAME_LENGTH, gatewayConfig.getReadBufferSize());
+        this.writeBufferSize = Math.max(BinaryCodec.MAX_FRAME_LENGTH, gatewayConfig.getWriteBufferSize());
+        this.maxInFlight = Math.max(1, gatewayConfig.getMaxInFlight());
+        if (!gatewayConfig.isEnable()) {
+            this.selector = null;
+            this.serverChannel = null;
+            this.ioThread = null;
+            log.info("二进制TCP网关未启用");
+            return;
+        }
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(gatewayConfig.getPort()));
+        this.serverChannel.configureBlocking(false);
+        this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.ioThread = new Thread(this::ioLoop, "binary-gateway");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+        log.info("二进制TCP网关启动：端口[{}]", getPort());
+    }
+
+    /**
+     * 实际监听端口（配置为0时由系统分配），未启用时返回-1
+     */
+    public int getPort() {
+        return serverChannel == null ? -1 : serverChannel.socket().getLocalPort();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ioThread == null) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ioLoop() {
+        try {
+            while (running) {
+                selector.select();
+                wakeupPending.set(false);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("二进制网关连接[{}]异常，关闭连接：{}", connection.remote, e.toString());
+                        connection.close();
+                    }
+                }
+                Connection connection;
+                while ((connection = writeReady.poll()) != null) {
+                    try {
+                        connection.flush();
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("二进制网关连接[{}]写出失败，关闭连接：{}", connection.remote, e.toString());
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("二进制网关网络线程异常退出", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            closeQuietly(serverChannel);
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        log.info("二进制网关接入连接[{}]", connection.remote);
+    }
+
+    /**
+     * 撮合分片完成后调用：结果入队，必要时唤醒网络线程
+     */
+    private void complete(Connection connection, Object outcome) {
+        connection.completed.add(outcome);
+        writeReady.add(connection);
+        if (!wakeupPending.getAndSet(true)) {
+            selector.wakeup();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.debug("关闭失败：{}", e.toString());
+        }
+    }
+
+    /**
+     * 单个客户端连接（缓冲区只由网络线程访问，completed由撮合分片线程写入）
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final String remote;
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(readBufferSize);
+        private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(writeBufferSize);
+        private final byte[] scratch = new byte[BinaryCodec.CL_ORDER_ID_WIDTH];
+        private final Queue<Object> completed = new ConcurrentLinkedQueue<>();
+        private SelectionKey key;
+        /**
+         * 正在写出的委托结果及下一帧序号（0为确认/拒绝回报，1..n为成交回报）
+         */
+        private ExchangeService.MatchOutcome current;
+        private int nextFrame;
+        /**
+         * 在途请求数（投递时加一，回报全部编码后减一，只由网络线程读写）
+         */
+        private int inFlight;
+        private boolean readSuspended;
+        private boolean writePending;
+
+        private Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.remote = String.valueOf(channel.getRemoteAddress());
+        }
+
+        private void read() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                log.info("二进制网关连接[{}]已关闭", remote);
+                close();
+                return;
+            }
+            readBuffer.flip();
+            dispatchFrames();
+        }
+
+        /**
+         * 解码并投递入站缓冲区（读模式）中的完整帧，在途请求达到上限时停止，剩余字节留待回报写出后继续
+         */
+        private void dispatchFrames() throws IOException {
+            int offset = readBuffer.position();
+            int limit = readBuffer.limit();
+            while (inFlight < maxInFlight && limit - offset >= BinaryCodec.HEADER_LENGTH) {
+                int length = BinaryCodec.frameLength(readBuffer, offset);
+                byte type = BinaryCodec.frameType(readBuffer, offset);
+                byte version = BinaryCodec.frameVersion(readBuffer, offset);
+                if (length != BinaryCodec.expectedLength(type, version)
+                        || (type != BinaryCodec.ORDER && type != BinaryCodec.CANCEL)) {
+                    throw new IOException("非法帧：类型[" + type + "]，版本[" + version + "]，长度[" + length + "]");
+                }
+                if (limit - offset < length) {
+                    break;
+                }
+                dispatch(type, offset);
+                inFlight++;
+                offset += length;
+            }
+            readBuffer.position(offset);
+            readBuffer.compact();
+            readSuspended = inFlight >= maxInFlight;
+            updateInterestOps();
+        }
+
+        private void dispatch(byte type, int offset) {
+            if (type == BinaryCodec.ORDER) {
+                Order order = BinaryCodec.decodeOrder(readBuffer, offset, scratch);
+                exchangeService.submitOrder(order).whenComplete((outcome, error) -> complete(this,
+                        error == null ? outcome : new ExchangeService.MatchOutcome(order, List.of(),
+                                ErrorCodeEnum.MATCH_FAILED)));
+            } else {
+                CancelRequest cancel = BinaryCodec.decodeCancel(readBuffer, offset, scratch);
+                cancelService.submitCancel(cancel).whenComplete((outcome, error) -> complete(this,
+                        error == null ? outcome : new CancelService.CancelOutcome(cancel, null, 0,
+                                ErrorCodeEnum.MATCH_FAILED)));
+            }
+        }
+
+        /**
+         * 编码待发回报并写socket，出站缓冲区放不下下一帧时先写出，socket写不动则等待OP_WRITE
+         */
+        private void flush() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            while (true) {
+                if (writeBuffer.remaining() < BinaryCodec.MAX_FRAME_LENGTH && !writeOut()) {
+                    return;
+                }
+                if (current == null) {
+                    Object outcome = completed.poll();
+                    if (outcome == null) {
+                        break;
+                    }
+                    if (outcome instanceof CancelService.CancelOutcome) {
+                        encodeCancel((CancelService.CancelOutcome) outcome);
+                        inFlight--;
+                        continue;
+                    }
+                    current = (ExchangeService.MatchOutcome) outcome;
+                    nextFrame = 0;
+                }
+                encodeNextFrame();
+            }
+            writeOut();
+            // 暂停读取期间回报已写出：先处理缓冲区中已读入的帧，再恢复读取
+            if (readSuspended && inFlight < maxInFlight) {
+                readBuffer.flip();
+                dispatchFrames();
+            }
+        }
+
+        private void encodeNextFrame() {
+            ExchangeService.MatchOutcome outcome = current;
+            if (nextFrame == 0) {
+                if (outcome.getRejectCode() != null) {
+                    BinaryCodec.encodeReject(writeBuffer, outcome.getOrder(), outcome.getRejectCode().getCode(),
+                            outcome.getRejectCode().getMsg());
+                    current = null;
+                    inFlight--;
+                    return;
+                }
+                BinaryCodec.encodeAck(writeBuffer, outcome.getOrder());
+            } else {
+                BinaryCodec.encodeTrade(writeBuffer, outcome.getTrades().get(nextFrame - 1));
+            }
+            nextFrame++;
+            if (nextFrame > outcome.getTrades().size()) {
+                current = null;
+                inFlight--;
+            }
+        }
+
+        private void encodeCancel(CancelService.CancelOutcome outcome) {
+            if (outcome.getRejectCode() != null) {
+                BinaryCodec.encodeCancelReject(writeBuffer, outcome.getCancel(), outcome.getRejectCode().getCode(),
+                        outcome.getRejectCode().getMsg());
+            } else {
+                BinaryCodec.encodeCancelAck(writeBuffer, outcome.getCancel(), outcome.getOrder(),
+                        outcome.getCanceledQty());
+            }
+        }
+
+        /**
+         * 写出缓冲区内容，全部写完返回true；未写完时登记OP_WRITE
+         */
+        private boolean writeOut() throws IOException {
+            if (writeBuffer.position() == 0) {
+                return true;
+            }
+            writeBuffer.flip();
+            channel.write(writeBuffer);
+            boolean drained = !writeBuffer.hasRemaining();
+            writeBuffer.compact();
+            writePending = !drained;
+            updateInterestOps();
+            return drained;
+        }
+
+        /**
+         * 在途请求未达上限时读，出站缓冲区有未写完内容时等待可写
+         */
+        private void updateInterestOps() {
+            int ops = (inFlight < maxInFlight ? SelectionKey.OP_READ : 0) | (writePending ? SelectionKey.OP_WRITE : 0);
+            if (key.interestOps() != ops) {
+                key.interestOps(ops);
+            }
+        }
+
+        private void close() {
+            key.cancel();
+            closeQuietly(channel);
+        }
+    }
+}
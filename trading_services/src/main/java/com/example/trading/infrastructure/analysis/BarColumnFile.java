@@ -0,0 +1,180 @@
+package com.example.trading.infrastructure.analysis;
+
+import com.example.trading.domain.model.Bar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * 已收盘K线列式文件（每个周期每天一个文件：bars-{周期秒数}s-{yyyyMMdd}.col，按K线起始时间所在日期划分）
+ * 文件由若干列式块顺序追加组成，块格式：
+ * 1. 块头：magic(int) | version(int) | periodSeconds(int) | rowCount(int)；
+ * 2. 列数据依次为：securityId(byte[6]×n, ASCII) | startTime(long×n) | open(double×n) | high(double×n) |
+ *    low(double×n) | close(double×n) | volume(long×n) | turnover(double×n) | tradeCount(int×n)；
+ * 3. 扫描时按偏移直接定位某一列，只读需要的列；末尾不完整的块（写入中途宕机）忽略。
+ */
+public final class BarColumnFile {
+    public static final int MAGIC = 0x42415253;
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = 16;
+    public static final int SECURITY_ID_LENGTH = 6;
+    /**
+     * 每行字节数：securityId + startTime/open/high/low/close/volume/turnover（各8字节）+ tradeCount
+     */
+    public static final int ROW_LENGTH = SECURITY_ID_LENGTH + 7 * 8 + 4;
+
+    private BarColumnFile() {
+    }
+
+    public static Path path(Path directory, long periodSeconds, LocalDate day) {
+        return directory.resolve(String.format("bars-%ds-%04d%02d%02d.col", periodSeconds,
+                day.getYear(), day.getMonthValue(), day.getDayOfMonth()));
+    }
+
+    /**
+     * 追加一个列式块
+     */
+    public static void append(Path file, Block block) throws IOException {
+        if (block.rows == 0) {
+            return;
+        }
+        Files.createDirectories(file.getParent());
+        int rows = block.rows;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + rows * ROW_LENGTH);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt((int) block.periodSeconds).putInt(rows);
+        buffer.put(block.securityIds, 0, rows * SECURITY_ID_LENGTH);
+        buffer.asLongBuffer().put(block.startTime, 0, rows);
+        buffer.position(buffer.position() + rows * 8);
+        for (double[] column : new double[][]{block.open, block.high, block.low, block.close}) {
+            buffer.asDoubleBuffer().put(column, 0, rows);
+            buffer.position(buffer.position() + rows * 8);
+        }
+        buffer.asLongBuffer().put(block.volume, 0, rows);
+        buffer.position(buffer.position() + rows * 8);
+        buffer.asDoubleBuffer().put(block.turnover, 0, rows);
+        buffer.position(buffer.position() + rows * 8);
+        buffer.asIntBuffer().put(block.tradeCount, 0, rows);
+        buffer.position(buffer.position() + rows * 4);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * 内存映射顺序扫描文件中的全部K线
+     */
+    public static void scan(Path file, Consumer<Bar> handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int position = 0;
+            while (buffer.limit() - position >= HEADER_LENGTH && buffer.getInt(position) == MAGIC) {
+                long periodSeconds = buffer.getInt(position + 8);
+                int rows = buffer.getInt(position + 12);
+                if (buffer.limit() - position - HEADER_LENGTH < (long) rows * ROW_LENGTH) {
+                    break;
+                }
+                int securityIds = position + HEADER_LENGTH;
+                int startTime = securityIds + rows * SECURITY_ID_LENGTH;
+                byte[] securityId = new byte[SECURITY_ID_LENGTH];
+                for (int row = 0; row < rows; row++) {
+                    buffer.get(securityIds + row * SECURITY_ID_LENGTH, securityId);
+                    handler.accept(Bar.builder()
+                            .securityId(new String(securityId, StandardCharsets.US_ASCII).trim())
+                            .periodSeconds(periodSeconds)
+                            .startTime(buffer.getLong(column(startTime, rows, 0, row)))
+                            .open(buffer.getDouble(column(startTime, rows, 1, row)))
+                            .high(buffer.getDouble(column(startTime, rows, 2, row)))
+                            .low(buffer.getDouble(column(startTime, rows, 3, row)))
+                            .close(buffer.getDouble(column(startTime, rows, 4, row)))
+                            .volume(buffer.getLong(column(startTime, rows, 5, row)))
+                            .turnover(buffer.getDouble(column(startTime, rows, 6, row)))
+                            .tradeCount(buffer.getInt(column(startTime, rows, 7, row)))
+                            .closed(true)
+                            .build());
+                }
+                position = HEADER_LENGTH + position + rows * ROW_LENGTH;
+            }
+        }
+    }
+
+    /**
+     * 第index个8字节列（tradeCount为第7列之后的4字节列）中第row行的偏移
+     */
+    private static int column(int firstWideColumn, int rows, int index, int row) {
+        return firstWideColumn + index * rows * 8 + row * (index == 7 ? 4 : 8);
+    }
+
+    /**
+     * 待落盘的列式块（只由写入线程填充，交给落盘线程后不再修改）
+     */
+    public static final class Block {
+        private final long periodSeconds;
+        private final LocalDate day;
+        private final byte[] securityIds;
+        private final long[] startTime;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+        private final long[] volume;
+        private final double[] turnover;
+        private final int[] tradeCount;
+        private int rows;
+
+        public Block(long periodSeconds, LocalDate day, int capacity) {
+            this.periodSeconds = periodSeconds;
+            this.day = day;
+            this.securityIds = new byte[capacity * SECURITY_ID_LENGTH];
+            this.startTime = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new long[capacity];
+            this.turnover = new double[capacity];
+            this.tradeCount = new int[capacity];
+        }
+
+        public void add(byte[] securityId, long barStart, double barOpen, double barHigh, double barLow,
+                        double barClose, long barVolume, double barTurnover, int barTradeCount) {
+            System.arraycopy(securityId, 0, securityIds, rows * SECURITY_ID_LENGTH, SECURITY_ID_LENGTH);
+            startTime[rows] = barStart;
+            open[rows] = barOpen;
+            high[rows] = barHigh;
+            low[rows] = barLow;
+            close[rows] = barClose;
+            volume[rows] = barVolume;
+            turnover[rows] = barTurnover;
+            tradeCount[rows] = barTradeCount;
+            rows++;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public long getPeriodSeconds() {
+            return periodSeconds;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        public boolean isFull() {
+            return rows == startTime.length;
+        }
+    }
+}
@@ -1,4 +1,425 @@
 package com.example.trading.infrastructure.analysis;
 
-public class TradeAnalysisService {
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.AnalysisConfig;
+import com.example.trading.config.DataConfig;
+import com.example.trading.domain.model.Bar;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.infrastructure.report.TradeReportBatch;
+import com.example.trading.infrastructure.report.TradeReportListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 成交分析（K线、股东成交量、成交规模分布）
+ * 核心逻辑：
+ * 1. 作为TradeReportListener在回报线程中消费成交流，每笔成交增量更新，不回扫历史成交：
+ *    K线与成交规模分布只按买方一侧计一次，股东成交量按各自一侧累计；
+ * 2. 每个股票每个周期一个定长环形缓冲（基本类型数组），保存当前K线与最近bar-history根已收盘K线，
+ *    最新K线查询O(1)；股票统计只由回报线程修改，查询线程通过版本号（seqlock）读取一致的副本，不加锁；
+ * 3. 该周期之后出现成交时K线收盘，写入按周期划分的列式块，块满或每flush-interval-millis交给落盘线程，
+ *    追加到output-path/analysis/下的列式文件（格式见BarColumnFile）；服务关闭时未收盘K线一并落盘。
+ */
+@Slf4j
+@Component
+public class TradeAnalysisService implements TradeReportListener {
+    /**
+     * 成交规模分布桶数：第i个桶统计成交数量在[2^i, 2^(i+1))内的成交笔数
+     */
+    public static final int SIZE_BUCKETS = 31;
+
+    private final boolean enabled;
+    private final long[] periodMillis;
+    private final int barHistory;
+    private final int flushBlockSize;
+    private final Path outputDirectory;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ConcurrentMap<String, SymbolStats> symbols = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ShareholderVolume> shareholders = new ConcurrentHashMap<>();
+    /**
+     * 各周期正在填充的列式块（持有this锁访问）
+     */
+    private final BarColumnFile.Block[] openBlocks;
+    private final ScheduledExecutorService flushExecutor;
+
+    public TradeAnalysisService(AnalysisConfig analysisConfig, DataConfig dataConfig) {
+        this.enabled = analysisConfig.isEnable();
+        this.periodMillis = analysisConfig.getBarPeriods().stream().mapToLong(Duration::toMillis).toArray();
+        this.barHistory = Math.max(1, analysisConfig.getBarHistory());
+        this.flushBlockSize = Math.max(1, analysisConfig.getFlushBlockSize());
+        this.outputDirectory = Paths.get(dataConfig.getOutputPath(), "analysis");
+        this.openBlocks = new BarColumnFile.Block[periodMillis.length];
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "trade-analysis-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            long flushIntervalMillis = Math.max(1, analysisConfig.getFlushIntervalMillis());
+            flushExecutor.scheduleWithFixedDelay(this::flushOpenBlocks, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void onTradeReports(TradeReportBatch batch) {
+        if (enabled) {
+            onTrades(batch.getTrades());
+        }
+    }
+
+    /**
+     * 增量处理一批成交（回报线程调用，每批加一次锁，仅与定时落盘交接列式块互斥）
+     */
+    synchronized void onTrades(List<Trade> trades) {
+        for (Trade trade : trades) {
+            if (trade.getExecQty() == null || trade.getExecQty() <= 0) {
+                continue;
+            }
+            long timestamp = trade.getTimestamp() == null ? System.currentTimeMillis() : trade.getTimestamp();
+            shareholders.computeIfAbsent(trade.getShareholderId(), ShareholderVolume::new)
+                    .add(trade.getSide(), trade.getExecQty(), trade.getExecPrice());
+            if (trade.getSide() == SideEnum.BUY) {
+                symbols.computeIfAbsent(trade.getSecurityId(), SymbolStats::new)
+                        .onExecution(timestamp, trade.getExecPrice(), trade.getExecQty());
+            }
+        }
+    }
+
+    // ======================== 查询（任意线程） ========================
+
+    /**
+     * 最新一根K线（可能尚未收盘），O(1)
+     * @return 股票在该周期尚无成交时返回null
+     * @throws IllegalArgumentException 周期未在bar-periods中配置
+     */
+    public Bar getLatestBar(String securityId, Duration period) {
+        List<Bar> bars = getBars(securityId, period, 1);
+        return bars.isEmpty() ? null : bars.get(0);
+    }
+
+    /**
+     * 最近count根K线（按时间升序，最后一根可能尚未收盘），最多bar-history+1根
+     * @throws IllegalArgumentException 周期未在bar-periods中配置
+     */
+    public List<Bar> getBars(String securityId, Duration period, int count) {
+        int periodIndex = periodIndex(period);
+        SymbolStats stats = symbols.get(securityId);
+        if (stats == null || count <= 0) {
+            return List.of();
+        }
+        return stats.read(() -> stats.series[periodIndex].latest(stats.securityId, count));
+    }
+
+    /**
+     * 成交规模分布（第i个元素为成交数量在[2^i, 2^(i+1))内的成交笔数）
+     * @return 股票尚无成交时返回null
+     */
+    public long[] getTradeSizeHistogram(String securityId) {
+        SymbolStats stats = symbols.get(securityId);
+        return stats == null ? null : stats.read(() -> stats.sizeHistogram.clone());
+    }
+
+    /**
+     * 股东累计成交量
+     * @return 股东尚无成交时返回null
+     */
+    public ShareholderVolume getShareholderVolume(String shareholderId) {
+        return shareholders.get(shareholderId);
+    }
+
+    private int periodIndex(Duration period) {
+        long millis = period.toMillis();
+        for (int i = 0; i < periodMillis.length; i++) {
+            if (periodMillis[i] == millis) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("未配置的K线周期：" + period);
+    }
+
+    // ======================== 落盘 ========================
+
+    /**
+     * 已收盘K线写入所属周期的列式块（持有this锁调用），跨日或块满时交给落盘线程
+     */
+    private void collect(int periodIndex, byte[] securityId, BarSeries series, int slot) {
+        LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(series.start[slot]), zone);
+        BarColumnFile.Block block = openBlocks[periodIndex];
+        if (block != null && !block.getDay().equals(day)) {
+            handOff(periodIndex);
+            block = null;
+        }
+        if (block == null) {
+            block = new BarColumnFile.Block(periodMillis[periodIndex] / 1000, day, flushBlockSize);
+            openBlocks[periodIndex] = block;
+        }
+        block.add(securityId, series.start[slot], series.open[slot], series.high[slot], series.low[slot],
+                series.close[slot], series.volume[slot], series.turnover[slot], series.tradeCount[slot]);
+        if (block.isFull()) {
+            handOff(periodIndex);
+        }
+    }
+
+    private void handOff(int periodIndex) {
+        BarColumnFile.Block block = openBlocks[periodIndex];
+        openBlocks[periodIndex] = null;
+        if (block != null && block.size() > 0) {
+            try {
+                flushExecutor.execute(() -> write(block));
+            } catch (RejectedExecutionException e) {
+                log.warn("服务已关闭，丢弃[{}]根已收盘K线", block.size());
+            }
+        }
+    }
+
+    private synchronized void flushOpenBlocks() {
+        for (int i = 0; i < openBlocks.length; i++) {
+            handOff(i);
+        }
+    }
+
+    private void write(BarColumnFile.Block block) {
+        Path file = BarColumnFile.path(outputDirectory, block.getPeriodSeconds(), block.getDay());
+        try {
+            BarColumnFile.append(file, block);
+        } catch (IOException e) {
+            log.error("K线落盘失败：{}，丢弃[{}]根", file, block.size(), e);
+        }
+    }
+
+    /**
+     * 关闭时未收盘K线一并落盘，等待落盘线程写完
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        synchronized (this) {
+            if (enabled) {
+                for (SymbolStats stats : symbols.values()) {
+                    for (int i = 0; i < periodMillis.length; i++) {
+                        BarSeries series = stats.series[i];
+                        if (series.bars > 0) {
+                            collect(i, stats.securityIdBytes, series, series.slot(series.bars - 1));
+                        }
+                    }
+                }
+            }
+            flushOpenBlocks();
+            flushExecutor.shutdown();
+        }
+        if (!flushExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("K线落盘未在5秒内完成");
+        }
+    }
+
+    /**
+     * 单个股票的统计（只由回报线程修改，读取方按版本号校验一致性）
+     */
+    private final class SymbolStats {
+        private final String securityId;
+        private final byte[] securityIdBytes;
+        private final BarSeries[] series;
+        private final long[] sizeHistogram = new long[SIZE_BUCKETS];
+        /**
+         * 奇数表示正在修改
+         */
+        private volatile long version;
+
+        private SymbolStats(String securityId) {
+            this.securityId = securityId;
+            this.securityIdBytes = Arrays.copyOf(securityId.getBytes(StandardCharsets.US_ASCII),
+                    BarColumnFile.SECURITY_ID_LENGTH);
+            this.series = new BarSeries[periodMillis.length];
+            for (int i = 0; i < series.length; i++) {
+                series[i] = new BarSeries(periodMillis[i], barHistory + 1);
+            }
+        }
+
+        private void onExecution(long timestamp, double price, int qty) {
+            long current = version;
+            version = current + 1;
+            VarHandle.storeStoreFence();
+            for (int i = 0; i < series.length; i++) {
+                int closedSlot = series[i].add(timestamp, price, qty);
+                if (closedSlot >= 0) {
+                    collect(i, securityIdBytes, series[i], closedSlot);
+                }
+            }
+            sizeHistogram[31 - Integer.numberOfLeadingZeros(qty)]++;
+            version = current + 2;
+        }
+
+        /**
+         * 无锁读取一致的副本：读取前后版本号相同且为偶数才采用
+         */
+        private <T> T read(Supplier<T> reader) {
+            while (true) {
+                long before = version;
+                if ((before & 1) == 0) {
+                    T result = reader.get();
+                    VarHandle.loadLoadFence();
+                    if (version == before) {
+                        return result;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * 单个周期的K线环形缓冲（当前K线 + 已收盘K线），按列存放
+     */
+    private static final class BarSeries {
+        private final long periodMillis;
+        private final long[] start;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+        private final long[] volume;
+        private final double[] turnover;
+        private final int[] tradeCount;
+        /**
+         * 累计产生的K线根数（当前K线为第bars-1根）
+         */
+        private long bars;
+
+        private BarSeries(long periodMillis, int capacity) {
+            this.periodMillis = periodMillis;
+            this.start = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new long[capacity];
+            this.turnover = new double[capacity];
+            this.tradeCount = new int[capacity];
+        }
+
+        private int slot(long barNo) {
+            return (int) (barNo % start.length);
+        }
+
+        /**
+         * 累加一笔成交，时间落在当前K线之后时先收盘当前K线（早于当前K线的迟到成交计入当前K线）
+         * @return 本次收盘的K线槽位，未收盘返回-1
+         */
+        private int add(long timestamp, double price, int qty) {
+            long barStart = timestamp - Math.floorMod(timestamp, periodMillis);
+            int closedSlot = -1;
+            int slot;
+            if (bars == 0 || barStart > start[slot(bars - 1)]) {
+                if (bars > 0) {
+                    closedSlot = slot(bars - 1);
+                }
+                slot = slot(bars);
+                start[slot] = barStart;
+                open[slot] = price;
+                high[slot] = price;
+                low[slot] = price;
+                volume[slot] = 0;
+                turnover[slot] = 0;
+                tradeCount[slot] = 0;
+                bars++;
+            } else {
+                slot = slot(bars - 1);
+                high[slot] = Math.max(high[slot], price);
+                low[slot] = Math.min(low[slot], price);
+            }
+            close[slot] = price;
+            volume[slot] += qty;
+            turnover[slot] += price * qty;
+            tradeCount[slot]++;
+            return closedSlot;
+        }
+
+        private List<Bar> latest(String securityId, int count) {
+            int n = (int) Math.min(Math.min(count, bars), start.length);
+            List<Bar> result = new ArrayList<>(n);
+            for (long barNo = bars - n; barNo < bars; barNo++) {
+                int slot = slot(barNo);
+                result.add(Bar.builder()
+                        .securityId(securityId)
+                        .periodSeconds(periodMillis / 1000)
+                        .startTime(start[slot])
+                        .open(open[slot])
+                        .high(high[slot])
+                        .low(low[slot])
+                        .close(close[slot])
+                        .volume(volume[slot])
+                        .turnover(turnover[slot])
+                        .tradeCount(tradeCount[slot])
+                        .closed(barNo < bars - 1)
+                        .build());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 股东累计成交量（只由回报线程累加，查询线程读取）
+     */
+    public static final class ShareholderVolume {
+        private final String shareholderId;
+        private volatile long buyQty;
+        private volatile long sellQty;
+        private volatile double turnover;
+        private volatile long tradeCount;
+
+        private ShareholderVolume(String shareholderId) {
+            this.shareholderId = shareholderId;
+        }
+
+        private void add(SideEnum side, int qty, double price) {
+            if (side == SideEnum.BUY) {
+                buyQty = buyQty + qty;
+            } else {
+                sellQty = sellQty + qty;
+            }
+            turnover = turnover + price * qty;
+            tradeCount = tradeCount + 1;
+        }
+
+        public String getShareholderId() {
+            return shareholderId;
+        }
+
+        public long getBuyQty() {
+            return buyQty;
+        }
+
+        public long getSellQty() {
+            return sellQty;
+        }
+
+        public double getTurnover() {
+            return turnover;
+        }
+
+        public long getTradeCount() {
+            return tradeCount;
+        }
+    }
 }
@@ -0,0 +1,358 @@
+package com.example.trading.infrastructure.db;
+
+import com.example.trading.config.DbConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.infrastructure.report.TradeReportBatch;
+import com.example.trading.infrastructure.report.TradeReportListener;
+import com.example.trading.repository.ExecutionRepository;
+import com.example.trading.repository.OrderRepository;
+import com.example.trading.util.MpscRingBuffer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 委托状态与成交异步落库（write-behind）
+ * 核心逻辑：
+ * 1. 撮合分片线程（受理委托、成功撤单）与回报线程（成交，买卖双方各一条）只把事件写入有界无锁环形队列，
+ *    队列满时生产方让出CPU等待（背压传导到撮合/回报管道），不丢事件、不无限占用内存；
+ * 2. 单个落库线程攒批：攒满batch-size条或首条事件等待超过linger-millis即写一批，
+ *    一批一个事务：多行INSERT IGNORE委托与成交，再JDBC批量累加成交数量、更新撤单状态；
+ * 3. 每批分配递增序号，事务内先以CAS方式推进write_behind_progress.last_seq，
+ *    事务提交结果不确定而重试时CAS失败即说明该批已生效，直接跳过，保证每批恰好生效一次；
+ * 4. 写库失败回滚后按退避重试同一批（不跳过、不乱序），重试/背压/落库条数通过Micrometer暴露。
+ */
+@Slf4j
+@Component
+public class DbWriteBehind implements TradeReportListener {
+    static final String PROGRESS_NAME = "orders-trades";
+    static final String CREATE_PROGRESS_TABLE = "CREATE TABLE IF NOT EXISTS write_behind_progress ("
+            + "name VARCHAR(32) NOT NULL PRIMARY KEY, "
+            + "last_seq BIGINT NOT NULL)";
+    private static final String INIT_PROGRESS = "INSERT IGNORE INTO write_behind_progress (name, last_seq) VALUES (?, 0)";
+    private static final String SELECT_PROGRESS = "SELECT last_seq FROM write_behind_progress WHERE name = ?";
+    private static final String ADVANCE_PROGRESS =
+            "UPDATE write_behind_progress SET last_seq = ? WHERE name = ? AND last_seq = ?";
+    private static final long IDLE_PARK_NANOS = 100_000L;
+    private static final long MAX_BACKOFF_MILLIS = 1000L;
+    private static final int MAX_SHUTDOWN_RETRIES = 3;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final DataSource dataSource;
+    private final OrderRepository orderRepository;
+    private final ExecutionRepository executionRepository;
+    private final MpscRingBuffer<Object> ringBuffer;
+    private final Counter writtenCounter;
+    private final Counter backpressureCounter;
+    private final Counter retryCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    /**
+     * 最近一批已生效的序号（只由落库线程访问）
+     */
+    private long lastSequence;
+
+    @Autowired
+    public DbWriteBehind(DbConfig dbConfig, OrderRepository orderRepository, ExecutionRepository executionRepository,
+                         MeterRegistry meterRegistry) {
+        this(dbConfig, dbConfig.isEnable() ? createDataSource(dbConfig) : null, orderRepository, executionRepository,
+                meterRegistry);
+    }
+
+    /**
+     * @param dataSource 落库数据源，由调用方创建（Spring构造器按db配置创建，测试传入内存数据库），关闭落库时为null
+     */
+    public DbWriteBehind(DbConfig dbConfig, DataSource dataSource, OrderRepository orderRepository,
+                         ExecutionRepository executionRepository, MeterRegistry meterRegistry) {
+        this.enabled = dbConfig.isEnable();
+        this.batchSize = Math.max(1, dbConfig.getBatchSize());
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, dbConfig.getLingerMillis()));
+        this.dataSource = dataSource;
+        this.orderRepository = orderRepository;
+        this.executionRepository = executionRepository;
+        this.ringBuffer = new MpscRingBuffer<>(dbConfig.getQueueCapacity());
+        this.writtenCounter = meterRegistry.counter("trading.db.written");
+        this.backpressureCounter = meterRegistry.counter("trading.db.backpressure");
+        this.retryCounter = meterRegistry.counter("trading.db.retry");
+        this.batchSizeSummary = DistributionSummary.builder("trading.db.batch.size")
+                .description("每个落库事务写入的事件数")
+                .register(meterRegistry);
+        Gauge.builder("trading.db.queue.depth", ringBuffer, MpscRingBuffer::size)
+                .description("待落库的事件数")
+                .register(meterRegistry);
+        this.writerThread = new Thread(this::drainLoop, "db-write-behind");
+        this.writerThread.setDaemon(true);
+        if (enabled) {
+            init(dbConfig.isInitSchema());
+            writerThread.start();
+        }
+    }
+
+    /**
+     * 关闭的落库（不连接数据库、不启动落库线程，所有事件直接忽略），供确定性回放等不落库的撮合链路使用
+     */
+    public static DbWriteBehind disabled() {
+        DbConfig dbConfig = new DbConfig();
+        dbConfig.setEnable(false);
+        return new DbWriteBehind(dbConfig, null, null, null, new SimpleMeterRegistry());
+    }
+
+    private static DataSource createDataSource(DbConfig dbConfig) {
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName("db-write-behind");
+        hikariConfig.setJdbcUrl(dbConfig.getUrl());
+        hikariConfig.setUsername(dbConfig.getUsername());
+        hikariConfig.setPassword(dbConfig.getPassword());
+        hikariConfig.setMaximumPoolSize(Math.max(1, dbConfig.getPoolSize()));
+        hikariConfig.setAutoCommit(false);
+        return new HikariDataSource(hikariConfig);
+    }
+
+    /**
+     * 建表（可选）并读取已生效的最大序号
+     */
+    private void init(boolean initSchema) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (initSchema) {
+                orderRepository.createTable(connection);
+                executionRepository.createTable(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_PROGRESS_TABLE);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INIT_PROGRESS)) {
+                statement.setString(1, PROGRESS_NAME);
+                statement.executeUpdate();
+            }
+            lastSequence = readProgress(connection);
+            log.info("数据库异步落库启动：已生效批次序号[{}]，单批上限[{}]", lastSequence, batchSize);
+        } catch (SQLException e) {
+            throw new IllegalStateException("数据库异步落库初始化失败", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 已受理、即将撮合的委托（撮合分片线程调用）：复制快照入队，之后撮合对原对象的修改不影响落库内容
+     */
+    public void onOrderAccepted(Order order) {
+        if (enabled) {
+            enqueue(order.toBuilder().build());
+        }
+    }
+
+    /**
+     * 成功的撤单（撮合分片线程调用）
+     */
+    public void onOrderCancelled(CancelRequest cancel, long timestamp) {
+        if (enabled) {
+            enqueue(new CancelEvent(cancel.getOrigClOrderId(), timestamp));
+        }
+    }
+
+    /**
+     * 成交回报（回报线程调用）：成交对象生成后不再修改，直接入队
+     */
+    @Override
+    public void onTradeReports(TradeReportBatch batch) {
+        if (enabled) {
+            onTrades(batch.getTrades());
+        }
+    }
+
+    void onTrades(List<Trade> trades) {
+        for (Trade trade : trades) {
+            enqueue(trade);
+        }
+    }
+
+    /**
+     * 队列满时让出CPU等待落库线程腾出空间
+     */
+    private void enqueue(Object event) {
+        if (!ringBuffer.offer(event)) {
+            backpressureCounter.increment();
+            while (!ringBuffer.offer(event)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * 当前排队的事件数
+     */
+    public int getQueueDepth() {
+        return ringBuffer.size();
+    }
+
+    private void drainLoop() {
+        List<Object> events = new ArrayList<>(batchSize);
+        while (running || !ringBuffer.isEmpty()) {
+            if (!collect(events)) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            writeWithRetry(events, lastSequence + 1);
+            events.clear();
+        }
+    }
+
+    /**
+     * 攒一批：首条事件到达后最多再等lingerNanos，攒满batchSize立即返回
+     * @return 没有任何事件时返回false
+     */
+    private boolean collect(List<Object> events) {
+        Object event = ringBuffer.poll();
+        if (event == null) {
+            return false;
+        }
+        long deadline = System.nanoTime() + lingerNanos;
+        do {
+            events.add(event);
+            while (events.size() < batchSize && (event = ringBuffer.poll()) == null) {
+                if (!running || System.nanoTime() - deadline >= 0) {
+                    return true;
+                }
+                LockSupport.parkNanos(this, Math.min(IDLE_PARK_NANOS, Math.max(1, deadline - System.nanoTime())));
+            }
+        } while (events.size() < batchSize);
+        return true;
+    }
+
+    private void writeWithRetry(List<Object> events, long sequence) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                applyBatch(events, sequence);
+                return;
+            } catch (SQLException e) {
+                if (!running && attempt >= MAX_SHUTDOWN_RETRIES) {
+                    log.error("停机前落库仍失败，放弃批次[{}]共[{}]条事件", sequence, events.size(), e);
+                    return;
+                }
+                retryCounter.increment();
+                long backoffMillis = Math.min(MAX_BACKOFF_MILLIS, 10L << Math.min(attempt, 7));
+                log.warn("落库批次[{}]失败，{}ms后第{}次重试", sequence, backoffMillis, attempt + 1, e);
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+            }
+        }
+    }
+
+    /**
+     * 在一个事务内写入一批事件（落库线程调用）
+     * @return 该序号的批次此前已生效（本次跳过）时返回false
+     */
+    boolean applyBatch(List<Object> events, long sequence) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        List<Trade> trades = new ArrayList<>();
+        List<String> cancelIds = new ArrayList<>();
+        List<Long> cancelTimes = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof Trade trade) {
+                trades.add(trade);
+            } else if (event instanceof Order order) {
+                orders.add(order);
+            } else if (event instanceof CancelEvent cancel) {
+                cancelIds.add(cancel.origClOrderId);
+                cancelTimes.add(cancel.timestamp);
+            }
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (!advanceProgress(connection, sequence)) {
+                    connection.rollback();
+                    long applied = readProgress(connection);
+                    log.warn("落库批次[{}]已生效（当前序号[{}]），跳过", sequence, applied);
+                    lastSequence = Math.max(lastSequence, applied);
+                    return false;
+                }
+                // 同一批内：先插入委托（成交回报总在其委托受理之后入队），再写成交、累加成交数量，最后撤单
+                orderRepository.insertAccepted(connection, orders);
+                executionRepository.insert(connection, trades);
+                orderRepository.applyFills(connection, trades);
+                orderRepository.applyCancels(connection, cancelIds, cancelTimes);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        lastSequence = sequence;
+        writtenCounter.increment(events.size());
+        batchSizeSummary.record(events.size());
+        return true;
+    }
+
+    private static boolean advanceProgress(Connection connection, long sequence) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(ADVANCE_PROGRESS)) {
+            statement.setLong(1, sequence);
+            statement.setString(2, PROGRESS_NAME);
+            statement.setLong(3, sequence - 1);
+            return statement.executeUpdate() == 1;
+        }
+    }
+
+    private static long readProgress(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_PROGRESS)) {
+            statement.setString(1, PROGRESS_NAME);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0L;
+            }
+        }
+    }
+
+    /**
+     * 停机：写完队列中剩余事件后关闭连接池
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (enabled) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (dataSource instanceof HikariDataSource hikariDataSource) {
+            hikariDataSource.close();
+        }
+    }
+
+    /**
+     * 撤单事件（撤单较少，单独分配）
+     */
+    private static final class CancelEvent {
+        private final String origClOrderId;
+        private final long timestamp;
+
+        private CancelEvent(String origClOrderId, long timestamp) {
+            this.origClOrderId = origClOrderId;
+            this.timestamp = timestamp;
+        }
+    }
+}
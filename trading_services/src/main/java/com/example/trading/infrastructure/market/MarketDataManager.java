@@ -1,4 +1,401 @@
 package com.example.trading.infrastructure.market;
 
-public class MarketDataManager {
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MarketConfig;
+import com.example.trading.domain.engine.MarketDataListener;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.model.MarketData;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 实时行情管理
+ * 核心逻辑：
+ * 1. 订单簿/撮合引擎在撮合分片线程中回调增量事件（挂单、撤单、成交），按股票增量维护价格档位汇总、最新价、
+ *    累计成交量/成交额与VWAP，不回扫订单簿价格层；每个股票的行情状态只由其所属分片线程修改（单写者）；
+ * 2. 行情变化只把股票标记为待发布（每个分片一个待发布列表），不在撮合线程生成快照；
+ * 3. 发布线程按publish-interval-millis定时向有变化的分片各投递一个快照任务，任务在分片线程内
+ *    只读取前depth-levels档生成快照，同一间隔内的多次变化合并为一个快照；
+ * 4. 快照在发布线程推送给所有MarketDataSubscriber，消费者变慢只推迟下一次发布，撮合线程从不等待消费者；
+ * 5. 快照任务顺带发布各股票的档位数与挂单数，股票首次发布时注册Micrometer指标
+ *    trading.book.levels（按方向）与trading.book.resting.orders，最多滞后一个发布间隔。
+ */
+@Slf4j
+@Component
+public class MarketDataManager implements MarketDataListener, SmartInitializingSingleton {
+    private final ShardedMatchingExecutor matchingExecutor;
+    private final ObjectProvider<MarketDataSubscriber> subscriberProvider;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int depthLevels;
+    private final long publishIntervalMillis;
+    /**
+     * 各股票行情状态（只由所属撮合分片线程修改）
+     */
+    private final ConcurrentMap<String, SymbolState> states = new ConcurrentHashMap<>();
+    /**
+     * 各分片待发布的股票（只由对应分片线程访问）
+     */
+    private final List<List<SymbolState>> dirtyByShard;
+    /**
+     * 分片是否有待发布的股票（分片线程置1，发布线程取走）
+     */
+    private final AtomicIntegerArray pendingShards;
+    /**
+     * 最近一次发布的行情快照
+     */
+    private final ConcurrentMap<String, MarketData> latest = new ConcurrentHashMap<>();
+    private List<MarketDataSubscriber> subscribers = List.of();
+    private ScheduledExecutorService publisher;
+
+    public MarketDataManager(MarketConfig marketConfig, ShardedMatchingExecutor matchingExecutor,
+                             ObjectProvider<MarketDataSubscriber> subscriberProvider, MeterRegistry meterRegistry) {
+        this.matchingExecutor = matchingExecutor;
+        this.subscriberProvider = subscriberProvider;
+        this.meterRegistry = meterRegistry;
+        this.enabled = marketConfig.isEnable();
+        this.depthLevels = Math.max(1, marketConfig.getDepthLevels());
+        this.publishIntervalMillis = Math.max(1, marketConfig.getPublishIntervalMillis());
+        int shardCount = matchingExecutor.getShardCount();
+        this.dirtyByShard = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            dirtyByShard.add(new ArrayList<>());
+        }
+        this.pendingShards = new AtomicIntegerArray(shardCount);
+    }
+
+    /**
+     * 所有单例创建完成后再收集下游消费者并启动发布线程（避免启动期循环依赖）
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.info("实时行情未启用");
+            return;
+        }
+        subscribers = subscriberProvider.orderedStream().toList();
+        publisher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "market-data-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::publishQuietly, publishIntervalMillis, publishIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        log.info("实时行情发布启动：档位[{}]，间隔[{}]毫秒，下游消费者[{}]个", depthLevels, publishIntervalMillis,
+                subscribers.size());
+    }
+
+    /**
+     * 最近一次发布的行情快照（最多滞后一个发布间隔）
+     * @return 股票尚无行情时返回null
+     */
+    public MarketData getMarketData(String securityId) {
+        return latest.get(securityId);
+    }
+
+    /**
+     * 全部股票最近一次发布的行情快照
+     */
+    public Collection<MarketData> getAllMarketData() {
+        return latest.values();
+    }
+
+    // ======================== 增量事件（撮合分片线程） ========================
+
+    @Override
+    public void onOrderAdded(Order order) {
+        if (!enabled) {
+            return;
+        }
+        SymbolState state = state(order.getSecurityId());
+        state.market = order.getMarket();
+        state.levels(order.getSide()).computeIfAbsent(order.getPrice(), price -> new Level()).add(order.getQty(), 1);
+        state.restingOrders++;
+        markDirty(state);
+    }
+
+    @Override
+    public void onOrderRemoved(Order order, int remainingQty) {
+        if (!enabled) {
+            return;
+        }
+        SymbolState state = state(order.getSecurityId());
+        state.reduce(order.getSide(), order.getPrice(), remainingQty, 1);
+        state.restingOrders--;
+        markDirty(state);
+    }
+
+    @Override
+    public void onOrderFilled(Order restingOrder, int matchQty, boolean removed) {
+        if (!enabled) {
+            return;
+        }
+        SymbolState state = state(restingOrder.getSecurityId());
+        state.reduce(restingOrder.getSide(), restingOrder.getPrice(), matchQty, removed ? 1 : 0);
+        if (removed) {
+            state.restingOrders--;
+        }
+        markDirty(state);
+    }
+
+    @Override
+    public void onTrade(Trade trade) {
+        if (!enabled) {
+            return;
+        }
+        SymbolState state = state(trade.getSecurityId());
+        state.market = trade.getMarket();
+        state.lastPrice = trade.getExecPrice();
+        state.lastQty = trade.getExecQty();
+        state.volume += trade.getExecQty();
+        state.turnover += trade.getExecPrice() * trade.getExecQty();
+        markDirty(state);
+    }
+
+    @Override
+    public void onBookCleared(String securityId) {
+        if (!enabled) {
+            return;
+        }
+        SymbolState state = states.get(securityId);
+        if (state != null) {
+            state.bids.clear();
+            state.asks.clear();
+            state.restingOrders = 0;
+            markDirty(state);
+        }
+    }
+
+    private SymbolState state(String securityId) {
+        SymbolState state = states.get(securityId);
+        if (state == null) {
+            state = states.computeIfAbsent(securityId,
+                    key -> new SymbolState(key, matchingExecutor.shardIndex(key)));
+        }
+        return state;
+    }
+
+    private void markDirty(SymbolState state) {
+        state.sequence++;
+        if (state.dirty) {
+            return;
+        }
+        state.dirty = true;
+        List<SymbolState> dirty = dirtyByShard.get(state.shardIndex);
+        dirty.add(state);
+        if (dirty.size() == 1) {
+            pendingShards.set(state.shardIndex, 1);
+        }
+    }
+
+    // ======================== 合并发布（发布线程） ========================
+
+    /**
+     * 执行一轮发布：向有变化的分片各投递一个快照任务，等待快照后推送
+     * 定时任务调用（上一轮推送完成后才开始下一轮），测试中可直接调用
+     */
+    void publish() {
+        int shardCount = pendingShards.length();
+        List<CompletableFuture<List<MarketData>>> captures = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (pendingShards.getAndSet(i, 0) == 0) {
+                continue;
+            }
+            int shardIndex = i;
+            captures.add(matchingExecutor.submitToShard(shardIndex, () -> capture(shardIndex)));
+        }
+        for (CompletableFuture<List<MarketData>> capture : captures) {
+            List<MarketData> snapshots = capture.join();
+            if (snapshots.isEmpty()) {
+                continue;
+            }
+            for (MarketData snapshot : snapshots) {
+                if (latest.put(snapshot.getSecurityId(), snapshot) == null) {
+                    registerBookGauges(states.get(snapshot.getSecurityId()));
+                }
+            }
+            dispatch(snapshots);
+        }
+    }
+
+    /**
+     * 注册股票订单簿深度指标（发布线程，每个股票一次），读取快照任务发布的档位数/挂单数
+     */
+    private void registerBookGauges(SymbolState state) {
+        if (state == null) {
+            return;
+        }
+        Gauge.builder("trading.book.levels", state, value -> value.publishedBidLevels)
+                .description("订单簿价格档位数")
+                .tag("securityId", state.securityId)
+                .tag("side", SideEnum.BUY.name())
+                .register(meterRegistry);
+        Gauge.builder("trading.book.levels", state, value -> value.publishedAskLevels)
+                .description("订单簿价格档位数")
+                .tag("securityId", state.securityId)
+                .tag("side", SideEnum.SELL.name())
+                .register(meterRegistry);
+        Gauge.builder("trading.book.resting.orders", state, value -> value.publishedRestingOrders)
+                .description("订单簿挂单数")
+                .tag("securityId", state.securityId)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 生成分片内有变化股票的快照（仅在分片线程中执行）
+     */
+    private List<MarketData> capture(int shardIndex) {
+        List<SymbolState> dirty = dirtyByShard.get(shardIndex);
+        List<MarketData> snapshots = new ArrayList<>(dirty.size());
+        long now = System.currentTimeMillis();
+        for (SymbolState state : dirty) {
+            state.dirty = false;
+            state.publishedBidLevels = state.bids.size();
+            state.publishedAskLevels = state.asks.size();
+            state.publishedRestingOrders = state.restingOrders;
+            snapshots.add(state.snapshot(depthLevels, now));
+        }
+        dirty.clear();
+        return snapshots;
+    }
+
+    private void dispatch(List<MarketData> snapshots) {
+        for (MarketDataSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onMarketData(snapshots);
+            } catch (Exception e) {
+                log.error("行情消费者[{}]处理快照异常", subscriber.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void publishQuietly() {
+        try {
+            publish();
+        } catch (Exception e) {
+            log.error("行情发布失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (publisher != null) {
+            publisher.shutdownNow();
+        }
+    }
+
+    /**
+     * 单个股票的行情状态（只由所属撮合分片线程访问）
+     */
+    private static final class SymbolState {
+        private final String securityId;
+        private final int shardIndex;
+        private final TreeMap<Double, Level> bids = new TreeMap<>(Comparator.reverseOrder());
+        private final TreeMap<Double, Level> asks = new TreeMap<>();
+        private String market;
+        private Double lastPrice;
+        private Integer lastQty;
+        private long volume;
+        private double turnover;
+        private long sequence;
+        private boolean dirty;
+        private int restingOrders;
+        /**
+         * 快照任务发布的档位数/挂单数（分片线程写，指标抓取线程读）
+         */
+        private volatile int publishedBidLevels;
+        private volatile int publishedAskLevels;
+        private volatile int publishedRestingOrders;
+
+        private SymbolState(String securityId, int shardIndex) {
+            this.securityId = securityId;
+            this.shardIndex = shardIndex;
+        }
+
+        private TreeMap<Double, Level> levels(SideEnum side) {
+            return side == SideEnum.BUY ? bids : asks;
+        }
+
+        private void reduce(SideEnum side, double price, int qty, int orders) {
+            TreeMap<Double, Level> levels = levels(side);
+            Level level = levels.get(price);
+            if (level == null) {
+                log.warn("行情档位不存在：股票[{}]，方向[{}]，价格[{}]", securityId, side, price);
+                return;
+            }
+            level.add(-qty, -orders);
+            if (level.orderCount <= 0) {
+                levels.remove(price);
+            }
+        }
+
+        private MarketData snapshot(int depthLevels, long timestamp) {
+            List<MarketData.PriceLevel> bidLevels = topLevels(bids, depthLevels);
+            List<MarketData.PriceLevel> askLevels = topLevels(asks, depthLevels);
+            MarketData.PriceLevel bestBid = bidLevels.isEmpty() ? null : bidLevels.get(0);
+            MarketData.PriceLevel bestAsk = askLevels.isEmpty() ? null : askLevels.get(0);
+            return MarketData.builder()
+                    .market(market)
+                    .securityId(securityId)
+                    .bidPrice(bestBid == null ? null : bestBid.getPrice())
+                    .bidQty(bestBid == null ? null : bestBid.getQty())
+                    .askPrice(bestAsk == null ? null : bestAsk.getPrice())
+                    .askQty(bestAsk == null ? null : bestAsk.getQty())
+                    .bids(bidLevels)
+                    .asks(askLevels)
+                    .lastPrice(lastPrice)
+                    .lastQty(lastQty)
+                    .volume(volume)
+                    .turnover(turnover)
+                    .vwap(volume == 0 ? null : turnover / volume)
+                    .sequence(sequence)
+                    .timestamp(timestamp)
+                    .build();
+        }
+
+        private static List<MarketData.PriceLevel> topLevels(TreeMap<Double, Level> levels, int depthLevels) {
+            List<MarketData.PriceLevel> top = new ArrayList<>(Math.min(depthLevels, levels.size()));
+            for (Map.Entry<Double, Level> entry : levels.entrySet()) {
+                if (top.size() == depthLevels) {
+                    break;
+                }
+                top.add(new MarketData.PriceLevel(entry.getKey(), entry.getValue().qty, entry.getValue().orderCount));
+            }
+            return top;
+        }
+    }
+
+    /**
+     * 价格档位汇总（挂单总量+订单数）
+     */
+    private static final class Level {
+        private long qty;
+        private int orderCount;
+
+        private void add(long qtyDelta, int orderDelta) {
+            qty += qtyDelta;
+            orderCount += orderDelta;
+        }
+    }
 }
@@ -0,0 +1,306 @@
+package com.example.trading.infrastructure.market;
+
+import com.example.trading.config.MarketConfig;
+import com.example.trading.domain.model.MarketData;
+import com.example.trading.util.JsonUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 行情推送（Server-Sent Events）
+ * 核心逻辑：
+ * 1. 订阅方指定股票列表（为空表示全部股票）与档位数，连接建立后先推送各股票最近一次行情；
+ * 2. 每个订阅方一个按股票合并的待发区（同一股票只保留最新快照），待发区大小不超过订阅的股票数，
+ *    慢订阅方只会跳过中间状态、收到最新行情，不会积压内存；
+ * 3. 行情发布线程只把快照放入相关订阅方的待发区并按需调度发送（每个订阅方最多一个发送任务），
+ *    实际写出在发送线程池执行，慢订阅方不阻塞行情发布，更不会影响撮合；
+ * 4. 同一快照按档位数只序列化一次，所有订阅方共享JSON，扇出成本与订阅方数量近似线性；
+ * 5. 写出失败、连接完成或超时的订阅方自动退订。
+ */
+@Slf4j
+@Component
+public class MarketDataStreamService implements MarketDataSubscriber {
+    public static final String EVENT_NAME = "market-data";
+
+    private final int maxDepth;
+    private final int maxSubscribers;
+    private final long streamTimeoutMillis;
+    private final Executor senderExecutor;
+    private final ExecutorService ownedExecutor;
+    /**
+     * 订阅全部股票的订阅方
+     */
+    private final Set<Subscription> allSecuritySubscriptions = ConcurrentHashMap.newKeySet();
+    /**
+     * 股票代码 → 订阅该股票的订阅方
+     */
+    private final ConcurrentMap<String, Set<Subscription>> subscriptionsBySecurity = new ConcurrentHashMap<>();
+    /**
+     * 各股票最近一次行情（新订阅方的初始推送）
+     */
+    private final ConcurrentMap<String, Frame> latestFrames = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter conflatedCounter;
+    private final Counter sentCounter;
+
+    @Autowired
+    public MarketDataStreamService(MarketConfig marketConfig, MeterRegistry meterRegistry) {
+        this(marketConfig, meterRegistry, null);
+    }
+
+    /**
+     * @param senderExecutor 发送线程池，为null时按stream-sender-threads创建
+     */
+    public MarketDataStreamService(MarketConfig marketConfig, MeterRegistry meterRegistry, Executor senderExecutor) {
+        this.maxDepth = Math.max(1, marketConfig.getDepthLevels());
+        this.maxSubscribers = marketConfig.getStreamMaxSubscribers();
+        this.streamTimeoutMillis = marketConfig.getStreamTimeoutMillis();
+        if (senderExecutor == null) {
+            AtomicInteger threadNo = new AtomicInteger();
+            this.ownedExecutor = Executors.newFixedThreadPool(Math.max(1, marketConfig.getStreamSenderThreads()), task -> {
+                Thread thread = new Thread(task, "market-data-stream-" + threadNo.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.senderExecutor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.senderExecutor = senderExecutor;
+        }
+        this.conflatedCounter = meterRegistry.counter("trading.market.stream.conflated");
+        this.sentCounter = meterRegistry.counter("trading.market.stream.sent");
+        Gauge.builder("trading.market.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("行情推送订阅方数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 建立SSE行情推送连接
+     * @param securityIds 订阅的股票代码，为空表示全部股票
+     * @param depth 每个方向的档位数（超过depth-levels时按depth-levels）
+     */
+    public SseEmitter openSseStream(Set<String> securityIds, int depth) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        Subscription subscription = subscribe(securityIds, depth, json -> emitter.send(SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(json, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        return emitter;
+    }
+
+    /**
+     * 订阅行情（SSE之外的推送通道与基准测试使用）
+     * @throws IllegalStateException 订阅方数量已达上限
+     */
+    public Subscription subscribe(Set<String> securityIds, int depth, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("行情订阅数已达上限：" + maxSubscribers);
+        }
+        Subscription subscription = new Subscription(Set.copyOf(securityIds),
+                Math.min(Math.max(1, depth), maxDepth), sink);
+        if (subscription.securityIds.isEmpty()) {
+            allSecuritySubscriptions.add(subscription);
+            for (Frame frame : latestFrames.values()) {
+                subscription.offer(frame);
+            }
+        } else {
+            for (String securityId : subscription.securityIds) {
+                subscriptionsBySecurity.computeIfAbsent(securityId, key -> ConcurrentHashMap.newKeySet())
+                        .add(subscription);
+                Frame frame = latestFrames.get(securityId);
+                if (frame != null) {
+                    subscription.offer(frame);
+                }
+            }
+        }
+        log.info("行情订阅：股票{}，档位[{}]，当前订阅数[{}]",
+                subscription.securityIds.isEmpty() ? "[全部]" : subscription.securityIds, subscription.depth,
+                subscriberCount.get());
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * 行情发布线程回调：快照放入相关订阅方的待发区（不做IO）
+     */
+    @Override
+    public void onMarketData(List<MarketData> snapshots) {
+        for (MarketData snapshot : snapshots) {
+            Frame frame = new Frame(snapshot, maxDepth);
+            latestFrames.put(snapshot.getSecurityId(), frame);
+            offerAll(allSecuritySubscriptions, frame);
+            Set<Subscription> subscriptions = subscriptionsBySecurity.get(snapshot.getSecurityId());
+            if (subscriptions != null) {
+                offerAll(subscriptions, frame);
+            }
+        }
+    }
+
+    private static void offerAll(Collection<Subscription> subscriptions, Frame frame) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(frame);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 推送通道（写出一条行情JSON，失败时抛出IOException）
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void send(String json) throws IOException;
+    }
+
+    /**
+     * 单个订阅方（按股票合并的待发区 + 发送调度标记）
+     */
+    public final class Subscription {
+        private final Set<String> securityIds;
+        private final int depth;
+        private final Sink sink;
+        private final ConcurrentMap<String, Frame> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Set<String> securityIds, int depth, Sink sink) {
+            this.securityIds = securityIds;
+            this.depth = depth;
+            this.sink = sink;
+        }
+
+        /**
+         * 放入最新快照（覆盖同一股票尚未发出的旧快照），未在发送时调度一次发送
+         */
+        private void offer(Frame frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.put(frame.snapshot.getSecurityId(), frame) != null) {
+                conflatedCounter.increment();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senderExecutor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    log.warn("行情推送调度失败：{}", e.toString());
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                for (String securityId : pending.keySet()) {
+                    Frame frame = pending.remove(securityId);
+                    if (frame == null || closed.get()) {
+                        continue;
+                    }
+                    sink.send(frame.json(depth));
+                    sentCounter.increment();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.info("行情推送写出失败，退订：{}", e.toString());
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // 发送期间又有新快照到达
+            if (!pending.isEmpty() && !closed.get()) {
+                schedule();
+            }
+        }
+
+        /**
+         * 当前待发的股票数（不超过订阅的股票数）
+         */
+        public int pendingCount() {
+            return pending.size();
+        }
+
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (securityIds.isEmpty()) {
+                allSecuritySubscriptions.remove(this);
+            } else {
+                for (String securityId : securityIds) {
+                    Set<Subscription> subscriptions = subscriptionsBySecurity.get(securityId);
+                    if (subscriptions != null) {
+                        subscriptions.remove(this);
+                    }
+                }
+            }
+            pending.clear();
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * 一个行情快照及其按档位数缓存的JSON（各订阅方共享，并发计算时结果相同）
+     */
+    private static final class Frame {
+        private final MarketData snapshot;
+        private final AtomicReferenceArray<String> jsonByDepth;
+
+        private Frame(MarketData snapshot, int maxDepth) {
+            this.snapshot = snapshot;
+            this.jsonByDepth = new AtomicReferenceArray<>(maxDepth + 1);
+        }
+
+        private String json(int depth) {
+            String json = jsonByDepth.get(depth);
+            if (json == null) {
+                json = JsonUtils.toJson(truncate(depth));
+                jsonByDepth.set(depth, json);
+            }
+            return json;
+        }
+
+        private MarketData truncate(int depth) {
+            if (snapshot.getBids().size() <= depth && snapshot.getAsks().size() <= depth) {
+                return snapshot;
+            }
+            return snapshot.toBuilder()
+                    .bids(snapshot.getBids().subList(0, Math.min(depth, snapshot.getBids().size())))
+                    .asks(snapshot.getAsks().subList(0, Math.min(depth, snapshot.getAsks().size())))
+                    .build();
+        }
+    }
+}
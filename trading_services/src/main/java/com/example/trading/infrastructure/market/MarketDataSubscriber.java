@@ -0,0 +1,17 @@
+package com.example.trading.infrastructure.market;
+
+import com.example.trading.domain.model.MarketData;
+
+import java.util.List;
+
+/**
+ * 行情快照下游消费者（注册为Spring Bean即自动订阅）
+ * 回调在行情发布线程中执行，消费者耗时只会推迟下一次发布（期间的变化合并为最新快照），不影响撮合
+ */
+public interface MarketDataSubscriber {
+
+    /**
+     * 接收本轮有变化的股票的最新行情快照
+     */
+    void onMarketData(List<MarketData> snapshots);
+}
@@ -0,0 +1,143 @@
+package com.example.trading.infrastructure.metrics;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.config.MetricsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 下单热路径监控指标（/actuator/metrics/trading.order.stage*、trading.orders、trading.fills、trading.rejects）
+ * 核心逻辑：
+ * 1. 各阶段（解析→校验→对敲检查→撮合→序列化）一个LatencyHistogram，记录只做两次原子累加；
+ *    Micrometer侧注册为FunctionTimer（次数/总耗时）与分位数、最大值Gauge，抓取时才从直方图计算；
+ *    未直接使用Micrometer Timer的分位数统计：其每次记录要写入多个滑动窗口直方图，开销比撮合本身还高；
+ * 2. 所有直方图/Counter（含每个错误码的拒绝计数）启动时预先注册并按下标保存，
+ *    记录时只做System.nanoTime与数组下标访问，不查找注册表、不创建Tag，热路径无对象分配；
+ * 3. 关闭trading.metrics.enable后start()返回0，各记录方法直接返回。
+ */
+@Component
+public class HotPathMetrics {
+    /**
+     * 下单流程阶段
+     */
+    public enum Stage {
+        PARSE("parse"),
+        VALIDATE("validate"),
+        SELF_TRADE_CHECK("self-trade-check"),
+        MATCH("match"),
+        SERIALIZE("serialize");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final boolean enabled;
+    private final LatencyHistogram[] stageHistograms;
+    private final Counter ordersCounter;
+    private final Counter fillsCounter;
+    private final Counter[] rejectCounters;
+
+    public HotPathMetrics(MetricsConfig metricsConfig, MeterRegistry meterRegistry) {
+        this.enabled = metricsConfig.isEnable();
+        long expiryNanos = metricsConfig.getHistogramExpiry().toNanos();
+        Stage[] stages = Stage.values();
+        this.stageHistograms = new LatencyHistogram[stages.length];
+        for (Stage stage : stages) {
+            LatencyHistogram histogram = new LatencyHistogram(expiryNanos);
+            stageHistograms[stage.ordinal()] = histogram;
+            FunctionTimer.builder("trading.order.stage", histogram, LatencyHistogram::count,
+                            LatencyHistogram::totalNanos, TimeUnit.NANOSECONDS)
+                    .description("下单流程各阶段耗时")
+                    .tag("stage", stage.tag)
+                    .register(meterRegistry);
+            Gauge.builder("trading.order.stage.max", histogram, value -> value.max() / 1e9)
+                    .description("下单流程各阶段最近窗口内的最大耗时")
+                    .tag("stage", stage.tag)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            for (Double percentile : metricsConfig.getPercentiles()) {
+                double quantile = percentile;
+                Gauge.builder("trading.order.stage.percentile", histogram,
+                                value -> value.valueAtQuantile(quantile) / 1e9)
+                        .description("下单流程各阶段最近窗口内的耗时分位数")
+                        .tag("stage", stage.tag)
+                        .tag("phi", String.valueOf(quantile))
+                        .baseUnit("seconds")
+                        .register(meterRegistry);
+            }
+        }
+        this.ordersCounter = Counter.builder("trading.orders")
+                .description("受理的下单请求数（含校验/风控拒绝）")
+                .register(meterRegistry);
+        this.fillsCounter = Counter.builder("trading.fills")
+                .description("成交笔数（每个成交编号计一次）")
+                .register(meterRegistry);
+        ErrorCodeEnum[] codes = ErrorCodeEnum.values();
+        this.rejectCounters = new Counter[codes.length];
+        for (ErrorCodeEnum code : codes) {
+            rejectCounters[code.ordinal()] = Counter.builder("trading.rejects")
+                    .description("按错误码统计的拒绝数")
+                    .tag("code", code.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * 不接入监控时使用（独立注册表，记录结果不对外暴露）
+     */
+    public static HotPathMetrics disabled() {
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnable(false);
+        return new HotPathMetrics(metricsConfig, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 阶段开始时间（纳秒），未启用时返回0
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * 记录阶段耗时（从startNanos到当前）
+     */
+    public void record(Stage stage, long startNanos) {
+        if (enabled) {
+            stageHistograms[stage.ordinal()].record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * 阶段耗时直方图（查询/测试用）
+     */
+    public LatencyHistogram histogram(Stage stage) {
+        return stageHistograms[stage.ordinal()];
+    }
+
+    public void orderReceived() {
+        if (enabled) {
+            ordersCounter.increment();
+        }
+    }
+
+    public void fills(int count) {
+        if (enabled && count > 0) {
+            fillsCounter.increment(count);
+        }
+    }
+
+    public void rejected(ErrorCodeEnum code) {
+        if (enabled) {
+            rejectCounters[code.ordinal()].increment();
+        }
+    }
+}
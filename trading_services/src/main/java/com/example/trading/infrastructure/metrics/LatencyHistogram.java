@@ -0,0 +1,172 @@
+package com.example.trading.infrastructure.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 对数-线性分桶的耗时直方图（HdrHistogram式，纳秒）
+ * 核心逻辑：
+ * 1. 0~63纳秒每纳秒一个桶；之后每个2的幂区间等分为32个子桶，相对误差不超过1/32（约3%），
+ *    覆盖到2^37纳秒（约137秒，更大的值计入最后一个桶）共1056个桶，桶下标由最高位位置与其后5位直接算出，无查找；
+ * 2. 记录只做一次桶计数原子自增与一次总耗时原子累加，不加锁、不分配对象；
+ *    计数按线程编号分条（每条一个数组，末尾一格存总耗时），多个撮合分片/请求线程并发记录时不争用同一缓存行；
+ * 3. 读取（指标抓取线程）以窗口为单位统计：每隔expiryNanos把当前累计计数记为标记，
+ *    分位数/最大值按“当前累计 − 上上次标记”计算，即最近一到两个窗口内的分布；计数与总耗时为启动以来累计。
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int HIGHEST_BIT = 36;
+    static final int BUCKET_COUNT = (HIGHEST_BIT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    static final long MAX_TRACKABLE_VALUE = (1L << (HIGHEST_BIT + 1)) - 1;
+    private static final int TOTAL_INDEX = BUCKET_COUNT;
+
+    /**
+     * 分条计数：stripes[i][0, BUCKET_COUNT)为各桶计数，stripes[i][TOTAL_INDEX]为总耗时
+     */
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+    private final long expiryNanos;
+    /**
+     * 最近两次窗口切换时的累计计数（只由读取方在this锁内访问）
+     */
+    private long[] mark = new long[BUCKET_COUNT];
+    private long[] previousMark = new long[BUCKET_COUNT];
+    private long markNanos;
+
+    public LatencyHistogram(long expiryNanos) {
+        this(expiryNanos, Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(long expiryNanos, int requestedStripes) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(requestedStripes, 64)));
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT + 1);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.expiryNanos = expiryNanos;
+        this.markNanos = System.nanoTime();
+    }
+
+    /**
+     * 记录一次耗时（负值按0计）
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.getAndIncrement(index(Math.min(value, MAX_TRACKABLE_VALUE)));
+        stripe.getAndAdd(TOTAL_INDEX, value);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKET_COUNT << 1) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * 桶内最大值（分位数按桶上界报告，不低估）
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKET_COUNT << 1) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * 启动以来的记录次数
+     */
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += bucketCount(i);
+        }
+        return count;
+    }
+
+    /**
+     * 启动以来的总耗时（纳秒）
+     */
+    public long totalNanos() {
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            total += stripe.get(TOTAL_INDEX);
+        }
+        return total;
+    }
+
+    private long bucketCount(int index) {
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            count += stripe.get(index);
+        }
+        return count;
+    }
+
+    /**
+     * 最近窗口内的分位数（纳秒），窗口内无记录时返回0
+     * @param quantile 0~1
+     */
+    public synchronized long valueAtQuantile(double quantile) {
+        long[] window = window();
+        long total = 0;
+        for (long count : window) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += window[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * 最近窗口内的最大值（纳秒，桶上界），窗口内无记录时返回0
+     */
+    public synchronized long max() {
+        long[] window = window();
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (window[i] > 0) {
+                return highestValue(i);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * 最近窗口内各桶的计数（到期时先切换窗口）
+     */
+    private long[] window() {
+        long now = System.nanoTime();
+        if (now - markNanos >= expiryNanos) {
+            long[] recycled = previousMark;
+            previousMark = mark;
+            mark = recycled;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                mark[i] = bucketCount(i);
+            }
+            // 超过两个窗口未读取时，上一标记也已过期
+            if (now - markNanos >= expiryNanos << 1) {
+                System.arraycopy(mark, 0, previousMark, 0, BUCKET_COUNT);
+            }
+            markNanos = now;
+        }
+        long[] window = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            window[i] = bucketCount(i) - previousMark[i];
+        }
+        return window;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.trading.infrastructure.persistence;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 预写日志（单写者，内存映射分段文件）
+ * 记录格式（定长头 + 变长负载 + 校验）：
+ *   [int 记录总长][byte 类型][long 序号][long 时间戳][负载...][int CRC32C(类型~负载)]
+ * 核心逻辑：
+ * 1. 每个撮合分片一个Journal，只由该分片线程追加，追加时只做内存拷贝，无系统调用；
+ * 2. 段文件写满后写入段尾标记并切换到下一段，文件名按段号递增：{name}-{段号}.journal；
+ * 3. 刷盘（msync）按批：写者每累计N条刷一次，后台刷盘线程每T微秒刷一次，两者都可单独关闭；
+ * 4. 重新打开时扫描最后一段，遇到未写入区域或校验失败（写入中途崩溃）即为日志末尾，从该处续写。
+ */
+@Slf4j
+public class Journal implements Closeable {
+    public static final byte TYPE_ORDER = 1;
+    public static final byte TYPE_CANCEL = 2;
+    public static final byte TYPE_EXECUTION = 3;
+    public static final byte TYPE_AUCTION = 4;
+
+    static final int HEADER_LENGTH = 4 + 1 + 8 + 8;
+    static final int TRAILER_LENGTH = 4;
+    /**
+     * 单条记录负载上限
+     */
+    static final int MAX_PAYLOAD_LENGTH = 1024;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final String name;
+    private final int segmentSize;
+    private final int fsyncBatchSize;
+    /**
+     * 写者私有的编码缓冲区：[记录头][负载][校验]，整条拷贝进映射区
+     */
+    private final ByteBuffer scratch = ByteBuffer.allocate(HEADER_LENGTH + MAX_PAYLOAD_LENGTH + TRAILER_LENGTH);
+    private final CRC32C crc = new CRC32C();
+
+    private volatile MappedByteBuffer segment;
+    private int segmentIndex;
+    private long nextSequence;
+    private int unsyncedRecords;
+    /**
+     * 当前段已写入位置（写者更新，刷盘线程读取）
+     */
+    private volatile int writePosition;
+    /**
+     * 当前段已刷盘位置（仅在持有this锁时读写）
+     */
+    private int syncedPosition;
+
+    /**
+     * @param directory 日志目录
+     * @param name 日志名（段文件名前缀）
+     * @param segmentSize 单段文件大小（字节）
+     * @param fsyncBatchSize 写者每追加多少条刷一次盘，<=0表示只依赖后台定时刷盘
+     */
+    public Journal(Path directory, String name, int segmentSize, int fsyncBatchSize) throws IOException {
+        if (segmentSize < scratch.capacity() + 4) {
+            throw new IllegalArgumentException("日志段过小：" + segmentSize);
+        }
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.fsyncBatchSize = fsyncBatchSize;
+        Files.createDirectories(directory);
+        openTail();
+    }
+
+    /**
+     * 开始一条记录：返回负载缓冲区，调用方写入负载后调用commit（仅写者线程调用）
+     */
+    public ByteBuffer claim() {
+        scratch.clear();
+        scratch.position(HEADER_LENGTH);
+        scratch.limit(HEADER_LENGTH + MAX_PAYLOAD_LENGTH);
+        return scratch;
+    }
+
+    /**
+     * 提交claim后写入的负载，返回记录序号（仅写者线程调用）
+     */
+    public long commit(byte type, long timestamp) {
+        int length = scratch.position() + TRAILER_LENGTH;
+        long sequence = nextSequence++;
+        scratch.limit(length);
+        scratch.position(0);
+        scratch.putInt(0, length);
+        scratch.put(4, type);
+        scratch.putLong(5, sequence);
+        scratch.putLong(13, timestamp);
+        crc.reset();
+        crc.update(scratch.array(), 4, length - TRAILER_LENGTH - 4);
+        scratch.putInt(length - TRAILER_LENGTH, (int) crc.getValue());
+
+        MappedByteBuffer current = segment;
+        // 预留4字节给段尾标记
+        if (current.position() + length > segmentSize - 4) {
+            current = rollSegment();
+        }
+        current.put(scratch);
+        writePosition = current.position();
+
+        if (fsyncBatchSize > 0 && ++unsyncedRecords >= fsyncBatchSize) {
+            unsyncedRecords = 0;
+            flush();
+        }
+        return sequence;
+    }
+
+    /**
+     * 把当前段未刷盘的区间刷到磁盘（写者和后台刷盘线程都可调用）
+     */
+    public synchronized void flush() {
+        int position = writePosition;
+        if (position > syncedPosition) {
+            segment.force(syncedPosition, position - syncedPosition);
+            syncedPosition = position;
+        }
+    }
+
+    /**
+     * 下一条记录的序号（即已写入记录数）
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * 当前段写满：写段尾标记并刷盘，映射下一段
+     */
+    private synchronized MappedByteBuffer rollSegment() {
+        MappedByteBuffer current = segment;
+        current.putInt(END_OF_SEGMENT);
+        current.force();
+        try {
+            segment = map(++segmentIndex);
+        } catch (IOException e) {
+            throw new IllegalStateException("日志段切换失败：" + segmentPath(directory, name, segmentIndex), e);
+        }
+        writePosition = 0;
+        syncedPosition = 0;
+        return segment;
+    }
+
+    /**
+     * 定位最后一段的写入末尾（忽略写入中途崩溃留下的半条记录）
+     */
+    private void openTail() throws IOException {
+        List<Path> segments = listSegments(directory, name);
+        if (segments.isEmpty()) {
+            segmentIndex = 0;
+            segment = map(0);
+            return;
+        }
+        segmentIndex = segments.size() - 1;
+        long[] lastSequence = {-1L};
+        RecordHandler tracker = (type, sequence, timestamp, payload) -> lastSequence[0] = sequence;
+        segment = map(segmentIndex);
+        int tail = scanSegment(segment, 0, tracker);
+        if (lastSequence[0] < 0 && segmentIndex > 0) {
+            // 最后一段刚切换尚无记录，序号取上一段
+            replaySegment(segments.get(segmentIndex - 1), 0, tracker);
+        }
+        nextSequence = lastSequence[0] + 1;
+        segment.position(tail);
+        writePosition = tail;
+        syncedPosition = tail;
+        log.info("日志[{}]从第{}段偏移{}续写，下一序号{}", name, segmentIndex, tail, nextSequence);
+    }
+
+    private MappedByteBuffer map(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, name, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    /**
+     * 按序回放日志中序号不小于fromSequence的全部有效记录
+     */
+    public static void replay(Path directory, String name, long fromSequence, RecordHandler handler) throws IOException {
+        for (Path path : listSegments(directory, name)) {
+            if (!replaySegment(path, fromSequence, handler)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return 本段是否正常结束于段尾标记（false表示日志在本段终止）
+     */
+    private static boolean replaySegment(Path path, long fromSequence, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int end = scanSegment(buffer, fromSequence, handler);
+            return end + 4 <= buffer.limit() && buffer.getInt(end) == END_OF_SEGMENT;
+        }
+    }
+
+    /**
+     * 从段首扫描有效记录，返回第一个无效位置（段尾标记/未写入区域/校验失败）
+     */
+    private static int scanSegment(ByteBuffer buffer, long fromSequence, RecordHandler handler) {
+        CRC32C checksum = new CRC32C();
+        int position = 0;
+        while (position + HEADER_LENGTH + TRAILER_LENGTH <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length < HEADER_LENGTH + TRAILER_LENGTH || position + length > buffer.limit()) {
+                break;
+            }
+            checksum.reset();
+            checksum.update(buffer.slice(position + 4, length - TRAILER_LENGTH - 4));
+            if ((int) checksum.getValue() != buffer.getInt(position + length - TRAILER_LENGTH)) {
+                break;
+            }
+            long sequence = buffer.getLong(position + 5);
+            if (handler != null && sequence >= fromSequence) {
+                ByteBuffer payload = buffer.slice(position + HEADER_LENGTH, length - HEADER_LENGTH - TRAILER_LENGTH);
+                handler.onRecord(buffer.get(position + 4), sequence, buffer.getLong(position + 13), payload);
+            }
+            position += length;
+        }
+        return position;
+    }
+
+    /**
+     * 日志是否存在（首段文件存在）
+     */
+    public static boolean exists(Path directory, String name) {
+        return Files.exists(segmentPath(directory, name, 0));
+    }
+
+    private static List<Path> listSegments(Path directory, String name) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        for (int index = 0; Files.exists(segmentPath(directory, name, index)); index++) {
+            segments.add(segmentPath(directory, name, index));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            long total = files.filter(path -> path.getFileName().toString().startsWith(name + "-")).count();
+            if (total != segments.size()) {
+                log.warn("日志[{}]段文件不连续：连续{}段，共{}个文件", name, segments.size(), total);
+            }
+        }
+        return segments;
+    }
+
+    private static Path segmentPath(Path directory, String name, int index) {
+        return directory.resolve(String.format("%s-%08d%s", name, index, SUFFIX));
+    }
+
+    /**
+     * 日志记录回调（payload仅在回调内有效）
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(byte type, long sequence, long timestamp, ByteBuffer payload);
+    }
+}
@@ -1,4 +1,169 @@
 package com.example.trading.infrastructure.persistence;
 
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.infrastructure.db.DbWriteBehind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 订单日志存储：把已受理的委托、成功的撤单、集合竞价阶段切换写入所属撮合分片的预写日志
+ * 仅在订单所属撮合分片线程中调用（单写者）；开启数据库异步落库时同时把事件交给DbWriteBehind
+ */
+@Component
+@RequiredArgsConstructor
 public class OrderStore {
+    /**
+     * 集合竞价阶段切换：进入集合竞价 / 集中撮合
+     */
+    public static final byte AUCTION_BEGIN = 1;
+    public static final byte AUCTION_UNCROSS = 2;
+
+    private final WriteAheadLog writeAheadLog;
+    private final DbWriteBehind dbWriteBehind;
+
+    /**
+     * 记录已通过风控、即将撮合的委托（原始数量，未成交）
+     * 负载：clOrderId, shareholderId, market, securityId, side, qty, cumQty, price, ordType, timeInForce, stopPrice
+     */
+    public void appendOrder(Order order) {
+        dbWriteBehind.onOrderAccepted(order);
+        Journal journal = writeAheadLog.journal(order.getSecurityId());
+        if (journal == null) {
+            return;
+        }
+        encodeOrder(journal.claim(), order);
+        journal.commit(Journal.TYPE_ORDER, order.getTimestamp() == null ? 0L : order.getTimestamp());
+    }
+
+    /**
+     * 记录成功的撤单
+     * 负载：clOrderId, origClOrderId, market, securityId, shareholderId, side
+     */
+    public void appendCancel(CancelRequest cancel, long timestamp) {
+        dbWriteBehind.onOrderCancelled(cancel, timestamp);
+        Journal journal = writeAheadLog.journal(cancel.getSecurityId());
+        if (journal == null) {
+            return;
+        }
+        ByteBuffer buffer = journal.claim();
+        RecordCodec.putString(buffer, cancel.getClOrderId());
+        RecordCodec.putString(buffer, cancel.getOrigClOrderId());
+        RecordCodec.putString(buffer, cancel.getMarket());
+        RecordCodec.putString(buffer, cancel.getSecurityId());
+        RecordCodec.putString(buffer, cancel.getShareholderId());
+        RecordCodec.putSide(buffer, cancel.getSide());
+        journal.commit(Journal.TYPE_CANCEL, timestamp);
+    }
+
+    /**
+     * 记录集合竞价阶段切换（集中撮合须在成交之前记录，回放时按同一参考价重新撮合）
+     * 负载：securityId, phase, referencePrice
+     */
+    public void appendAuction(String securityId, byte phase, double referencePrice, long timestamp) {
+        Journal journal = writeAheadLog.journal(securityId);
+        if (journal == null) {
+            return;
+        }
+        ByteBuffer buffer = journal.claim();
+        RecordCodec.putString(buffer, securityId);
+        buffer.put(phase);
+        buffer.putDouble(referencePrice);
+        journal.commit(Journal.TYPE_AUCTION, timestamp);
+    }
+
+    /**
+     * 解码集合竞价阶段切换记录负载，依次回调handler
+     */
+    public static void decodeAuction(ByteBuffer payload, AuctionHandler handler) {
+        String securityId = RecordCodec.getString(payload);
+        byte phase = payload.get();
+        handler.onAuction(securityId, phase, payload.getDouble());
+    }
+
+    /**
+     * 集合竞价阶段切换记录回调
+     */
+    @FunctionalInterface
+    public interface AuctionHandler {
+        void onAuction(String securityId, byte phase, double referencePrice);
+    }
+
+    /**
+     * 编码委托（日志记录负载/快照挂单共用）
+     * 订单类型、有效期、触发价追加在价格之后（市价单价格写为NaN）
+     */
+    static void encodeOrder(ByteBuffer buffer, Order order) {
+        RecordCodec.putString(buffer, order.getClOrderId());
+        RecordCodec.putString(buffer, order.getShareholderId());
+        RecordCodec.putString(buffer, order.getMarket());
+        RecordCodec.putString(buffer, order.getSecurityId());
+        RecordCodec.putSide(buffer, order.getSide());
+        RecordCodec.putInt(buffer, order.getQty());
+        RecordCodec.putInt(buffer, order.getCumQty());
+        RecordCodec.putNullableDouble(buffer, order.getPrice());
+        RecordCodec.putEnum(buffer, order.getOrdType());
+        RecordCodec.putEnum(buffer, order.getTimeInForce());
+        RecordCodec.putNullableDouble(buffer, order.getStopPrice());
+    }
+
+    /**
+     * 解码委托记录负载（兼容不含订单类型字段的旧日志记录：负载为单条记录的切片，价格之后无剩余字节时按限价当日有效单解码）
+     */
+    public static Order decodeOrder(ByteBuffer payload, long timestamp) {
+        Order order = decodeBaseOrder(payload, timestamp);
+        if (payload.hasRemaining()) {
+            decodeOrderType(payload, order);
+        }
+        return order;
+    }
+
+    /**
+     * 解码快照挂单（按快照文件版本决定是否含订单类型字段）
+     */
+    static Order decodeOrder(ByteBuffer buffer, long timestamp, boolean withType) {
+        Order order = decodeBaseOrder(buffer, timestamp);
+        if (withType) {
+            decodeOrderType(buffer, order);
+        }
+        return order;
+    }
+
+    private static Order decodeBaseOrder(ByteBuffer payload, long timestamp) {
+        return Order.builder()
+                .clOrderId(RecordCodec.getString(payload))
+                .shareholderId(RecordCodec.getString(payload))
+                .market(RecordCodec.getString(payload))
+                .securityId(RecordCodec.getString(payload))
+                .side(RecordCodec.getSide(payload))
+                .qty(payload.getInt())
+                .cumQty(payload.getInt())
+                .price(RecordCodec.getNullableDouble(payload))
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private static void decodeOrderType(ByteBuffer payload, Order order) {
+        order.setOrdType(RecordCodec.getEnum(payload, OrderTypeEnum.values()));
+        order.setTimeInForce(RecordCodec.getEnum(payload, TimeInForceEnum.values()));
+        order.setStopPrice(RecordCodec.getNullableDouble(payload));
+    }
+
+    /**
+     * 解码撤单记录负载
+     */
+    public static CancelRequest decodeCancel(ByteBuffer payload) {
+        return CancelRequest.builder()
+                .clOrderId(RecordCodec.getString(payload))
+                .origClOrderId(RecordCodec.getString(payload))
+                .market(RecordCodec.getString(payload))
+                .securityId(RecordCodec.getString(payload))
+                .shareholderId(RecordCodec.getString(payload))
+                .side(RecordCodec.getSide(payload))
+                .build();
+    }
 }
@@ -0,0 +1,136 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.common.enums.SideEnum;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 日志记录字段编解码（紧凑二进制）
+ * 字符串：short长度 + 字节（编号类字段为ASCII，逐字符写入不分配；含非ASCII时按UTF-8），null长度为-1，
+ *   超过short范围或记录剩余空间的字段直接拒绝（编号字段长度已由基础校验限制，正常不会触发）
+ * 方向/枚举：byte（序号，-1空）；数量：int；价格：double（可空价格以NaN表示空）
+ */
+final class RecordCodec {
+    private static final short NULL_LENGTH = -1;
+    private static final byte NULL_SIDE = -1;
+    private static final byte NULL_ENUM = -1;
+
+    private RecordCodec() {
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort(NULL_LENGTH);
+            return;
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0x7F) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                checkLength(buffer, bytes.length);
+                buffer.putShort((short) bytes.length).put(bytes);
+                return;
+            }
+        }
+        checkLength(buffer, length);
+        buffer.putShort((short) length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private static void checkLength(ByteBuffer buffer, int length) {
+        if (length > Short.MAX_VALUE || 2 + length > buffer.remaining()) {
+            throw new IllegalArgumentException("字段超长：" + length + "字节");
+        }
+    }
+
+    static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putSide(ByteBuffer buffer, SideEnum side) {
+        buffer.put(side == null ? NULL_SIDE : (byte) side.ordinal());
+    }
+
+    static SideEnum getSide(ByteBuffer buffer) {
+        byte value = buffer.get();
+        return value == NULL_SIDE ? null : SideEnum.values()[value];
+    }
+
+    static void putInt(ByteBuffer buffer, Integer value) {
+        buffer.putInt(value == null ? 0 : value);
+    }
+
+    static void putDouble(ByteBuffer buffer, Double value) {
+        buffer.putDouble(value == null ? 0D : value);
+    }
+
+    static void putNullableDouble(ByteBuffer buffer, Double value) {
+        buffer.putDouble(value == null ? Double.NaN : value);
+    }
+
+    static Double getNullableDouble(ByteBuffer buffer) {
+        double value = buffer.getDouble();
+        return Double.isNaN(value) ? null : value;
+    }
+
+    static void putEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put(value == null ? NULL_ENUM : (byte) value.ordinal());
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        byte value = buffer.get();
+        return value == NULL_ENUM ? null : values[value];
+    }
+
+    /**
+     * 定长ASCII字段（列式文件按绝对位置写入）：不足补0，null与空串均写为全0
+     * @throws IllegalArgumentException 超出定长（不截断，截断后不同编号会变得相同）
+     */
+    static void putFixed(ByteBuffer buffer, int index, String value, int width) {
+        int length = value == null ? 0 : value.length();
+        if (length > width) {
+            throw new IllegalArgumentException("字段超出定长[" + width + "]：" + value);
+        }
+        for (int i = 0; i < width; i++) {
+            buffer.put(index + i, i < length ? (byte) value.charAt(i) : 0);
+        }
+    }
+
+    static String getFixed(ByteBuffer buffer, int index, int width) {
+        int length = 0;
+        while (length < width && buffer.get(index + length) != 0) {
+            length++;
+        }
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(index, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 定长字段是否等于value（value按putFixed规则补0后比较，不分配；超出定长的value不可能写入，视为不等）
+     */
+    static boolean fixedEquals(ByteBuffer buffer, int index, String value, int width) {
+        int length = value.length();
+        if (length > width) {
+            return false;
+        }
+        for (int i = 0; i < width; i++) {
+            if (buffer.get(index + i) != (i < length ? (byte) value.charAt(i) : 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.SnapshotConfig;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.model.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 订单簿快照存储（按撮合分片划分）
+ * 核心逻辑：
+ * 1. 一致性切点：快照任务投递到分片队列，轮到执行时该分片所有股票处于两条任务之间的一致状态，
+ *    此时记录日志下一序号作为切点，并按价格优先、时间优先顺序浅拷贝挂单（对敲风控索引由挂单重建）；
+ * 2. 撮合线程只做浅拷贝，编码与落盘（写临时文件+fsync+原子替换）都在快照线程完成，不占用撮合线程；
+ * 3. 快照文件：history-path/snapshot/shard-{下标}-{切点序号}.snapshot，每个分片保留最近retain-count个；
+ * 4. 恢复时加载最新的有效快照，再从切点序号回放该分片日志（见RecoveryService）；
+ * 5. 分片内有股票处于集合竞价阶段时跳过该分片快照（阶段由日志回放恢复）；
+ * 6. 待触发的止损单随挂单一并写入（版本3起挂单含订单类型字段，仍可加载版本2快照）。
+ * 文件格式：[magic][version][分片下标][分片数][切点序号][生成时间][挂单数][挂单...][CRC32C]
+ */
+@Slf4j
+@Component
+public class SnapshotStore {
+    static final String SNAPSHOT_DIR = "snapshot";
+    private static final String SUFFIX = ".snapshot";
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 3;
+    /**
+     * 挂单不含订单类型/有效期/触发价字段的旧版本（全部为限价当日有效单）
+     */
+    private static final int VERSION_WITHOUT_TYPE = 2;
+    private static final int HEADER_LENGTH = 4 + 4 + 4 + 4 + 8 + 8 + 4;
+    private static final int ORDER_COUNT_OFFSET = HEADER_LENGTH - 4;
+    private static final int INITIAL_BUFFER_SIZE = 1 << 20;
+    /**
+     * 单条挂单编码长度上限（委托负载+时间戳）
+     */
+    private static final int MAX_ENTRY_LENGTH = Journal.MAX_PAYLOAD_LENGTH + 8;
+
+    private final OrderBook orderBook;
+    private final ShardedMatchingExecutor matchingExecutor;
+    private final WriteAheadLog writeAheadLog;
+    private final CallAuction callAuction;
+    private final StopOrderBook stopOrderBook;
+    private final SnapshotConfig snapshotConfig;
+    private final Path directory;
+    /**
+     * 各分片最近一次快照的切点（无新日志记录时跳过快照）
+     */
+    private final AtomicLongArray lastCuts;
+    private ScheduledExecutorService scheduler;
+
+    public SnapshotStore(DataConfig dataConfig, SnapshotConfig snapshotConfig, OrderBook orderBook,
+                         ShardedMatchingExecutor matchingExecutor, WriteAheadLog writeAheadLog,
+                         CallAuction callAuction, StopOrderBook stopOrderBook) {
+        this.orderBook = orderBook;
+        this.callAuction = callAuction;
+        this.stopOrderBook = stopOrderBook;
+        this.matchingExecutor = matchingExecutor;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotConfig = snapshotConfig;
+        this.directory = Paths.get(dataConfig.getHistoryPath(), SNAPSHOT_DIR);
+        this.lastCuts = new AtomicLongArray(matchingExecutor.getShardCount());
+        for (int i = 0; i < lastCuts.length(); i++) {
+            lastCuts.set(i, -1L);
+        }
+    }
+
+    public boolean isEnabled() {
+        return snapshotConfig.isEnable() && writeAheadLog.isEnabled();
+    }
+
+    /**
+     * 启动定时快照（恢复完成后由RecoveryService调用）
+     */
+    public synchronized void start() {
+        if (!isEnabled() || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = snapshotConfig.getIntervalSeconds();
+        scheduler.scheduleWithFixedDelay(this::takeSnapshotQuietly, interval, interval, TimeUnit.SECONDS);
+        log.info("订单簿快照已启动：目录[{}]，间隔[{}]秒，保留[{}]个", directory, interval, snapshotConfig.getRetainCount());
+    }
+
+    /**
+     * 对所有分片生成快照（各分片并行截取，当前线程依次编码落盘）
+     * @return 实际写入的快照数（无新日志记录的分片跳过）
+     */
+    public synchronized int takeSnapshot() throws IOException {
+        if (!isEnabled()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int shardCount = matchingExecutor.getShardCount();
+        List<CompletableFuture<ShardCapture>> captures = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shardIndex = i;
+            captures.add(matchingExecutor.submitToShard(shardIndex, () -> capture(shardIndex)));
+        }
+        int written = 0;
+        long orderCount = 0;
+        for (int i = 0; i < shardCount; i++) {
+            ShardCapture capture = captures.get(i).join();
+            if (capture == null) {
+                continue;
+            }
+            write(i, capture.cut, encode(i, capture));
+            lastCuts.set(i, capture.cut);
+            orderCount += capture.orders.size();
+            written++;
+        }
+        if (written > 0) {
+            log.info("订单簿快照完成：分片[{}]个，挂单[{}]笔，耗时[{}]ms",
+                    written, orderCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return written;
+    }
+
+    /**
+     * 加载指定分片最新的有效快照（挂单与待触发止损单通过回调恢复，版本2之前的快照视为无效）
+     * @return 快照切点序号（无快照时返回0，即从日志开头回放）
+     */
+    public long load(int shardIndex, Consumer<Order> orderConsumer) throws IOException {
+        for (Path path : listSnapshots(shardIndex)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (!isValid(buffer, shardIndex)) {
+                    log.warn("快照文件[{}]无效，尝试更早的快照", path);
+                    continue;
+                }
+                long cut = decode(buffer, orderConsumer);
+                lastCuts.set(shardIndex, cut);
+                log.info("分片[{}]加载快照[{}]，切点序号[{}]", shardIndex, path.getFileName(), cut);
+                return cut;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * 截取分片状态（仅在分片线程中执行，只浅拷贝挂单，编码留给快照线程）
+     */
+    private ShardCapture capture(int shardIndex) {
+        long cut = writeAheadLog.journalAt(shardIndex).getNextSequence();
+        if (cut == lastCuts.get(shardIndex) || isCollectingAuction(shardIndex)) {
+            return null;
+        }
+        ShardCapture capture = new ShardCapture(cut, System.currentTimeMillis());
+        for (String securityId : orderBook.getSecurityIds()) {
+            if (matchingExecutor.shardIndex(securityId) != shardIndex) {
+                continue;
+            }
+            for (SideEnum side : SideEnum.values()) {
+                orderBook.forEachOrder(securityId, side, capture::add);
+            }
+        }
+        for (String securityId : stopOrderBook.getSecurityIds()) {
+            if (matchingExecutor.shardIndex(securityId) == shardIndex) {
+                stopOrderBook.forEachOrder(securityId, capture::add);
+            }
+        }
+        return capture;
+    }
+
+    /**
+     * 编码截取的分片状态（快照线程）
+     */
+    private SnapshotBuffer encode(int shardIndex, ShardCapture capture) {
+        SnapshotBuffer snapshot = new SnapshotBuffer();
+        snapshot.buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(shardIndex)
+                .putInt(matchingExecutor.getShardCount())
+                .putLong(capture.cut)
+                .putLong(capture.capturedAt)
+                .putInt(capture.orders.size());
+        for (Order order : capture.orders) {
+            snapshot.putOrder(order);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 分片内是否有股票处于集合竞价阶段（快照只含挂单不含阶段，此时跳过快照，恢复时从上一快照回放到进入集合竞价的记录）
+     */
+    private boolean isCollectingAuction(int shardIndex) {
+        for (String securityId : callAuction.getCollectingSecurityIds()) {
+            if (matchingExecutor.shardIndex(securityId) == shardIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 落盘：追加CRC后写临时文件并fsync，原子替换为正式文件，再清理旧快照
+     */
+    private void write(int shardIndex, long cut, SnapshotBuffer snapshot) throws IOException {
+        Files.createDirectories(directory);
+        snapshot.ensureCapacity(4);
+        ByteBuffer buffer = snapshot.buffer;
+        buffer.putInt(checksum(buffer, buffer.position()));
+        buffer.flip();
+
+        Path target = directory.resolve(String.format("%s-%020d%s",
+                WriteAheadLog.journalName(shardIndex), cut, SUFFIX));
+        Path tmpFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmpFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> snapshots = listSnapshots(shardIndex);
+        for (int i = Math.max(1, snapshotConfig.getRetainCount()); i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private boolean isValid(ByteBuffer buffer, int shardIndex) {
+        int length = buffer.limit();
+        int version = length < HEADER_LENGTH + 4 ? 0 : buffer.getInt(4);
+        if (length < HEADER_LENGTH + 4 || buffer.getInt(0) != MAGIC
+                || (version != VERSION && version != VERSION_WITHOUT_TYPE)
+                || checksum(buffer, length - 4) != buffer.getInt(length - 4)) {
+            return false;
+        }
+        int shardCount = buffer.getInt(12);
+        if (buffer.getInt(8) != shardIndex || shardCount != matchingExecutor.getShardCount()) {
+            throw new IllegalStateException("快照分片数[" + shardCount + "]与当前配置["
+                    + matchingExecutor.getShardCount() + "]不一致，无法按分片恢复");
+        }
+        return true;
+    }
+
+    private long decode(ByteBuffer buffer, Consumer<Order> orderConsumer) {
+        long cut = buffer.getLong(16);
+        int orderCount = buffer.getInt(ORDER_COUNT_OFFSET);
+        boolean withType = buffer.getInt(4) != VERSION_WITHOUT_TYPE;
+        buffer.position(HEADER_LENGTH);
+        for (int i = 0; i < orderCount; i++) {
+            Order order = OrderStore.decodeOrder(buffer, 0L, withType);
+            order.setTimestamp(buffer.getLong());
+            if (OrderTypeEnum.orLimit(order.getOrdType()).isStop()) {
+                order.setStatus(OrderStatusEnum.PENDING_TRIGGER);
+            } else {
+                order.setStatus(order.getCumQty() > 0 ? OrderStatusEnum.PART_FILLED : OrderStatusEnum.MATCHING);
+            }
+            orderConsumer.accept(order);
+        }
+        return cut;
+    }
+
+    private static int checksum(ByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 指定分片的快照文件（按切点序号从新到旧）
+     */
+    private List<Path> listSnapshots(int shardIndex) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String prefix = WriteAheadLog.journalName(shardIndex) + "-";
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String fileName = path.getFileName().toString();
+                        return fileName.startsWith(prefix) && fileName.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .toList();
+        }
+    }
+
+    private void takeSnapshotQuietly() {
+        try {
+            takeSnapshot();
+        } catch (Exception e) {
+            log.error("订单簿快照失败", e);
+        }
+    }
+
+    /**
+     * 停机前生成最后一次快照（撮合分片此时仍在运行），缩短下次启动的日志回放
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        takeSnapshotQuietly();
+    }
+
+    /**
+     * 分片线程截取的一致状态：切点、截取时间与挂单浅拷贝（之后挂单继续成交不影响拷贝）
+     */
+    private static final class ShardCapture {
+        private final long cut;
+        private final long capturedAt;
+        private final List<Order> orders = new ArrayList<>();
+
+        private ShardCapture(long cut, long capturedAt) {
+            this.cut = cut;
+            this.capturedAt = capturedAt;
+        }
+
+        private void add(Order order) {
+            orders.add(order.toBuilder().build());
+        }
+    }
+
+    /**
+     * 快照编码缓冲区（写满时按倍数扩容）
+     */
+    private static final class SnapshotBuffer {
+        private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+        private void putOrder(Order order) {
+            ensureCapacity(MAX_ENTRY_LENGTH);
+            OrderStore.encodeOrder(buffer, order);
+            buffer.putLong(order.getTimestamp() == null ? 0L : order.getTimestamp());
+        }
+
+        private void ensureCapacity(int length) {
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.common.Constants;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.TickLadderOrderBook;
+import com.example.trading.domain.model.Trade;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 历史成交列式分区文件
+ * 目录：{history-path}/trades/{yyyyMMdd}/，每个股票一个数据文件{股票代码}.trd与一个稀疏时间索引{股票代码}.idx，
+ * 另有按股东号哈希分桶的股东索引shareholder-{桶号}.idx
+ * 1. 数据文件由列式块顺序追加组成，块内成交按时间升序（同一股票由同一撮合分片产生，时间戳不回退）：
+ *    块头：magic(int) | rowCount(int) | firstRow(long，块首行在分区内的行号) | market(byte[4]) | 保留(int)；
+ *    列数据依次为：timestamp(long) | execPriceTicks(long) | priceTicks(long) | execQty(int) | qty(int) |
+ *    side(byte) | execId(byte[12]) | clOrderId(byte[16]) | shareholderId(byte[10])，价格以tick存储（1 tick = 0.01元）；
+ * 2. 稀疏时间索引每块一条：minTimestamp(long) | maxTimestamp(long) | offset(long) | firstRow(long) | rowCount(int) | 保留(int)，
+ *    索引在数据块写完后追加，查询只会看到完整的块；
+ * 3. 股东索引每条成交一条：shareholderId(byte[10]) | securityId(byte[6]) | row(long)。
+ */
+public final class TradeColumnFile {
+    public static final int MAGIC = 0x54524144;
+    public static final int HEADER_LENGTH = 24;
+    public static final int MARKET_LENGTH = 4;
+    public static final int EXEC_ID_LENGTH = 12;
+    public static final int CL_ORDER_ID_LENGTH = Constants.MAX_CL_ORDER_ID_LENGTH;
+    public static final int SHAREHOLDER_ID_LENGTH = Constants.MAX_SHAREHOLDER_ID_LENGTH;
+    public static final int SECURITY_ID_LENGTH = Constants.MAX_SECURITY_ID_LENGTH;
+    public static final int ROW_LENGTH = 8 + 8 + 8 + 4 + 4 + 1 + EXEC_ID_LENGTH + CL_ORDER_ID_LENGTH + SHAREHOLDER_ID_LENGTH;
+    public static final int INDEX_ENTRY_LENGTH = 40;
+    public static final int SHAREHOLDER_ENTRY_LENGTH = SHAREHOLDER_ID_LENGTH + SECURITY_ID_LENGTH + 8;
+
+    private static final byte SIDE_BUY = 0;
+    private static final byte SIDE_SELL = 1;
+
+    private TradeColumnFile() {
+    }
+
+    public static Path dayDirectory(Path root, LocalDate day) {
+        return root.resolve(String.format("%04d%02d%02d", day.getYear(), day.getMonthValue(), day.getDayOfMonth()));
+    }
+
+    /**
+     * @throws IllegalArgumentException 股票代码不是1~6位字母数字（不能作为分区内文件名）
+     */
+    public static Path dataFile(Path dayDirectory, String securityId) {
+        return dayDirectory.resolve(checkSecurityId(securityId) + ".trd");
+    }
+
+    public static Path indexFile(Path dayDirectory, String securityId) {
+        return dayDirectory.resolve(checkSecurityId(securityId) + ".idx");
+    }
+
+    private static String checkSecurityId(String securityId) {
+        if (securityId == null || !Constants.SECURITY_ID_PATTERN.matcher(securityId).matches()) {
+            throw new IllegalArgumentException("股票代码不能作为分区文件名：" + securityId);
+        }
+        return securityId;
+    }
+
+    public static Path shareholderFile(Path dayDirectory, int bucket) {
+        return dayDirectory.resolve(String.format("shareholder-%02d.idx", bucket));
+    }
+
+    public static int shareholderBucket(String shareholderId, int buckets) {
+        return Math.floorMod(shareholderId == null ? 0 : shareholderId.hashCode(), buckets);
+    }
+
+    // ======================== 写入（落盘线程） ========================
+
+    /**
+     * 编码一个列式块：trades[from, to)，timestamps为对应的（已保证非递减的）时间戳
+     */
+    static ByteBuffer encodeBlock(List<Trade> trades, int from, int to, long[] timestamps, long firstRow) {
+        int rows = to - from;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + rows * ROW_LENGTH);
+        buffer.putInt(0, MAGIC).putInt(4, rows).putLong(8, firstRow);
+        RecordCodec.putFixed(buffer, 16, trades.get(from).getMarket(), MARKET_LENGTH);
+        Columns columns = new Columns(HEADER_LENGTH, rows);
+        for (int row = 0; row < rows; row++) {
+            Trade trade = trades.get(from + row);
+            buffer.putLong(columns.timestamp + row * 8, timestamps[row]);
+            buffer.putLong(columns.execPrice + row * 8, toTicks(trade.getExecPrice()));
+            buffer.putLong(columns.price + row * 8, toTicks(trade.getPrice()));
+            buffer.putInt(columns.execQty + row * 4, trade.getExecQty() == null ? 0 : trade.getExecQty());
+            buffer.putInt(columns.qty + row * 4, trade.getQty() == null ? 0 : trade.getQty());
+            buffer.put(columns.side + row, trade.getSide() == SideEnum.SELL ? SIDE_SELL : SIDE_BUY);
+            RecordCodec.putFixed(buffer, columns.execId + row * EXEC_ID_LENGTH, trade.getExecId(), EXEC_ID_LENGTH);
+            RecordCodec.putFixed(buffer, columns.clOrderId + row * CL_ORDER_ID_LENGTH, trade.getClOrderId(),
+                    CL_ORDER_ID_LENGTH);
+            RecordCodec.putFixed(buffer, columns.shareholderId + row * SHAREHOLDER_ID_LENGTH, trade.getShareholderId(),
+                    SHAREHOLDER_ID_LENGTH);
+        }
+        return buffer;
+    }
+
+    static ByteBuffer encodeIndexEntry(long minTimestamp, long maxTimestamp, long offset, long firstRow, int rows) {
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_LENGTH);
+        buffer.putLong(minTimestamp).putLong(maxTimestamp).putLong(offset).putLong(firstRow).putInt(rows).putInt(0);
+        return buffer.flip();
+    }
+
+    static void putShareholderEntry(ByteBuffer buffer, String shareholderId, String securityId, long row) {
+        int index = buffer.position();
+        RecordCodec.putFixed(buffer, index, shareholderId, SHAREHOLDER_ID_LENGTH);
+        RecordCodec.putFixed(buffer, index + SHAREHOLDER_ID_LENGTH, securityId, SECURITY_ID_LENGTH);
+        buffer.putLong(index + SHAREHOLDER_ID_LENGTH + SECURITY_ID_LENGTH, row);
+        buffer.position(index + SHAREHOLDER_ENTRY_LENGTH);
+    }
+
+    // ======================== 读取（查询线程） ========================
+
+    /**
+     * 读取稀疏时间索引（每块40字节，整个文件很小）；忽略末尾不完整的条目
+     * @return 文件不存在时返回空列表
+     */
+    public static List<IndexEntry> readIndex(Path indexFile) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return List.of();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        List<IndexEntry> entries = new ArrayList<>(buffer.remaining() / INDEX_ENTRY_LENGTH);
+        while (buffer.remaining() >= INDEX_ENTRY_LENGTH) {
+            IndexEntry entry = new IndexEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                    buffer.getInt());
+            buffer.getInt();
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * 内存映射一个数据块（只映射该块所在区域）
+     */
+    public static ByteBuffer mapBlock(FileChannel channel, IndexEntry entry) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, entry.offset,
+                HEADER_LENGTH + (long) entry.rows * ROW_LENGTH);
+    }
+
+    public static FileChannel openData(Path dataFile) throws IOException {
+        return FileChannel.open(dataFile, StandardOpenOption.READ);
+    }
+
+    /**
+     * 块内第一条时间戳 >= timestamp 的行（二分查找时间戳列），都小于时返回rowCount
+     */
+    public static int lowerBound(ByteBuffer block, int rows, long timestamp) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block.getLong(HEADER_LENGTH + mid * 8) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 解码块内第row行
+     */
+    public static Trade readRow(ByteBuffer block, int rows, int row, String securityId) {
+        Columns columns = new Columns(HEADER_LENGTH, rows);
+        return Trade.builder()
+                .market(RecordCodec.getFixed(block, 16, MARKET_LENGTH))
+                .securityId(securityId)
+                .timestamp(block.getLong(columns.timestamp + row * 8))
+                .execPrice(TickLadderOrderBook.toPrice(block.getLong(columns.execPrice + row * 8)))
+                .price(TickLadderOrderBook.toPrice(block.getLong(columns.price + row * 8)))
+                .execQty(block.getInt(columns.execQty + row * 4))
+                .qty(block.getInt(columns.qty + row * 4))
+                .side(block.get(columns.side + row) == SIDE_SELL ? SideEnum.SELL : SideEnum.BUY)
+                .execId(RecordCodec.getFixed(block, columns.execId + row * EXEC_ID_LENGTH, EXEC_ID_LENGTH))
+                .clOrderId(RecordCodec.getFixed(block, columns.clOrderId + row * CL_ORDER_ID_LENGTH, CL_ORDER_ID_LENGTH))
+                .shareholderId(RecordCodec.getFixed(block, columns.shareholderId + row * SHAREHOLDER_ID_LENGTH,
+                        SHAREHOLDER_ID_LENGTH))
+                .build();
+    }
+
+    /**
+     * 股东索引第index条是否属于shareholderId（不分配）
+     */
+    public static boolean shareholderMatches(ByteBuffer entries, int index, String shareholderId) {
+        return RecordCodec.fixedEquals(entries, index * SHAREHOLDER_ENTRY_LENGTH, shareholderId, SHAREHOLDER_ID_LENGTH);
+    }
+
+    public static String shareholderEntrySecurityId(ByteBuffer entries, int index) {
+        return RecordCodec.getFixed(entries, index * SHAREHOLDER_ENTRY_LENGTH + SHAREHOLDER_ID_LENGTH, SECURITY_ID_LENGTH);
+    }
+
+    public static long shareholderEntryRow(ByteBuffer entries, int index) {
+        return entries.getLong(index * SHAREHOLDER_ENTRY_LENGTH + SHAREHOLDER_ID_LENGTH + SECURITY_ID_LENGTH);
+    }
+
+    private static long toTicks(Double price) {
+        return price == null ? 0L : TickLadderOrderBook.toTicks(price);
+    }
+
+    /**
+     * 各列在块内的起始偏移
+     */
+    private static final class Columns {
+        private final int timestamp;
+        private final int execPrice;
+        private final int price;
+        private final int execQty;
+        private final int qty;
+        private final int side;
+        private final int execId;
+        private final int clOrderId;
+        private final int shareholderId;
+
+        private Columns(int base, int rows) {
+            timestamp = base;
+            execPrice = timestamp + rows * 8;
+            price = execPrice + rows * 8;
+            execQty = price + rows * 8;
+            qty = execQty + rows * 4;
+            side = qty + rows * 4;
+            execId = side + rows;
+            clOrderId = execId + rows * EXEC_ID_LENGTH;
+            shareholderId = clOrderId + rows * CL_ORDER_ID_LENGTH;
+        }
+    }
+
+    /**
+     * 稀疏时间索引条目（一个数据块）
+     */
+    public static final class IndexEntry {
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        private final long offset;
+        private final long firstRow;
+        private final int rows;
+
+        public IndexEntry(long minTimestamp, long maxTimestamp, long offset, long firstRow, int rows) {
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.offset = offset;
+            this.firstRow = firstRow;
+            this.rows = rows;
+        }
+
+        public long getMinTimestamp() {
+            return minTimestamp;
+        }
+
+        public long getMaxTimestamp() {
+            return maxTimestamp;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getFirstRow() {
+            return firstRow;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+    }
+}
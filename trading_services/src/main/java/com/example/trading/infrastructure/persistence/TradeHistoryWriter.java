@@ -0,0 +1,253 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.TradeHistoryConfig;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.infrastructure.report.TradeReportBatch;
+import com.example.trading.infrastructure.report.TradeReportListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 历史成交写入（按日期、股票分区的列式文件，格式见TradeColumnFile）
+ * 核心逻辑：
+ * 1. 作为TradeReportListener在回报线程中只把成交按股票追加到内存缓冲（每批加一次锁），不做编码/IO；
+ * 2. 落盘线程每flush-interval-millis取走缓冲，按成交日期切分、每block-size条编码为一个列式块追加到分区文件，
+ *    再追加该块的稀疏时间索引，最后按股东号哈希批量追加当日股东索引；
+ * 3. 同一股票的成交来自同一撮合分片，时间戳按到达顺序写入，偶发的时钟回退按分区内已写入的最大时间戳修正，
+ *    保证块内、块间时间戳非递减，查询可二分；
+ * 4. 历史成交是预写日志之外的查询副本，不逐块fsync，服务关闭时写完缓冲。
+ */
+@Slf4j
+@Component
+public class TradeHistoryWriter implements TradeReportListener {
+    private final boolean enabled;
+    private final Path root;
+    private final int blockSize;
+    private final int shareholderBuckets;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ScheduledExecutorService flushExecutor;
+    /**
+     * 待写盘的成交（股票代码 → 成交，持有this锁访问）
+     */
+    private Map<String, List<Trade>> pending = new HashMap<>();
+    /**
+     * 各分区已写入的行数与最大时间戳（只由落盘线程访问，换日时清空）
+     */
+    private final Map<Path, PartitionState> partitions = new HashMap<>();
+    private LocalDate partitionsDay;
+
+    public TradeHistoryWriter(TradeHistoryConfig tradeHistoryConfig, DataConfig dataConfig) {
+        this.enabled = tradeHistoryConfig.isEnable();
+        this.root = tradeRoot(dataConfig);
+        this.blockSize = Math.max(1, tradeHistoryConfig.getBlockSize());
+        this.shareholderBuckets = Math.max(1, tradeHistoryConfig.getShareholderBuckets());
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "trade-history-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            long flushIntervalMillis = Math.max(1, tradeHistoryConfig.getFlushIntervalMillis());
+            flushExecutor.scheduleWithFixedDelay(this::flushPending, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 历史成交根目录：{history-path}/trades/
+     */
+    public static Path tradeRoot(DataConfig dataConfig) {
+        return Paths.get(dataConfig.getHistoryPath(), "trades");
+    }
+
+    @Override
+    public void onTradeReports(TradeReportBatch batch) {
+        if (enabled) {
+            onTrades(batch.getTrades());
+        }
+    }
+
+    synchronized void onTrades(List<Trade> trades) {
+        for (Trade trade : trades) {
+            pending.computeIfAbsent(trade.getSecurityId(), key -> new ArrayList<>()).add(trade);
+        }
+    }
+
+    /**
+     * 立即写盘并等待完成（在落盘线程执行）
+     */
+    public void flush() throws InterruptedException {
+        try {
+            flushExecutor.submit(this::flushPending).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("历史成交写盘失败", e.getCause());
+        }
+    }
+
+    private void flushPending() {
+        Map<String, List<Trade>> trades;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            trades = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            write(trades);
+        } catch (IOException e) {
+            log.error("历史成交写盘失败，丢弃[{}]个股票的缓冲成交", trades.size(), e);
+        }
+    }
+
+    private void write(Map<String, List<Trade>> tradesBySecurity) throws IOException {
+        Map<Path, ByteBuffer> shareholderEntries = new LinkedHashMap<>();
+        DayRange dayRange = new DayRange();
+        for (Map.Entry<String, List<Trade>> entry : tradesBySecurity.entrySet()) {
+            List<Trade> trades = entry.getValue();
+            int from = 0;
+            while (from < trades.size()) {
+                LocalDate day = dayRange.dayOf(timestamp(trades.get(from)));
+                int to = from + 1;
+                while (to < trades.size() && to - from < blockSize && dayRange.contains(timestamp(trades.get(to)))) {
+                    to++;
+                }
+                appendBlock(day, entry.getKey(), trades, from, to, shareholderEntries);
+                from = to;
+            }
+        }
+        for (Map.Entry<Path, ByteBuffer> entry : shareholderEntries.entrySet()) {
+            append(entry.getKey(), entry.getValue().flip());
+        }
+    }
+
+    /**
+     * 追加一个列式块及其稀疏索引，收集块内各行的股东索引
+     */
+    private void appendBlock(LocalDate day, String securityId, List<Trade> trades, int from, int to,
+                             Map<Path, ByteBuffer> shareholderEntries) throws IOException {
+        Path dayDirectory = TradeColumnFile.dayDirectory(root, day);
+        PartitionState state = partition(day, dayDirectory, securityId);
+        long[] timestamps = new long[to - from];
+        for (int i = 0; i < timestamps.length; i++) {
+            state.maxTimestamp = Math.max(state.maxTimestamp, timestamp(trades.get(from + i)));
+            timestamps[i] = state.maxTimestamp;
+        }
+        ByteBuffer block = TradeColumnFile.encodeBlock(trades, from, to, timestamps, state.rows);
+        long offset = append(TradeColumnFile.dataFile(dayDirectory, securityId), block);
+        append(TradeColumnFile.indexFile(dayDirectory, securityId), TradeColumnFile.encodeIndexEntry(
+                timestamps[0], timestamps[timestamps.length - 1], offset, state.rows, timestamps.length));
+
+        for (int i = from; i < to; i++) {
+            String shareholderId = trades.get(i).getShareholderId();
+            Path file = TradeColumnFile.shareholderFile(dayDirectory,
+                    TradeColumnFile.shareholderBucket(shareholderId, shareholderBuckets));
+            ByteBuffer entries = shareholderEntries.computeIfAbsent(file,
+                    key -> ByteBuffer.allocate(TradeColumnFile.SHAREHOLDER_ENTRY_LENGTH * 64));
+            if (entries.remaining() < TradeColumnFile.SHAREHOLDER_ENTRY_LENGTH) {
+                entries = ByteBuffer.allocate(entries.capacity() * 2).put(entries.flip());
+                shareholderEntries.put(file, entries);
+            }
+            TradeColumnFile.putShareholderEntry(entries, shareholderId, securityId, state.rows + (i - from));
+        }
+        state.rows += timestamps.length;
+    }
+
+    private PartitionState partition(LocalDate day, Path dayDirectory, String securityId) throws IOException {
+        if (!day.equals(partitionsDay)) {
+            partitions.clear();
+            partitionsDay = day;
+        }
+        Path indexFile = TradeColumnFile.indexFile(dayDirectory, securityId);
+        PartitionState state = partitions.get(indexFile);
+        if (state == null) {
+            Files.createDirectories(dayDirectory);
+            // 重启后从已有索引的最后一块接续行号与时间戳
+            state = new PartitionState();
+            List<TradeColumnFile.IndexEntry> entries = TradeColumnFile.readIndex(indexFile);
+            if (!entries.isEmpty()) {
+                TradeColumnFile.IndexEntry last = entries.get(entries.size() - 1);
+                state.rows = last.getFirstRow() + last.getRows();
+                state.maxTimestamp = last.getMaxTimestamp();
+            }
+            partitions.put(indexFile, state);
+        }
+        return state;
+    }
+
+    /**
+     * 追加写入文件末尾
+     * @return 写入的起始偏移
+     */
+    private static long append(Path file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = channel.size();
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            return offset;
+        }
+    }
+
+    private static long timestamp(Trade trade) {
+        return trade.getTimestamp() == null ? System.currentTimeMillis() : trade.getTimestamp();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (enabled) {
+            flush();
+        }
+        flushExecutor.shutdown();
+    }
+
+    private static final class PartitionState {
+        private long rows;
+        private long maxTimestamp = Long.MIN_VALUE;
+    }
+
+    /**
+     * 缓存当前日期的起止时间，避免逐条成交换算日期
+     */
+    private final class DayRange {
+        private LocalDate day;
+        private long startMillis = Long.MAX_VALUE;
+        private long endMillis = Long.MIN_VALUE;
+
+        private boolean contains(long timestamp) {
+            return timestamp >= startMillis && timestamp < endMillis;
+        }
+
+        private LocalDate dayOf(long timestamp) {
+            if (!contains(timestamp)) {
+                day = LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), zone);
+                startMillis = day.atStartOfDay(zone).toInstant().toEpochMilli();
+                endMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            }
+            return day;
+        }
+    }
+}
@@ -1,4 +1,59 @@
 package com.example.trading.infrastructure.persistence;
 
+import com.example.trading.domain.model.Trade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 成交日志存储：把成交写入所属撮合分片的预写日志
+ * 仅在成交所属撮合分片线程中调用（单写者）
+ */
+@Component
+@RequiredArgsConstructor
 public class TradeStore {
+    private final WriteAheadLog writeAheadLog;
+
+    /**
+     * 记录单边成交
+     * 负载：execId, clOrderId, shareholderId, market, securityId, side, qty, price（市价单为空）, execQty, execPrice
+     */
+    public void appendTrade(Trade trade) {
+        Journal journal = writeAheadLog.journal(trade.getSecurityId());
+        if (journal == null) {
+            return;
+        }
+        ByteBuffer buffer = journal.claim();
+        RecordCodec.putString(buffer, trade.getExecId());
+        RecordCodec.putString(buffer, trade.getClOrderId());
+        RecordCodec.putString(buffer, trade.getShareholderId());
+        RecordCodec.putString(buffer, trade.getMarket());
+        RecordCodec.putString(buffer, trade.getSecurityId());
+        RecordCodec.putSide(buffer, trade.getSide());
+        RecordCodec.putInt(buffer, trade.getQty());
+        RecordCodec.putNullableDouble(buffer, trade.getPrice());
+        RecordCodec.putInt(buffer, trade.getExecQty());
+        RecordCodec.putDouble(buffer, trade.getExecPrice());
+        journal.commit(Journal.TYPE_EXECUTION, trade.getTimestamp() == null ? 0L : trade.getTimestamp());
+    }
+
+    /**
+     * 解码成交记录负载
+     */
+    public static Trade decodeTrade(ByteBuffer payload, long timestamp) {
+        return Trade.builder()
+                .execId(RecordCodec.getString(payload))
+                .clOrderId(RecordCodec.getString(payload))
+                .shareholderId(RecordCodec.getString(payload))
+                .market(RecordCodec.getString(payload))
+                .securityId(RecordCodec.getString(payload))
+                .side(RecordCodec.getSide(payload))
+                .qty(payload.getInt())
+                .price(RecordCodec.getNullableDouble(payload))
+                .execQty(payload.getInt())
+                .execPrice(payload.getDouble())
+                .timestamp(timestamp)
+                .build();
+    }
 }
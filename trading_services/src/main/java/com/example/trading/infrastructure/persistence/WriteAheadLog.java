@@ -0,0 +1,194 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.JournalConfig;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 预写日志管理（按撮合分片划分）
+ * 核心逻辑：
+ * 1. 每个撮合分片一个日志（history-path/journal/shard-{下标}-*.journal），同一股票的委托/撤单/成交按处理顺序写入同一日志；
+ * 2. 后台刷盘线程按fsync-interval-micros定时把各日志未刷盘部分刷到磁盘；
+ * 3. 关闭日志（enable=false）时journal()返回null，OrderStore/TradeStore不做任何事；
+ * 4. 日志按分片下标路由，分片数随日志写入journal.meta，重启时与当前配置不一致直接启动失败（与快照分片数校验一致）。
+ */
+@Slf4j
+@Component
+public class WriteAheadLog {
+    static final String JOURNAL_DIR = "journal";
+    static final String JOURNAL_PREFIX = "shard-";
+    static final String META_FILE = "journal.meta";
+    private static final String SHARD_COUNT_KEY = "shardCount";
+
+    private final ShardedMatchingExecutor matchingExecutor;
+    private final Path directory;
+    private final Journal[] journals;
+    private final Thread flusherThread;
+    private volatile boolean running = true;
+
+    public WriteAheadLog(DataConfig dataConfig, JournalConfig journalConfig,
+                         ShardedMatchingExecutor matchingExecutor) throws IOException {
+        this.matchingExecutor = matchingExecutor;
+        this.directory = journalDirectory(dataConfig);
+        if (!journalConfig.isEnable()) {
+            this.journals = null;
+            this.flusherThread = null;
+            log.info("预写日志已关闭");
+            return;
+        }
+        checkShardCount(directory, matchingExecutor.getShardCount());
+        this.journals = new Journal[matchingExecutor.getShardCount()];
+        for (int i = 0; i < journals.length; i++) {
+            journals[i] = new Journal(directory, journalName(i),
+                    journalConfig.getSegmentSize(), journalConfig.getFsyncBatchSize());
+        }
+        long intervalNanos = TimeUnit.MICROSECONDS.toNanos(journalConfig.getFsyncIntervalMicros());
+        if (intervalNanos > 0) {
+            this.flusherThread = new Thread(() -> flushLoop(intervalNanos), "journal-flusher");
+            this.flusherThread.setDaemon(true);
+            this.flusherThread.start();
+        } else {
+            this.flusherThread = null;
+        }
+        log.info("预写日志启动：目录[{}]，分片数[{}]，每{}条或每{}微秒刷盘",
+                directory, journals.length, journalConfig.getFsyncBatchSize(), journalConfig.getFsyncIntervalMicros());
+    }
+
+    private WriteAheadLog() {
+        this.matchingExecutor = null;
+        this.directory = null;
+        this.journals = null;
+        this.flusherThread = null;
+    }
+
+    /**
+     * 关闭的预写日志（不写任何文件），供确定性回放等不落盘的撮合链路使用
+     */
+    public static WriteAheadLog disabled() {
+        return new WriteAheadLog();
+    }
+
+    /**
+     * 股票所属分片的日志（日志关闭时返回null）
+     */
+    public Journal journal(String securityId) {
+        return journals == null ? null : journals[matchingExecutor.shardIndex(securityId)];
+    }
+
+    /**
+     * 指定分片的日志（日志关闭时返回null）
+     */
+    public Journal journalAt(int shardIndex) {
+        return journals == null ? null : journals[shardIndex];
+    }
+
+    public boolean isEnabled() {
+        return journals != null;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getJournalCount() {
+        return journals == null ? 0 : journals.length;
+    }
+
+    /**
+     * 日志目录：history-path/journal
+     */
+    public static Path journalDirectory(DataConfig dataConfig) {
+        return Paths.get(dataConfig.getHistoryPath(), JOURNAL_DIR);
+    }
+
+    public static String journalName(int shardIndex) {
+        return JOURNAL_PREFIX + shardIndex;
+    }
+
+    /**
+     * 校验并记录日志分片数
+     * 核心逻辑：
+     * 1. 已有journal.meta时，记录的分片数必须与当前配置一致，否则同一股票的历史日志会落在别的分片下标上，
+     *    分片减少时多出的日志被跳过、分片增多时多个分片线程回放同一股票；
+     * 2. 没有journal.meta但已有日志（升级前写入）时，按连续存在的分片日志推断分片数再校验；
+     * 3. 校验通过后写入当前分片数。
+     */
+    static void checkShardCount(Path directory, int shardCount) throws IOException {
+        Path metaFile = directory.resolve(META_FILE);
+        int journaledShardCount;
+        if (Files.exists(metaFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(metaFile)) {
+                properties.load(in);
+            }
+            journaledShardCount = Integer.parseInt(properties.getProperty(SHARD_COUNT_KEY, "0").trim());
+        } else {
+            journaledShardCount = 0;
+            while (Journal.exists(directory, journalName(journaledShardCount))) {
+                journaledShardCount++;
+            }
+        }
+        if (journaledShardCount > 0 && journaledShardCount != shardCount) {
+            throw new IllegalStateException("预写日志分片数[" + journaledShardCount + "]与当前配置["
+                    + shardCount + "]不一致，无法按分片回放（目录：" + directory + "）");
+        }
+        if (journaledShardCount == 0) {
+            Files.createDirectories(directory);
+            Properties properties = new Properties();
+            properties.setProperty(SHARD_COUNT_KEY, String.valueOf(shardCount));
+            try (OutputStream out = Files.newOutputStream(metaFile)) {
+                properties.store(out, null);
+            }
+        }
+    }
+
+    private void flushLoop(long intervalNanos) {
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            flushAll();
+        }
+    }
+
+    private void flushAll() {
+        for (Journal journal : journals) {
+            try {
+                journal.flush();
+            } catch (Exception e) {
+                log.error("预写日志刷盘失败", e);
+            }
+        }
+    }
+
+    /**
+     * 先停止撮合分片，再刷盘关闭日志
+     * 本类依赖撮合执行器，Spring会先销毁本类，因此在这里主动停止分片（重复停止无副作用），避免分片向已关闭的日志写入
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (journals == null) {
+            return;
+        }
+        matchingExecutor.shutdown();
+        running = false;
+        if (flusherThread != null) {
+            LockSupport.unpark(flusherThread);
+        }
+        for (Journal journal : journals) {
+            journal.close();
+        }
+        log.info("预写日志已关闭并刷盘");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.trading.infrastructure.recorder;
+
+import com.example.trading.config.RecorderConfig;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 撮合事件输出线程
+ * 核心逻辑：
+ * 1. 按trading.recorder.enable启用EngineEventRecorder，后台线程每drain-interval-millis取出各线程缓冲区中的事件；
+ * 2. 在后台线程按事件模板格式化为可读文本，写入名为engine-events的日志（logback中单独输出到engine-events.log）；
+ * 3. 事件时间为记录时的System.nanoTime，按启动时的墙钟锚点换算为微秒精度的时间；
+ * 4. 缓冲区写满丢弃的事件数定期以WARN输出；关闭时先停止记录再取完剩余事件。
+ */
+@Slf4j
+@Component
+public class EngineEventDrainer {
+    private static final Logger EVENT_LOG = LoggerFactory.getLogger("engine-events");
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS").withZone(ZoneId.systemDefault());
+
+    private final long anchorEpochNanos;
+    private final long anchorNanoTime;
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread drainerThread;
+    private volatile boolean running = true;
+
+    public EngineEventDrainer(RecorderConfig recorderConfig) {
+        this.anchorEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        this.anchorNanoTime = System.nanoTime();
+        if (!recorderConfig.isEnable()) {
+            this.drainerThread = null;
+            log.info("撮合事件记录已关闭");
+            return;
+        }
+        EngineEventRecorder.get().enable(recorderConfig.getRingSize());
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, recorderConfig.getDrainIntervalMillis()));
+        this.drainerThread = new Thread(() -> drainLoop(intervalNanos), "engine-event-drainer");
+        this.drainerThread.setDaemon(true);
+        this.drainerThread.start();
+        log.info("撮合事件记录启动：每线程缓冲[{}]条，每{}毫秒输出", recorderConfig.getRingSize(),
+                recorderConfig.getDrainIntervalMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (drainerThread == null) {
+            return;
+        }
+        EngineEventRecorder.get().disable();
+        running = false;
+        LockSupport.unpark(drainerThread);
+        try {
+            drainerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop(long intervalNanos) {
+        while (running) {
+            if (drainOnce() == 0) {
+                LockSupport.parkNanos(intervalNanos);
+            }
+        }
+        drainOnce();
+    }
+
+    private int drainOnce() {
+        int drained = EngineEventRecorder.get().drain(this::write);
+        long dropped = EngineEventRecorder.get().takeDropped();
+        if (dropped > 0) {
+            log.warn("撮合事件缓冲区已满，丢弃[{}]条事件", dropped);
+        }
+        return drained;
+    }
+
+    private void write(String threadName, long nanoTime, EngineEvent event, Object ref0, Object ref1, long[] args) {
+        line.setLength(0);
+        TIME_FORMAT.formatTo(Instant.ofEpochSecond(0, anchorEpochNanos + (nanoTime - anchorNanoTime)), line);
+        line.append(" [").append(threadName).append("] ");
+        event.format(line, ref0, ref1, args);
+        EVENT_LOG.info(line.toString());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.trading.infrastructure.report;
+
+import com.example.trading.domain.model.Trade;
+import com.example.trading.util.OrderJsonCodec;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 成交回报批次（同一批次内按成交顺序排列）
+ * JSON在首次需要时生成一次，多个消费者共享
+ */
+public class TradeReportBatch {
+    private final List<Trade> trades;
+    private String json;
+
+    TradeReportBatch(List<Trade> trades) {
+        this.trades = Collections.unmodifiableList(trades);
+    }
+
+    public List<Trade> getTrades() {
+        return trades;
+    }
+
+    public int size() {
+        return trades.size();
+    }
+
+    /**
+     * 批次JSON（trade.schema.json对象数组）
+     */
+    public synchronized String toJson() {
+        if (json == null) {
+            StringBuilder out = OrderJsonCodec.buffer();
+            OrderJsonCodec.writeTrades(out, trades);
+            json = out.toString();
+        }
+        return json;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.trading.infrastructure.report;
+
+/**
+ * 成交回报下游消费者（注册为Spring Bean即自动订阅）
+ * 回调在回报线程中执行，消费者耗时只会拖慢回报下发，不影响撮合
+ */
+public interface TradeReportListener {
+
+    /**
+     * 接收一批成交回报
+     */
+    void onTradeReports(TradeReportBatch batch);
+}
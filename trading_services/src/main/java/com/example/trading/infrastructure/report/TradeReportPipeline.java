@@ -0,0 +1,131 @@
+package com.example.trading.infrastructure.report;
+
+import com.example.trading.config.ReportConfig;
+import com.example.trading.domain.engine.TradeEventPublisher;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 成交回报异步管道
+ * 核心逻辑：
+ * 1. 撮合线程只把成交事件写入无锁环形队列（多个撮合分片并发写入），不做序列化/IO；
+ * 2. 单个回报线程批量取出事件，组装成交回报批次，依次推送给所有TradeReportListener；
+ * 3. 队列深度、批次大小、背压等待次数通过Micrometer暴露（/actuator/metrics）。
+ */
+@Slf4j
+@Component
+public class TradeReportPipeline implements TradeEventPublisher, SmartInitializingSingleton {
+    private static final long IDLE_PARK_NANOS = 100_000L;
+
+    private final MpscRingBuffer<Trade> ringBuffer;
+    private final int maxBatchSize;
+    private final ObjectProvider<TradeReportListener> listenerProvider;
+    private final Counter publishedCounter;
+    private final Counter backpressureCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Thread reportThread;
+    private List<TradeReportListener> listeners;
+    private volatile boolean running = true;
+
+    public TradeReportPipeline(ReportConfig reportConfig,
+                               ObjectProvider<TradeReportListener> listenerProvider,
+                               MeterRegistry meterRegistry) {
+        this.ringBuffer = new MpscRingBuffer<>(reportConfig.getQueueCapacity());
+        this.maxBatchSize = reportConfig.getMaxBatchSize();
+        this.listenerProvider = listenerProvider;
+        this.publishedCounter = meterRegistry.counter("trading.report.published");
+        this.backpressureCounter = meterRegistry.counter("trading.report.backpressure");
+        this.batchSizeSummary = DistributionSummary.builder("trading.report.batch.size")
+                .description("每批下发的成交回报条数")
+                .register(meterRegistry);
+        Gauge.builder("trading.report.queue.depth", ringBuffer, MpscRingBuffer::size)
+                .description("待下发的成交事件数")
+                .register(meterRegistry);
+        this.reportThread = new Thread(this::drainLoop, "trade-report");
+        this.reportThread.setDaemon(true);
+    }
+
+    /**
+     * 所有单例创建完成后再收集下游消费者并启动回报线程（避免启动期循环依赖）
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        listeners = listenerProvider.orderedStream().toList();
+        reportThread.start();
+    }
+
+    /**
+     * 发布成交事件（撮合线程调用）：队列满时让出CPU等待，不丢回报
+     */
+    @Override
+    public void publish(Trade trade) {
+        if (!ringBuffer.offer(trade)) {
+            backpressureCounter.increment();
+            while (!ringBuffer.offer(trade)) {
+                Thread.yield();
+            }
+        }
+        publishedCounter.increment();
+    }
+
+    /**
+     * 当前排队的成交事件数
+     */
+    public int getQueueDepth() {
+        return ringBuffer.size();
+    }
+
+    private void drainLoop() {
+        log.info("成交回报管道启动：下游消费者[{}]个，单批上限[{}]", listeners.size(), maxBatchSize);
+        while (running || !ringBuffer.isEmpty()) {
+            List<Trade> trades = drainBatch();
+            if (trades == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            dispatch(new TradeReportBatch(trades));
+        }
+    }
+
+    private List<Trade> drainBatch() {
+        Trade trade = ringBuffer.poll();
+        if (trade == null) {
+            return null;
+        }
+        List<Trade> trades = new ArrayList<>(Math.min(maxBatchSize, ringBuffer.size() + 1));
+        do {
+            trades.add(trade);
+        } while (trades.size() < maxBatchSize && (trade = ringBuffer.poll()) != null);
+        return trades;
+    }
+
+    private void dispatch(TradeReportBatch batch) {
+        batchSizeSummary.record(batch.size());
+        for (TradeReportListener listener : listeners) {
+            try {
+                listener.onTradeReports(batch);
+            } catch (Exception e) {
+                log.error("成交回报消费者[{}]处理批次异常", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        reportThread.join(1000);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.trading.infrastructure.risk;
+
+import com.example.trading.domain.model.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 风控检查请求（对应protocol/ipc/risk_check_request.schema.json）
+ * existingOrders只包含同一股东在该股票上仍在挂单的反方向订单，均为撮合分片内生成的快照
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskCheckRequest {
+    /**
+     * 待检查的新订单
+     */
+    private Order incomingOrder;
+    /**
+     * 订单簿中相关的活跃挂单
+     */
+    private List<Order> existingOrders;
+}
@@ -0,0 +1,22 @@
+package com.example.trading.infrastructure.risk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 风控检查响应（对应protocol/ipc/risk_check_response.schema.json）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiskCheckResponse {
+    /**
+     * 是否允许订单进入撮合
+     */
+    private Boolean allow;
+    /**
+     * 拒绝原因（allow=false时填写）
+     */
+    private String reason;
+}
@@ -0,0 +1,288 @@
+package com.example.trading.infrastructure.risk;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.config.RiskServiceConfig;
+import com.example.trading.util.EngineEvent;
+import com.example.trading.util.EngineEventRecorder;
+import com.example.trading.util.JsonUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Python风控服务客户端（POST /api/risk/check/batch）
+ * 核心逻辑：
+ * 1. 各线程提交的检查进入待发送队列，发送线程每次取出队列中积压的全部检查（不超过max-batch-size）合并为一个批量请求，
+ *    请求在途时新到的检查继续积压，负载越高批次越大，不额外等待凑批；
+ * 2. HttpClient（HTTP/1.1 keep-alive连接池）异步发送，最多max-in-flight个批量请求同时在途，连接复用不重复握手；
+ * 3. 每笔检查有独立的时间预算（time-budget-micros），预算内未应答则按本地风控结果处理，迟到的应答丢弃；
+ * 4. 请求异常/非200/应答超出时间预算记为失败，连续失败达到阈值后熔断，熔断期间不再发送，全部走本地风控，到期后放行一笔探测；
+ * 5. 未启用时不创建连接和线程，check直接返回通过。
+ */
+@Slf4j
+@Component
+public class RiskServiceClient {
+    private static final String BATCH_PATH = "/api/risk/check/batch";
+    private static final CompletableFuture<ErrorCodeEnum> PASS = CompletableFuture.completedFuture(null);
+
+    private final boolean enable;
+    private final long timeBudgetNanos;
+    private final int maxBatchSize;
+    private final Duration requestTimeout;
+    private final URI batchUri;
+    private final CircuitBreaker circuitBreaker;
+    private final BlockingQueue<PendingCheck> pending;
+    private final Semaphore inFlight;
+    private final ExecutorService callbackExecutor;
+    private final HttpClient httpClient;
+    private final Thread senderThread;
+    private volatile boolean running = true;
+
+    public RiskServiceClient(RiskServiceConfig config) {
+        this.enable = config.isEnable();
+        this.timeBudgetNanos = TimeUnit.MICROSECONDS.toNanos(config.getTimeBudgetMicros());
+        this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+        this.requestTimeout = Duration.ofMillis(config.getTimeout());
+        this.circuitBreaker = new CircuitBreaker(config.getFailureThreshold(), config.getOpenMillis());
+        if (!enable) {
+            this.batchUri = null;
+            this.pending = null;
+            this.inFlight = null;
+            this.callbackExecutor = null;
+            this.httpClient = null;
+            this.senderThread = null;
+            log.info("Python风控服务未启用，仅使用本地对敲风控");
+            return;
+        }
+        this.batchUri = URI.create(stripTrailingSlash(config.getUrl()) + BATCH_PATH);
+        this.pending = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.inFlight = new Semaphore(Math.max(1, config.getMaxInFlight()));
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.callbackExecutor = Executors.newFixedThreadPool(Math.max(1, config.getMaxInFlight()), runnable -> {
+            Thread thread = new Thread(runnable, "risk-service-callback-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .executor(callbackExecutor)
+                .build();
+        this.senderThread = new Thread(this::sendLoop, "risk-service-sender");
+        this.senderThread.setDaemon(true);
+        this.senderThread.start();
+        log.info("Python风控服务客户端启动：地址[{}]，时间预算[{}]us，批量上限[{}]，在途请求上限[{}]", batchUri,
+                config.getTimeBudgetMicros(), maxBatchSize, config.getMaxInFlight());
+    }
+
+    public boolean isEnabled() {
+        return enable;
+    }
+
+    /**
+     * 熔断期间返回false，调用方可跳过远程检查的准备工作
+     */
+    public boolean isAvailable() {
+        return enable && circuitBreaker.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * 风控服务应答后的后续处理线程（不占用撮合分片线程）
+     */
+    public Executor callbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * 提交一笔风控检查（不阻塞调用线程）
+     * @return 完成句柄：风控服务拦截时为错误码；放行、超出时间预算、熔断或队列已满时为null（按本地风控结果处理）
+     */
+    public CompletableFuture<ErrorCodeEnum> check(RiskCheckRequest request) {
+        if (!enable) {
+            return PASS;
+        }
+        String clOrderId = request.getIncomingOrder().getClOrderId();
+        if (!circuitBreaker.allowRequest()) {
+            EngineEventRecorder.record(EngineEvent.RISK_SERVICE_FALLBACK, clOrderId, "熔断");
+            return PASS;
+        }
+        PendingCheck check = new PendingCheck(request, System.nanoTime());
+        if (!pending.offer(check)) {
+            circuitBreaker.onFailure();
+            EngineEventRecorder.record(EngineEvent.RISK_SERVICE_FALLBACK, clOrderId, "队列已满");
+            return PASS;
+        }
+        return check.future.completeOnTimeout(null, timeBudgetNanos, TimeUnit.NANOSECONDS)
+                .thenApply(response -> toErrorCode(clOrderId, response));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (senderThread == null) {
+            return;
+        }
+        running = false;
+        senderThread.interrupt();
+        try {
+            senderThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        callbackExecutor.shutdown();
+    }
+
+    private ErrorCodeEnum toErrorCode(String clOrderId, RiskCheckResponse response) {
+        if (response == null) {
+            EngineEventRecorder.record(EngineEvent.RISK_SERVICE_FALLBACK, clOrderId, "超时或失败");
+            return null;
+        }
+        if (Boolean.FALSE.equals(response.getAllow())) {
+            EngineEventRecorder.record(EngineEvent.RISK_SERVICE_REJECTED, clOrderId, response.getReason());
+            return ErrorCodeEnum.SELF_TRADE;
+        }
+        return null;
+    }
+
+    /**
+     * 发送线程：取出积压的检查合并发送，等待在途名额期间新到的检查继续积压
+     */
+    private void sendLoop() {
+        while (running) {
+            try {
+                PendingCheck first = pending.take();
+                inFlight.acquire();
+                List<PendingCheck> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size() + 1));
+                batch.add(first);
+                pending.drainTo(batch, maxBatchSize - 1);
+                // 已超出时间预算的检查已按本地风控处理，不再发送；出现积压超时说明服务跟不上，记为一次失败
+                if (batch.removeIf(check -> check.future.isDone())) {
+                    circuitBreaker.onFailure();
+                }
+                if (batch.isEmpty()) {
+                    inFlight.release();
+                    continue;
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        List<PendingCheck> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        remaining.forEach(check -> check.future.complete(null));
+    }
+
+    private void send(List<PendingCheck> batch) {
+        List<RiskCheckRequest> checks = new ArrayList<>(batch.size());
+        for (PendingCheck check : batch) {
+            checks.add(check.request);
+        }
+        HttpRequest request = HttpRequest.newBuilder(batchUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JsonUtils.toJson(new BatchRequest(checks))))
+                .build();
+        try {
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        onResponse(batch, response, error);
+                    });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            onResponse(batch, null, e);
+        }
+    }
+
+    private void onResponse(List<PendingCheck> batch, HttpResponse<String> response, Throwable error) {
+        BatchResponse batchResponse = null;
+        if (error != null) {
+            log.warn("风控服务批量请求失败（{}笔）：{}", batch.size(), error.toString());
+        } else if (response.statusCode() != 200) {
+            log.warn("风控服务批量请求返回[{}]（{}笔）", response.statusCode(), batch.size());
+        } else {
+            try {
+                batchResponse = JsonUtils.fromJson(response.body(), BatchResponse.class);
+            } catch (RuntimeException e) {
+                log.warn("风控服务应答解析失败：{}", e.getMessage());
+            }
+            if (batchResponse != null && (batchResponse.getResults() == null
+                    || batchResponse.getResults().size() != batch.size())) {
+                log.warn("风控服务应答条数与请求不一致：请求[{}]笔", batch.size());
+                batchResponse = null;
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(batchResponse == null ? null : batchResponse.getResults().get(i));
+        }
+        // 批次中最早的检查已超出时间预算，视为慢调用
+        boolean inBudget = System.nanoTime() - batch.get(0).enqueuedNanos <= timeBudgetNanos;
+        if (batchResponse != null && inBudget) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * 待发送的检查（应答与超时兜底竞争完成同一个句柄，先到者生效）
+     */
+    private static final class PendingCheck {
+        private final RiskCheckRequest request;
+        private final long enqueuedNanos;
+        private final CompletableFuture<RiskCheckResponse> future = new CompletableFuture<>();
+
+        private PendingCheck(RiskCheckRequest request, long enqueuedNanos) {
+            this.request = request;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * 批量检查请求（对应protocol/ipc/risk_check_batch_request.schema.json）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class BatchRequest {
+        private List<RiskCheckRequest> checks;
+    }
+
+    /**
+     * 批量检查响应，results与checks按下标一一对应（对应protocol/ipc/risk_check_batch_response.schema.json）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class BatchResponse {
+        private List<RiskCheckResponse> results;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.JsonUtils;
+import com.example.trading.util.OrderJsonCodec;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * HTTP发送：异步POST委托/撤单JSON到REST接口（keep-alive连接由HttpClient复用）
+ * 核心逻辑：
+ * 1. 委托按协议字段序列化（OrderJsonCodec），撤单按实体序列化；
+ * 2. 应答体含rejectCode为拒绝，否则为确认，成交笔数按应答数组中的execId个数统计（不完整解析JSON）；
+ * 3. 非200应答与连接异常计为失败。
+ */
+public class HttpLoadTarget implements LoadTarget {
+    private static final String REJECT_FIELD = "\"rejectCode\"";
+    private static final String EXEC_ID_FIELD = "\"execId\"";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final URI orderUri;
+    private final URI cancelUri;
+
+    /**
+     * @param baseUrl 服务地址（含context-path），如http://localhost:8081/trading
+     */
+    public HttpLoadTarget(String baseUrl) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+        this.orderUri = URI.create(base + "/api/trading/order");
+        this.cancelUri = URI.create(base + "/api/trading/cancel");
+    }
+
+    @Override
+    public void sendOrder(Order order, ResponseListener listener) {
+        StringBuilder out = OrderJsonCodec.buffer();
+        OrderJsonCodec.writeOrder(out, order);
+        post(orderUri, out.toString(), listener);
+    }
+
+    @Override
+    public void sendCancel(CancelRequest cancel, ResponseListener listener) {
+        post(cancelUri, JsonUtils.toJson(cancel), listener);
+    }
+
+    private void post(URI uri, String json, ResponseListener listener) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        listener.onFailure(error);
+                    } else if (response.statusCode() != 200) {
+                        listener.onFailure(new IllegalStateException("HTTP " + response.statusCode()));
+                    } else {
+                        String body = response.body();
+                        listener.onResponse(!body.contains(REJECT_FIELD), count(body, EXEC_ID_FIELD));
+                    }
+                });
+    }
+
+    static int count(String body, String field) {
+        int count = 0;
+        for (int index = body.indexOf(field); index >= 0; index = body.indexOf(field, index + field.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.application.CancelService;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+
+/**
+ * 进程内发送：直接调用ExchangeService/CancelService的异步接口（不经过序列化与网络），
+ * 应答在撮合分片线程回调，测得的是校验→风控→撮合的服务端处理能力
+ */
+public class InProcessLoadTarget implements LoadTarget {
+    private final ExchangeService exchangeService;
+    private final CancelService cancelService;
+
+    public InProcessLoadTarget(ExchangeService exchangeService, CancelService cancelService) {
+        this.exchangeService = exchangeService;
+        this.cancelService = cancelService;
+    }
+
+    @Override
+    public void sendOrder(Order order, ResponseListener listener) {
+        exchangeService.submitOrder(order).whenComplete((outcome, error) -> {
+            if (error != null) {
+                listener.onFailure(error);
+            } else {
+                listener.onResponse(outcome.getRejectCode() == null, outcome.getTrades().size());
+            }
+        });
+    }
+
+    @Override
+    public void sendCancel(CancelRequest cancel, ResponseListener listener) {
+        cancelService.submitCancel(cancel).whenComplete((outcome, error) -> {
+            if (error != null) {
+                listener.onFailure(error);
+            } else {
+                listener.onResponse(outcome.getRejectCode() == null, 0);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+    }
+}
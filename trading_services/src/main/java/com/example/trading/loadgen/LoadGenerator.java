@@ -0,0 +1,312 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.application.CancelService;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.config.LoadGeneratorConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.infrastructure.metrics.LatencyHistogram;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测流量生成器（开环：按计划时刻发送，不等待上一笔应答）
+ * 核心逻辑：
+ * 1. 每个发送线程一个委托流模型（OrderFlowModel，负责的股票互不重叠）和一个发送目标（进程内/HTTP/TCP）；
+ * 2. 线程按模型给出的泊松计划时刻发送（距计划时刻较远时park，临近时自旋），在途请求达到上限时等待；
+ * 3. 时延从计划发送时刻起算：被测服务变慢导致发送落后时，落后的时间计入时延，不会因少发请求而低估（协调遗漏）；
+ * 4. 预热期间计划发送的请求不计入统计；发送结束后等待在途应答，超时未应答的计为失败；
+ * 5. 同一时间只允许一次压测；trading.load-generator.enable=false（默认）时拒绝执行，压测接口也不注册。
+ */
+@Slf4j
+@Component
+public class LoadGenerator {
+    public static final String IN_PROCESS = "IN_PROCESS";
+    public static final String HTTP = "HTTP";
+    public static final String TCP = "TCP";
+
+    private static final int MAX_THREADS = 99;
+    private static final long PARK_THRESHOLD_NANOS = 50_000;
+    /**
+     * 窗口足够长，直方图等价于累计统计
+     */
+    private static final long NO_EXPIRY = Long.MAX_VALUE >> 2;
+
+    private final LoadGeneratorConfig config;
+    private final ExchangeService exchangeService;
+    private final CancelService cancelService;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LoadGenerator(LoadGeneratorConfig config, ExchangeService exchangeService, CancelService cancelService) {
+        this.config = config;
+        this.exchangeService = exchangeService;
+        this.cancelService = cancelService;
+    }
+
+    /**
+     * 按配置执行一次压测（阻塞到结束）
+     */
+    public LoadReport run() {
+        return run(null, null);
+    }
+
+    /**
+     * 执行一次压测（阻塞到结束）
+     * @param targetRate      目标总速率（笔/秒），为null时取配置
+     * @param durationSeconds 统计时长（秒），为null时取配置
+     * @throws IllegalStateException 压测未开启、已有压测在进行，或发送目标连接失败
+     */
+    public LoadReport run(Double targetRate, Integer durationSeconds) {
+        if (!config.isEnable()) {
+            throw new IllegalStateException("压测未开启（trading.load-generator.enable=false）");
+        }
+        double rate = targetRate != null ? targetRate : config.getTargetRate();
+        int duration = durationSeconds != null ? durationSeconds : config.getDurationSeconds();
+        if (rate <= 0 || duration <= 0) {
+            throw new IllegalArgumentException("目标速率与统计时长必须大于0");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("压测正在进行中");
+        }
+        try {
+            return execute(rate, duration);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private LoadReport execute(double rate, int duration) {
+        String mode = config.getMode().toUpperCase(Locale.ROOT);
+        int workers = Math.max(1, Math.min(config.getThreads(), Math.min(MAX_THREADS, config.getSymbols())));
+        String runTag = runTag();
+        List<LoadTarget> targets = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                targets.add(openTarget(mode, i));
+            }
+            log.info("开始压测：方式{}，{}个线程，目标速率{}笔/秒，预热{}秒，统计{}秒",
+                    mode, workers, rate, config.getWarmupSeconds(), duration);
+
+            Stats stats = new Stats();
+            long start = System.nanoTime();
+            long measureStart = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+            long end = measureStart + TimeUnit.SECONDS.toNanos(duration);
+            List<Thread> threads = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                OrderFlowModel model = new OrderFlowModel(config, rate, i, workers, runTag, start);
+                LoadTarget target = targets.get(i);
+                Thread thread = new Thread(() -> sendLoop(model, target, stats, measureStart, end),
+                        "load-generator-" + i);
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            LoadReport report = stats.report(mode, workers, rate, duration, measureStart);
+            log.info("压测结束：{}", report);
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("压测被中断", e);
+        } finally {
+            for (LoadTarget target : targets) {
+                target.close();
+            }
+        }
+    }
+
+    private LoadTarget openTarget(String mode, int worker) {
+        switch (mode) {
+            case IN_PROCESS:
+                return new InProcessLoadTarget(exchangeService, cancelService);
+            case HTTP:
+                return new HttpLoadTarget(config.getUrl());
+            case TCP:
+                try {
+                    return new TcpLoadTarget(config.getHost(), config.getPort(), "load-generator-reader-" + worker);
+                } catch (IOException e) {
+                    throw new IllegalStateException("连接二进制网关失败：" + config.getHost() + ":" + config.getPort(), e);
+                }
+            default:
+                throw new IllegalArgumentException("未知压测发送方式：" + config.getMode());
+        }
+    }
+
+    private void sendLoop(OrderFlowModel model, LoadTarget target, Stats stats, long measureStart, long end) {
+        int maxInFlight = Math.max(1, config.getMaxInFlight());
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        while (!Thread.currentThread().isInterrupted()) {
+            long planned = model.nextArrival();
+            if (planned >= end) {
+                break;
+            }
+            waitUntil(planned);
+            inFlight.acquireUninterruptibly();
+            boolean measured = planned >= measureStart;
+            CancelRequest cancel = model.nextCancel();
+            if (cancel != null) {
+                if (measured) {
+                    stats.cancels.increment();
+                }
+                target.sendCancel(cancel, new Request(stats, inFlight, planned, measured, true));
+            } else {
+                if (measured) {
+                    stats.orders.increment();
+                }
+                target.sendOrder(model.nextOrder(), new Request(stats, inFlight, planned, measured, false));
+            }
+            if (measured) {
+                stats.sendLag.record(System.nanoTime() - planned);
+            }
+        }
+
+        // 等待在途应答，超时未应答的计为失败
+        try {
+            if (!inFlight.tryAcquire(maxInFlight, config.getDrainTimeoutSeconds(), TimeUnit.SECONDS)) {
+                int outstanding = maxInFlight - inFlight.availablePermits();
+                log.warn("{}有{}个请求超时未应答", Thread.currentThread().getName(), outstanding);
+                stats.failures.add(outstanding);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > PARK_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - PARK_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * 批次标识：当前秒数取36进制后5位，区分多次压测的订单编号
+     */
+    private static String runTag() {
+        String tag = Long.toString(System.currentTimeMillis() / 1000, 36).toUpperCase(Locale.ROOT);
+        return tag.substring(tag.length() - 5);
+    }
+
+    /**
+     * 单个请求的应答回调（在发送目标的线程执行）
+     */
+    private static final class Request implements LoadTarget.ResponseListener {
+        private final Stats stats;
+        private final Semaphore inFlight;
+        private final long planned;
+        private final boolean measured;
+        private final boolean cancel;
+
+        private Request(Stats stats, Semaphore inFlight, long planned, boolean measured, boolean cancel) {
+            this.stats = stats;
+            this.inFlight = inFlight;
+            this.planned = planned;
+            this.measured = measured;
+            this.cancel = cancel;
+        }
+
+        @Override
+        public void onResponse(boolean accepted, int fills) {
+            if (measured) {
+                long now = System.nanoTime();
+                if (cancel) {
+                    stats.cancelLatency.record(now - planned);
+                    (accepted ? stats.acceptedCancels : stats.rejectedCancels).increment();
+                } else {
+                    stats.orderLatency.record(now - planned);
+                    (accepted ? stats.acceptedOrders : stats.rejectedOrders).increment();
+                }
+                stats.fills.add(fills);
+                stats.lastResponse.accumulate(now);
+            }
+            // 统计完成后再归还在途名额，发送线程等到全部名额时统计已完整
+            inFlight.release();
+        }
+
+        @Override
+        public void onFills(int fills) {
+            if (measured) {
+                stats.fills.add(fills);
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable error) {
+            if (measured) {
+                stats.failures.increment();
+            }
+            inFlight.release();
+        }
+    }
+
+    /**
+     * 一次压测的统计（多个发送线程与应答线程并发更新）
+     */
+    private static final class Stats {
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder cancels = new LongAdder();
+        private final LongAdder acceptedOrders = new LongAdder();
+        private final LongAdder rejectedOrders = new LongAdder();
+        private final LongAdder acceptedCancels = new LongAdder();
+        private final LongAdder rejectedCancels = new LongAdder();
+        private final LongAdder fills = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAccumulator lastResponse = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private final LatencyHistogram orderLatency = new LatencyHistogram(NO_EXPIRY);
+        private final LatencyHistogram cancelLatency = new LatencyHistogram(NO_EXPIRY);
+        private final LatencyHistogram sendLag = new LatencyHistogram(NO_EXPIRY);
+
+        private LoadReport report(String mode, int workers, double rate, int duration, long measureStart) {
+            long sent = orders.sum() + cancels.sum();
+            long responses = acceptedOrders.sum() + rejectedOrders.sum() + acceptedCancels.sum()
+                    + rejectedCancels.sum();
+            long last = lastResponse.get();
+            double elapsedSeconds = last > measureStart ? (last - measureStart) / 1e9 : 0;
+            return LoadReport.builder()
+                    .mode(mode)
+                    .threads(workers)
+                    .targetRate(rate)
+                    .durationSeconds(duration)
+                    .orders(orders.sum())
+                    .cancels(cancels.sum())
+                    .sendRate(sent / (double) duration)
+                    .throughput(elapsedSeconds > 0 ? responses / elapsedSeconds : 0)
+                    .acceptedOrders(acceptedOrders.sum())
+                    .rejectedOrders(rejectedOrders.sum())
+                    .acceptedCancels(acceptedCancels.sum())
+                    .rejectedCancels(rejectedCancels.sum())
+                    .fills(fills.sum())
+                    .failures(failures.sum())
+                    .orderLatency(latency(orderLatency))
+                    .cancelLatency(latency(cancelLatency))
+                    .sendLag(latency(sendLag))
+                    .build();
+        }
+
+        private static LoadReport.Latency latency(LatencyHistogram histogram) {
+            return LoadReport.Latency.builder()
+                    .count(histogram.count())
+                    .p50(histogram.valueAtQuantile(0.5) / 1000.0)
+                    .p99(histogram.valueAtQuantile(0.99) / 1000.0)
+                    .p999(histogram.valueAtQuantile(0.999) / 1000.0)
+                    .max(histogram.max() / 1000.0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.trading.loadgen;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 压测结果（只统计计划发送时刻在统计区间内的请求，预热期间的请求不计入）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadReport implements Serializable {
+    /**
+     * 发送方式（IN_PROCESS/HTTP/TCP）
+     */
+    private String mode;
+    /**
+     * 发送线程数
+     */
+    private Integer threads;
+    /**
+     * 目标发送速率（笔/秒）
+     */
+    private Double targetRate;
+    /**
+     * 统计时长（秒，不含预热）
+     */
+    private Integer durationSeconds;
+    /**
+     * 发送的委托数
+     */
+    private Long orders;
+    /**
+     * 发送的撤单数
+     */
+    private Long cancels;
+    /**
+     * 实际发送速率（笔/秒）
+     */
+    private Double sendRate;
+    /**
+     * 持续吞吐量（笔/秒）：完成应答数 / （最后一个应答时刻 − 统计开始时刻）
+     */
+    private Double throughput;
+    /**
+     * 委托确认数
+     */
+    private Long acceptedOrders;
+    /**
+     * 委托拒绝数
+     */
+    private Long rejectedOrders;
+    /**
+     * 撤单成功数
+     */
+    private Long acceptedCancels;
+    /**
+     * 撤单拒绝数（含原委托已全部成交）
+     */
+    private Long rejectedCancels;
+    /**
+     * 成交笔数（委托方向的成交回报）
+     */
+    private Long fills;
+    /**
+     * 失败数（连接异常、非200应答、结束时仍未应答）
+     */
+    private Long failures;
+    /**
+     * 委托应答时延（自计划发送时刻起算，含发送线程落后于计划与在途上限等待的时间）
+     */
+    private Latency orderLatency;
+    /**
+     * 撤单应答时延（同上）
+     */
+    private Latency cancelLatency;
+    /**
+     * 发送滞后（实际发送时刻 − 计划发送时刻），持续增大说明目标速率超出了被测服务或发送线程的能力
+     */
+    private Latency sendLag;
+
+    /**
+     * 时延分位数（微秒，桶上界，相对误差约3%）
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Latency implements Serializable {
+        private Long count;
+        private Double p50;
+        private Double p99;
+        private Double p999;
+        private Double max;
+    }
+}
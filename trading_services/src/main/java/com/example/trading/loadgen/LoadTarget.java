@@ -0,0 +1,38 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+
+import java.io.Closeable;
+
+/**
+ * 压测发送目标（进程内/HTTP/TCP），每个压测线程一个实例
+ * 发送方法在压测线程调用、不等待应答；应答在目标自己的线程回调listener
+ */
+public interface LoadTarget extends Closeable {
+
+    void sendOrder(Order order, ResponseListener listener);
+
+    void sendCancel(CancelRequest cancel, ResponseListener listener);
+
+    @Override
+    void close();
+
+    /**
+     * 请求应答回调（每个请求恰好回调一次onResponse或onFailure；onFills可在onResponse之后追加）
+     */
+    interface ResponseListener {
+        /**
+         * @param accepted 委托确认/撤单成功为true，拒绝为false
+         * @param fills    随应答返回的成交笔数
+         */
+        void onResponse(boolean accepted, int fills);
+
+        /**
+         * 应答之后单独到达的成交（TCP网关的成交帧）
+         */
+        void onFills(int fills);
+
+        void onFailure(Throwable error);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.LoadGeneratorConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 模拟委托流（每个压测线程一个，非线程安全）
+ * 核心逻辑：
+ * 1. 事件到达为泊松过程：相邻事件的计划发送间隔服从均值为1/速率的指数分布，由调用方按计划时刻开环发送；
+ * 2. 股票按线程划分（第i个股票归第i % workers个线程），每个股票的中间价（tick）服从离散均值回复过程：
+ *    每笔委托前 mid += meanReversion × (基准价 − mid) + volatilityTicks × N(0,1)；
+ * 3. 委托以crossingRate的概率越过中间价1~3个tick（可立即成交），否则在本方距中间价1~10个tick处挂单；
+ * 4. 以cancelRatio的概率撤销本线程此前的一笔挂单委托（随机选取，可能已成交，由撤单拒绝回报体现）；
+ * 5. 股东按编号奇偶固定买卖方向（偶数买、奇数卖），同一股东不会越过自己的挂单，不触发对敲拦截。
+ */
+public final class OrderFlowModel {
+    static final String MARKET = "XSHG";
+    static final int FIRST_SECURITY_ID = 600000;
+    static final int MAX_CROSSING_TICKS = 3;
+    static final int MAX_PASSIVE_TICKS = 10;
+    private static final int MAX_LOTS = 10;
+    private static final int LOT_SIZE = 100;
+    private static final int CANCELABLE_CAPACITY = 4096;
+    private static final int SEQUENCE_DIGITS = 8;
+
+    private final Random random;
+    private final double meanIntervalNanos;
+    private final double meanReversion;
+    private final double volatilityTicks;
+    private final double cancelRatio;
+    private final double crossingRate;
+    private final int shareholderPairs;
+    private final String[] securityIds;
+    private final long baseTicks;
+    private final double[] midTicks;
+    /**
+     * 可撤挂单（满时随机替换一笔，撤单时与末尾交换后移除）
+     */
+    private final Order[] cancelable = new Order[CANCELABLE_CAPACITY];
+    private int cancelableCount;
+    /**
+     * 订单编号前缀（"G"/"X" + 5位批次标识 + 2位线程号），后接8位序号，共16位
+     */
+    private final String orderIdPrefix;
+    private final String cancelIdPrefix;
+    private long sequence;
+    private long nextArrivalNanos;
+
+    /**
+     * @param targetRate 全部线程的总发送速率（笔/秒），本线程承担1/workers
+     * @param worker     线程号（0~99）
+     * @param workers    线程总数（不超过股票数）
+     * @param runTag     批次标识（5位，区分多次压测的订单编号）
+     * @param startNanos 第一个事件的计划发送时刻（System.nanoTime()时间轴）
+     */
+    public OrderFlowModel(LoadGeneratorConfig config, double targetRate, int worker, int workers, String runTag,
+                          long startNanos) {
+        this.random = new Random(config.getSeed() * 31 + worker);
+        this.meanIntervalNanos = 1e9 * workers / targetRate;
+        this.meanReversion = config.getMeanReversion();
+        this.volatilityTicks = config.getVolatilityTicks();
+        this.cancelRatio = config.getCancelRatio();
+        this.crossingRate = config.getCrossingRate();
+        this.shareholderPairs = Math.max(1, config.getShareholders() / 2);
+        int symbolCount = (config.getSymbols() - worker + workers - 1) / workers;
+        this.securityIds = new String[symbolCount];
+        for (int i = 0; i < symbolCount; i++) {
+            securityIds[i] = String.valueOf(FIRST_SECURITY_ID + worker + i * workers);
+        }
+        this.baseTicks = Math.max(MAX_PASSIVE_TICKS + 1, Math.round(config.getBasePrice() * 100));
+        this.midTicks = new double[symbolCount];
+        Arrays.fill(midTicks, baseTicks);
+        String workerTag = worker < 10 ? "0" + worker : String.valueOf(worker);
+        this.orderIdPrefix = "G" + runTag + workerTag;
+        this.cancelIdPrefix = "X" + runTag + workerTag;
+        this.nextArrivalNanos = startNanos;
+    }
+
+    /**
+     * 下一个事件的计划发送时刻（纳秒），每次调用推进一个指数分布间隔
+     */
+    public long nextArrival() {
+        long arrival = nextArrivalNanos;
+        nextArrivalNanos += (long) (-Math.log(1.0 - random.nextDouble()) * meanIntervalNanos);
+        return arrival;
+    }
+
+    /**
+     * 以cancelRatio的概率生成撤单
+     * @return 本事件不是撤单、或没有可撤挂单时返回null（调用方改发委托）
+     */
+    public CancelRequest nextCancel() {
+        if (cancelableCount == 0 || random.nextDouble() >= cancelRatio) {
+            return null;
+        }
+        int index = random.nextInt(cancelableCount);
+        Order target = cancelable[index];
+        cancelable[index] = cancelable[--cancelableCount];
+        cancelable[cancelableCount] = null;
+        return CancelRequest.builder()
+                .clOrderId(nextId(cancelIdPrefix))
+                .origClOrderId(target.getClOrderId())
+                .market(target.getMarket())
+                .securityId(target.getSecurityId())
+                .shareholderId(target.getShareholderId())
+                .side(target.getSide())
+                .build();
+    }
+
+    /**
+     * 生成一笔限价委托（每次新建对象，提交后由撮合链路修改状态）
+     */
+    public Order nextOrder() {
+        int symbol = random.nextInt(securityIds.length);
+        double mid = midTicks[symbol];
+        mid += meanReversion * (baseTicks - mid) + volatilityTicks * random.nextGaussian();
+        mid = Math.max(MAX_PASSIVE_TICKS + 1, mid);
+        midTicks[symbol] = mid;
+
+        SideEnum side = random.nextBoolean() ? SideEnum.BUY : SideEnum.SELL;
+        boolean crossing = random.nextDouble() < crossingRate;
+        long offset = crossing ? 1 + random.nextInt(MAX_CROSSING_TICKS) : -(1 + random.nextInt(MAX_PASSIVE_TICKS));
+        long priceTicks = Math.round(mid) + (side == SideEnum.BUY ? offset : -offset);
+        int shareholder = random.nextInt(shareholderPairs) * 2 + (side == SideEnum.BUY ? 0 : 1);
+
+        Order order = Order.builder()
+                .clOrderId(nextId(orderIdPrefix))
+                .shareholderId(shareholderId(shareholder))
+                .market(MARKET)
+                .securityId(securityIds[symbol])
+                .side(side)
+                .qty(LOT_SIZE * (1 + random.nextInt(MAX_LOTS)))
+                .price(priceTicks / 100.0)
+                .build();
+        if (!crossing) {
+            remember(order);
+        }
+        return order;
+    }
+
+    /**
+     * 本线程负责的股票代码
+     */
+    public String[] getSecurityIds() {
+        return securityIds;
+    }
+
+    private void remember(Order order) {
+        if (cancelableCount < cancelable.length) {
+            cancelable[cancelableCount++] = order;
+        } else {
+            cancelable[random.nextInt(cancelable.length)] = order;
+        }
+    }
+
+    private String nextId(String prefix) {
+        String digits = Long.toString(sequence++);
+        StringBuilder id = new StringBuilder(prefix.length() + SEQUENCE_DIGITS).append(prefix);
+        for (int i = digits.length(); i < SEQUENCE_DIGITS; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+
+    static String shareholderId(int shareholder) {
+        String digits = Integer.toString(shareholder);
+        StringBuilder id = new StringBuilder(10).append("SH");
+        for (int i = digits.length(); i < 8; i++) {
+            id.append('0');
+        }
+        return id.append(digits).toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.gateway.BinaryCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TCP发送：一个压测线程一条二进制网关连接，压测线程流水线写出委托/撤单帧，读线程按clOrderId匹配回报
+ * 核心逻辑：
+ * 1. 写出前按请求clOrderId登记listener，收到ACK/REJECT/CANCEL_ACK/CANCEL_REJECT时取出并回调；
+ * 2. 网关把一笔委托的ACK与其全部TRADE帧连续写出，TRADE帧计入最近一个ACK的委托；
+ * 3. 连接断开时未应答的请求全部回调失败。
+ */
+@Slf4j
+public class TcpLoadTarget implements LoadTarget {
+    private static final int READ_BUFFER_SIZE = 65536;
+
+    private final SocketChannel channel;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BinaryCodec.MAX_FRAME_LENGTH);
+    private final Map<String, ResponseListener> pending = new ConcurrentHashMap<>();
+    private final Thread readerThread;
+    private volatile boolean closed;
+
+    public TcpLoadTarget(String host, int port, String threadName) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        this.readerThread = new Thread(this::readLoop, threadName);
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    @Override
+    public void sendOrder(Order order, ResponseListener listener) {
+        pending.put(order.getClOrderId(), listener);
+        writeBuffer.clear();
+        BinaryCodec.encodeOrder(writeBuffer, order);
+        write(order.getClOrderId(), listener);
+    }
+
+    @Override
+    public void sendCancel(CancelRequest cancel, ResponseListener listener) {
+        pending.put(cancel.getClOrderId(), listener);
+        writeBuffer.clear();
+        BinaryCodec.encodeCancel(writeBuffer, cancel);
+        write(cancel.getClOrderId(), listener);
+    }
+
+    private void write(String clOrderId, ResponseListener listener) {
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+        } catch (IOException e) {
+            if (pending.remove(clOrderId) != null) {
+                listener.onFailure(e);
+            }
+        }
+    }
+
+    private void readLoop() {
+        ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        byte[] scratch = new byte[BinaryCodec.CL_ORDER_ID_WIDTH];
+        ResponseListener acked = null;
+        IOException failure = new EOFException("连接已关闭");
+        try {
+            while (channel.read(in) >= 0) {
+                in.flip();
+                while (in.remaining() >= BinaryCodec.HEADER_LENGTH) {
+                    int position = in.position();
+                    int length = BinaryCodec.frameLength(in, position);
+                    if (length < BinaryCodec.HEADER_LENGTH) {
+                        throw new IOException("非法帧长度：" + length);
+                    }
+                    if (in.remaining() < length) {
+                        break;
+                    }
+                    byte type = BinaryCodec.frameType(in, position);
+                    if (type == BinaryCodec.TRADE) {
+                        if (acked != null) {
+                            acked.onFills(1);
+                        }
+                    } else {
+                        ResponseListener listener = pending.remove(BinaryCodec.clOrderId(in, position, scratch));
+                        acked = type == BinaryCodec.ACK ? listener : null;
+                        if (listener != null) {
+                            listener.onResponse(type == BinaryCodec.ACK || type == BinaryCodec.CANCEL_ACK, 0);
+                        }
+                    }
+                    in.position(position + length);
+                }
+                in.compact();
+            }
+        } catch (IOException e) {
+            failure = e;
+            if (!closed) {
+                log.warn("压测TCP连接读取失败", e);
+            }
+        }
+        for (String clOrderId : pending.keySet()) {
+            ResponseListener listener = pending.remove(clOrderId);
+            if (listener != null) {
+                listener.onFailure(failure);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+            readerThread.join(1000);
+        } catch (IOException e) {
+            log.warn("关闭压测TCP连接失败", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.trading.replay;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.model.Order;
+import com.example.trading.infrastructure.persistence.WriteAheadLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 确定性差异回放：把同一输入（预写日志或NDJSON）同时回放到两种订单簿实现，逐事件比较全部回报与最终订单簿
+ * 核心逻辑：
+ * 1. 两条回放链路在调用线程内对每个事件依次处理（锁步），时间取事件时间戳、成交编号各自从头生成，结果只取决于输入；
+ * 2. 每个事件比较拒绝码、订单状态、双方成交回报、被触发止损单、撤销数量与集合竞价结果，第一处不一致即停止并报告；
+ * 3. 全部事件一致时，再按股票、方向比较最终挂单队列（价格优先、时间优先顺序）与待触发止损单；
+ * 4. 不经过撮合分片、不写日志、不下发行情，回放速度只受撮合本身限制，可用于百万级以上事件的离线校验。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DifferentialReplayer {
+    public static final String SKIP_LIST = "SKIP_LIST";
+    public static final String TICK_LADDER = "TICK_LADDER";
+
+    private final PriceGenerator priceGenerator;
+    private final MatchingPolicySelector policySelector;
+    private final RiskConfig riskConfig;
+    private final DataConfig dataConfig;
+
+    /**
+     * 校验input-path下的NDJSON文件；fileName为空时校验预写日志目录
+     */
+    public ReplayReport verify(String fileName, String left, String right) throws IOException {
+        if (fileName == null || fileName.isEmpty()) {
+            return verify(new JournalReplaySource(WriteAheadLog.journalDirectory(dataConfig)), left, right);
+        }
+        Path inputDir = Paths.get(dataConfig.getInputPath()).toAbsolutePath().normalize();
+        Path inputFile = inputDir.resolve(fileName).normalize();
+        if (!inputFile.startsWith(inputDir) || !Files.isRegularFile(inputFile)) {
+            throw new IllegalArgumentException("回放文件不存在或不在input-path下：" + fileName);
+        }
+        return verify(new NdjsonReplaySource(inputFile), left, right);
+    }
+
+    /**
+     * 把输入同时回放到两种订单簿实现（SKIP_LIST / TICK_LADDER）并比较
+     */
+    public ReplayReport verify(ReplaySource source, String left, String right) throws IOException {
+        return verify(source, new ReplayPipeline(left, priceGenerator, policySelector, riskConfig),
+                new ReplayPipeline(right, priceGenerator, policySelector, riskConfig));
+    }
+
+    ReplayReport verify(ReplaySource source, ReplayPipeline left, ReplayPipeline right) throws IOException {
+        long start = System.nanoTime();
+        Lockstep lockstep = new Lockstep(left, right);
+        long skipped = source.read(lockstep);
+        ReplayReport.Divergence divergence = lockstep.divergence;
+        if (divergence == null) {
+            divergence = compareBooks(left, right);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        ReplayReport report = ReplayReport.builder()
+                .input(source.describe())
+                .left(left.getName())
+                .right(right.getName())
+                .events(lockstep.events)
+                .orders(lockstep.orders)
+                .cancels(lockstep.cancels)
+                .auctions(lockstep.auctions)
+                .skipped(skipped)
+                .trades(lockstep.trades)
+                .restingOrders(countResting(left))
+                .consistent(divergence == null)
+                .divergence(divergence)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .eventsPerSecond(elapsedNanos <= 0 ? lockstep.events
+                        : lockstep.events * TimeUnit.SECONDS.toNanos(1) / elapsedNanos)
+                .build();
+        if (divergence == null) {
+            log.info("差异回放一致：输入[{}]，{} vs {}，事件[{}]条，成交回报[{}]条，耗时[{}]ms，[{}]条/秒",
+                    report.getInput(), report.getLeft(), report.getRight(), report.getEvents(), report.getTrades(),
+                    report.getElapsedMillis(), report.getEventsPerSecond());
+        } else {
+            log.warn("差异回放不一致：输入[{}]，{} vs {}，{}", report.getInput(), report.getLeft(), report.getRight(),
+                    divergence);
+        }
+        return report;
+    }
+
+    /**
+     * 比较最终订单簿：各股票各方向的挂单队列与待触发止损单
+     */
+    private static ReplayReport.Divergence compareBooks(ReplayPipeline left, ReplayPipeline right) {
+        Set<String> securityIds = new TreeSet<>(left.getOrderBook().getSecurityIds());
+        securityIds.addAll(right.getOrderBook().getSecurityIds());
+        securityIds.addAll(left.getStopOrderBook().getSecurityIds());
+        securityIds.addAll(right.getStopOrderBook().getSecurityIds());
+        List<Order> leftOrders = new ArrayList<>();
+        List<Order> rightOrders = new ArrayList<>();
+        for (String securityId : securityIds) {
+            for (SideEnum side : SideEnum.values()) {
+                leftOrders.clear();
+                rightOrders.clear();
+                left.getOrderBook().forEachOrder(securityId, side, leftOrders::add);
+                right.getOrderBook().forEachOrder(securityId, side, rightOrders::add);
+                ReplayReport.Divergence divergence = ReplayOutcome.compareLists(
+                        "book[" + securityId + " " + side + "]", leftOrders, rightOrders);
+                if (divergence != null) {
+                    return divergence;
+                }
+            }
+            leftOrders.clear();
+            rightOrders.clear();
+            left.getStopOrderBook().forEachOrder(securityId, leftOrders::add);
+            right.getStopOrderBook().forEachOrder(securityId, rightOrders::add);
+            ReplayReport.Divergence divergence = ReplayOutcome.compareLists(
+                    "stops[" + securityId + "]", leftOrders, rightOrders);
+            if (divergence != null) {
+                return divergence;
+            }
+        }
+        return null;
+    }
+
+    private static long countResting(ReplayPipeline pipeline) {
+        long[] count = new long[1];
+        for (String securityId : pipeline.getOrderBook().getSecurityIds()) {
+            for (SideEnum side : SideEnum.values()) {
+                pipeline.getOrderBook().forEachOrder(securityId, side, order -> count[0]++);
+            }
+        }
+        for (String securityId : pipeline.getStopOrderBook().getSecurityIds()) {
+            pipeline.getStopOrderBook().forEachOrder(securityId, order -> count[0]++);
+        }
+        return count[0];
+    }
+
+    /**
+     * 锁步处理：每个事件依次交给两条链路，立即比较结果，第一处不一致时停止读取
+     */
+    private static final class Lockstep implements ReplaySource.Handler {
+        private final ReplayPipeline left;
+        private final ReplayPipeline right;
+        private long events;
+        private long orders;
+        private long cancels;
+        private long auctions;
+        private long trades;
+        private ReplayReport.Divergence divergence;
+
+        private Lockstep(ReplayPipeline left, ReplayPipeline right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean onEvent(ReplayEvent event) {
+            events++;
+            switch (event.getType()) {
+                case ORDER -> orders++;
+                case CANCEL -> cancels++;
+                default -> auctions++;
+            }
+            ReplayOutcome leftOutcome = left.apply(event);
+            ReplayOutcome rightOutcome = right.apply(event);
+            trades += leftOutcome.trades.size();
+            ReplayReport.Divergence found = leftOutcome.compare(rightOutcome);
+            if (found == null) {
+                return true;
+            }
+            found.setEventIndex(events);
+            found.setEvent(event.describe());
+            divergence = found;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.trading.replay;
+
+import com.example.trading.infrastructure.persistence.Journal;
+import com.example.trading.infrastructure.persistence.OrderStore;
+import com.example.trading.infrastructure.persistence.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * 预写日志回放输入
+ * 核心逻辑：
+ * 1. 依次读取目录下shard-0、shard-1……各分片日志（直到某个分片日志不存在），每个分片从头回放；
+ * 2. 委托、撤单、集合竞价阶段切换记录转为回放事件，事件时间取日志记录时间戳；成交记录是撮合的输出，跳过；
+ * 3. 一只股票的全部记录都在其所属分片日志中且保持原顺序，分片之间互不影响，按分片先后回放结果不变。
+ */
+public class JournalReplaySource implements ReplaySource {
+    private final Path directory;
+
+    public JournalReplaySource(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public long read(Handler handler) throws IOException {
+        boolean[] stopped = new boolean[1];
+        for (int i = 0; !stopped[0] && Journal.exists(directory, WriteAheadLog.journalName(i)); i++) {
+            Journal.replay(directory, WriteAheadLog.journalName(i), 0L, (type, sequence, timestamp, payload) -> {
+                if (stopped[0]) {
+                    return;
+                }
+                ReplayEvent event = toEvent(type, timestamp, payload);
+                if (event != null && !handler.onEvent(event)) {
+                    stopped[0] = true;
+                }
+            });
+        }
+        return 0L;
+    }
+
+    private static ReplayEvent toEvent(byte type, long timestamp, ByteBuffer payload) {
+        switch (type) {
+            case Journal.TYPE_ORDER:
+                return ReplayEvent.order(OrderStore.decodeOrder(payload, timestamp), timestamp);
+            case Journal.TYPE_CANCEL:
+                return ReplayEvent.cancel(OrderStore.decodeCancel(payload), timestamp);
+            case Journal.TYPE_AUCTION:
+                ReplayEvent[] event = new ReplayEvent[1];
+                OrderStore.decodeAuction(payload, (securityId, phase, referencePrice) ->
+                        event[0] = phase == OrderStore.AUCTION_BEGIN
+                                ? ReplayEvent.auctionBegin(securityId, timestamp)
+                                : ReplayEvent.auctionUncross(securityId, referencePrice, timestamp));
+                return event[0];
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String describe() {
+        return directory.toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.trading.replay;
+
+import com.example.trading.util.EngineClock;
+
+/**
+ * 回放时钟：时间取当前回放事件的时间戳，不读系统时钟
+ */
+final class ReplayClock extends EngineClock {
+    private long now;
+
+    void set(long now) {
+        this.now = now;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+}
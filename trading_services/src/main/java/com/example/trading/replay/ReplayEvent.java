@@ -0,0 +1,57 @@
+package com.example.trading.replay;
+
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+
+/**
+ * 回放输入事件（委托、撤单、集合竞价阶段切换）
+ * 委托为原型对象，每条回放链路处理前各自复制一份，链路之间互不影响
+ */
+@lombok.Value
+public class ReplayEvent {
+    public enum Type {
+        ORDER, CANCEL, AUCTION_BEGIN, AUCTION_UNCROSS
+    }
+
+    Type type;
+    /**
+     * 事件时间戳（毫秒），回放时钟按此推进
+     */
+    long timestamp;
+    Order order;
+    CancelRequest cancel;
+    String securityId;
+    /**
+     * 集中撮合参考价（<=0表示无参考价）
+     */
+    double referencePrice;
+
+    public static ReplayEvent order(Order order, long timestamp) {
+        return new ReplayEvent(Type.ORDER, timestamp, order, null, order.getSecurityId(), 0D);
+    }
+
+    public static ReplayEvent cancel(CancelRequest cancel, long timestamp) {
+        return new ReplayEvent(Type.CANCEL, timestamp, null, cancel, cancel.getSecurityId(), 0D);
+    }
+
+    public static ReplayEvent auctionBegin(String securityId, long timestamp) {
+        return new ReplayEvent(Type.AUCTION_BEGIN, timestamp, null, null, securityId, 0D);
+    }
+
+    public static ReplayEvent auctionUncross(String securityId, double referencePrice, long timestamp) {
+        return new ReplayEvent(Type.AUCTION_UNCROSS, timestamp, null, null, securityId, referencePrice);
+    }
+
+    /**
+     * 简短描述（用于差异报告）
+     */
+    public String describe() {
+        return switch (type) {
+            case ORDER -> "ORDER " + order.getClOrderId() + " " + securityId + " " + order.getSide()
+                    + " " + order.getQty() + "@" + order.getPrice();
+            case CANCEL -> "CANCEL " + cancel.getClOrderId() + " orig=" + cancel.getOrigClOrderId();
+            case AUCTION_BEGIN -> "AUCTION_BEGIN " + securityId;
+            case AUCTION_UNCROSS -> "AUCTION_UNCROSS " + securityId + " ref=" + referencePrice;
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.trading.replay;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.domain.model.AuctionResult;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 单个事件在一条回放链路上的处理结果（每条链路复用一个实例）
+ * 委托：拒绝码、撮合后的订单、双方成交回报、被触发的止损单；撤单：拒绝码、原订单、撤销数量；
+ * 集合竞价：阶段切换结果/集中撮合结果与成交回报
+ */
+final class ReplayOutcome {
+    ErrorCodeEnum rejectCode;
+    Order order;
+    int canceledQty;
+    Boolean auctionBegun;
+    AuctionResult auction;
+    /**
+     * 经TradeEventPublisher发布的成交回报（主动方、被动方、被触发止损单，按发布顺序）
+     */
+    final List<Trade> trades = new ArrayList<>();
+    final List<Order> triggeredOrders = new ArrayList<>();
+
+    void reset() {
+        rejectCode = null;
+        order = null;
+        canceledQty = 0;
+        auctionBegun = null;
+        auction = null;
+        trades.clear();
+        triggeredOrders.clear();
+    }
+
+    /**
+     * 与另一条链路的结果逐项比较
+     * @return 第一处差异（一致时返回null）
+     */
+    ReplayReport.Divergence compare(ReplayOutcome other) {
+        if (rejectCode != other.rejectCode) {
+            return divergence("rejectCode", rejectCode, other.rejectCode);
+        }
+        if (!Objects.equals(order, other.order)) {
+            return divergence("order", order, other.order);
+        }
+        if (canceledQty != other.canceledQty) {
+            return divergence("canceledQty", canceledQty, other.canceledQty);
+        }
+        if (!Objects.equals(auctionBegun, other.auctionBegun)) {
+            return divergence("auctionBegun", auctionBegun, other.auctionBegun);
+        }
+        if (!Objects.equals(auction, other.auction)) {
+            return divergence("auction", auction, other.auction);
+        }
+        ReplayReport.Divergence divergence = compareLists("trades", trades, other.trades);
+        return divergence != null ? divergence : compareLists("triggeredOrders", triggeredOrders, other.triggeredOrders);
+    }
+
+    /**
+     * 按位置比较两个列表，返回第一处不同的元素（长度不同时为较短一侧缺少的元素）
+     */
+    static ReplayReport.Divergence compareLists(String item, List<?> left, List<?> right) {
+        int size = Math.max(left.size(), right.size());
+        for (int i = 0; i < size; i++) {
+            Object l = i < left.size() ? left.get(i) : null;
+            Object r = i < right.size() ? right.get(i) : null;
+            if (!Objects.equals(l, r)) {
+                return divergence(item + "[" + i + "]", l, r);
+            }
+        }
+        return null;
+    }
+
+    private static ReplayReport.Divergence divergence(String item, Object left, Object right) {
+        return ReplayReport.Divergence.builder()
+                .item(item)
+                .left(String.valueOf(left))
+                .right(String.valueOf(right))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.trading.replay;
+
+import com.example.trading.application.CancelService.CancelOutcome;
+import com.example.trading.application.ExchangeService.MatchOutcome;
+import com.example.trading.application.ShardProcessor;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.MarketDataListener;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.engine.SkipListOrderBook;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.engine.TickLadderOrderBook;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.risk.SelfTradeChecker;
+import com.example.trading.domain.validation.CancelValidator;
+import com.example.trading.domain.validation.OrderValidator;
+import com.example.trading.infrastructure.db.DbWriteBehind;
+import com.example.trading.infrastructure.metrics.HotPathMetrics;
+import com.example.trading.infrastructure.persistence.OrderStore;
+import com.example.trading.infrastructure.persistence.TradeStore;
+import com.example.trading.infrastructure.persistence.WriteAheadLog;
+import com.example.trading.util.IdGenerator;
+
+
+/**
+ * 一条同步回放链路：一种订单簿实现及其独立的撮合状态，在调用线程内逐个处理事件（不经过撮合分片）
+ * 核心逻辑：
+ * 1. 订单簿、止损单触发索引、集合竞价状态、对敲风控索引均为本链路独有，撮合算法、成交价策略、风控配置与线上一致；
+ * 2. 时间取回放时钟（当前事件时间戳），成交编号取本链路独立的内存编号生成器，相同输入得到相同输出；
+ * 3. 委托/撤单/集合竞价与线上共用ShardProcessor的处理步骤（校验→对敲风控→撮合→登记挂单），
+ *    预写日志、数据库落库、热路径指标均为关闭实现，不写日志、不下发行情；
+ * 4. 成交回报经TradeEventPublisher收集，包含主动方、被动方与被触发止损单的全部回报。
+ */
+final class ReplayPipeline {
+    private final String name;
+    private final ReplayClock clock = new ReplayClock();
+    private final CallAuction callAuction = new CallAuction();
+    private final StopOrderBook stopOrderBook = new StopOrderBook();
+    private final OrderBook orderBook;
+    private final ShardProcessor shardProcessor;
+    private final ReplayOutcome outcome = new ReplayOutcome();
+
+    ReplayPipeline(String orderBookType, PriceGenerator priceGenerator, MatchingPolicySelector policySelector,
+                   RiskConfig riskConfig) {
+        this.name = orderBookType;
+        this.orderBook = newOrderBook(orderBookType, callAuction);
+        SelfTradeChecker selfTradeChecker = new SelfTradeChecker(riskConfig);
+        MatchingEngine matchingEngine = new MatchingEngine(orderBook, priceGenerator, outcome.trades::add,
+                new IdGenerator(), MarketDataListener.NONE, policySelector, callAuction, stopOrderBook, clock);
+        WriteAheadLog writeAheadLog = WriteAheadLog.disabled();
+        this.shardProcessor = new ShardProcessor(new OrderValidator(), new CancelValidator(), selfTradeChecker,
+                matchingEngine, orderBook, stopOrderBook, callAuction,
+                new OrderStore(writeAheadLog, DbWriteBehind.disabled()), new TradeStore(writeAheadLog),
+                HotPathMetrics.disabled(), clock);
+    }
+
+    private static OrderBook newOrderBook(String orderBookType, CallAuction callAuction) {
+        switch (orderBookType) {
+            case DifferentialReplayer.SKIP_LIST:
+                return new SkipListOrderBook(MarketDataListener.NONE, callAuction);
+            case DifferentialReplayer.TICK_LADDER:
+                return new TickLadderOrderBook(MarketDataListener.NONE, callAuction);
+            default:
+                throw new IllegalArgumentException("未知订单簿实现：" + orderBookType);
+        }
+    }
+
+    /**
+     * 处理一个事件，返回本链路复用的结果对象（下次调用前有效）
+     */
+    ReplayOutcome apply(ReplayEvent event) {
+        clock.set(event.getTimestamp());
+        outcome.reset();
+        switch (event.getType()) {
+            case ORDER -> processOrder(event.getOrder().toBuilder().build());
+            case CANCEL -> processCancel(event.getCancel());
+            case AUCTION_BEGIN -> outcome.auctionBegun = shardProcessor.beginAuction(event.getSecurityId());
+            case AUCTION_UNCROSS -> outcome.auction = shardProcessor.uncross(event.getSecurityId(),
+                    event.getReferencePrice(), outcome.triggeredOrders);
+            default -> throw new IllegalArgumentException("未知回放事件：" + event.getType());
+        }
+        return outcome;
+    }
+
+    private void processOrder(Order order) {
+        outcome.order = order;
+        outcome.rejectCode = shardProcessor.acceptOrder(order);
+        if (outcome.rejectCode != null) {
+            return;
+        }
+        MatchOutcome matched = shardProcessor.matchOrder(order, outcome.triggeredOrders);
+        outcome.order = matched.getOrder();
+        outcome.rejectCode = matched.getRejectCode();
+    }
+
+    private void processCancel(CancelRequest cancel) {
+        outcome.rejectCode = shardProcessor.validateCancel(cancel);
+        if (outcome.rejectCode != null) {
+            return;
+        }
+        CancelOutcome canceled = shardProcessor.cancelOrder(cancel);
+        outcome.rejectCode = canceled.getRejectCode();
+        outcome.order = canceled.getOrder();
+        outcome.canceledQty = canceled.getCanceledQty();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    OrderBook getOrderBook() {
+        return orderBook;
+    }
+
+    StopOrderBook getStopOrderBook() {
+        return stopOrderBook;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.trading.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 差异回放结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayReport implements Serializable {
+    /**
+     * 回放输入（日志目录或NDJSON文件）
+     */
+    private String input;
+    /**
+     * 左侧订单簿实现
+     */
+    private String left;
+    /**
+     * 右侧订单簿实现
+     */
+    private String right;
+    /**
+     * 已回放的事件数（出现差异时截至差异事件）
+     */
+    private Long events;
+    private Long orders;
+    private Long cancels;
+    /**
+     * 集合竞价阶段切换事件数
+     */
+    private Long auctions;
+    /**
+     * 无法解析而跳过的输入记录数
+     */
+    private Long skipped;
+    /**
+     * 成交回报数（买卖双方各一条）
+     */
+    private Long trades;
+    /**
+     * 回放结束时的挂单数（含待触发止损单）
+     */
+    private Long restingOrders;
+    /**
+     * 两侧的全部回报与最终订单簿是否一致
+     */
+    private Boolean consistent;
+    /**
+     * 第一处差异（一致时为null）
+     */
+    private Divergence divergence;
+    private Long elapsedMillis;
+    private Long eventsPerSecond;
+
+    /**
+     * 第一处差异
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Divergence implements Serializable {
+        /**
+         * 事件序号（从1开始），最终订单簿比较时为null
+         */
+        private Long eventIndex;
+        /**
+         * 事件描述
+         */
+        private String event;
+        /**
+         * 不一致的项目：rejectCode/order/canceledQty/auction/trades[i]/triggeredOrders[i]/book[股票 方向][i]/stops[股票][i]
+         */
+        private String item;
+        private String left;
+        private String right;
+    }
+}
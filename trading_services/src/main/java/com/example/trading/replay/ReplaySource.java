@@ -0,0 +1,28 @@
+package com.example.trading.replay;
+
+import java.io.IOException;
+
+/**
+ * 回放输入（按记录顺序逐条推送事件）
+ */
+public interface ReplaySource {
+
+    /**
+     * 按顺序读取全部事件，处理方返回false时停止读取
+     * @return 读取失败（无法解析）而跳过的记录数
+     */
+    long read(Handler handler) throws IOException;
+
+    /**
+     * 输入描述（用于报告）
+     */
+    String describe();
+
+    @FunctionalInterface
+    interface Handler {
+        /**
+         * @return false表示停止读取
+         */
+        boolean onEvent(ReplayEvent event);
+    }
+}
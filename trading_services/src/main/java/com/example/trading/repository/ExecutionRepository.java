@@ -0,0 +1,95 @@
+package com.example.trading.repository;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Trade;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 成交表（trades）JDBC访问，事务由调用方（DbWriteBehind）控制
+ * 每笔成交买卖双方各一行，主键(exec_id, side)，重复写入被忽略；语句兼容MySQL与H2（MODE=MySQL）
+ */
+@Repository
+public class ExecutionRepository {
+    public static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS trades ("
+            + "exec_id VARCHAR(32) NOT NULL, "
+            + "side VARCHAR(4) NOT NULL, "
+            + "cl_order_id VARCHAR(32) NOT NULL, "
+            + "shareholder_id VARCHAR(16), "
+            + "market VARCHAR(8), "
+            + "security_id VARCHAR(8), "
+            + "exec_qty INT NOT NULL, "
+            + "exec_price DOUBLE NOT NULL, "
+            + "exec_time BIGINT, "
+            + "PRIMARY KEY (exec_id, side))";
+
+    private static final int INSERT_COLUMNS = 9;
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO trades (exec_id, side, cl_order_id, "
+            + "shareholder_id, market, security_id, exec_qty, exec_price, exec_time) VALUES ";
+    private static final String FIND_BY_ORDER = "SELECT exec_id, side, cl_order_id, shareholder_id, market, "
+            + "security_id, exec_qty, exec_price, exec_time FROM trades WHERE cl_order_id = ? ORDER BY exec_id";
+
+    public void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+    }
+
+    /**
+     * 多行插入成交，已存在的忽略
+     */
+    public void insert(Connection connection, List<Trade> trades) throws SQLException {
+        if (trades.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                JdbcSupport.multiRowInsert(INSERT_PREFIX, INSERT_COLUMNS, trades.size()))) {
+            int index = 1;
+            for (Trade trade : trades) {
+                statement.setString(index++, trade.getExecId());
+                statement.setString(index++, trade.getSide() == null ? null : trade.getSide().getCode());
+                statement.setString(index++, trade.getClOrderId());
+                statement.setString(index++, trade.getShareholderId());
+                statement.setString(index++, trade.getMarket());
+                statement.setString(index++, trade.getSecurityId());
+                statement.setInt(index++, trade.getExecQty());
+                statement.setDouble(index++, trade.getExecPrice());
+                statement.setLong(index++, trade.getTimestamp() == null ? 0L : trade.getTimestamp());
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * 某委托的全部成交（按成交编号升序）
+     */
+    public List<Trade> findByClOrderId(Connection connection, String clOrderId) throws SQLException {
+        List<Trade> trades = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_BY_ORDER)) {
+            statement.setString(1, clOrderId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    trades.add(Trade.builder()
+                            .execId(resultSet.getString(1))
+                            .side(SideEnum.getByCode(resultSet.getString(2)))
+                            .clOrderId(resultSet.getString(3))
+                            .shareholderId(resultSet.getString(4))
+                            .market(resultSet.getString(5))
+                            .securityId(resultSet.getString(6))
+                            .execQty(resultSet.getInt(7))
+                            .execPrice(resultSet.getDouble(8))
+                            .timestamp(resultSet.getLong(9))
+                            .build());
+                }
+            }
+        }
+        return trades;
+    }
+}
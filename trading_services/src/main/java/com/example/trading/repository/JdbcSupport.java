@@ -0,0 +1,28 @@
+package com.example.trading.repository;
+
+/**
+ * JDBC语句拼装工具
+ */
+final class JdbcSupport {
+    private JdbcSupport() {
+    }
+
+    /**
+     * 多行插入语句：prefix + (?, ?, ...), (?, ?, ...) ...
+     */
+    static String multiRowInsert(String prefix, int columns, int rows) {
+        StringBuilder row = new StringBuilder(columns * 3 + 2).append('(');
+        for (int i = 0; i < columns; i++) {
+            row.append(i == 0 ? "?" : ", ?");
+        }
+        row.append(')');
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (row.length() + 2)).append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+}
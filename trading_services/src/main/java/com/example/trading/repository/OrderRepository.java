@@ -1,4 +1,153 @@
 package com.example.trading.repository;
 
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 委托表（orders）JDBC访问，事务由调用方（DbWriteBehind）控制
+ * 状态维护方式：受理时按原始数量插入（已存在则忽略），成交按成交回报累加，撤单只作用于未终结的委托；
+ * 语句兼容MySQL与H2（MODE=MySQL）
+ */
+@Repository
 public class OrderRepository {
+    public static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS orders ("
+            + "cl_order_id VARCHAR(32) NOT NULL PRIMARY KEY, "
+            + "shareholder_id VARCHAR(16), "
+            + "market VARCHAR(8), "
+            + "security_id VARCHAR(8), "
+            + "side VARCHAR(4), "
+            + "qty INT NOT NULL, "
+            + "price DOUBLE, "
+            + "cum_qty INT NOT NULL, "
+            + "status VARCHAR(16) NOT NULL, "
+            + "order_time BIGINT, "
+            + "update_time BIGINT)";
+
+    private static final int INSERT_COLUMNS = 11;
+    private static final String INSERT_PREFIX = "INSERT IGNORE INTO orders (cl_order_id, shareholder_id, market, "
+            + "security_id, side, qty, price, cum_qty, status, order_time, update_time) VALUES ";
+    /**
+     * status在cum_qty之前赋值：MySQL按从左到右求值，保证CASE读到的是累加前的cum_qty
+     */
+    private static final String APPLY_FILL = "UPDATE orders SET "
+            + "status = CASE WHEN status = 'CANCELLED' THEN status WHEN cum_qty + ? >= qty THEN 'FULL_FILLED' "
+            + "ELSE 'PART_FILLED' END, cum_qty = cum_qty + ?, update_time = ? WHERE cl_order_id = ?";
+    private static final String APPLY_CANCEL = "UPDATE orders SET status = 'CANCELLED', update_time = ? "
+            + "WHERE cl_order_id = ? AND status IN ('MATCHING', 'PART_FILLED')";
+    private static final String FIND = "SELECT cl_order_id, shareholder_id, market, security_id, side, qty, price, "
+            + "cum_qty, status, order_time FROM orders WHERE cl_order_id = ?";
+
+    public void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+        }
+    }
+
+    /**
+     * 多行插入已受理的委托（原始数量、未成交，状态MATCHING），已存在的忽略
+     */
+    public void insertAccepted(Connection connection, List<Order> orders) throws SQLException {
+        if (orders.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                JdbcSupport.multiRowInsert(INSERT_PREFIX, INSERT_COLUMNS, orders.size()))) {
+            int index = 1;
+            for (Order order : orders) {
+                long timestamp = order.getTimestamp() == null ? 0L : order.getTimestamp();
+                statement.setString(index++, order.getClOrderId());
+                statement.setString(index++, order.getShareholderId());
+                statement.setString(index++, order.getMarket());
+                statement.setString(index++, order.getSecurityId());
+                statement.setString(index++, order.getSide() == null ? null : order.getSide().getCode());
+                statement.setInt(index++, order.getQty());
+                if (order.getPrice() == null) {
+                    // 市价单无价格
+                    statement.setNull(index++, Types.DOUBLE);
+                } else {
+                    statement.setDouble(index++, order.getPrice());
+                }
+                statement.setInt(index++, 0);
+                statement.setString(index++, OrderStatusEnum.MATCHING.name());
+                statement.setLong(index++, timestamp);
+                statement.setLong(index++, timestamp);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * 按成交回报累加各自委托的成交数量（JDBC批量）
+     */
+    public void applyFills(Connection connection, List<Trade> trades) throws SQLException {
+        if (trades.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(APPLY_FILL)) {
+            for (Trade trade : trades) {
+                statement.setInt(1, trade.getExecQty());
+                statement.setInt(2, trade.getExecQty());
+                statement.setLong(3, trade.getTimestamp() == null ? 0L : trade.getTimestamp());
+                statement.setString(4, trade.getClOrderId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * 撤单（JDBC批量）：clOrderIds与timestamps一一对应
+     */
+    public void applyCancels(Connection connection, List<String> clOrderIds, List<Long> timestamps)
+            throws SQLException {
+        if (clOrderIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(APPLY_CANCEL)) {
+            for (int i = 0; i < clOrderIds.size(); i++) {
+                statement.setLong(1, timestamps.get(i));
+                statement.setString(2, clOrderIds.get(i));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * 查询委托当前状态（qty为原始数量）
+     * @return 不存在时返回null
+     */
+    public Order findByClOrderId(Connection connection, String clOrderId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FIND)) {
+            statement.setString(1, clOrderId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                return Order.builder()
+                        .clOrderId(resultSet.getString(1))
+                        .shareholderId(resultSet.getString(2))
+                        .market(resultSet.getString(3))
+                        .securityId(resultSet.getString(4))
+                        .side(SideEnum.getByCode(resultSet.getString(5)))
+                        .qty(resultSet.getInt(6))
+                        .price(resultSet.getDouble(7))
+                        .cumQty(resultSet.getInt(8))
+                        .status(OrderStatusEnum.valueOf(resultSet.getString(9)))
+                        .timestamp(resultSet.getLong(10))
+                        .build();
+            }
+        }
+    }
 }
@@ -1,4 +1,222 @@
 package com.example.trading.repository;
 
+import com.example.trading.common.Constants;
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.TradeHistoryConfig;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.infrastructure.persistence.TradeColumnFile;
+import com.example.trading.infrastructure.persistence.TradeHistoryWriter;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 历史成交查询（读取TradeHistoryWriter写入的列式分区，最多滞后一个写盘间隔）
+ * 核心逻辑：
+ * 1. 按股票+时间段：只遍历时间段内实际存在的日分区目录，读取该股票的稀疏时间索引（每块一条），
+ *    二分定位与时间段相交的块，只内存映射这些块，块内二分时间戳列确定起止行；
+ * 2. 按股东+日期：只内存映射该股东号所在哈希桶的股东索引，顺序比较定长股东号得到（股票, 行号），
+ *    再按行号二分定位所在块解码该行；
+ * 3. 不加载整个数据文件，查询与写入无锁并发（索引只在数据块写完后追加）。
+ */
+@Repository
 public class TradeRepository {
+    private final Path root;
+    private final int shareholderBuckets;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    public TradeRepository(TradeHistoryConfig tradeHistoryConfig, DataConfig dataConfig) {
+        this.root = TradeHistoryWriter.tradeRoot(dataConfig);
+        this.shareholderBuckets = Math.max(1, tradeHistoryConfig.getShareholderBuckets());
+    }
+
+    /**
+     * 某股票在[fromMillis, toMillis)内的成交（按时间升序）
+     * @throws IllegalArgumentException 股票代码不合法
+     */
+    public List<Trade> findBySecurity(String securityId, long fromMillis, long toMillis) {
+        if (securityId == null || !Constants.SECURITY_ID_PATTERN.matcher(securityId).matches()) {
+            throw new IllegalArgumentException("股票代码不合法：" + securityId);
+        }
+        List<Trade> result = new ArrayList<>();
+        if (fromMillis >= toMillis) {
+            return result;
+        }
+        LocalDate firstDay = LocalDate.ofInstant(Instant.ofEpochMilli(fromMillis), zone);
+        LocalDate lastDay = LocalDate.ofInstant(Instant.ofEpochMilli(toMillis - 1), zone);
+        for (LocalDate day : partitionDays(firstDay, lastDay)) {
+            Path dayDirectory = TradeColumnFile.dayDirectory(root, day);
+            try {
+                List<TradeColumnFile.IndexEntry> entries =
+                        TradeColumnFile.readIndex(TradeColumnFile.indexFile(dayDirectory, securityId));
+                int first = firstBlockEndingAtOrAfter(entries, fromMillis);
+                if (first == entries.size() || entries.get(first).getMinTimestamp() >= toMillis) {
+                    continue;
+                }
+                try (FileChannel channel = TradeColumnFile.openData(TradeColumnFile.dataFile(dayDirectory, securityId))) {
+                    for (int i = first; i < entries.size() && entries.get(i).getMinTimestamp() < toMillis; i++) {
+                        TradeColumnFile.IndexEntry entry = entries.get(i);
+                        ByteBuffer block = TradeColumnFile.mapBlock(channel, entry);
+                        int from = TradeColumnFile.lowerBound(block, entry.getRows(), fromMillis);
+                        int to = TradeColumnFile.lowerBound(block, entry.getRows(), toMillis);
+                        for (int row = from; row < to; row++) {
+                            result.add(TradeColumnFile.readRow(block, entry.getRows(), row, securityId));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取历史成交失败：" + dayDirectory + "/" + securityId, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * [firstDay, lastDay]内已存在的日分区（升序），只列出分区根目录，与时间段跨度无关
+     */
+    private List<LocalDate> partitionDays(LocalDate firstDay, LocalDate lastDay) {
+        List<LocalDate> days = new ArrayList<>();
+        if (!Files.isDirectory(root)) {
+            return days;
+        }
+        try (Stream<Path> directories = Files.list(root)) {
+            directories.forEach(directory -> {
+                LocalDate day = parseDay(directory.getFileName().toString());
+                if (day != null && !day.isBefore(firstDay) && !day.isAfter(lastDay) && Files.isDirectory(directory)) {
+                    days.add(day);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("列出历史成交分区失败：" + root, e);
+        }
+        days.sort(null);
+        return days;
+    }
+
+    /**
+     * 解析yyyyMMdd分区目录名，非分区目录返回null
+     */
+    private static LocalDate parseDay(String name) {
+        if (name.length() != 8) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(name, DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 某股东在某日的全部成交（按时间升序）
+     */
+    public List<Trade> findByShareholder(String shareholderId, LocalDate day) {
+        Path dayDirectory = TradeColumnFile.dayDirectory(root, day);
+        Path shareholderFile = TradeColumnFile.shareholderFile(dayDirectory,
+                TradeColumnFile.shareholderBucket(shareholderId, shareholderBuckets));
+        List<Trade> result = new ArrayList<>();
+        if (!Files.exists(shareholderFile)) {
+            return result;
+        }
+        try {
+            // 股票代码 → 行号（同一股票内行号递增）
+            Map<String, List<Long>> rowsBySecurity = new TreeMap<>();
+            try (FileChannel channel = TradeColumnFile.openData(shareholderFile)) {
+                ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int count = entries.limit() / TradeColumnFile.SHAREHOLDER_ENTRY_LENGTH;
+                for (int i = 0; i < count; i++) {
+                    if (TradeColumnFile.shareholderMatches(entries, i, shareholderId)) {
+                        rowsBySecurity.computeIfAbsent(TradeColumnFile.shareholderEntrySecurityId(entries, i),
+                                key -> new ArrayList<>()).add(TradeColumnFile.shareholderEntryRow(entries, i));
+                    }
+                }
+            }
+            for (Map.Entry<String, List<Long>> entry : rowsBySecurity.entrySet()) {
+                readRows(dayDirectory, entry.getKey(), entry.getValue(), result);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取股东历史成交失败：" + dayDirectory + "/" + shareholderId, e);
+        }
+        result.sort(Comparator.comparing(Trade::getTimestamp));
+        return result;
+    }
+
+    /**
+     * 按行号读取某股票分区中的成交（rows递增，同一块只映射一次）
+     */
+    private void readRows(Path dayDirectory, String securityId, List<Long> rows, List<Trade> result)
+            throws IOException {
+        List<TradeColumnFile.IndexEntry> entries =
+                TradeColumnFile.readIndex(TradeColumnFile.indexFile(dayDirectory, securityId));
+        try (FileChannel channel = TradeColumnFile.openData(TradeColumnFile.dataFile(dayDirectory, securityId))) {
+            int mapped = -1;
+            ByteBuffer block = null;
+            for (long row : rows) {
+                int index = blockContainingRow(entries, row);
+                if (index < 0) {
+                    continue;
+                }
+                TradeColumnFile.IndexEntry entry = entries.get(index);
+                if (index != mapped) {
+                    block = TradeColumnFile.mapBlock(channel, entry);
+                    mapped = index;
+                }
+                result.add(TradeColumnFile.readRow(block, entry.getRows(), (int) (row - entry.getFirstRow()),
+                        securityId));
+            }
+        }
+    }
+
+    /**
+     * 第一个maxTimestamp >= timestamp的块
+     */
+    private static int firstBlockEndingAtOrAfter(List<TradeColumnFile.IndexEntry> entries, long timestamp) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).getMaxTimestamp() < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 包含该行号的块，不存在（索引尚未写入）时返回-1
+     */
+    private static int blockContainingRow(List<TradeColumnFile.IndexEntry> entries, long row) {
+        int low = 0;
+        int high = entries.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            TradeColumnFile.IndexEntry entry = entries.get(mid);
+            if (row < entry.getFirstRow()) {
+                high = mid - 1;
+            } else if (row >= entry.getFirstRow() + entry.getRows()) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
 }
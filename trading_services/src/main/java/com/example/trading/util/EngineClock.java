@@ -0,0 +1,20 @@
+package com.example.trading.util;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 撮合时钟（毫秒时间戳）
+ * 委托受理时间与成交时间统一从这里取：线上为系统时钟；确定性回放时替换为按输入事件推进的逻辑时钟，
+ * 相同输入得到相同的时间戳（对敲风控时间窗口按订单时间戳判定，结果同样可复现）
+ */
+@Component
+public class EngineClock {
+    /**
+     * 系统时钟（在Spring容器外装配撮合链路时使用，如测试与基准）
+     */
+    public static final EngineClock SYSTEM = new EngineClock();
+
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.trading.util;
+
+import com.example.trading.common.enums.SideEnum;
+
+/**
+ * 撮合热路径事件类型（对应原先逐单输出的INFO日志）
+ * 每种事件由一个消息模板和参数规格组成，规格中每个字符依次对应模板中的一个{}：
+ *   r - 下一个引用参数（字符串），l - 下一个数值参数，d - 下一个数值参数按double位解码，s - 下一个数值参数按买卖方向序号解码
+ */
+public enum EngineEvent {
+    ORDER_RECEIVED("开始处理订单：{}", "r"),
+    ORDER_VALIDATED("订单{}基础校验完成，错误数：{}", "rl"),
+    CANCEL_RECEIVED("开始处理撤单：{}，原订单：{}", "rr"),
+    CANCEL_VALIDATED("撤单{}基础校验完成，错误数：{}", "rl"),
+    CANCEL_DONE("撤单{}成功：原订单{}已成交{}，撤销{}", "rrll"),
+    SELF_TRADE_PASSED("订单{}风控检查通过，无对敲风险", "r"),
+    SELF_TRADE_REJECTED("订单{}触发对敲风控：与同一股东的挂单{}价格可成交", "rr"),
+    SELF_TRADE_CACHE_REMOVED("撤单移除对敲风控挂单：股东号{}，股票{}", "rr"),
+    RISK_SERVICE_REJECTED("订单{}被风控服务拦截：{}", "rr"),
+    RISK_SERVICE_FALLBACK("订单{}未取得风控服务结果（{}），按本地风控结果处理", "rr"),
+    PRICE_GENERATED("生成成交价：策略[{}] | 买价[{}] | 卖价[{}] | 成交价[{}]", "rddd"),
+    MATCH_EXECUTED("撮合成交：新订单[{}] vs 对手方订单[{}] | 成交价格[{}] | 成交数量[{}] | 新订单剩余[{}] | 对手方剩余[{}]",
+            "rrdlll"),
+    MATCH_RESTED("新订单[{}]部分成交，剩余数量[{}]已挂单", "rl"),
+    MATCH_FILLED("新订单[{}]完全成交，无需挂单", "r"),
+    MATCH_CANCELLED("新订单[{}]剩余数量[{}]按订单类型/有效期撤销，不挂单", "rl"),
+    STOP_ACCEPTED("止损单[{}]等待触发，触发价[{}]", "rd"),
+    STOP_TRIGGERED("止损单[{}]已触发，触发价[{}]", "rd"),
+    BOOK_ORDER_ADDED("订单[{}]已加入[{}]方向订单簿，股票[{}]，价格[{}]，队列长度[{}]", "rsrdl"),
+    BOOK_ORDER_FILLED("对手方订单[{}]完全成交，已从队列移除，股票[{}]", "rr"),
+    BOOK_ORDER_REMOVED("订单[{}]已从[{}]方向订单簿移除，股票[{}]，价格[{}]", "rsrd"),
+    BOOK_LEVEL_REMOVED("股票[{}]的[{}]方向价格[{}]队列已空，移除该价格节点", "rsd");
+
+    private static final SideEnum[] SIDES = SideEnum.values();
+
+    private final String template;
+    private final String spec;
+
+    EngineEvent(String template, String spec) {
+        this.template = template;
+        this.spec = spec;
+    }
+
+    /**
+     * 按模板把一条事件记录格式化到StringBuilder（仅由后台输出线程调用）
+     */
+    public void format(StringBuilder out, Object ref0, Object ref1, long[] args) {
+        int refIndex = 0;
+        int argIndex = 0;
+        int from = 0;
+        for (int i = 0; i < spec.length(); i++) {
+            int placeholder = template.indexOf("{}", from);
+            out.append(template, from, placeholder);
+            char kind = spec.charAt(i);
+            if (kind == 'r') {
+                out.append(refIndex++ == 0 ? ref0 : ref1);
+            } else if (kind == 'd') {
+                out.append(Double.longBitsToDouble(args[argIndex++]));
+            } else if (kind == 's') {
+                long ordinal = args[argIndex++];
+                out.append(ordinal >= 0 && ordinal < SIDES.length ? SIDES[(int) ordinal].getDesc() : "?");
+            } else {
+                out.append(args[argIndex++]);
+            }
+            from = placeholder + 2;
+        }
+        out.append(template, from, template.length());
+    }
+}
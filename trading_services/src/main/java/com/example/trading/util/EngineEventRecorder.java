@@ -0,0 +1,209 @@
+package com.example.trading.util;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 撮合热路径事件记录器（替代逐单的同步INFO日志）
+ * 核心逻辑：
+ * 1. 每个线程一个定长环形缓冲区（单生产者-单消费者），记录为定长槽位：时间戳+事件类型+4个long参数+2个字符串引用；
+ * 2. 记录时只写数组槽位并发布写入序号，不格式化字符串、不加锁、不做IO，缓冲区满时丢弃并计数，绝不阻塞撮合；
+ * 3. 字符串参数只保存引用（订单编号、股票代码等不可变字符串），数值参数原样保存，格式化推迟到后台输出线程；
+ * 4. 未启用时（默认，由EngineEventDrainer按trading.recorder.enable启用）record只有一次volatile读；
+ * 5. 输出方（drain）加锁互斥，写入方不受影响。
+ */
+public final class EngineEventRecorder {
+    private static final int LONGS_PER_RECORD = 6;
+    private static final int REFS_PER_RECORD = 2;
+    private static final int ARG_COUNT = 4;
+    private static final EngineEventRecorder INSTANCE = new EngineEventRecorder();
+
+    private final List<Ring> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Ring> localRing = ThreadLocal.withInitial(this::register);
+    private volatile boolean enabled;
+    private volatile int ringSize = 4096;
+
+    /**
+     * 独立实例（测试使用），热路径统一通过静态方法写入全局实例
+     */
+    EngineEventRecorder() {
+    }
+
+    /**
+     * 全局记录器（热路径事件写入该实例）
+     */
+    public static EngineEventRecorder get() {
+        return INSTANCE;
+    }
+
+    public static void record(EngineEvent event, Object ref0) {
+        INSTANCE.append(event, ref0, null, 0, 0, 0, 0);
+    }
+
+    public static void record(EngineEvent event, Object ref0, Object ref1) {
+        INSTANCE.append(event, ref0, ref1, 0, 0, 0, 0);
+    }
+
+    public static void record(EngineEvent event, Object ref0, Object ref1, long arg0, long arg1) {
+        INSTANCE.append(event, ref0, ref1, arg0, arg1, 0, 0);
+    }
+
+    public static void record(EngineEvent event, Object ref0, Object ref1, long arg0, long arg1, long arg2, long arg3) {
+        INSTANCE.append(event, ref0, ref1, arg0, arg1, arg2, arg3);
+    }
+
+    /**
+     * double参数按位编码为long（格式化时按模板规格'd'解码）
+     */
+    public static long bits(double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * 启用记录器
+     * @param recordsPerThread 每个线程缓冲的记录数（向上取2的幂，只影响此后新建的缓冲区）
+     */
+    public void enable(int recordsPerThread) {
+        if (recordsPerThread <= 0) {
+            throw new IllegalArgumentException("事件缓冲区大小必须大于0：" + recordsPerThread);
+        }
+        ringSize = 1 << (32 - Integer.numberOfLeadingZeros(recordsPerThread - 1));
+        enabled = true;
+    }
+
+    public void disable() {
+        enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 写入当前线程的缓冲区（未启用时直接返回）
+     */
+    void append(EngineEvent event, Object ref0, Object ref1, long arg0, long arg1, long arg2, long arg3) {
+        if (enabled) {
+            localRing.get().write(event, ref0, ref1, arg0, arg1, arg2, arg3);
+        }
+    }
+
+    /**
+     * 取出全部线程缓冲区中已发布的记录（输出方互斥，可与任意写入线程并发）
+     * 已退出线程的缓冲区取空后注销
+     * @return 本次取出的记录数
+     */
+    public synchronized int drain(RecordConsumer consumer) {
+        int drained = 0;
+        for (Ring ring : rings) {
+            drained += ring.drain(consumer);
+            if (!ring.owner.isAlive() && ring.isEmpty()) {
+                rings.remove(ring);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 自上次调用以来因缓冲区满丢弃的记录数
+     */
+    public synchronized long takeDropped() {
+        long dropped = 0;
+        for (Ring ring : rings) {
+            dropped += ring.takeDropped();
+        }
+        return dropped;
+    }
+
+    private Ring register() {
+        Ring ring = new Ring(Thread.currentThread(), ringSize);
+        rings.add(ring);
+        return ring;
+    }
+
+    /**
+     * 记录回调（args仅在回调内有效）
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(String threadName, long nanoTime, EngineEvent event, Object ref0, Object ref1, long[] args);
+    }
+
+    /**
+     * 单线程环形缓冲区：写序号由所属线程发布，读序号由输出线程发布
+     */
+    private static final class Ring {
+        private static final EngineEvent[] EVENTS = EngineEvent.values();
+
+        private final Thread owner;
+        private final String threadName;
+        private final int mask;
+        private final long[] longs;
+        private final Object[] refs;
+        private final long[] args = new long[ARG_COUNT];
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        /**
+         * 输出线程已统计的丢弃数
+         */
+        private long reportedDropped;
+
+        private Ring(Thread owner, int capacity) {
+            this.owner = owner;
+            this.threadName = owner.getName();
+            this.mask = capacity - 1;
+            this.longs = new long[capacity * LONGS_PER_RECORD];
+            this.refs = new Object[capacity * REFS_PER_RECORD];
+        }
+
+        private void write(EngineEvent event, Object ref0, Object ref1, long arg0, long arg1, long arg2, long arg3) {
+            long index = head.get();
+            if (index - tail.get() > mask) {
+                dropped.lazySet(dropped.get() + 1);
+                return;
+            }
+            int slot = (int) index & mask;
+            int base = slot * LONGS_PER_RECORD;
+            longs[base] = System.nanoTime();
+            longs[base + 1] = event.ordinal();
+            longs[base + 2] = arg0;
+            longs[base + 3] = arg1;
+            longs[base + 4] = arg2;
+            longs[base + 5] = arg3;
+            refs[slot * REFS_PER_RECORD] = ref0;
+            refs[slot * REFS_PER_RECORD + 1] = ref1;
+            head.lazySet(index + 1);
+        }
+
+        private int drain(RecordConsumer consumer) {
+            long from = tail.get();
+            long to = head.get();
+            for (long index = from; index < to; index++) {
+                int slot = (int) index & mask;
+                int base = slot * LONGS_PER_RECORD;
+                System.arraycopy(longs, base + 2, args, 0, ARG_COUNT);
+                int refBase = slot * REFS_PER_RECORD;
+                consumer.accept(threadName, longs[base], EVENTS[(int) longs[base + 1]], refs[refBase], refs[refBase + 1],
+                        args);
+                // 释放引用，避免缓冲区长期持有已完成订单的字符串
+                refs[refBase] = null;
+                refs[refBase + 1] = null;
+            }
+            tail.lazySet(to);
+            return (int) (to - from);
+        }
+
+        private boolean isEmpty() {
+            return head.get() == tail.get();
+        }
+
+        private long takeDropped() {
+            long total = dropped.get();
+            long delta = total - reportedDropped;
+            reportedDropped = total;
+            return delta;
+        }
+    }
+}
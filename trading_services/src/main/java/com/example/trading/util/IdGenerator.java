@@ -1,4 +1,205 @@
 package com.example.trading.util;
 
+import com.example.trading.config.DataConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 编号生成器（成交编号execId / 订单编号clOrderId）
+ * 核心逻辑：
+ * 1. 编号 = 2位36进制分片前缀 + 36进制序号，每个撮合分片独占一个序列，热路径只做一次无竞争的原子自增；
+ * 2. 序号按块预留（默认每块10000个），预留上限落盘后才发放，重启时从已落盘上限继续，保证不重复；
+ * 3. 非撮合分片线程共用保留前缀"ZZ"的共享序列（CAS自增，同样按块预留）；
+ * 4. 热路径不使用UUID/SecureRandom。
+ */
+@Slf4j
+@Component
 public class IdGenerator {
+    /**
+     * 成交编号长度（char[12]）
+     */
+    public static final int EXEC_ID_LENGTH = 12;
+    /**
+     * 订单编号长度（char[16]）
+     */
+    public static final int ORDER_ID_LENGTH = 16;
+    private static final int PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX = 36 * 36 - 1;
+    private static final long BLOCK_SIZE = 10_000L;
+    private static final String SEQUENCE_FILE = "id-sequence.properties";
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /**
+     * 序列上限持久化文件（null表示仅内存，不落盘）
+     */
+    private final Path sequenceFile;
+    private final Map<Integer, Sequence> sequences = new ConcurrentHashMap<>();
+    private final Properties persistedLimits = new Properties();
+    private final Sequence sharedSequence;
+
+    /**
+     * 仅内存的编号生成器（测试/回放使用，重启不续号）
+     */
+    public IdGenerator() {
+        this((Path) null);
+    }
+
+    @Autowired
+    public IdGenerator(DataConfig dataConfig) {
+        this(Paths.get(dataConfig.getHistoryPath(), SEQUENCE_FILE));
+    }
+
+    public IdGenerator(Path sequenceFile) {
+        this.sequenceFile = sequenceFile;
+        loadPersistedLimits();
+        this.sharedSequence = sequence(MAX_PREFIX);
+    }
+
+    /**
+     * 获取指定前缀的序列（每个撮合分片一个，分片下标即前缀）
+     */
+    public Sequence sequence(int prefix) {
+        if (prefix < 0 || prefix > MAX_PREFIX) {
+            throw new IllegalArgumentException("编号前缀超出范围：" + prefix);
+        }
+        return sequences.computeIfAbsent(prefix, key -> {
+            long start = Long.parseLong(persistedLimits.getProperty(String.valueOf(key), "0"));
+            return new Sequence(key, start);
+        });
+    }
+
+    /**
+     * 生成成交编号：撮合分片线程使用本分片序列，其他线程使用共享序列
+     */
+    public String nextExecId() {
+        return currentSequence().nextExecId();
+    }
+
+    /**
+     * 生成订单编号：撮合分片线程使用本分片序列，其他线程使用共享序列
+     */
+    public String nextOrderId() {
+        return currentSequence().nextOrderId();
+    }
+
+    private Sequence currentSequence() {
+        return Thread.currentThread() instanceof SequenceOwner owner ? owner.idSequence() : sharedSequence;
+    }
+
+    /**
+     * 序号用尽当前预留块时，预留下一块并落盘（每块一次，非热路径）
+     */
+    private synchronized void reserve(Sequence sequence, long value) {
+        if (value < sequence.limit) {
+            return;
+        }
+        long newLimit = (value / BLOCK_SIZE + 1) * BLOCK_SIZE;
+        persistedLimits.setProperty(String.valueOf(sequence.prefix), String.valueOf(newLimit));
+        persist();
+        sequence.limit = newLimit;
+    }
+
+    private void loadPersistedLimits() {
+        if (sequenceFile == null || !Files.exists(sequenceFile)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(sequenceFile)) {
+            persistedLimits.load(in);
+            log.info("编号序列从[{}]恢复：{}", sequenceFile, persistedLimits);
+        } catch (IOException e) {
+            throw new IllegalStateException("读取编号序列文件失败：" + sequenceFile, e);
+        }
+    }
+
+    /**
+     * 原子落盘：写临时文件并fsync后替换正式文件
+     */
+    private void persist() {
+        if (sequenceFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(sequenceFile.toAbsolutePath().getParent());
+            Path tmpFile = sequenceFile.resolveSibling(SEQUENCE_FILE + ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmpFile)) {
+                persistedLimits.store(out, "id sequence limits");
+            }
+            try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmpFile, sequenceFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("编号序列落盘失败：" + sequenceFile, e);
+        }
+    }
+
+    private static String format(int prefix, long value, int length) {
+        char[] chars = new char[length];
+        chars[0] = DIGITS[prefix / 36];
+        chars[1] = DIGITS[prefix % 36];
+        for (int i = length - 1; i >= PREFIX_LENGTH; i--) {
+            chars[i] = DIGITS[(int) (value % 36)];
+            value /= 36;
+        }
+        if (value != 0) {
+            throw new IllegalStateException("编号序号溢出，前缀：" + prefix);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 持有专属序列的线程（撮合分片线程实现该接口）
+     */
+    public interface SequenceOwner {
+        Sequence idSequence();
+    }
+
+    /**
+     * 单个前缀的编号序列
+     */
+    public final class Sequence {
+        private final int prefix;
+        private final AtomicLong counter;
+        /**
+         * 已落盘的预留上限（不含）
+         */
+        private volatile long limit;
+
+        private Sequence(int prefix, long start) {
+            this.prefix = prefix;
+            this.counter = new AtomicLong(start);
+            this.limit = start;
+        }
+
+        public String nextExecId() {
+            return format(prefix, next(), EXEC_ID_LENGTH);
+        }
+
+        public String nextOrderId() {
+            return format(prefix, next(), ORDER_ID_LENGTH);
+        }
+
+        private long next() {
+            long value = counter.getAndIncrement();
+            if (value >= limit) {
+                reserve(this, value);
+            }
+            return value;
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.example.trading.util;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 
 /**
  * JSON工具类（基于Gson）
@@ -25,4 +26,11 @@ public class JsonUtils {
     public static <T> T fromJson(String json, Class<T> clazz) {
         return GSON.fromJson(json, clazz);
     }
-}
\ No newline at end of file
+
+    /**
+     * JSON节点转对象（流式解析出的单条记录）
+     */
+    public static <T> T fromJson(JsonElement json, Class<T> clazz) {
+        return GSON.fromJson(json, clazz);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.trading.util;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁环形队列（多生产者-单消费者）
+ * 核心特性：
+ * 1. 生产者通过CAS抢占写入序号，无显式锁；
+ * 2. 槽位为null表示尚未发布，消费者读到null即视为暂时为空；
+ * 3. 只允许一个线程调用poll（撮合分片线程），容量固定为2的幂。
+ */
+public class MpscRingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    /**
+     * 下一个待写入序号（多生产者CAS竞争）
+     */
+    private final AtomicLong producerIndex = new AtomicLong();
+    /**
+     * 下一个待读取序号（仅消费者写入）
+     */
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity <= 0) {
+            throw new IllegalArgumentException("环形队列容量必须大于0：" + requestedCapacity);
+        }
+        this.capacity = 1 << (32 - Integer.numberOfLeadingZeros(requestedCapacity - 1));
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * 写入元素（多线程安全）
+     * @return 队列已满返回false，由调用方决定背压策略
+     */
+    public boolean offer(E element) {
+        Objects.requireNonNull(element, "环形队列不接受null元素");
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet((int) index & mask, element);
+        return true;
+    }
+
+    /**
+     * 读取元素（仅限单个消费者线程调用）
+     * @return 暂无已发布元素时返回null
+     */
+    public E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) index & mask;
+        E element = buffer.get(offset);
+        if (element == null) {
+            return null;
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * 当前排队元素数（近似值，仅用于监控/空闲判断）
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    public boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.trading.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * NDJSON按行读取（批量导入、差异回放共用）
+ * 核心逻辑：
+ * 1. 按字节块读取输入，在缓冲区内按换行切分，直接把行的UTF-8字节区间交给处理方，不逐行创建字符串；
+ * 2. 行首尾空白（含\r）去掉，空行跳过，行号仍按物理行计；
+ * 3. 行超过缓冲区时缓冲区扩容，单条格式错误的行只影响该行，下一行照常读取。
+ */
+public final class NdjsonReader {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private NdjsonReader() {
+    }
+
+    /**
+     * 逐行读取到输入结束或处理方要求停止
+     */
+    public static void read(InputStream in, LineHandler handler) throws IOException {
+        byte[] buffer = new byte[READ_BUFFER_SIZE];
+        long lineNo = 0;
+        int start = 0;
+        int scanned = 0;
+        int end = 0;
+        while (true) {
+            int newline = indexOf(buffer, scanned, end, (byte) '\n');
+            if (newline >= 0) {
+                if (!line(++lineNo, buffer, start, newline, handler)) {
+                    return;
+                }
+                start = newline + 1;
+                scanned = start;
+                continue;
+            }
+            // 缓冲区内没有完整的行：前移未处理部分，行超过缓冲区时扩容
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            if (end == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            scanned = end;
+            int read = in.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                if (end > start) {
+                    line(++lineNo, buffer, start, end, handler);
+                }
+                return;
+            }
+            end += read;
+        }
+    }
+
+    private static boolean line(long lineNo, byte[] bytes, int from, int to, LineHandler handler) {
+        while (to > from && bytes[to - 1] <= ' ') {
+            to--;
+        }
+        while (from < to && bytes[from] <= ' ') {
+            from++;
+        }
+        return from == to || handler.onLine(lineNo, bytes, from, to - from);
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 行回调（字节区间仅在回调内有效）
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+        /**
+         * @return false表示停止读取
+         */
+        boolean onLine(long lineNo, byte[] bytes, int offset, int length);
+    }
+}
@@ -0,0 +1,840 @@
+package com.example.trading.util;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.google.gson.JsonSyntaxException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 委托/撤单/回报的手写流式JSON编解码（替代热路径上的反射Gson）
+ * 核心逻辑：
+ * 1. 解析直接扫描请求体UTF-8字节，按字段名字节比对后就地解析值，不构建JsonElement树、不反射，未知字段跳过；
+ * 2. 买卖方向就地映射：B/BUY→买入，S/SELL→卖出（兼容protocol/order.schema.json的B/S与IPC示例的BUY/SELL），其他值为null；
+ * 3. 数值字段兼容字符串形式的数字，纯小数价格走无分配快速路径，其余交给Double.parseDouble；
+ * 4. 序列化写入调用线程复用的StringBuilder，字段顺序、null输出、字符转义与JsonUtils（serializeNulls+HTML转义）逐字节一致；
+ * 5. 格式错误抛出JsonSyntaxException，与原Gson路径的异常类型一致。
+ */
+public final class OrderJsonCodec {
+    private static final int MAX_REUSED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private static final byte[][] ORDER_KEYS = keys("clOrderId", "shareholderId", "market", "securityId", "side",
+            "qty", "cumQty", "price", "status", "timestamp", "ordType", "timeInForce", "stopPrice");
+    private static final byte[][] CANCEL_KEYS = keys("clOrderId", "origClOrderId", "market", "securityId",
+            "shareholderId", "side");
+    private static final OrderStatusEnum[] STATUSES = OrderStatusEnum.values();
+    private static final OrderTypeEnum[] ORDER_TYPES = OrderTypeEnum.values();
+    private static final TimeInForceEnum[] TIME_IN_FORCES = TimeInForceEnum.values();
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final String[] ASCII_ESCAPES = new String[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ASCII_ESCAPES[c] = String.format("\\u%04x", c);
+        }
+        ASCII_ESCAPES['"'] = "\\\"";
+        ASCII_ESCAPES['\\'] = "\\\\";
+        ASCII_ESCAPES['\t'] = "\\t";
+        ASCII_ESCAPES['\b'] = "\\b";
+        ASCII_ESCAPES['\n'] = "\\n";
+        ASCII_ESCAPES['\r'] = "\\r";
+        ASCII_ESCAPES['\f'] = "\\f";
+        // Gson默认HTML安全转义
+        ASCII_ESCAPES['<'] = "\\u003c";
+        ASCII_ESCAPES['>'] = "\\u003e";
+        ASCII_ESCAPES['&'] = "\\u0026";
+        ASCII_ESCAPES['='] = "\\u003d";
+        ASCII_ESCAPES['\''] = "\\u0027";
+    }
+
+    private OrderJsonCodec() {
+    }
+
+    // ======================== 解析 ========================
+
+    public static Order parseOrder(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parseOrder(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 从UTF-8字节解析委托（对应protocol/order.schema.json，兼容status/timestamp/cumQty字段）
+     */
+    public static Order parseOrder(byte[] json, int offset, int length) {
+        Cursor cursor = new Cursor(json, offset, offset + length);
+        Order order = new Order();
+        order.setCumQty(null);
+        boolean cumQtySet = false;
+        if (cursor.beginObject()) {
+            do {
+                int field = cursor.nextKey(ORDER_KEYS);
+                switch (field) {
+                    case 0:
+                        order.setClOrderId(cursor.readString());
+                        break;
+                    case 1:
+                        order.setShareholderId(cursor.readString());
+                        break;
+                    case 2:
+                        order.setMarket(cursor.readString());
+                        break;
+                    case 3:
+                        order.setSecurityId(cursor.readString());
+                        break;
+                    case 4:
+                        order.setSide(cursor.readSide());
+                        break;
+                    case 5:
+                        order.setQty(cursor.readInteger());
+                        break;
+                    case 6:
+                        order.setCumQty(cursor.readInteger());
+                        cumQtySet = true;
+                        break;
+                    case 7:
+                        order.setPrice(cursor.readDouble());
+                        break;
+                    case 8:
+                        order.setStatus(cursor.readEnum(STATUSES));
+                        break;
+                    case 9:
+                        order.setTimestamp(cursor.readLong());
+                        break;
+                    case 10:
+                        order.setOrdType(cursor.readEnum(ORDER_TYPES));
+                        break;
+                    case 11:
+                        order.setTimeInForce(cursor.readEnum(TIME_IN_FORCES));
+                        break;
+                    case 12:
+                        order.setStopPrice(cursor.readDouble());
+                        break;
+                    default:
+                        cursor.skipValue();
+                }
+            } while (cursor.nextMember());
+        }
+        cursor.endDocument();
+        if (!cumQtySet) {
+            // 与Gson经无参构造器创建时的默认值一致
+            order.setCumQty(0);
+        }
+        return order;
+    }
+
+    public static CancelRequest parseCancel(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return parseCancel(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 从UTF-8字节解析撤单（对应protocol/cancel.schema.json）
+     */
+    public static CancelRequest parseCancel(byte[] json, int offset, int length) {
+        Cursor cursor = new Cursor(json, offset, offset + length);
+        CancelRequest cancel = new CancelRequest();
+        if (cursor.beginObject()) {
+            do {
+                int field = cursor.nextKey(CANCEL_KEYS);
+                switch (field) {
+                    case 0:
+                        cancel.setClOrderId(cursor.readString());
+                        break;
+                    case 1:
+                        cancel.setOrigClOrderId(cursor.readString());
+                        break;
+                    case 2:
+                        cancel.setMarket(cursor.readString());
+                        break;
+                    case 3:
+                        cancel.setSecurityId(cursor.readString());
+                        break;
+                    case 4:
+                        cancel.setShareholderId(cursor.readString());
+                        break;
+                    case 5:
+                        cancel.setSide(cursor.readSide());
+                        break;
+                    default:
+                        cursor.skipValue();
+                }
+            } while (cursor.nextMember());
+        }
+        cursor.endDocument();
+        return cancel;
+    }
+
+    /**
+     * 记录是否为撤单（顶层含origClOrderId字段），批量导入、差异回放按此区分委托与撤单
+     * 按撤单字段表逐个读取顶层字段名并跳过值，字符串值或嵌套对象中出现该字样不影响判断；格式错误抛出JsonSyntaxException
+     */
+    public static boolean isCancel(byte[] json, int offset, int length) {
+        Cursor cursor = new Cursor(json, offset, offset + length);
+        if (cursor.beginObject()) {
+            do {
+                if (cursor.nextKey(CANCEL_KEYS) == 1) {
+                    return true;
+                }
+                cursor.skipValue();
+            } while (cursor.nextMember());
+        }
+        return false;
+    }
+
+    // ======================== 序列化 ========================
+
+    /**
+     * 当前线程复用的输出缓冲区（已清空）；超大回报写完后下次不再复用，避免长期占用内存
+     */
+    public static StringBuilder buffer() {
+        StringBuilder out = BUFFER.get();
+        if (out.capacity() > MAX_REUSED_CAPACITY) {
+            out = new StringBuilder(512);
+            BUFFER.set(out);
+        }
+        out.setLength(0);
+        return out;
+    }
+
+    /**
+     * 订单（确认回报），字段顺序同Order
+     */
+    public static void writeOrder(StringBuilder out, Order order) {
+        out.append("{\"clOrderId\":");
+        string(out, order.getClOrderId());
+        out.append(",\"shareholderId\":");
+        string(out, order.getShareholderId());
+        out.append(",\"market\":");
+        string(out, order.getMarket());
+        out.append(",\"securityId\":");
+        string(out, order.getSecurityId());
+        out.append(",\"side\":");
+        enumName(out, order.getSide());
+        out.append(",\"qty\":");
+        number(out, order.getQty());
+        out.append(",\"cumQty\":");
+        number(out, order.getCumQty());
+        out.append(",\"price\":");
+        number(out, order.getPrice());
+        out.append(",\"status\":");
+        enumName(out, order.getStatus());
+        out.append(",\"timestamp\":");
+        number(out, order.getTimestamp());
+        out.append(",\"ordType\":");
+        enumName(out, order.getOrdType());
+        out.append(",\"timeInForce\":");
+        enumName(out, order.getTimeInForce());
+        out.append(",\"stopPrice\":");
+        number(out, order.getStopPrice());
+        out.append('}');
+    }
+
+    /**
+     * 成交回报，字段顺序同Trade
+     */
+    public static void writeTrade(StringBuilder out, Trade trade) {
+        out.append("{\"clOrderId\":");
+        string(out, trade.getClOrderId());
+        out.append(",\"market\":");
+        string(out, trade.getMarket());
+        out.append(",\"securityId\":");
+        string(out, trade.getSecurityId());
+        out.append(",\"side\":");
+        enumName(out, trade.getSide());
+        out.append(",\"qty\":");
+        number(out, trade.getQty());
+        out.append(",\"price\":");
+        number(out, trade.getPrice());
+        out.append(",\"shareholderId\":");
+        string(out, trade.getShareholderId());
+        out.append(",\"execId\":");
+        string(out, trade.getExecId());
+        out.append(",\"execQty\":");
+        number(out, trade.getExecQty());
+        out.append(",\"execPrice\":");
+        number(out, trade.getExecPrice());
+        out.append(",\"timestamp\":");
+        number(out, trade.getTimestamp());
+        out.append('}');
+    }
+
+    /**
+     * 成交回报数组
+     */
+    public static void writeTrades(StringBuilder out, List<Trade> trades) {
+        out.append('[');
+        for (int i = 0; i < trades.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeTrade(out, trades.get(i));
+        }
+        out.append(']');
+    }
+
+    /**
+     * 订单拒绝回报（对应protocol/reject.schema.json，side为方向编码）
+     */
+    public static void writeOrderReject(StringBuilder out, Order order, ErrorCodeEnum errorCode) {
+        out.append("{\"clOrderId\":");
+        string(out, order.getClOrderId());
+        out.append(",\"market\":");
+        string(out, order.getMarket());
+        out.append(",\"securityId\":");
+        string(out, order.getSecurityId());
+        out.append(",\"side\":");
+        string(out, order.getSide() == null ? null : order.getSide().getCode());
+        out.append(",\"qty\":");
+        number(out, order.getQty());
+        out.append(",\"price\":");
+        number(out, order.getPrice());
+        out.append(",\"shareholderId\":");
+        string(out, order.getShareholderId());
+        out.append(",\"rejectCode\":").append(errorCode.getCode());
+        out.append(",\"rejectText\":");
+        string(out, errorCode.getMsg());
+        out.append('}');
+    }
+
+    /**
+     * 撤单确认回报（对应protocol/ipc/cancel_ack.schema.json，qty = cumQty + canceledQty）
+     */
+    public static void writeCancelAck(StringBuilder out, CancelRequest cancel, Order order, int canceledQty) {
+        out.append("{\"clOrderId\":");
+        string(out, cancel.getClOrderId());
+        out.append(",\"origClOrderId\":");
+        string(out, order.getClOrderId());
+        out.append(",\"market\":");
+        string(out, order.getMarket());
+        out.append(",\"securityId\":");
+        string(out, order.getSecurityId());
+        out.append(",\"shareholderId\":");
+        string(out, order.getShareholderId());
+        out.append(",\"side\":");
+        string(out, order.getSide() == null ? null : order.getSide().getCode());
+        out.append(",\"qty\":").append(order.getCumQty() + canceledQty);
+        out.append(",\"price\":");
+        number(out, order.getPrice());
+        out.append(",\"cumQty\":");
+        number(out, order.getCumQty());
+        out.append(",\"canceledQty\":").append(canceledQty);
+        out.append('}');
+    }
+
+    /**
+     * 撤单拒绝回报（对应protocol/ipc/cancel_reject.schema.json）
+     */
+    public static void writeCancelReject(StringBuilder out, CancelRequest cancel, ErrorCodeEnum errorCode) {
+        out.append("{\"clOrderId\":");
+        string(out, cancel.getClOrderId());
+        out.append(",\"origClOrderId\":");
+        string(out, cancel.getOrigClOrderId());
+        out.append(",\"rejectCode\":").append(errorCode.getCode());
+        out.append(",\"rejectText\":");
+        string(out, errorCode.getMsg());
+        out.append('}');
+    }
+
+    private static void string(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        int length = value.length();
+        int last = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c < 128) {
+                escape = ASCII_ESCAPES[c];
+                if (escape == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                escape = "\\u2028";
+            } else if (c == '\u2029') {
+                escape = "\\u2029";
+            } else {
+                continue;
+            }
+            out.append(value, last, i).append(escape);
+            last = i + 1;
+        }
+        out.append(value, last, length).append('"');
+    }
+
+    private static void enumName(StringBuilder out, Enum<?> value) {
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append('"').append(value.name()).append('"');
+        }
+    }
+
+    private static void number(StringBuilder out, Integer value) {
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append(value.intValue());
+        }
+    }
+
+    private static void number(StringBuilder out, Long value) {
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append(value.longValue());
+        }
+    }
+
+    private static void number(StringBuilder out, Double value) {
+        if (value == null) {
+            out.append("null");
+        } else {
+            out.append(value.doubleValue());
+        }
+    }
+
+    private static byte[][] keys(String... names) {
+        byte[][] keys = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = names[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        return keys;
+    }
+
+    /**
+     * 单次解析的读取位置（只在解析线程内使用）
+     */
+    private static final class Cursor {
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+
+        private Cursor(byte[] buf, int pos, int end) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        /**
+         * 读取'{'，对象非空时返回true
+         */
+        private boolean beginObject() {
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (pos < end && buf[pos] == '}') {
+                pos++;
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * 成员之间的','返回true，对象结束的'}'返回false
+         */
+        private boolean nextMember() {
+            skipWhitespace();
+            if (pos < end) {
+                byte c = buf[pos++];
+                if (c == ',') {
+                    return true;
+                }
+                if (c == '}') {
+                    return false;
+                }
+            }
+            throw error("应为','或'}'");
+        }
+
+        private void endDocument() {
+            skipWhitespace();
+            if (pos != end) {
+                throw error("JSON文档之后存在多余内容");
+            }
+        }
+
+        /**
+         * 读取字段名和':'，返回字段在keys中的下标（未知字段返回-1）
+         */
+        private int nextKey(byte[][] keys) {
+            skipWhitespace();
+            expect('"');
+            int start = pos;
+            while (pos < end && buf[pos] != '"') {
+                if (buf[pos] == '\\') {
+                    // 含转义的字段名（罕见）：解码后比对
+                    pos = start - 1;
+                    return indexOf(keys, readQuoted().getBytes(StandardCharsets.UTF_8), 0, -1);
+                }
+                pos++;
+            }
+            if (pos >= end) {
+                throw error("字符串未结束");
+            }
+            int length = pos - start;
+            pos++;
+            int index = indexOf(keys, buf, start, length);
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            return index;
+        }
+
+        private int indexOf(byte[][] keys, byte[] source, int start, int length) {
+            if (length < 0) {
+                // 转义路径：source为完整字段名
+                length = source.length;
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+            }
+            for (int k = 0; k < keys.length; k++) {
+                byte[] key = keys[k];
+                if (key.length != length) {
+                    continue;
+                }
+                int i = 0;
+                while (i < length && key[i] == source[start + i]) {
+                    i++;
+                }
+                if (i == length) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        private String readString() {
+            if (consumeNull()) {
+                return null;
+            }
+            if (pos < end && buf[pos] == '"') {
+                return readQuoted();
+            }
+            // 与Gson一致：数字/字面量按文本读取
+            int start = pos;
+            skipLiteral();
+            return new String(buf, start, pos - start, StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * 读取带引号的字符串：无转义的ASCII直接按字节构造，否则逐字符解码
+         */
+        private String readQuoted() {
+            expect('"');
+            int start = pos;
+            boolean ascii = true;
+            while (pos < end) {
+                byte c = buf[pos];
+                if (c == '"') {
+                    String value = new String(buf, start, pos - start,
+                            ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+                    pos++;
+                    return value;
+                }
+                if (c == '\\') {
+                    return readEscaped(start);
+                }
+                if (c < 0) {
+                    ascii = false;
+                }
+                pos++;
+            }
+            throw error("字符串未结束");
+        }
+
+        private String readEscaped(int start) {
+            StringBuilder value = new StringBuilder(new String(buf, start, pos - start, StandardCharsets.UTF_8));
+            int chunk = pos;
+            while (pos < end) {
+                byte c = buf[pos];
+                if (c == '"') {
+                    value.append(new String(buf, chunk, pos - chunk, StandardCharsets.UTF_8));
+                    pos++;
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    pos++;
+                    continue;
+                }
+                value.append(new String(buf, chunk, pos - chunk, StandardCharsets.UTF_8));
+                if (pos + 1 >= end) {
+                    break;
+                }
+                byte escaped = buf[pos + 1];
+                pos += 2;
+                switch (escaped) {
+                    case 'u':
+                        if (pos + 4 > end) {
+                            throw error("转义序列不完整");
+                        }
+                        value.append((char) Integer.parseInt(new String(buf, pos, 4, StandardCharsets.US_ASCII), 16));
+                        pos += 4;
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    default:
+                        value.append((char) escaped);
+                }
+                chunk = pos;
+            }
+            throw error("字符串未结束");
+        }
+
+        /**
+         * 买卖方向：B/BUY为买入，S/SELL为卖出，其他值为null
+         * 单字符快速路径不接受反斜杠（"\"是未结束的字符串，交给常规路径报错）
+         */
+        private SideEnum readSide() {
+            if (consumeNull()) {
+                return null;
+            }
+            if (pos + 2 < end && buf[pos] == '"' && buf[pos + 1] != '\\' && buf[pos + 2] == '"') {
+                byte code = buf[pos + 1];
+                pos += 3;
+                return code == 'B' ? SideEnum.BUY : code == 'S' ? SideEnum.SELL : null;
+            }
+            String code = readString();
+            return "BUY".equals(code) ? SideEnum.BUY : "SELL".equals(code) ? SideEnum.SELL : null;
+        }
+
+        /**
+         * 按枚举名解析（未知名称与Gson一致返回null）
+         */
+        private <E extends Enum<E>> E readEnum(E[] values) {
+            String name = readString();
+            if (name == null) {
+                return null;
+            }
+            for (E value : values) {
+                if (value.name().equals(name)) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        private Integer readInteger() {
+            Long value = readLong();
+            if (value == null) {
+                return null;
+            }
+            if (value != value.intValue()) {
+                throw error("整数超出范围：" + value);
+            }
+            return value.intValue();
+        }
+
+        /**
+         * 整数：纯数字快速路径；带小数点/指数时按double解析并要求为整数值
+         */
+        private Long readLong() {
+            if (consumeNull()) {
+                return null;
+            }
+            boolean quoted = pos < end && buf[pos] == '"';
+            if (quoted) {
+                pos++;
+            }
+            int start = pos;
+            boolean negative = pos < end && buf[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < end && buf[pos] >= '0' && buf[pos] <= '9' && digits < 18) {
+                value = value * 10 + (buf[pos++] - '0');
+                digits++;
+            }
+            if (digits > 0 && !isNumberChar()) {
+                closeQuote(quoted);
+                return negative ? -value : value;
+            }
+            pos = start;
+            double parsed = parseDoubleToken(quoted);
+            long integral = (long) parsed;
+            if (integral != parsed) {
+                throw error("应为整数");
+            }
+            return integral;
+        }
+
+        /**
+         * 价格：位数不超过15的十进制小数走快速路径（结果与Double.parseDouble一致），其余回退
+         */
+        private Double readDouble() {
+            if (consumeNull()) {
+                return null;
+            }
+            boolean quoted = pos < end && buf[pos] == '"';
+            if (quoted) {
+                pos++;
+            }
+            int start = pos;
+            boolean negative = pos < end && buf[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int scale = -1;
+            while (pos < end) {
+                byte c = buf[pos];
+                if (c >= '0' && c <= '9') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                } else if (c == '.' && scale < 0) {
+                    scale = 0;
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            if (digits > 0 && digits <= 15 && scale != 0 && !isNumberChar()) {
+                closeQuote(quoted);
+                double value = scale < 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+                return negative ? -value : value;
+            }
+            pos = start;
+            return parseDoubleToken(quoted);
+        }
+
+        private double parseDoubleToken(boolean quoted) {
+            int start = pos;
+            while (pos < end && isNumberChar()) {
+                pos++;
+            }
+            if (pos == start) {
+                throw error("应为数字");
+            }
+            try {
+                double value = Double.parseDouble(new String(buf, start, pos - start, StandardCharsets.US_ASCII));
+                closeQuote(quoted);
+                return value;
+            } catch (NumberFormatException e) {
+                throw error("数字格式错误");
+            }
+        }
+
+        private boolean isNumberChar() {
+            if (pos >= end) {
+                return false;
+            }
+            byte c = buf[pos];
+            return (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+';
+        }
+
+        private void closeQuote(boolean quoted) {
+            if (quoted) {
+                expect('"');
+            }
+        }
+
+        private boolean consumeNull() {
+            if (pos + 4 <= end && buf[pos] == 'n' && buf[pos + 1] == 'u' && buf[pos + 2] == 'l' && buf[pos + 3] == 'l') {
+                pos += 4;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 跳过未知字段的值（字符串/数字/字面量/嵌套对象或数组）
+         */
+        private void skipValue() {
+            if (pos >= end) {
+                throw error("缺少字段值");
+            }
+            byte c = buf[pos];
+            if (c == '"') {
+                readQuoted();
+            } else if (c == '{' || c == '[') {
+                int depth = 0;
+                while (pos < end) {
+                    c = buf[pos];
+                    if (c == '"') {
+                        readQuoted();
+                        continue;
+                    }
+                    if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                    }
+                    pos++;
+                    if (depth == 0) {
+                        return;
+                    }
+                }
+                throw error("对象或数组未结束");
+            } else {
+                skipLiteral();
+            }
+        }
+
+        private void skipLiteral() {
+            int start = pos;
+            while (pos < end) {
+                byte c = buf[pos];
+                if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw error("缺少字段值");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                byte c = buf[pos];
+                if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private void expect(char c) {
+            if (pos >= end || buf[pos] != c) {
+                throw error("应为'" + c + "'");
+            }
+            pos++;
+        }
+
+        private JsonSyntaxException error(String message) {
+            return new JsonSyntaxException(message + "，位置：" + pos);
+        }
+    }
+}
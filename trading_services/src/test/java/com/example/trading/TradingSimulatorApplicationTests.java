@@ -3,7 +3,11 @@ package com.example.trading;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "trading.data.input-path=target/test-data/input/",
+        "trading.data.output-path=target/test-data/output/",
+        "trading.data.history-path=target/test-data/history/"
+})
 class TradingSimulatorApplicationTests {
 
     @Test
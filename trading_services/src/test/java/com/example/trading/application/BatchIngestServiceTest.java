@@ -0,0 +1,130 @@
+package com.example.trading.application;
+
+import com.example.trading.config.DataConfig;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatchIngestServiceTest {
+    @TempDir
+    Path tempDir;
+
+    private ExchangeFixture fixture;
+    private BatchIngestService batchIngestService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DataConfig dataConfig = new DataConfig();
+        dataConfig.setInputPath(tempDir.resolve("input").toString());
+        dataConfig.setOutputPath(tempDir.resolve("output").toString());
+        // 小窗口，验证背压下仍按输入顺序写出
+        dataConfig.setIngestWindow(16);
+        fixture = ExchangeFixture.builder().dataConfig(dataConfig).build();
+        batchIngestService = new BatchIngestService(fixture.getExchangeService(), fixture.getCancelService(),
+                dataConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    public void testIngestNdjsonInInputOrder() throws Exception {
+        Path inputFile = tempDir.resolve("input").resolve("orders.ndjson");
+        Files.createDirectories(inputFile.getParent());
+        int orderCount = 1000;
+        try (BufferedWriter out = Files.newBufferedWriter(inputFile)) {
+            for (int i = 0; i < orderCount; i++) {
+                String side = i % 2 == 0 ? "BUY" : "SELL";
+                out.write("{\"clOrderId\":\"" + String.format("CL%014d", i) + "\",\"market\":\"XSHG\","
+                        + "\"securityId\":\"" + (600000 + i % 7) + "\",\"side\":\"" + side + "\",\"qty\":100,"
+                        + "\"price\":10.0,\"shareholderId\":\"" + String.format("SH%08d", i % 2) + "\"}");
+                out.newLine();
+            }
+            // 校验失败的委托、撤单、无法解析的记录
+            out.write("{\"clOrderId\":\"BAD\",\"market\":\"XXXX\",\"securityId\":\"600000\",\"side\":\"BUY\","
+                    + "\"qty\":100,\"price\":10.0,\"shareholderId\":\"SH00000000\"}\n");
+            out.write("{\"clOrderId\":\"X1\",\"origClOrderId\":\"NOT_EXIST\",\"market\":\"XSHG\","
+                    + "\"securityId\":\"600000\",\"shareholderId\":\"SH00000000\",\"side\":\"BUY\"}\n");
+            out.write("{\"clOrderId\":\"X2\",\"qty\":\"abc\"}\n");
+        }
+
+        BatchIngestService.IngestReport report = batchIngestService.ingest("orders.ndjson");
+
+        Assertions.assertEquals(orderCount + 3, report.getRecords());
+        Assertions.assertEquals(orderCount + 2, report.getOrders());
+        Assertions.assertEquals(1, report.getCancels());
+        Assertions.assertEquals(1, report.getErrors());
+        List<String> lines = Files.readAllLines(Path.of(report.getOutputFile()));
+        Assertions.assertEquals(report.getRecords(), lines.size());
+        for (int i = 0; i < orderCount; i++) {
+            JsonElement ack = JsonParser.parseString(lines.get(i)).getAsJsonArray().get(0);
+            Assertions.assertEquals(String.format("CL%014d", i), ack.getAsJsonObject().get("clOrderId").getAsString());
+        }
+        // 卖单与此前同价买单成交：回报数组含成交回报
+        Assertions.assertTrue(JsonParser.parseString(lines.get(7)).getAsJsonArray().size() > 1);
+        Assertions.assertTrue(lines.get(orderCount).contains("rejectCode"));
+        Assertions.assertTrue(lines.get(orderCount + 1).contains("rejectCode"));
+        Assertions.assertTrue(lines.get(orderCount + 2).contains("recordNo"));
+    }
+
+    @Test
+    public void testBadRecordsDoNotAbortFile() throws Exception {
+        Path inputFile = tempDir.resolve("input").resolve("protocol.ndjson");
+        Files.createDirectories(inputFile.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(inputFile)) {
+            // 协议格式的B/S方向
+            out.write("{\"clOrderId\":\"CL000000000001\",\"market\":\"XSHG\",\"securityId\":\"600000\","
+                    + "\"side\":\"B\",\"qty\":100,\"price\":10.0,\"shareholderId\":\"SH00000001\"}\n");
+            // 截断的记录
+            out.write("{\"clOrderId\":\"CL000000000002\",\"market\":\"XSHG\",\"secur\n");
+            // 未知方向：校验拒绝，不抛异常
+            out.write("{\"clOrderId\":\"CL000000000003\",\"market\":\"XSHG\",\"securityId\":\"600000\","
+                    + "\"side\":\"X\",\"qty\":100,\"price\":10.0,\"shareholderId\":\"SH00000002\"}\n");
+            out.write("\n");
+            out.write("{\"clOrderId\":\"CL000000000004\",\"market\":\"XSHG\",\"securityId\":\"600000\","
+                    + "\"side\":\"S\",\"qty\":100,\"price\":10.0,\"shareholderId\":\"SH00000002\"}");
+        }
+
+        BatchIngestService.IngestReport report = batchIngestService.ingest("protocol.ndjson");
+
+        Assertions.assertEquals(4, report.getRecords());
+        Assertions.assertEquals(1, report.getErrors());
+        List<String> lines = Files.readAllLines(Path.of(report.getOutputFile()));
+        Assertions.assertEquals(4, lines.size());
+        Assertions.assertTrue(lines.get(0).startsWith("["), lines.get(0));
+        Assertions.assertTrue(lines.get(1).contains("\"recordNo\":2"), lines.get(1));
+        Assertions.assertTrue(lines.get(2).contains("rejectCode"), lines.get(2));
+        // 卖单与第1条买单成交
+        Assertions.assertEquals(2, JsonParser.parseString(lines.get(3)).getAsJsonArray().size(), lines.get(3));
+        Assertions.assertFalse(Files.exists(Path.of(report.getOutputFile() + ".tmp")));
+    }
+
+    @Test
+    public void testIngestJsonArray() throws Exception {
+        Path inputFile = tempDir.resolve("input").resolve("array.json");
+        Files.createDirectories(inputFile.getParent());
+        Files.writeString(inputFile, "[{\"clOrderId\":\"CL000000000001\",\"market\":\"XSHG\","
+                + "\"securityId\":\"600000\",\"side\":\"B\",\"qty\":100,\"price\":10.0,"
+                + "\"shareholderId\":\"SH00000001\"},\n{\"clOrderId\":\"CL000000000002\",\"qty\":");
+
+        BatchIngestService.IngestReport report = batchIngestService.ingest("array.json");
+
+        // 数组中的格式错误无法定位下一条记录：记一条错误后结束
+        Assertions.assertEquals(2, report.getRecords());
+        Assertions.assertEquals(1, report.getErrors());
+        List<String> lines = Files.readAllLines(Path.of(report.getOutputFile()));
+        Assertions.assertTrue(lines.get(0).startsWith("["), lines.get(0));
+        Assertions.assertTrue(lines.get(1).contains("\"recordNo\":2"), lines.get(1));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.trading.application;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.model.Order;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CancelServiceTest {
+    private ExchangeFixture fixture;
+    private OrderBook orderBook;
+    private MatchingEngine matchingEngine;
+    private CancelService cancelService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        fixture = ExchangeFixture.builder().build();
+        orderBook = fixture.getOrderBook();
+        matchingEngine = fixture.getMatchingEngine();
+        cancelService = fixture.getCancelService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    public void testCancelPartiallyFilledOrder() {
+        Order buyOrder = newOrder("B1", SideEnum.BUY, 100, "SH00000001");
+        matchingEngine.match(buyOrder);
+        matchingEngine.match(newOrder("S1", SideEnum.SELL, 40, "SH00000002"));
+
+        JsonObject ack = cancel("C1", "B1", SideEnum.BUY, "SH00000001");
+
+        Assertions.assertEquals("B1", ack.get("origClOrderId").getAsString());
+        Assertions.assertEquals(100, ack.get("qty").getAsInt());
+        Assertions.assertEquals(40, ack.get("cumQty").getAsInt());
+        Assertions.assertEquals(60, ack.get("canceledQty").getAsInt());
+        Assertions.assertEquals(OrderStatusEnum.CANCELLED, buyOrder.getStatus());
+        Assertions.assertNull(orderBook.findOrder("600030", "B1"));
+
+        // 重复撤单：原订单已不在订单簿
+        JsonObject reject = cancel("C2", "B1", SideEnum.BUY, "SH00000001");
+        Assertions.assertEquals(ErrorCodeEnum.CANCEL_ORDER_NOT_FOUND.getCode(), reject.get("rejectCode").getAsInt());
+    }
+
+    @Test
+    public void testCancelRejectedForOtherShareholder() {
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 100, "SH00000001"));
+
+        JsonObject reject = cancel("C1", "B1", SideEnum.BUY, "SH00000009");
+
+        Assertions.assertEquals(ErrorCodeEnum.CANCEL_NO_PERMISSION.getCode(), reject.get("rejectCode").getAsInt());
+        Assertions.assertNotNull(orderBook.findOrder("600030", "B1"));
+    }
+
+    @Test
+    public void testCancelFullyFilledOrderRejected() {
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 100, "SH00000001"));
+        matchingEngine.match(newOrder("S1", SideEnum.SELL, 100, "SH00000002"));
+
+        // 挂单方与主动方完全成交都按协议返回“已完全成交”，与不存在的订单区分
+        JsonObject reject = cancel("C1", "B1", SideEnum.BUY, "SH00000001");
+        Assertions.assertEquals(ErrorCodeEnum.CANCEL_ORDER_FILLED.getCode(), reject.get("rejectCode").getAsInt());
+        reject = cancel("C2", "S1", SideEnum.SELL, "SH00000002");
+        Assertions.assertEquals(ErrorCodeEnum.CANCEL_ORDER_FILLED.getCode(), reject.get("rejectCode").getAsInt());
+        reject = cancel("C3", "B9", SideEnum.BUY, "SH00000001");
+        Assertions.assertEquals(ErrorCodeEnum.CANCEL_ORDER_NOT_FOUND.getCode(), reject.get("rejectCode").getAsInt());
+    }
+
+    @Test
+    public void testOverlongIdsRejectedBeforeMatching() {
+        String longId = "C".repeat(1100);
+        String orderJson = "{\"clOrderId\":\"" + longId + "\",\"market\":\"XSHG\",\"securityId\":\"600030\","
+                + "\"side\":\"BUY\",\"qty\":100,\"price\":10.5,\"shareholderId\":\"SH00000001\"}";
+        JsonObject orderReject = JsonParser.parseString(fixture.getExchangeService().processOrder(orderJson))
+                .getAsJsonObject();
+        Assertions.assertEquals(ErrorCodeEnum.FIELD_TOO_LONG.getCode(), orderReject.get("rejectCode").getAsInt());
+
+        JsonObject cancelReject = cancel("C1", longId, SideEnum.BUY, "SH00000001");
+        Assertions.assertEquals(ErrorCodeEnum.FIELD_TOO_LONG.getCode(), cancelReject.get("rejectCode").getAsInt());
+
+        // 长度上限取自协议：股东号最长10位
+        String longShareholder = orderJson.replace(longId, "C1").replace("SH00000001", "SH1234567892");
+        orderReject = JsonParser.parseString(fixture.getExchangeService().processOrder(longShareholder))
+                .getAsJsonObject();
+        Assertions.assertEquals(ErrorCodeEnum.FIELD_TOO_LONG.getCode(), orderReject.get("rejectCode").getAsInt());
+
+        // 股票代码用作历史成交文件名：含路径字符直接拒绝
+        String traversal = orderJson.replace(longId, "C2").replace("600030", "../x");
+        orderReject = JsonParser.parseString(fixture.getExchangeService().processOrder(traversal)).getAsJsonObject();
+        Assertions.assertEquals(ErrorCodeEnum.SECURITY_ID_INVALID.getCode(), orderReject.get("rejectCode").getAsInt());
+    }
+
+    private JsonObject cancel(String clOrderId, String origClOrderId, SideEnum side, String shareholderId) {
+        String cancelJson = "{\"clOrderId\":\"" + clOrderId + "\",\"origClOrderId\":\"" + origClOrderId
+                + "\",\"market\":\"XSHG\",\"securityId\":\"600030\",\"shareholderId\":\"" + shareholderId
+                + "\",\"side\":\"" + side.name() + "\"}";
+        return JsonParser.parseString(cancelService.processCancel(cancelJson)).getAsJsonObject();
+    }
+
+    private Order newOrder(String clOrderId, SideEnum side, int qty, String shareholderId) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId("600030")
+                .side(side)
+                .qty(qty)
+                .price(10.5)
+                .shareholderId(shareholderId)
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.trading.application;
+
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.JournalConfig;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.config.RiskServiceConfig;
+import com.example.trading.config.SnapshotConfig;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.EngineFixtures;
+import com.example.trading.domain.engine.MarketDataListener;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.engine.PriceStrategy;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.engine.SkipListOrderBook;
+import com.example.trading.domain.engine.StopOrderBook;
+import com.example.trading.domain.risk.SelfTradeChecker;
+import com.example.trading.domain.validation.CancelValidator;
+import com.example.trading.domain.validation.OrderValidator;
+import com.example.trading.infrastructure.db.DbWriteBehind;
+import com.example.trading.infrastructure.metrics.HotPathMetrics;
+import com.example.trading.infrastructure.persistence.OrderStore;
+import com.example.trading.infrastructure.persistence.SnapshotStore;
+import com.example.trading.infrastructure.persistence.TradeStore;
+import com.example.trading.infrastructure.persistence.WriteAheadLog;
+import com.example.trading.infrastructure.risk.RiskServiceClient;
+import com.example.trading.util.EngineClock;
+import com.example.trading.util.IdGenerator;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * 测试用交易链路装配：按Spring中的依赖关系创建撮合分片、订单簿、撮合引擎、日志存储与各服务
+ * 未指定的协作者取默认实现（2个分片、跳表订单簿、MID_PRICE、FIFO、开启对敲风控且不限时间窗口、
+ * 关闭预写日志与数据库落库、本地风控、关闭指标）
+ */
+@Getter
+public final class ExchangeFixture {
+    private final IdGenerator idGenerator;
+    private final ShardedMatchingExecutor matchingExecutor;
+    private final CallAuction callAuction;
+    private final OrderBook orderBook;
+    private final StopOrderBook stopOrderBook;
+    private final SelfTradeChecker selfTradeChecker;
+    private final WriteAheadLog writeAheadLog;
+    private final OrderStore orderStore;
+    private final TradeStore tradeStore;
+    private final MatchingEngine matchingEngine;
+    private final ShardProcessor shardProcessor;
+    private final ExchangeService exchangeService;
+    private final CancelService cancelService;
+    private final CallAuctionService callAuctionService;
+    private final SnapshotStore snapshotStore;
+    private final RecoveryService recoveryService;
+    @Getter(AccessLevel.NONE)
+    private boolean shutdown;
+
+    private ExchangeFixture(Builder builder) throws IOException {
+        MatchingConfig matchingConfig = new MatchingConfig();
+        matchingConfig.setShardCount(builder.shardCount);
+        idGenerator = new IdGenerator();
+        matchingExecutor = new ShardedMatchingExecutor(matchingConfig, idGenerator);
+        callAuction = new CallAuction();
+        orderBook = builder.orderBookFactory.apply(callAuction);
+        stopOrderBook = new StopOrderBook();
+        selfTradeChecker = new SelfTradeChecker(selfTradeRisk());
+        try {
+            writeAheadLog = new WriteAheadLog(builder.dataConfig, builder.journalConfig, matchingExecutor);
+        } catch (IOException | RuntimeException e) {
+            matchingExecutor.shutdown();
+            throw e;
+        }
+        orderStore = new OrderStore(writeAheadLog, DbWriteBehind.disabled());
+        tradeStore = new TradeStore(writeAheadLog);
+        matchingEngine = new MatchingEngine(orderBook, builder.priceGenerator, trade -> { }, idGenerator,
+                builder.marketDataListener, builder.policySelector, callAuction, stopOrderBook, builder.clock);
+        shardProcessor = new ShardProcessor(new OrderValidator(), new CancelValidator(), selfTradeChecker,
+                matchingEngine, orderBook, stopOrderBook, callAuction, orderStore, tradeStore, builder.metrics,
+                builder.clock);
+        exchangeService = new ExchangeService(shardProcessor, selfTradeChecker, matchingExecutor,
+                builder.riskServiceClient, builder.metrics);
+        cancelService = new CancelService(shardProcessor, matchingExecutor);
+        callAuctionService = new CallAuctionService(shardProcessor, matchingExecutor);
+        snapshotStore = new SnapshotStore(builder.dataConfig, builder.snapshotConfig, orderBook, matchingExecutor,
+                writeAheadLog, callAuction, stopOrderBook);
+        recoveryService = new RecoveryService(orderBook, builder.priceGenerator, selfTradeChecker, matchingExecutor,
+                writeAheadLog, snapshotStore, idGenerator, builder.policySelector, callAuction, stopOrderBook,
+                builder.marketDataListener, builder.clock);
+    }
+
+    /**
+     * 开启对敲风控、不限时间窗口
+     */
+    public static RiskConfig selfTradeRisk() {
+        RiskConfig riskConfig = new RiskConfig();
+        riskConfig.setEnable(true);
+        return riskConfig;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 先停撮合分片再刷盘关闭日志（与Spring中的销毁顺序一致），重复调用无副作用
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        matchingExecutor.shutdown();
+        writeAheadLog.shutdown();
+    }
+
+    public static final class Builder {
+        private int shardCount = 2;
+        private Function<CallAuction, OrderBook> orderBookFactory =
+                callAuction -> new SkipListOrderBook(MarketDataListener.NONE, callAuction);
+        private PriceGenerator priceGenerator = EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE);
+        private MatchingPolicySelector policySelector = EngineFixtures.fifo();
+        private DataConfig dataConfig = new DataConfig();
+        private JournalConfig journalConfig = disabledJournal();
+        private SnapshotConfig snapshotConfig = new SnapshotConfig();
+        private RiskServiceClient riskServiceClient = new RiskServiceClient(new RiskServiceConfig());
+        private HotPathMetrics metrics = HotPathMetrics.disabled();
+        private MarketDataListener marketDataListener = MarketDataListener.NONE;
+        private EngineClock clock = EngineClock.SYSTEM;
+
+        private Builder() {
+        }
+
+        public Builder shardCount(int shardCount) {
+            this.shardCount = shardCount;
+            return this;
+        }
+
+        /**
+         * @param orderBookFactory 由集合竞价状态创建订单簿（订单簿与撮合引擎须使用同一CallAuction）
+         */
+        public Builder orderBook(Function<CallAuction, OrderBook> orderBookFactory) {
+            this.orderBookFactory = orderBookFactory;
+            return this;
+        }
+
+        public Builder priceGenerator(PriceGenerator priceGenerator) {
+            this.priceGenerator = priceGenerator;
+            return this;
+        }
+
+        public Builder policySelector(MatchingPolicySelector policySelector) {
+            this.policySelector = policySelector;
+            return this;
+        }
+
+        public Builder dataConfig(DataConfig dataConfig) {
+            this.dataConfig = dataConfig;
+            return this;
+        }
+
+        public Builder journalConfig(JournalConfig journalConfig) {
+            this.journalConfig = journalConfig;
+            return this;
+        }
+
+        public Builder snapshotConfig(SnapshotConfig snapshotConfig) {
+            this.snapshotConfig = snapshotConfig;
+            return this;
+        }
+
+        public Builder riskServiceClient(RiskServiceClient riskServiceClient) {
+            this.riskServiceClient = riskServiceClient;
+            return this;
+        }
+
+        public Builder metrics(HotPathMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param marketDataListener 撮合引擎与恢复回放的成交行情监听（订单簿深度事件由orderBook工厂自行指定）
+         */
+        public Builder marketDataListener(MarketDataListener marketDataListener) {
+            this.marketDataListener = marketDataListener;
+            return this;
+        }
+
+        public Builder clock(EngineClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public ExchangeFixture build() throws IOException {
+            return new ExchangeFixture(this);
+        }
+
+        private static JournalConfig disabledJournal() {
+            JournalConfig journalConfig = new JournalConfig();
+            journalConfig.setEnable(false);
+            return journalConfig;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.trading.application;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.engine.OrderBook;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ExchangeServiceTest {
+    private ExchangeFixture fixture;
+    private OrderBook orderBook;
+    private ExchangeService exchangeService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        fixture = ExchangeFixture.builder().build();
+        orderBook = fixture.getOrderBook();
+        exchangeService = fixture.getExchangeService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    public void testDuplicateRestingOrderIdRejectedBeforeMatching() {
+        Assertions.assertTrue(order("S1", SideEnum.SELL, 10.6, "SH00000002").isJsonArray());
+        Assertions.assertTrue(order("B1", SideEnum.BUY, 10.5, "SH00000001").isJsonArray());
+
+        // 与挂单B1同编号的买单价格越过卖一：撮合前拒绝，不成交，原挂单不受影响
+        JsonElement reject = order("B1", SideEnum.BUY, 10.6, "SH00000003");
+
+        Assertions.assertEquals(ErrorCodeEnum.DUPLICATE_ORDER.getCode(),
+                reject.getAsJsonObject().get("rejectCode").getAsInt());
+        Assertions.assertEquals(100, orderBook.findOrder("600030", "S1").getQty());
+        Assertions.assertEquals("SH00000001", orderBook.findOrder("600030", "B1").getShareholderId());
+        Assertions.assertEquals(10.5, orderBook.peekBest("600030", SideEnum.BUY).getPrice());
+    }
+
+    @Test
+    public void testOffTickPriceRejected() {
+        Assertions.assertTrue(order("S1", SideEnum.SELL, 10.01, "SH00000002").isJsonArray());
+
+        // 10.005不是整数个tick：两种订单簿实现都在校验阶段拒绝，不会被四舍五入到相邻价位撮合
+        JsonElement reject = order("B1", SideEnum.BUY, 10.005, "SH00000001");
+
+        Assertions.assertEquals(ErrorCodeEnum.PRICE_INVALID.getCode(),
+                reject.getAsJsonObject().get("rejectCode").getAsInt());
+        Assertions.assertEquals(100, orderBook.findOrder("600030", "S1").getQty());
+        Assertions.assertTrue(order("B2", SideEnum.BUY, 10.05, "SH00000001").isJsonArray());
+    }
+
+    private JsonElement order(String clOrderId, SideEnum side, double price, String shareholderId) {
+        String orderJson = "{\"clOrderId\":\"" + clOrderId + "\",\"market\":\"XSHG\",\"securityId\":\"600030\","
+                + "\"side\":\"" + side.name() + "\",\"qty\":100,\"price\":" + price
+                + ",\"shareholderId\":\"" + shareholderId + "\"}";
+        return JsonParser.parseString(exchangeService.processOrder(orderJson));
+    }
+}
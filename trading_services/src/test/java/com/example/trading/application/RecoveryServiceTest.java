@@ -0,0 +1,288 @@
+package com.example.trading.application;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.JournalConfig;
+import com.example.trading.domain.engine.MarketDataListener;
+import com.example.trading.domain.model.AuctionResult;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RecoveryServiceTest {
+    private static final String[] SECURITIES = {"600030", "600031", "000001"};
+
+    @TempDir
+    Path tempDir;
+
+    private final List<ExchangeFixture> nodes = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        nodes.forEach(ExchangeFixture::shutdown);
+    }
+
+    @Test
+    public void testRecoverFromSnapshotAndJournalTail() throws Exception {
+        ExchangeFixture before = startNode();
+        for (int i = 0; i < 60; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        Assertions.assertEquals(2, before.getSnapshotStore().takeSnapshot());
+        // 快照之后的日志尾部：新委托、撮合成交、撤单
+        for (int i = 60; i < 90; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        List<Order> canceled = new ArrayList<>();
+        for (int i = 0; i < 90 && canceled.size() < 2; i++) {
+            Order resting = before.getOrderBook().findOrder(security(i), String.format("CL%012d", i));
+            if (resting != null) {
+                before.getCancelService().processCancel(cancelJson("X" + i, resting.getClOrderId(), resting.getSide()));
+                canceled.add(resting);
+            }
+        }
+        before.shutdown();
+
+        // 模拟崩溃重启：全新的订单簿从快照+日志尾部恢复
+        ExchangeFixture after = startNode();
+        RecoveryService.RecoveryStats stats = after.getRecoveryService().recover();
+
+        Assertions.assertEquals(30, stats.getReplayedOrders());
+        Assertions.assertEquals(2, stats.getReplayedCancels());
+        Assertions.assertTrue(stats.getSnapshotOrders() > 0);
+        for (int i = 0; i < 90; i++) {
+            String clOrderId = String.format("CL%012d", i);
+            Order expected = before.getOrderBook().findOrder(security(i), clOrderId);
+            Order actual = after.getOrderBook().findOrder(security(i), clOrderId);
+            if (expected == null) {
+                Assertions.assertNull(actual, clOrderId);
+            } else {
+                Assertions.assertNotNull(actual, clOrderId);
+                Assertions.assertEquals(expected.getQty(), actual.getQty(), clOrderId);
+                Assertions.assertEquals(expected.getCumQty(), actual.getCumQty(), clOrderId);
+            }
+        }
+        for (Order order : canceled) {
+            Assertions.assertNull(after.getOrderBook().findOrder(order.getSecurityId(), order.getClOrderId()));
+        }
+
+        // 恢复后的对敲风控索引仍然生效：同一股东以可成交价格反向下单被拦截
+        Order bestBid = after.getOrderBook().peekBest("600030", SideEnum.BUY);
+        Assertions.assertNotNull(bestBid);
+        String selfTrade = after.getExchangeService().processOrder(
+                "{\"clOrderId\":\"CL999999999999\",\"market\":\"XSHG\",\"securityId\":\"600030\","
+                        + "\"side\":\"SELL\",\"qty\":100,\"price\":" + bestBid.getPrice()
+                        + ",\"shareholderId\":\"" + bestBid.getShareholderId() + "\"}");
+        Assertions.assertTrue(selfTrade.contains("rejectCode"), selfTrade);
+    }
+
+    @Test
+    public void testRecoverMarketDataFromJournal() throws Exception {
+        TradeTotals beforeTotals = new TradeTotals();
+        ExchangeFixture before = startNode(2, beforeTotals);
+        for (int i = 0; i < 60; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        Assertions.assertEquals(2, before.getSnapshotStore().takeSnapshot());
+        for (int i = 60; i < 90; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        before.shutdown();
+
+        // 快照之前的成交来自日志中的成交记录，快照之后的成交由重新撮合产生，合计与重启前一致
+        TradeTotals afterTotals = new TradeTotals();
+        ExchangeFixture after = startNode(2, afterTotals);
+        RecoveryService.RecoveryStats stats = after.getRecoveryService().recover();
+
+        Assertions.assertTrue(stats.getRestoredTrades() > 0);
+        Assertions.assertFalse(beforeTotals.volume.isEmpty());
+        Assertions.assertEquals(beforeTotals.volume, afterTotals.volume);
+        Assertions.assertEquals(beforeTotals.lastPrice, afterTotals.lastPrice);
+    }
+
+    @Test
+    public void testRecoverCallAuctionPhases() throws Exception {
+        ExchangeFixture before = startNode();
+        for (int i = 0; i < 30; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        Assertions.assertEquals(2, before.getSnapshotStore().takeSnapshot());
+        Assertions.assertTrue(before.getCallAuctionService().beginAuction("600030").get());
+        for (int i = 30; i < 60; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        // 处于集合竞价的股票所在分片跳过快照，由日志回放恢复曲线
+        Assertions.assertEquals(1, before.getSnapshotStore().takeSnapshot());
+        AuctionResult uncrossed = before.getCallAuctionService().uncross("600030", 10.03).get();
+        Assertions.assertTrue(uncrossed.getTradeCount() > 0);
+        Assertions.assertTrue(before.getCallAuctionService().beginAuction("600031").get());
+        for (int i = 60; i < 90; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        AuctionResult indicative = before.getCallAuctionService().indicative("600031", 10.03).get();
+        before.shutdown();
+
+        ExchangeFixture after = startNode();
+        RecoveryService.RecoveryStats stats = after.getRecoveryService().recover();
+
+        Assertions.assertTrue(stats.getReplayedAuctions() >= 2);
+        Assertions.assertFalse(after.getCallAuction().isCollecting("600030"));
+        Assertions.assertTrue(after.getCallAuction().isCollecting("600031"));
+        Assertions.assertEquals(indicative, after.getCallAuctionService().indicative("600031", 10.03).get());
+        for (int i = 0; i < 90; i++) {
+            String clOrderId = String.format("CL%012d", i);
+            Order expected = before.getOrderBook().findOrder(security(i), clOrderId);
+            Order actual = after.getOrderBook().findOrder(security(i), clOrderId);
+            if (expected == null) {
+                Assertions.assertNull(actual, clOrderId);
+            } else {
+                Assertions.assertNotNull(actual, clOrderId);
+                Assertions.assertEquals(expected.getQty(), actual.getQty(), clOrderId);
+                Assertions.assertEquals(expected.getCumQty(), actual.getCumQty(), clOrderId);
+            }
+        }
+    }
+
+    @Test
+    public void testRecoverPendingStopOrders() throws Exception {
+        ExchangeFixture before = startNode();
+        before.getExchangeService().processOrder(limitJson("CLS000000001", "SELL", 200, 10.05, "SH00000001"));
+        before.getExchangeService().processOrder(limitJson("CLS000000002", "SELL", 300, 10.08, "SH00000001"));
+        before.getExchangeService().processOrder(limitJson("CLS000000003", "BUY", 300, 9.95, "SH00000002"));
+        before.getExchangeService().processOrder(stopJson("CLS000000004", "BUY", "STOP", null, 10.05));
+        before.getExchangeService().processOrder(stopJson("CLS000000005", "SELL", "STOP_LIMIT", 9.94, 9.95));
+        before.getExchangeService().processOrder(stopJson("CLS000000006", "BUY", "STOP", null, 10.20));
+        Assertions.assertEquals(2, before.getSnapshotStore().takeSnapshot());
+        // 快照之后：10.05成交触发买止损单（转市价吃掉10.05剩余挂单），撤销一笔止损单，再新增一笔止损单
+        before.getExchangeService().processOrder(limitJson("CLS000000007", "BUY", 100, 10.05, "SH00000004"));
+        Assertions.assertNull(before.getStopOrderBook().findOrder("600030", "CLS000000004"));
+        before.getCancelService().processCancel("{\"clOrderId\":\"XCLS6\",\"origClOrderId\":\"CLS000000006\","
+                + "\"market\":\"XSHG\",\"securityId\":\"600030\",\"shareholderId\":\"SH00000003\","
+                + "\"side\":\"BUY\"}");
+        before.getExchangeService().processOrder(stopJson("CLS000000008", "SELL", "STOP", null, 9.90));
+        before.shutdown();
+
+        ExchangeFixture after = startNode();
+        after.getRecoveryService().recover();
+
+        Assertions.assertNull(after.getStopOrderBook().findOrder("600030", "CLS000000004"));
+        Assertions.assertNull(after.getStopOrderBook().findOrder("600030", "CLS000000006"));
+        Assertions.assertNotNull(after.getStopOrderBook().findOrder("600030", "CLS000000005"));
+        Assertions.assertNotNull(after.getStopOrderBook().findOrder("600030", "CLS000000008"));
+        for (int i = 1; i <= 8; i++) {
+            String clOrderId = String.format("CLS%09d", i);
+            Order expected = before.getOrderBook().findOrder("600030", clOrderId);
+            Order actual = after.getOrderBook().findOrder("600030", clOrderId);
+            if (expected == null) {
+                Assertions.assertNull(actual, clOrderId);
+            } else {
+                Assertions.assertNotNull(actual, clOrderId);
+                Assertions.assertEquals(expected.getQty(), actual.getQty(), clOrderId);
+            }
+        }
+
+        // 恢复后的卖止损单仍按成交价触发：9.95成交触发止损限价单，以9.94限价卖出
+        after.getExchangeService().processOrder(limitJson("CLS000000009", "SELL", 100, 9.95, "SH00000005"));
+        Assertions.assertNull(after.getStopOrderBook().findOrder("600030", "CLS000000005"));
+        Order bestBid = after.getOrderBook().peekBest("600030", SideEnum.BUY);
+        Assertions.assertNotNull(bestBid);
+        Assertions.assertEquals("CLS000000003", bestBid.getClOrderId());
+        Assertions.assertEquals(100, bestBid.getQty());
+    }
+
+    @Test
+    public void testRestartWithDifferentShardCountFails() throws Exception {
+        ExchangeFixture before = startNode();
+        for (int i = 0; i < 10; i++) {
+            before.getExchangeService().processOrder(orderJson(i));
+        }
+        before.shutdown();
+
+        // 分片数变化后同一股票的日志落在别的分片下标上，必须拒绝启动而不是漏放或并发回放
+        Assertions.assertThrows(IllegalStateException.class, () -> startNode(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> startNode(3));
+        ExchangeFixture after = startNode();
+        Assertions.assertEquals(10, after.getRecoveryService().recover().getReplayedOrders());
+    }
+
+    private ExchangeFixture startNode() throws Exception {
+        return startNode(2);
+    }
+
+    private ExchangeFixture startNode(int shardCount) throws Exception {
+        return startNode(shardCount, MarketDataListener.NONE);
+    }
+
+    private ExchangeFixture startNode(int shardCount, MarketDataListener marketDataListener) throws Exception {
+        DataConfig dataConfig = new DataConfig();
+        dataConfig.setHistoryPath(tempDir.toString());
+        JournalConfig journalConfig = new JournalConfig();
+        journalConfig.setSegmentSize(64 * 1024);
+        ExchangeFixture node = ExchangeFixture.builder()
+                .shardCount(shardCount)
+                .dataConfig(dataConfig)
+                .journalConfig(journalConfig)
+                .marketDataListener(marketDataListener)
+                .build();
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * 股东号按序号分散，同一股东只做一个方向，避免对敲拦截
+     */
+    private String orderJson(int i) {
+        SideEnum side = i % 2 == 0 ? SideEnum.BUY : SideEnum.SELL;
+        double price = side == SideEnum.BUY ? 10.0 + (i % 5) * 0.01 : 10.02 + (i % 7) * 0.01;
+        return "{\"clOrderId\":\"" + String.format("CL%012d", i) + "\",\"market\":\"XSHG\",\"securityId\":\""
+                + security(i) + "\",\"side\":\"" + side.name() + "\",\"qty\":" + (100 + (i % 3) * 100)
+                + ",\"price\":" + price + ",\"shareholderId\":\"" + String.format("SH%08d", i % 2) + "\"}";
+    }
+
+    private String limitJson(String clOrderId, String side, int qty, double price, String shareholderId) {
+        return "{\"clOrderId\":\"" + clOrderId + "\",\"market\":\"XSHG\",\"securityId\":\"600030\",\"side\":\""
+                + side + "\",\"qty\":" + qty + ",\"price\":" + price + ",\"shareholderId\":\"" + shareholderId
+                + "\"}";
+    }
+
+    private String stopJson(String clOrderId, String side, String ordType, Double price, double stopPrice) {
+        return "{\"clOrderId\":\"" + clOrderId + "\",\"market\":\"XSHG\",\"securityId\":\"600030\",\"side\":\""
+                + side + "\",\"qty\":100," + (price == null ? "" : "\"price\":" + price + ",")
+                + "\"shareholderId\":\"SH00000003\",\"ordType\":\"" + ordType + "\",\"stopPrice\":" + stopPrice
+                + "}";
+    }
+
+    private String cancelJson(String clOrderId, String origClOrderId, SideEnum side) {
+        int i = Integer.parseInt(origClOrderId.substring(2));
+        return "{\"clOrderId\":\"" + clOrderId + "\",\"origClOrderId\":\"" + origClOrderId
+                + "\",\"market\":\"XSHG\",\"securityId\":\"" + security(i) + "\",\"shareholderId\":\""
+                + String.format("SH%08d", i % 2) + "\",\"side\":\"" + side.name() + "\"}";
+    }
+
+    private String security(int i) {
+        return SECURITIES[i % SECURITIES.length];
+    }
+
+    /**
+     * 按股票累计成交量与最新价
+     */
+    private static final class TradeTotals implements MarketDataListener {
+        private final Map<String, Long> volume = new HashMap<>();
+        private final Map<String, Double> lastPrice = new HashMap<>();
+
+        @Override
+        public synchronized void onTrade(Trade trade) {
+            volume.merge(trade.getSecurityId(), (long) trade.getExecQty(), Long::sum);
+            lastPrice.put(trade.getSecurityId(), trade.getExecPrice());
+        }
+    }
+}
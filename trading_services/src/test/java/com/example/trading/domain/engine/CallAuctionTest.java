@@ -0,0 +1,300 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.AuctionResult;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 集合竞价测试（参考价规则、曲线增量维护、集中撮合，分别在两种订单簿实现上运行）
+ */
+public class CallAuctionTest {
+    private static final String SECURITY_ID = "600030";
+
+    private CallAuction callAuction;
+    private OrderBook orderBook;
+    private MatchingEngine matchingEngine;
+
+    private void setUp(String type) {
+        callAuction = new CallAuction();
+        orderBook = "TICK_LADDER".equals(type)
+                ? new TickLadderOrderBook(MarketDataListener.NONE, callAuction)
+                : new SkipListOrderBook(MarketDataListener.NONE, callAuction);
+        matchingEngine = MatchingEngineBuilder.of(orderBook).callAuction(callAuction).build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testCollectingOrdersDoNotMatch(String type) {
+        setUp(type);
+        Assertions.assertTrue(matchingEngine.beginAuction(SECURITY_ID));
+        Assertions.assertFalse(matchingEngine.beginAuction(SECURITY_ID));
+        Assertions.assertTrue(callAuction.isCollecting(SECURITY_ID));
+        Assertions.assertFalse(callAuction.isCollecting("600519"));
+
+        Order buyOrder = matchingEngine.match(newOrder("B1", SideEnum.BUY, 100, 10.05));
+        Order sellOrder = matchingEngine.match(newOrder("S1", SideEnum.SELL, 100, 10.00));
+
+        Assertions.assertEquals(OrderStatusEnum.MATCHING, buyOrder.getStatus());
+        Assertions.assertEquals(OrderStatusEnum.MATCHING, sellOrder.getStatus());
+        Assertions.assertSame(buyOrder, orderBook.peekBest(SECURITY_ID, SideEnum.BUY));
+        Assertions.assertSame(sellOrder, orderBook.peekBest(SECURITY_ID, SideEnum.SELL));
+
+        // 其他股票仍连续撮合
+        matchingEngine.match(newOrder("600519", "S2", SideEnum.SELL, 100, 10.00));
+        Order other = matchingEngine.match(newOrder("600519", "B2", SideEnum.BUY, 100, 10.00));
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, other.getStatus());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testUncrossAtMaximumVolumePrice(String type) {
+        setUp(type);
+        // 进入集合竞价前已有的挂单计入曲线
+        matchingEngine.match(newOrder("B3", SideEnum.BUY, 300, 10.00));
+        matchingEngine.beginAuction(SECURITY_ID);
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 100, 10.05));
+        matchingEngine.match(newOrder("B2", SideEnum.BUY, 200, 10.03));
+        matchingEngine.match(newOrder("S1", SideEnum.SELL, 200, 9.98));
+        Order s2 = matchingEngine.match(newOrder("S2", SideEnum.SELL, 200, 10.02));
+        matchingEngine.match(newOrder("S3", SideEnum.SELL, 300, 10.04));
+
+        // 10.02、10.03可成交量均为300且均为卖方盈余100，取较低价
+        AuctionResult indicative = matchingEngine.indicativeAuction(SECURITY_ID, 0);
+        Assertions.assertEquals(10.02, indicative.getPrice());
+        Assertions.assertEquals(300L, indicative.getVolume());
+        Assertions.assertEquals(-100L, indicative.getSurplus());
+        Assertions.assertEquals(0, indicative.getTradeCount());
+
+        List<Trade> trades = new ArrayList<>();
+        AuctionResult result = matchingEngine.uncross(SECURITY_ID, 0, trades);
+
+        Assertions.assertEquals(10.02, result.getPrice());
+        Assertions.assertEquals(3, result.getTradeCount());
+        Assertions.assertEquals(3, trades.size());
+        Assertions.assertTrue(trades.stream().allMatch(trade -> trade.getExecPrice() == 10.02));
+        Assertions.assertEquals(300, trades.stream().mapToInt(Trade::getExecQty).sum());
+        Assertions.assertFalse(callAuction.isCollecting(SECURITY_ID));
+        Assertions.assertNull(matchingEngine.indicativeAuction(SECURITY_ID, 0));
+
+        // 未成交部分继续挂单，回到连续竞价
+        Assertions.assertEquals(OrderStatusEnum.PART_FILLED, s2.getStatus());
+        Assertions.assertSame(s2, orderBook.peekBest(SECURITY_ID, SideEnum.SELL));
+        Assertions.assertEquals(100, s2.getQty());
+        Assertions.assertEquals(10.00, orderBook.peekBest(SECURITY_ID, SideEnum.BUY).getPrice());
+        Order buyOrder = matchingEngine.match(newOrder("B4", SideEnum.BUY, 100, 10.02));
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, buyOrder.getStatus());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testZeroSurplusRangeUsesReferencePrice(String type) {
+        setUp(type);
+        matchingEngine.beginAuction(SECURITY_ID);
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 100, 10.05));
+        matchingEngine.match(newOrder("S1", SideEnum.SELL, 100, 10.00));
+
+        Assertions.assertEquals(10.03, matchingEngine.indicativeAuction(SECURITY_ID, 10.03).getPrice());
+        Assertions.assertEquals(10.00, matchingEngine.indicativeAuction(SECURITY_ID, 9.50).getPrice());
+        Assertions.assertEquals(10.05, matchingEngine.indicativeAuction(SECURITY_ID, 11.00).getPrice());
+        // 无参考价取区间中点
+        Assertions.assertEquals(10.02, matchingEngine.indicativeAuction(SECURITY_ID, 0).getPrice());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testSurplusSideDecidesPrice(String type) {
+        setUp(type);
+        matchingEngine.beginAuction(SECURITY_ID);
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 300, 10.05));
+        matchingEngine.match(newOrder("S1", SideEnum.SELL, 100, 10.00));
+
+        // 买方盈余取最高价
+        AuctionResult result = matchingEngine.indicativeAuction(SECURITY_ID, 10.01);
+        Assertions.assertEquals(10.05, result.getPrice());
+        Assertions.assertEquals(200L, result.getSurplus());
+
+        // 卖方盈余取最低价
+        matchingEngine.match(newOrder("S2", SideEnum.SELL, 400, 10.00));
+        result = matchingEngine.indicativeAuction(SECURITY_ID, 10.01);
+        Assertions.assertEquals(10.00, result.getPrice());
+        Assertions.assertEquals(300L, result.getVolume());
+        Assertions.assertEquals(-200L, result.getSurplus());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testCancelAndClearUpdateCurves(String type) {
+        setUp(type);
+        matchingEngine.beginAuction(SECURITY_ID);
+        Order buyOrder = matchingEngine.match(newOrder("B1", SideEnum.BUY, 100, 10.05));
+        matchingEngine.match(newOrder("S1", SideEnum.SELL, 100, 10.00));
+        Assertions.assertEquals(100L, matchingEngine.indicativeAuction(SECURITY_ID, 0).getVolume());
+
+        Assertions.assertTrue(orderBook.removeOrder(buyOrder));
+        Assertions.assertNull(matchingEngine.indicativeAuction(SECURITY_ID, 0).getPrice());
+
+        matchingEngine.match(newOrder("B2", SideEnum.BUY, 100, 10.05));
+        orderBook.clearOrderBook(SECURITY_ID);
+        Assertions.assertTrue(callAuction.isCollecting(SECURITY_ID));
+        AuctionResult result = matchingEngine.uncross(SECURITY_ID, 0, new ArrayList<>());
+        Assertions.assertNull(result.getPrice());
+        Assertions.assertEquals(0, result.getTradeCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testEquilibriumMatchesFullScan(String type) {
+        setUp(type);
+        matchingEngine.beginAuction(SECURITY_ID);
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            SideEnum side = random.nextBoolean() ? SideEnum.BUY : SideEnum.SELL;
+            double price = (990 + random.nextInt(21)) / 100.0;
+            orders.add(matchingEngine.match(newOrder("O" + i, side, 100 * (1 + random.nextInt(10)), price)));
+            if (i % 7 == 0) {
+                orderBook.removeOrder(orders.get(random.nextInt(orders.size())));
+            }
+            if (i % 97 == 0) {
+                double referencePrice = (985 + random.nextInt(31)) / 100.0;
+                assertSameAsFullScan(matchingEngine.indicativeAuction(SECURITY_ID, referencePrice), referencePrice);
+                assertSameAsFullScan(matchingEngine.indicativeAuction(SECURITY_ID, 0), 0);
+            }
+        }
+
+        AuctionResult expected = matchingEngine.indicativeAuction(SECURITY_ID, 10.00);
+        List<Trade> trades = new ArrayList<>();
+        AuctionResult result = matchingEngine.uncross(SECURITY_ID, 10.00, trades);
+
+        Assertions.assertEquals(expected.getPrice(), result.getPrice());
+        Assertions.assertEquals(expected.getVolume().longValue(), trades.stream().mapToLong(Trade::getExecQty).sum());
+        Order bid = orderBook.peekBest(SECURITY_ID, SideEnum.BUY);
+        Order ask = orderBook.peekBest(SECURITY_ID, SideEnum.SELL);
+        Assertions.assertTrue(bid == null || ask == null || bid.getPrice() < ask.getPrice());
+    }
+
+    @Test
+    public void testLargeBookUncross() {
+        setUp("TICK_LADDER");
+        matchingEngine.beginAuction(SECURITY_ID);
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            SideEnum side = i % 2 == 0 ? SideEnum.BUY : SideEnum.SELL;
+            double price = (900 + random.nextInt(201)) / 100.0;
+            matchingEngine.match(newOrder("O" + i, side, 100 * (1 + random.nextInt(10)), price));
+        }
+
+        AuctionResult expected = matchingEngine.indicativeAuction(SECURITY_ID, 10.00);
+        List<Trade> trades = new ArrayList<>();
+        AuctionResult result = matchingEngine.uncross(SECURITY_ID, 10.00, trades);
+
+        Assertions.assertEquals(expected.getPrice(), result.getPrice());
+        Assertions.assertEquals(expected.getVolume().longValue(), trades.stream().mapToLong(Trade::getExecQty).sum());
+        Assertions.assertTrue(orderBook.peekBest(SECURITY_ID, SideEnum.BUY).getPrice()
+                < orderBook.peekBest(SECURITY_ID, SideEnum.SELL).getPrice());
+    }
+
+    /**
+     * 按定义逐价位全量计算参考价，与增量曲线结果对比
+     */
+    private void assertSameAsFullScan(AuctionResult actual, double referencePrice) {
+        List<long[]> levels = new ArrayList<>();
+        long best = 0;
+        long bestAbsSurplus = Long.MAX_VALUE;
+        for (long tick = 980; tick <= 1020; tick++) {
+            long bid = 0;
+            long ask = 0;
+            for (SideEnum side : SideEnum.values()) {
+                long[] total = new long[1];
+                long current = tick;
+                orderBook.forEachOrder(SECURITY_ID, side, order -> {
+                    long orderTick = TickLadderOrderBook.toTicks(order.getPrice());
+                    if (side == SideEnum.BUY ? orderTick >= current : orderTick <= current) {
+                        total[0] += order.getQty();
+                    }
+                });
+                if (side == SideEnum.BUY) {
+                    bid = total[0];
+                } else {
+                    ask = total[0];
+                }
+            }
+            long volume = Math.min(bid, ask);
+            long surplus = bid - ask;
+            if (volume > best || (volume == best && Math.abs(surplus) < bestAbsSurplus)) {
+                levels.clear();
+                best = volume;
+                bestAbsSurplus = Math.abs(surplus);
+            }
+            if (volume == best && Math.abs(surplus) == bestAbsSurplus) {
+                levels.add(new long[]{tick, surplus});
+            }
+        }
+        if (best == 0) {
+            Assertions.assertNull(actual.getPrice());
+            return;
+        }
+
+        long highestBuySurplus = Long.MIN_VALUE;
+        long lowestSellSurplus = Long.MAX_VALUE;
+        long zeroLow = Long.MAX_VALUE;
+        long zeroHigh = Long.MIN_VALUE;
+        for (long[] level : levels) {
+            if (level[1] > 0) {
+                highestBuySurplus = Math.max(highestBuySurplus, level[0]);
+            } else if (level[1] < 0) {
+                lowestSellSurplus = Math.min(lowestSellSurplus, level[0]);
+            } else {
+                zeroLow = Math.min(zeroLow, level[0]);
+                zeroHigh = Math.max(zeroHigh, level[0]);
+            }
+        }
+        long expectedTick;
+        if (zeroLow <= zeroHigh) {
+            expectedTick = closest(referencePrice, zeroLow, zeroHigh);
+        } else if (lowestSellSurplus == Long.MAX_VALUE) {
+            expectedTick = highestBuySurplus;
+        } else if (highestBuySurplus == Long.MIN_VALUE) {
+            expectedTick = lowestSellSurplus;
+        } else {
+            expectedTick = closest(referencePrice, highestBuySurplus, lowestSellSurplus);
+        }
+        Assertions.assertEquals(TickLadderOrderBook.toPrice(expectedTick), actual.getPrice());
+        Assertions.assertEquals(best, actual.getVolume().longValue());
+        Assertions.assertEquals(bestAbsSurplus, Math.abs(actual.getSurplus()));
+    }
+
+    private long closest(double referencePrice, long low, long high) {
+        if (referencePrice <= 0) {
+            return (low + high) / 2;
+        }
+        return Math.max(low, Math.min(high, TickLadderOrderBook.toTicks(referencePrice)));
+    }
+
+    private Order newOrder(String clOrderId, SideEnum side, int qty, double price) {
+        return newOrder(SECURITY_ID, clOrderId, side, qty, price);
+    }
+
+    private Order newOrder(String securityId, String clOrderId, SideEnum side, int qty, double price) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId(securityId)
+                .side(side)
+                .qty(qty)
+                .price(price)
+                .shareholderId(side == SideEnum.BUY ? "SH0000000009" : "SH0000000001")
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.config.MatchingConfig;
+
+/**
+ * 测试用撮合协作者：与Spring中一样由MatchingConfig构造成交价生成器与撮合算法选择
+ */
+public final class EngineFixtures {
+
+    private EngineFixtures() {
+    }
+
+    public static PriceGenerator priceGenerator(PriceStrategy priceStrategy) {
+        MatchingConfig matchingConfig = new MatchingConfig();
+        matchingConfig.setPriceStrategy(priceStrategy.name());
+        return new PriceGenerator(matchingConfig);
+    }
+
+    /**
+     * 全部股票使用价格-时间优先
+     */
+    public static MatchingPolicySelector fifo() {
+        return new MatchingPolicySelector(new MatchingConfig());
+    }
+
+    /**
+     * 全部股票使用同一撮合算法
+     * @param proRataMinQty 按比例分配时单笔最小分配数量
+     */
+    public static MatchingPolicySelector policySelector(String policy, int proRataMinQty) {
+        MatchingConfig matchingConfig = new MatchingConfig();
+        matchingConfig.setPolicy(policy);
+        matchingConfig.setProRataMinQty(proRataMinQty);
+        return new MatchingPolicySelector(matchingConfig);
+    }
+}
@@ -3,54 +3,182 @@ package com.example.trading.domain.engine;
 import com.example.trading.common.enums.OrderStatusEnum;
 import com.example.trading.common.enums.SideEnum;
 import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 撮合引擎测试（每个场景分别在两种订单簿实现上运行）
+ */
 public class MatchingEnginTest {
-    // 测试代码（可放在test目录）
-    @SpringBootTest
-    public class MatchingEngineTest {
-        @Autowired
-        private MatchingEngine matchingEngine;
-        @Autowired
-        private OrderBook orderBook;
-
-        @Test
-        public void testMatch() {
-            // 1. 初始化卖订单（挂单：股票600030，卖价10.5，数量200）
-            Order sellOrder = Order.builder()
-                    .clOrderId("SELL001")
-                    .market("XSHG")
-                    .securityId("600030")
-                    .side(SideEnum.SELL)
-                    .qty(200)
-                    .price(10.5)
-                    .shareholderId("SH1234567890")
-                    .timestamp(System.currentTimeMillis())
-                    .build();
-            orderBook.addOrder(sellOrder);
-
-            // 2. 提交买订单（买单：股票600030，买价10.5，数量150）
-            Order buyOrder = Order.builder()
-                    .clOrderId("BUY001")
-                    .market("XSHG")
-                    .securityId("600030")
-                    .side(SideEnum.BUY)
-                    .qty(150)
-                    .price(10.5)
-                    .shareholderId("SH9876543210")
-                    .timestamp(System.currentTimeMillis())
-                    .build();
-
-            // 3. 执行撮合
-            Order matchedOrder = matchingEngine.match(buyOrder);
-
-            // 4. 验证结果：买订单完全成交，卖订单剩余50
-            Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, matchedOrder.getStatus());
-            Assertions.assertEquals(0, matchedOrder.getQty());
-            Assertions.assertEquals(50, sellOrder.getQty());
-        }
+
+    static Stream<OrderBook> orderBooks() {
+        return Stream.of(new SkipListOrderBook(MarketDataListener.NONE, new CallAuction()),
+                new TickLadderOrderBook(MarketDataListener.NONE, new CallAuction()));
+    }
+
+    private final List<Trade> publishedTrades = new ArrayList<>();
+
+    private MatchingEngine newEngine(OrderBook orderBook) {
+        PriceGenerator priceGenerator = EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE);
+        return MatchingEngineBuilder.of(orderBook)
+                .priceGenerator(priceGenerator)
+                .tradeEventPublisher(publishedTrades::add)
+                .build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testMatch(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook);
+
+        // 1. 初始化卖订单（挂单：股票600030，卖价10.5，数量200）
+        Order sellOrder = newOrder("SELL001", SideEnum.SELL, 200, 10.5, "SH1234567890");
+        orderBook.addOrder(sellOrder);
+
+        // 2. 提交买订单（买单：股票600030，买价10.5，数量150）
+        Order buyOrder = newOrder("BUY001", SideEnum.BUY, 150, 10.5, "SH9876543210");
+
+        // 3. 执行撮合
+        Order matchedOrder = matchingEngine.match(buyOrder);
+
+        // 4. 验证结果：买订单完全成交，卖订单剩余50
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, matchedOrder.getStatus());
+        Assertions.assertEquals(0, matchedOrder.getQty());
+        Assertions.assertEquals(50, sellOrder.getQty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testPriceTimePriorityAcrossLevels(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook);
+
+        // 卖方三档：10.52（S1）、10.50（S2、S3，S2先到）
+        Order s1 = newOrder("S1", SideEnum.SELL, 100, 10.52, "SH0000000001");
+        Order s2 = newOrder("S2", SideEnum.SELL, 100, 10.50, "SH0000000002");
+        Order s3 = newOrder("S3", SideEnum.SELL, 100, 10.50, "SH0000000003");
+        orderBook.addOrder(s1);
+        orderBook.addOrder(s2);
+        orderBook.addOrder(s3);
+
+        // 买单250@10.52：先吃10.50的S2、S3（时间优先），再吃10.52的S1 50股
+        Order buyOrder = newOrder("B1", SideEnum.BUY, 250, 10.52, "SH0000000009");
+        matchingEngine.match(buyOrder);
+
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, buyOrder.getStatus());
+        Assertions.assertEquals(0, s2.getQty());
+        Assertions.assertEquals(0, s3.getQty());
+        Assertions.assertEquals(50, s1.getQty());
+        Assertions.assertSame(s1, orderBook.peekBest("600030", SideEnum.SELL));
+        // 完全成交的订单同步移出索引
+        Assertions.assertNull(orderBook.findOrder("600030", "S2"));
+        Assertions.assertSame(s1, orderBook.findOrder("600030", "S1"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testUnmatchedRemainderRests(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook);
+
+        Order sellOrder = newOrder("S1", SideEnum.SELL, 100, 10.50, "SH0000000001");
+        orderBook.addOrder(sellOrder);
+
+        // 买价低于卖价：不成交，整单挂入买方
+        Order lowBid = newOrder("B1", SideEnum.BUY, 100, 10.40, "SH0000000002");
+        matchingEngine.match(lowBid);
+        Assertions.assertEquals(100, lowBid.getQty());
+        Assertions.assertSame(lowBid, orderBook.peekBest("600030", SideEnum.BUY));
+
+        // 买量大于卖量：成交100，剩余50挂单
+        Order bigBid = newOrder("B2", SideEnum.BUY, 150, 10.50, "SH0000000003");
+        matchingEngine.match(bigBid);
+        Assertions.assertEquals(50, bigBid.getQty());
+        Assertions.assertNull(orderBook.peekBest("600030", SideEnum.SELL));
+        Assertions.assertSame(bigBid, orderBook.peekBest("600030", SideEnum.BUY));
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testTradeEventsForBothSides(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook);
+
+        orderBook.addOrder(newOrder("S1", SideEnum.SELL, 100, 10.40, "SH0000000001"));
+        Order buyOrder = newOrder("B1", SideEnum.BUY, 60, 10.60, "SH0000000002");
+        List<Trade> callerTrades = new ArrayList<>();
+        matchingEngine.match(buyOrder, callerTrades);
+
+        // 本方回报返回给调用方，买卖双方回报都发布给下游
+        Assertions.assertEquals(1, callerTrades.size());
+        Assertions.assertEquals(2, publishedTrades.size());
+        Trade buyTrade = publishedTrades.get(0);
+        Trade sellTrade = publishedTrades.get(1);
+        Assertions.assertSame(callerTrades.get(0), buyTrade);
+        Assertions.assertEquals(buyTrade.getExecId(), sellTrade.getExecId());
+        Assertions.assertEquals(12, buyTrade.getExecId().length());
+        Assertions.assertEquals("B1", buyTrade.getClOrderId());
+        Assertions.assertEquals("S1", sellTrade.getClOrderId());
+        Assertions.assertEquals(60, buyTrade.getExecQty());
+        Assertions.assertEquals(10.5, buyTrade.getExecPrice());
+        // qty为原始委托数量
+        Assertions.assertEquals(60, buyTrade.getQty());
+        Assertions.assertEquals(100, sellTrade.getQty());
+    }
+
+    @Test
+    public void testOutOfLadderPriceRejectedBeforeMatching() {
+        OrderBook orderBook = new TickLadderOrderBook(MarketDataListener.NONE, new CallAuction());
+        MatchingEngine matchingEngine = newEngine(orderBook);
+        orderBook.addOrder(newOrder("B1", SideEnum.BUY, 100, 0.01, "SH0000000001"));
+        Order sellOrder = newOrder("S1", SideEnum.SELL, 100, 10.50, "SH0000000002");
+        orderBook.addOrder(sellOrder);
+
+        // 买方价位阶梯容纳不下0.01与30000元的价差：剩余部分无法挂单，整单在撮合前拒绝，不产生成交
+        Order farBid = newOrder("B2", SideEnum.BUY, 200, 30000.00, "SH0000000003");
+        List<Trade> trades = new ArrayList<>();
+        matchingEngine.match(farBid, trades);
+
+        Assertions.assertEquals(OrderStatusEnum.REJECTED, farBid.getStatus());
+        Assertions.assertTrue(trades.isEmpty());
+        Assertions.assertTrue(publishedTrades.isEmpty());
+        Assertions.assertEquals(100, sellOrder.getQty());
+        Assertions.assertSame(sellOrder, orderBook.peekBest("600030", SideEnum.SELL));
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testRemoveOrder(OrderBook orderBook) {
+        Order b1 = newOrder("B1", SideEnum.BUY, 100, 10.50, "SH0000000001");
+        Order b2 = newOrder("B2", SideEnum.BUY, 100, 10.50, "SH0000000002");
+        Order b3 = newOrder("B3", SideEnum.BUY, 100, 10.40, "SH0000000003");
+        orderBook.addOrder(b1);
+        orderBook.addOrder(b2);
+        orderBook.addOrder(b3);
+
+        Assertions.assertSame(b1, orderBook.findOrder("600030", "B1"));
+        Assertions.assertTrue(orderBook.removeOrder(b1));
+        Assertions.assertFalse(orderBook.removeOrder(b1));
+        Assertions.assertNull(orderBook.findOrder("600030", "B1"));
+        Assertions.assertSame(b2, orderBook.peekBest("600030", SideEnum.BUY));
+        Assertions.assertTrue(orderBook.removeOrder(b2));
+        Assertions.assertSame(b3, orderBook.peekBest("600030", SideEnum.BUY));
+    }
+
+    private Order newOrder(String clOrderId, SideEnum side, int qty, double price, String shareholderId) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId("600030")
+                .side(side)
+                .qty(qty)
+                .price(price)
+                .shareholderId(shareholderId)
+                .timestamp(System.currentTimeMillis())
+                .build();
     }
 }
@@ -0,0 +1,74 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.util.EngineClock;
+import com.example.trading.util.IdGenerator;
+
+/**
+ * 测试用撮合引擎构建器：未指定的协作者取默认实现
+ * （MID_PRICE成交价、丢弃成交事件、无行情、FIFO、独立的集合竞价状态与止损单触发索引、系统时钟）
+ * 需要集合竞价的测试须把构造订单簿时使用的CallAuction一并传入
+ */
+public final class MatchingEngineBuilder {
+    private final OrderBook orderBook;
+    private PriceGenerator priceGenerator = EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE);
+    private TradeEventPublisher tradeEventPublisher = trade -> { };
+    private IdGenerator idGenerator = new IdGenerator();
+    private MarketDataListener marketDataListener = MarketDataListener.NONE;
+    private MatchingPolicySelector policySelector = EngineFixtures.fifo();
+    private CallAuction callAuction = new CallAuction();
+    private StopOrderBook stopOrderBook = new StopOrderBook();
+    private EngineClock clock = EngineClock.SYSTEM;
+
+    private MatchingEngineBuilder(OrderBook orderBook) {
+        this.orderBook = orderBook;
+    }
+
+    public static MatchingEngineBuilder of(OrderBook orderBook) {
+        return new MatchingEngineBuilder(orderBook);
+    }
+
+    public MatchingEngineBuilder priceGenerator(PriceGenerator priceGenerator) {
+        this.priceGenerator = priceGenerator;
+        return this;
+    }
+
+    public MatchingEngineBuilder tradeEventPublisher(TradeEventPublisher tradeEventPublisher) {
+        this.tradeEventPublisher = tradeEventPublisher;
+        return this;
+    }
+
+    public MatchingEngineBuilder idGenerator(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+        return this;
+    }
+
+    public MatchingEngineBuilder marketDataListener(MarketDataListener marketDataListener) {
+        this.marketDataListener = marketDataListener;
+        return this;
+    }
+
+    public MatchingEngineBuilder policySelector(MatchingPolicySelector policySelector) {
+        this.policySelector = policySelector;
+        return this;
+    }
+
+    public MatchingEngineBuilder callAuction(CallAuction callAuction) {
+        this.callAuction = callAuction;
+        return this;
+    }
+
+    public MatchingEngineBuilder stopOrderBook(StopOrderBook stopOrderBook) {
+        this.stopOrderBook = stopOrderBook;
+        return this;
+    }
+
+    public MatchingEngineBuilder clock(EngineClock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    public MatchingEngine build() {
+        return new MatchingEngine(orderBook, priceGenerator, tradeEventPublisher, idGenerator, marketDataListener,
+                policySelector, callAuction, stopOrderBook, clock);
+    }
+}
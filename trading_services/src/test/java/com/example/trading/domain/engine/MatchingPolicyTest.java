@@ -0,0 +1,169 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 撮合算法测试（按比例分配场景分别在两种订单簿实现上运行）
+ */
+public class MatchingPolicyTest {
+
+    static Stream<OrderBook> orderBooks() {
+        return Stream.of(new SkipListOrderBook(MarketDataListener.NONE, new CallAuction()),
+                new TickLadderOrderBook(MarketDataListener.NONE, new CallAuction()));
+    }
+
+    private MatchingEngine newEngine(OrderBook orderBook, String policy, int proRataMinQty) {
+        return MatchingEngineBuilder.of(orderBook)
+                .policySelector(EngineFixtures.policySelector(policy, proRataMinQty))
+                .build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testProRataAllocatesByRestingQty(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook, MatchingPolicySelector.PRO_RATA, 1);
+        Order s1 = addSell(orderBook, "S1", 100, 10.50);
+        Order s2 = addSell(orderBook, "S2", 300, 10.50);
+        Order s3 = addSell(orderBook, "S3", 600, 10.50);
+
+        List<Trade> trades = new ArrayList<>();
+        Order buyOrder = matchingEngine.match(newOrder("B1", SideEnum.BUY, 500, 10.50), trades);
+
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, buyOrder.getStatus());
+        Assertions.assertEquals(List.of(50, 150, 300), trades.stream().map(Trade::getExecQty).toList());
+        Assertions.assertEquals(50, s1.getQty());
+        Assertions.assertEquals(150, s2.getQty());
+        Assertions.assertEquals(300, s3.getQty());
+        // 时间优先顺序不变
+        Assertions.assertSame(s1, orderBook.peekBest("600030", SideEnum.SELL));
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testProRataRoundingRemainderGoesByTime(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook, MatchingPolicySelector.PRO_RATA, 1);
+        Order s1 = addSell(orderBook, "S1", 100, 10.50);
+        Order s2 = addSell(orderBook, "S2", 100, 10.50);
+        Order s3 = addSell(orderBook, "S3", 100, 10.50);
+
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 200, 10.50));
+
+        // 每笔分得66，余下2股按时间优先补给S1
+        Assertions.assertEquals(32, s1.getQty());
+        Assertions.assertEquals(34, s2.getQty());
+        Assertions.assertEquals(34, s3.getQty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testProRataMinAllocationFallsBackToTime(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook, MatchingPolicySelector.PRO_RATA, 100);
+        Order s1 = addSell(orderBook, "S1", 100, 10.50);
+        Order s2 = addSell(orderBook, "S2", 100, 10.50);
+        Order s3 = addSell(orderBook, "S3", 100, 10.50);
+
+        matchingEngine.match(newOrder("B1", SideEnum.BUY, 200, 10.50));
+
+        // 比例分配66不足最小分配数量100，全部按时间优先
+        Assertions.assertEquals(0, s1.getQty());
+        Assertions.assertEquals(0, s2.getQty());
+        Assertions.assertEquals(100, s3.getQty());
+        Assertions.assertNull(orderBook.findOrder("600030", "S1"));
+        Assertions.assertSame(s3, orderBook.peekBest("600030", SideEnum.SELL));
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testProRataSweepsLevelsInPriceOrder(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook, MatchingPolicySelector.PRO_RATA, 1);
+        addSell(orderBook, "S1", 100, 10.50);
+        addSell(orderBook, "S2", 100, 10.50);
+        Order s3 = addSell(orderBook, "S3", 100, 10.51);
+        Order s4 = addSell(orderBook, "S4", 300, 10.51);
+
+        Order buyOrder = matchingEngine.match(newOrder("B1", SideEnum.BUY, 400, 10.51));
+
+        // 10.50整档成交，剩余200在10.51按1:3分配
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, buyOrder.getStatus());
+        Assertions.assertEquals(50, s3.getQty());
+        Assertions.assertEquals(150, s4.getQty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("orderBooks")
+    public void testTopOrderFilledFirstThenProRata(OrderBook orderBook) {
+        MatchingEngine matchingEngine = newEngine(orderBook, MatchingPolicySelector.TOP_ORDER_PRO_RATA, 1);
+        Order s1 = addSell(orderBook, "S1", 100, 10.50);
+        Order s2 = addSell(orderBook, "S2", 200, 10.50);
+        Order s3 = addSell(orderBook, "S3", 600, 10.50);
+
+        Order buyOrder = matchingEngine.match(newOrder("B1", SideEnum.BUY, 500, 10.50));
+
+        // 队首S1先成交100，剩余400按1:3分配
+        Assertions.assertEquals(0, buyOrder.getQty());
+        Assertions.assertEquals(0, s1.getQty());
+        Assertions.assertEquals(100, s2.getQty());
+        Assertions.assertEquals(300, s3.getQty());
+        Assertions.assertSame(s2, orderBook.peekBest("600030", SideEnum.SELL));
+    }
+
+    @Test
+    public void testPolicySelectedPerSecurity() {
+        MatchingConfig matchingConfig = new MatchingConfig();
+        matchingConfig.setPolicyOverrides(Map.of("600519", "pro_rata", "000001", "TOP_ORDER_PRO_RATA"));
+        MatchingPolicySelector selector = new MatchingPolicySelector(matchingConfig);
+
+        Assertions.assertSame(FifoMatchingPolicy.INSTANCE, selector.forSecurity("600030"));
+        Assertions.assertEquals("PRO_RATA", selector.forSecurity("600519").toString());
+        Assertions.assertEquals("TOP_ORDER_PRO_RATA", selector.forSecurity("000001").toString());
+
+        matchingConfig.setPolicy("LIFO");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MatchingPolicySelector(matchingConfig));
+    }
+
+    @Test
+    public void testPriceStrategyResolvedOnce() {
+        MatchingConfig matchingConfig = new MatchingConfig();
+        matchingConfig.setPriceStrategy("buy_price");
+        Assertions.assertEquals(PriceStrategy.BUY_PRICE, new PriceGenerator(matchingConfig).getPriceStrategy());
+        matchingConfig.setPriceStrategy("UNKNOWN");
+        Assertions.assertEquals(PriceStrategy.MID_PRICE, new PriceGenerator(matchingConfig).getPriceStrategy());
+
+        PriceGenerator priceGenerator = EngineFixtures.priceGenerator(PriceStrategy.SELL_PRICE);
+        double price = priceGenerator.generatePrice(newOrder("B1", SideEnum.BUY, 100, 10.52),
+                newOrder("S1", SideEnum.SELL, 100, 10.50));
+        Assertions.assertEquals(10.50, price);
+    }
+
+    private Order addSell(OrderBook orderBook, String clOrderId, int qty, double price) {
+        Order order = newOrder(clOrderId, SideEnum.SELL, qty, price);
+        orderBook.addOrder(order);
+        return order;
+    }
+
+    private Order newOrder(String clOrderId, SideEnum side, int qty, double price) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId("600030")
+                .side(side)
+                .qty(qty)
+                .price(price)
+                .shareholderId(side == SideEnum.BUY ? "SH0000000009" : "SH0000000001")
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
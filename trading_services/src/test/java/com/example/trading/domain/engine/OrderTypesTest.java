@@ -0,0 +1,225 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 订单类型测试（市价、IOC、FOK、止损/止损限价，分别在两种订单簿实现上运行）
+ */
+public class OrderTypesTest {
+    private static final String SECURITY_ID = "600030";
+
+    private CallAuction callAuction;
+    private OrderBook orderBook;
+    private StopOrderBook stopOrderBook;
+    private MatchingEngine matchingEngine;
+
+    private void setUp(String type) {
+        callAuction = new CallAuction();
+        orderBook = "TICK_LADDER".equals(type)
+                ? new TickLadderOrderBook(MarketDataListener.NONE, callAuction)
+                : new SkipListOrderBook(MarketDataListener.NONE, callAuction);
+        stopOrderBook = new StopOrderBook();
+        matchingEngine = MatchingEngineBuilder.of(orderBook)
+                .callAuction(callAuction)
+                .stopOrderBook(stopOrderBook)
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testMarketOrderSweepsLevelsAndCancelsRemainder(String type) {
+        setUp(type);
+        matchingEngine.match(limit("S1", SideEnum.SELL, 100, 10.01));
+        matchingEngine.match(limit("S2", SideEnum.SELL, 200, 10.03));
+
+        List<Trade> trades = new ArrayList<>();
+        Order market = matchingEngine.match(order("B1", SideEnum.BUY, 400, null, OrderTypeEnum.MARKET, null), trades);
+
+        Assertions.assertEquals(OrderStatusEnum.CANCELLED, market.getStatus());
+        Assertions.assertEquals(300, market.getCumQty());
+        Assertions.assertEquals(100, market.getQty());
+        // 市价单以对手方挂单价成交，剩余部分不挂单
+        Assertions.assertEquals(10.01, trades.get(0).getExecPrice());
+        Assertions.assertEquals(10.03, trades.get(1).getExecPrice());
+        Assertions.assertNull(orderBook.peekBest(SECURITY_ID, SideEnum.SELL));
+        Assertions.assertNull(orderBook.peekBest(SECURITY_ID, SideEnum.BUY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testIocFillsWithinLimitAndCancelsRemainder(String type) {
+        setUp(type);
+        matchingEngine.match(limit("S1", SideEnum.SELL, 100, 10.01));
+        matchingEngine.match(limit("S2", SideEnum.SELL, 200, 10.03));
+
+        Order ioc = matchingEngine.match(order("B1", SideEnum.BUY, 300, 10.02, OrderTypeEnum.LIMIT,
+                TimeInForceEnum.IOC));
+
+        Assertions.assertEquals(OrderStatusEnum.CANCELLED, ioc.getStatus());
+        Assertions.assertEquals(100, ioc.getCumQty());
+        Assertions.assertNull(orderBook.findOrder(SECURITY_ID, "B1"));
+        Assertions.assertEquals("S2", orderBook.peekBest(SECURITY_ID, SideEnum.SELL).getClOrderId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testFokCancelsWithoutTouchingBook(String type) {
+        setUp(type);
+        matchingEngine.match(limit("S1", SideEnum.SELL, 100, 10.01));
+        matchingEngine.match(limit("S2", SideEnum.SELL, 200, 10.03));
+        matchingEngine.match(limit("S3", SideEnum.SELL, 500, 10.05));
+
+        // 限价内可成交量只有300
+        List<Trade> trades = new ArrayList<>();
+        Order fok = matchingEngine.match(order("B1", SideEnum.BUY, 301, 10.03, OrderTypeEnum.LIMIT,
+                TimeInForceEnum.FOK), trades);
+
+        Assertions.assertEquals(OrderStatusEnum.CANCELLED, fok.getStatus());
+        Assertions.assertEquals(0, fok.getCumQty());
+        Assertions.assertTrue(trades.isEmpty());
+        Assertions.assertEquals(100, orderBook.findOrder(SECURITY_ID, "S1").getQty());
+        Assertions.assertEquals(200, orderBook.findOrder(SECURITY_ID, "S2").getQty());
+        Assertions.assertEquals(0L, orderBook.availableQty(SECURITY_ID, SideEnum.SELL, 10.00, 1));
+        Assertions.assertEquals(300L, orderBook.availableQty(SECURITY_ID, SideEnum.SELL, 10.03, 1000));
+        // 达到目标数量即停止累加
+        Assertions.assertTrue(orderBook.availableQty(SECURITY_ID, SideEnum.SELL, null, 150) >= 150);
+
+        Order filled = matchingEngine.match(order("B2", SideEnum.BUY, 300, 10.03, OrderTypeEnum.LIMIT,
+                TimeInForceEnum.FOK));
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, filled.getStatus());
+        Assertions.assertEquals("S3", orderBook.peekBest(SECURITY_ID, SideEnum.SELL).getClOrderId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testAvailableQtyTracksPartialFills(String type) {
+        setUp(type);
+        matchingEngine.match(limit("B1", SideEnum.BUY, 300, 10.00));
+        matchingEngine.match(limit("B2", SideEnum.BUY, 200, 9.99));
+        matchingEngine.match(limit("S1", SideEnum.SELL, 120, 10.00));
+
+        Assertions.assertEquals(180L, orderBook.availableQty(SECURITY_ID, SideEnum.BUY, 10.00, 1000));
+        Assertions.assertEquals(380L, orderBook.availableQty(SECURITY_ID, SideEnum.BUY, 9.99, 1000));
+        orderBook.removeOrder(orderBook.findOrder(SECURITY_ID, "B1"));
+        Assertions.assertEquals(200L, orderBook.availableQty(SECURITY_ID, SideEnum.BUY, null, 1000));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testStopOrdersTriggerAndCascade(String type) {
+        setUp(type);
+        matchingEngine.match(limit("S1", SideEnum.SELL, 100, 10.00));
+        matchingEngine.match(limit("S2", SideEnum.SELL, 100, 10.05));
+        matchingEngine.match(limit("S3", SideEnum.SELL, 100, 10.10));
+
+        Order stop1 = matchingEngine.match(stop("T1", SideEnum.BUY, OrderTypeEnum.STOP, null, 10.00));
+        Order stop2 = matchingEngine.match(stop("T2", SideEnum.BUY, OrderTypeEnum.STOP_LIMIT, 10.20, 10.05));
+        Order stop3 = matchingEngine.match(stop("T3", SideEnum.BUY, OrderTypeEnum.STOP, null, 10.50));
+        Assertions.assertEquals(OrderStatusEnum.PENDING_TRIGGER, stop1.getStatus());
+        Assertions.assertTrue(stopOrderBook.hasStops(SECURITY_ID));
+        Assertions.assertEquals(100, orderBook.findOrder(SECURITY_ID, "S1").getQty());
+
+        // 10.00成交触发T1（转市价吃10.05），10.05成交继续触发T2（转限价10.20吃10.10），T3未被越过
+        List<Order> triggered = new ArrayList<>();
+        List<Trade> triggeredTrades = new ArrayList<>();
+        matchingEngine.match(limit("B1", SideEnum.BUY, 100, 10.00), new ArrayList<>(), triggered, triggeredTrades);
+
+        Assertions.assertEquals(List.of(stop1, stop2), triggered);
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, stop1.getStatus());
+        Assertions.assertEquals(OrderTypeEnum.MARKET, stop1.getOrdType());
+        Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, stop2.getStatus());
+        Assertions.assertEquals(OrderTypeEnum.LIMIT, stop2.getOrdType());
+        Assertions.assertEquals(2, triggeredTrades.size());
+        Assertions.assertEquals(10.05, triggeredTrades.get(0).getExecPrice());
+        Assertions.assertEquals(OrderStatusEnum.PENDING_TRIGGER, stop3.getStatus());
+        Assertions.assertSame(stop3, stopOrderBook.findOrder(SECURITY_ID, "T3"));
+        Assertions.assertNull(orderBook.peekBest(SECURITY_ID, SideEnum.SELL));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testSellStopTriggersOnlyWhenPriceFallsThrough(String type) {
+        setUp(type);
+        matchingEngine.match(limit("B1", SideEnum.BUY, 100, 9.98));
+        matchingEngine.match(limit("B2", SideEnum.BUY, 100, 9.95));
+        Order stop = matchingEngine.match(stop("T1", SideEnum.SELL, OrderTypeEnum.STOP_LIMIT, 9.96, 9.97));
+
+        // 9.98成交未越过9.97，不触发
+        matchingEngine.match(limit("S1", SideEnum.SELL, 50, 9.98));
+        Assertions.assertEquals(OrderStatusEnum.PENDING_TRIGGER, stop.getStatus());
+
+        // 触发后按限价9.96挂单（9.95买单不满足限价）
+        matchingEngine.match(order("S2", SideEnum.SELL, 100, null, OrderTypeEnum.MARKET, null));
+        Assertions.assertEquals(OrderStatusEnum.MATCHING, stop.getStatus());
+        Assertions.assertSame(stop, orderBook.peekBest(SECURITY_ID, SideEnum.SELL));
+        Assertions.assertFalse(stopOrderBook.hasStops(SECURITY_ID));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testRemovePendingStop(String type) {
+        setUp(type);
+        Order stop = matchingEngine.match(stop("T1", SideEnum.BUY, OrderTypeEnum.STOP, null, 10.00));
+        Assertions.assertTrue(stopOrderBook.removeOrder(stop));
+        Assertions.assertFalse(stopOrderBook.removeOrder(stop));
+        Assertions.assertFalse(stopOrderBook.hasStops(SECURITY_ID));
+
+        matchingEngine.match(limit("S1", SideEnum.SELL, 100, 10.00));
+        matchingEngine.match(limit("B1", SideEnum.BUY, 100, 10.00));
+        Assertions.assertEquals(OrderStatusEnum.PENDING_TRIGGER, stop.getStatus());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SKIP_LIST", "TICK_LADDER"})
+    public void testNonRestableOrdersRejectedDuringAuction(String type) {
+        setUp(type);
+        matchingEngine.beginAuction(SECURITY_ID);
+
+        Order market = matchingEngine.match(order("B1", SideEnum.BUY, 100, null, OrderTypeEnum.MARKET, null));
+        Order ioc = matchingEngine.match(order("B2", SideEnum.BUY, 100, 10.00, OrderTypeEnum.LIMIT,
+                TimeInForceEnum.IOC));
+        Order limit = matchingEngine.match(limit("B3", SideEnum.BUY, 100, 10.00));
+
+        Assertions.assertEquals(OrderStatusEnum.REJECTED, market.getStatus());
+        Assertions.assertEquals(OrderStatusEnum.REJECTED, ioc.getStatus());
+        Assertions.assertEquals(OrderStatusEnum.MATCHING, limit.getStatus());
+        Assertions.assertSame(limit, orderBook.peekBest(SECURITY_ID, SideEnum.BUY));
+    }
+
+    private Order limit(String clOrderId, SideEnum side, int qty, double price) {
+        return order(clOrderId, side, qty, price, null, null);
+    }
+
+    private Order stop(String clOrderId, SideEnum side, OrderTypeEnum ordType, Double price, double stopPrice) {
+        Order order = order(clOrderId, side, 100, price, ordType, null);
+        order.setStopPrice(stopPrice);
+        return order;
+    }
+
+    private Order order(String clOrderId, SideEnum side, int qty, Double price, OrderTypeEnum ordType,
+                        TimeInForceEnum timeInForce) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId(SECURITY_ID)
+                .side(side)
+                .qty(qty)
+                .price(price)
+                .ordType(ordType)
+                .timeInForce(timeInForce)
+                .shareholderId(side == SideEnum.BUY ? "SH0000000009" : "SH0000000001")
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.IdGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ShardedMatchingExecutorTest {
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 500;
+
+    private ShardedMatchingExecutor executor;
+    private MatchingEngine matchingEngine;
+
+    @BeforeEach
+    public void setUp() {
+        MatchingConfig config = new MatchingConfig();
+        config.setShardCount(4);
+        config.setRingBufferSize(64);
+        executor = new ShardedMatchingExecutor(config, new IdGenerator());
+
+        matchingEngine = MatchingEngineBuilder.of(new SkipListOrderBook(MarketDataListener.NONE, new CallAuction()))
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSameSecurityRunsOnSingleThread() {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(executor.submit("600030", () -> threadNames.add(Thread.currentThread().getName())));
+        }
+        futures.forEach(CompletableFuture::join);
+        Assertions.assertEquals(1, threadNames.size());
+    }
+
+    @Test
+    public void testConcurrentOrdersOnHotSecurityNeverOverfill() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Order[]>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            results.add(clients.submit(() -> {
+                start.await();
+                List<Order[]> submitted = new ArrayList<>();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    SideEnum side = (i + thread) % 2 == 0 ? SideEnum.BUY : SideEnum.SELL;
+                    int qty = 1 + (i * 7 + thread) % 10;
+                    Order order = newOrder("T" + thread + "_" + i, side, qty);
+                    // 记录原始数量，便于撮合后核对成交量
+                    Order original = newOrder(order.getClOrderId(), side, qty);
+                    executor.submit(order.getSecurityId(), () -> matchingEngine.match(order)).join();
+                    submitted.add(new Order[]{original, order});
+                }
+                return submitted;
+            }));
+        }
+        start.countDown();
+
+        long buyFilled = 0;
+        long sellFilled = 0;
+        for (Future<List<Order[]>> result : results) {
+            for (Order[] pair : result.get()) {
+                // 所有任务已完成，读取最终状态需经过分片线程（保证可见性）
+                int remaining = executor.submit("600030", () -> pair[1].getQty()).join();
+                Assertions.assertTrue(remaining >= 0, "订单剩余数量不能为负");
+                long filled = pair[0].getQty() - remaining;
+                if (pair[0].getSide() == SideEnum.BUY) {
+                    buyFilled += filled;
+                } else {
+                    sellFilled += filled;
+                }
+            }
+        }
+        clients.shutdown();
+
+        Assertions.assertTrue(buyFilled > 0);
+        Assertions.assertEquals(buyFilled, sellFilled, "买卖双方成交总量必须一致");
+    }
+
+    private Order newOrder(String clOrderId, SideEnum side, int qty) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId("600030")
+                .side(side)
+                .qty(qty)
+                .price(10.0)
+                .shareholderId(side == SideEnum.BUY ? "SH00000001" : "SH00000002")
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
+}
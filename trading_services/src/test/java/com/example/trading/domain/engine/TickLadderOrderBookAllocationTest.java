@@ -0,0 +1,71 @@
+package com.example.trading.domain.engine;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * TickLadderOrderBook稳态分配测试：预热后挂单+撮合循环的每笔分配字节数应为0
+ * （只校验是否分配，耗时测量见trading_benchmark中的JMH基准）
+ */
+public class TickLadderOrderBookAllocationTest {
+    private static final int ORDER_POOL = 256;
+    private static final int WARMUP_ROUNDS = 10_000;
+    private static final int MEASURE_ROUNDS = 50_000;
+
+    @Test
+    public void testSteadyStateMatchIsAllocationFree() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assertions.assertTrue(threadBean.isThreadAllocatedMemorySupported());
+
+        TickLadderOrderBook orderBook = new TickLadderOrderBook(MarketDataListener.NONE, new CallAuction());
+        Order[] sells = new Order[ORDER_POOL];
+        for (int i = 0; i < ORDER_POOL; i++) {
+            sells[i] = Order.builder()
+                    .clOrderId("S" + i)
+                    .market("XSHG")
+                    .securityId("600030")
+                    .side(SideEnum.SELL)
+                    .qty(100)
+                    .price(10.00 + (i % 16) * 0.01)
+                    .shareholderId("SH0000000001")
+                    .build();
+        }
+
+        runRounds(orderBook, sells, WARMUP_ROUNDS);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        runRounds(orderBook, sells, MEASURE_ROUNDS);
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        double bytesPerMatch = allocated / (double) MEASURE_ROUNDS;
+        // 允许测量本身约1KB的固定噪声；每笔哪怕每十几轮分配一个对象也会超过该阈值
+        Assertions.assertTrue(bytesPerMatch < 0.1, "稳态撮合存在对象分配：" + bytesPerMatch + " B/match");
+    }
+
+    /**
+     * 每轮：从空闲订单栈取一笔卖单挂入，保持约一半订单常驻；取最优卖单分两次成交完后放回空闲栈
+     */
+    private void runRounds(TickLadderOrderBook orderBook, Order[] sells, int rounds) {
+        Order[] free = sells.clone();
+        int freeCount = free.length;
+        for (int i = 0; i < rounds; i++) {
+            orderBook.addOrder(free[--freeCount]);
+            if (freeCount < ORDER_POOL / 2) {
+                Order best = orderBook.peekBest("600030", SideEnum.SELL);
+                orderBook.fill(best, 40);
+                orderBook.fill(best, 60);
+                free[freeCount++] = best;
+            }
+        }
+        Order best;
+        while ((best = orderBook.peekBest("600030", SideEnum.SELL)) != null) {
+            orderBook.fill(best, 100);
+        }
+    }
+}
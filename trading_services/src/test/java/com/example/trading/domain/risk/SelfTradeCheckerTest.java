@@ -0,0 +1,142 @@
+package com.example.trading.domain.risk;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.domain.model.Order;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SelfTradeCheckerTest {
+    private static final long NOW = 1_700_000_000_000L;
+
+    private SelfTradeChecker selfTradeChecker;
+
+    @BeforeEach
+    public void setUp() {
+        RiskConfig riskConfig = new RiskConfig();
+        riskConfig.setEnable(true);
+        riskConfig.setTimeWindow(60_000L);
+        selfTradeChecker = new SelfTradeChecker(riskConfig);
+    }
+
+    @Test
+    public void testRejectsOnlyCrossingOppositeOrderOfSameShareholder() {
+        selfTradeChecker.track(resting("S1", SideEnum.SELL, 10.50, "SH00000001", "XSHG", NOW));
+
+        // 买价低于本人卖单价格，不会成交
+        Assertions.assertNull(selfTradeChecker.check(incoming("B1", SideEnum.BUY, 10.49, "SH00000001", "XSHG", NOW)));
+        // 同方向
+        Assertions.assertNull(selfTradeChecker.check(incoming("S2", SideEnum.SELL, 10.00, "SH00000001", "XSHG", NOW)));
+        // 其他股东
+        Assertions.assertNull(selfTradeChecker.check(incoming("B2", SideEnum.BUY, 11.00, "SH00000002", "XSHG", NOW)));
+        // 其他市场
+        Assertions.assertNull(selfTradeChecker.check(incoming("B3", SideEnum.BUY, 11.00, "SH00000001", "XSHE", NOW)));
+        // 价格可成交
+        Assertions.assertEquals(ErrorCodeEnum.SELF_TRADE,
+                selfTradeChecker.check(incoming("B4", SideEnum.BUY, 10.50, "SH00000001", "XSHG", NOW)));
+    }
+
+    @Test
+    public void testBestOppositePriceAfterBestOrderLeaves() {
+        Order low = resting("S1", SideEnum.SELL, 10.10, "SH00000001", "XSHG", NOW);
+        selfTradeChecker.track(low);
+        selfTradeChecker.track(resting("S2", SideEnum.SELL, 10.30, "SH00000001", "XSHG", NOW));
+        Assertions.assertEquals(ErrorCodeEnum.SELF_TRADE,
+                selfTradeChecker.check(incoming("B1", SideEnum.BUY, 10.20, "SH00000001", "XSHG", NOW)));
+
+        // 最低价卖单完全成交后，剩余卖单10.30不与10.20买单成交
+        low.setQty(0);
+        low.setStatus(OrderStatusEnum.FULL_FILLED);
+        Assertions.assertNull(selfTradeChecker.check(incoming("B2", SideEnum.BUY, 10.20, "SH00000001", "XSHG", NOW)));
+        Assertions.assertEquals(ErrorCodeEnum.SELF_TRADE,
+                selfTradeChecker.check(incoming("B3", SideEnum.BUY, 10.30, "SH00000001", "XSHG", NOW)));
+        Assertions.assertEquals(1, selfTradeChecker.trackedOrderCount());
+    }
+
+    @Test
+    public void testCancelledAndExpiredOrdersAreEvicted() {
+        Order cancelled = resting("B1", SideEnum.BUY, 10.50, "SH00000001", "XSHG", NOW);
+        selfTradeChecker.track(cancelled);
+        cancelled.setStatus(OrderStatusEnum.CANCELLED);
+        selfTradeChecker.untrack(cancelled);
+        Assertions.assertNull(selfTradeChecker.check(incoming("S1", SideEnum.SELL, 10.00, "SH00000001", "XSHG", NOW)));
+        Assertions.assertEquals(0, selfTradeChecker.trackedOrderCount());
+
+        selfTradeChecker.track(resting("B2", SideEnum.BUY, 10.50, "SH00000001", "XSHG", NOW));
+        Assertions.assertEquals(ErrorCodeEnum.SELF_TRADE,
+                selfTradeChecker.check(incoming("S2", SideEnum.SELL, 10.00, "SH00000001", "XSHG", NOW + 60_000L)));
+        // 超出时间窗口
+        Assertions.assertNull(selfTradeChecker.check(incoming("S3", SideEnum.SELL, 10.00, "SH00000001", "XSHG",
+                NOW + 60_001L)));
+        Assertions.assertEquals(0, selfTradeChecker.trackedOrderCount());
+    }
+
+    @Test
+    public void testOrdersThatDoNotRestAreNotTracked() {
+        Order filled = resting("B1", SideEnum.BUY, 10.50, "SH00000001", "XSHG", NOW);
+        filled.setQty(0);
+        filled.setStatus(OrderStatusEnum.FULL_FILLED);
+        selfTradeChecker.track(filled);
+
+        Assertions.assertEquals(0, selfTradeChecker.trackedOrderCount());
+        Assertions.assertNull(selfTradeChecker.check(incoming("S1", SideEnum.SELL, 10.00, "SH00000001", "XSHG", NOW)));
+    }
+
+    @Test
+    public void testMarketOrderCrossesAnyOppositeOrder() {
+        selfTradeChecker.track(resting("S1", SideEnum.SELL, 99.00, "SH00000001", "XSHG", NOW));
+        Order market = incoming("B1", SideEnum.BUY, 0, "SH00000001", "XSHG", NOW);
+        market.setPrice(null);
+        market.setOrdType(OrderTypeEnum.MARKET);
+
+        Assertions.assertEquals(ErrorCodeEnum.SELF_TRADE, selfTradeChecker.check(market));
+        market.setShareholderId("SH00000002");
+        Assertions.assertNull(selfTradeChecker.check(market));
+    }
+
+    @Test
+    public void testCrossMarketFallbackIgnoresInactiveOrders() {
+        selfTradeChecker.track(resting("S1", SideEnum.SELL, 10.10, "SH00000001", "XSHG", NOW + 60_000L));
+        Order filled = resting("S2", SideEnum.SELL, 10.20, "SH00000001", "XSHE", NOW + 60_000L);
+        selfTradeChecker.track(filled);
+        selfTradeChecker.track(resting("S3", SideEnum.SELL, 10.20, "SH00000002", "XSHE", NOW));
+        Order expired = resting("S4", SideEnum.SELL, 10.20, "SH00000002", "XSHE", NOW);
+        selfTradeChecker.track(expired);
+        selfTradeChecker.track(resting("S5", SideEnum.SELL, 10.10, "SH00000002", "XSHG", NOW + 60_000L));
+
+        // 最优挂单在其他市场，逐笔比对时已成交的挂单不构成对敲
+        filled.setQty(0);
+        filled.setStatus(OrderStatusEnum.FULL_FILLED);
+        Assertions.assertNull(selfTradeChecker.check(incoming("B1", SideEnum.BUY, 10.30, "SH00000001", "XSHE",
+                NOW + 60_000L)));
+        // 超出时间窗口的挂单同样不构成对敲
+        Assertions.assertNull(selfTradeChecker.check(incoming("B2", SideEnum.BUY, 10.30, "SH00000002", "XSHE",
+                NOW + 60_001L)));
+    }
+
+    private Order resting(String clOrderId, SideEnum side, double price, String shareholderId, String market,
+                          long timestamp) {
+        Order order = incoming(clOrderId, side, price, shareholderId, market, timestamp);
+        order.setStatus(OrderStatusEnum.MATCHING);
+        return order;
+    }
+
+    private Order incoming(String clOrderId, SideEnum side, double price, String shareholderId, String market,
+                           long timestamp) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market(market)
+                .securityId("600030")
+                .side(side)
+                .qty(100)
+                .price(price)
+                .shareholderId(shareholderId)
+                .timestamp(timestamp)
+                .status(OrderStatusEnum.VALID)
+                .build();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.trading.gateway;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * 二进制编解码与protocol/下JSON Schema的往返校验：
+ * 定长字段宽度与Schema的maxLength一致，每种消息编码后转回的JSON满足对应Schema（必填、类型、长度、枚举）
+ */
+public class BinaryCodecTest {
+    private static final Path PROTOCOL = Paths.get("..", "protocol");
+
+    private final Order order = Order.builder().clOrderId("CL12345678901234").market("XSHG").securityId("600030")
+            .side(SideEnum.BUY).qty(100).price(10.5).shareholderId("SH00000001").cumQty(40).build();
+    private final CancelRequest cancel = CancelRequest.builder().clOrderId("CL12345678901235")
+            .origClOrderId("CL12345678901234").market("XSHG").securityId("600030").shareholderId("SH00000001")
+            .side(SideEnum.BUY).build();
+
+    @Test
+    public void testFieldWidthsMatchSchemas() throws IOException {
+        JsonObject properties = schema("order.schema.json").getAsJsonObject("properties");
+        Assertions.assertEquals(BinaryCodec.CL_ORDER_ID_WIDTH, maxLength(properties, "clOrderId"));
+        Assertions.assertEquals(BinaryCodec.SECURITY_ID_WIDTH, maxLength(properties, "securityId"));
+        Assertions.assertEquals(BinaryCodec.SHAREHOLDER_ID_WIDTH, maxLength(properties, "shareholderId"));
+        Assertions.assertEquals(BinaryCodec.EXEC_ID_WIDTH,
+                maxLength(schema("trade.schema.json").getAsJsonObject("properties"), "execId"));
+        Assertions.assertEquals(BinaryCodec.REJECT_TEXT_WIDTH,
+                maxLength(schema("reject.schema.json").getAsJsonObject("properties"), "rejectText"));
+        for (JsonElement market : properties.getAsJsonObject("market").getAsJsonArray("enum")) {
+            Assertions.assertTrue(market.getAsString().length() <= BinaryCodec.MARKET_WIDTH);
+        }
+    }
+
+    @Test
+    public void testInboundRoundTrip() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        BinaryCodec.encodeOrder(buffer, order);
+        BinaryCodec.encodeCancel(buffer, cancel);
+        Assertions.assertEquals(BinaryCodec.ORDER_LENGTH + BinaryCodec.CANCEL_LENGTH, buffer.position());
+
+        byte[] scratch = new byte[BinaryCodec.CL_ORDER_ID_WIDTH];
+        Assertions.assertEquals(BinaryCodec.ORDER_LENGTH, BinaryCodec.frameLength(buffer, 0));
+        Order decoded = BinaryCodec.decodeOrder(buffer, 0, scratch);
+        Assertions.assertEquals(order.getClOrderId(), decoded.getClOrderId());
+        Assertions.assertEquals(order.getMarket(), decoded.getMarket());
+        Assertions.assertEquals(order.getSecurityId(), decoded.getSecurityId());
+        Assertions.assertEquals(order.getSide(), decoded.getSide());
+        Assertions.assertEquals(order.getQty(), decoded.getQty());
+        Assertions.assertEquals(order.getPrice(), decoded.getPrice());
+        Assertions.assertEquals(order.getShareholderId(), decoded.getShareholderId());
+        assertMatchesSchema("order.schema.json", BinaryCodec.toJson(buffer, 0));
+
+        int cancelOffset = BinaryCodec.ORDER_LENGTH;
+        Assertions.assertEquals(BinaryCodec.CANCEL, BinaryCodec.frameType(buffer, cancelOffset));
+        Assertions.assertEquals(cancel, BinaryCodec.decodeCancel(buffer, cancelOffset, scratch));
+        assertMatchesSchema("cancel.schema.json", BinaryCodec.toJson(buffer, cancelOffset));
+    }
+
+    @Test
+    public void testOrderTypeAndTimeInForceRoundTrip() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.ORDER_LENGTH * 2);
+        Order market = order.toBuilder().ordType(OrderTypeEnum.MARKET).timeInForce(TimeInForceEnum.IOC)
+                .price(null).build();
+        Order stopLimit = order.toBuilder().ordType(OrderTypeEnum.STOP_LIMIT).timeInForce(TimeInForceEnum.FOK)
+                .stopPrice(10.8).build();
+        BinaryCodec.encodeOrder(buffer, market);
+        BinaryCodec.encodeOrder(buffer, stopLimit);
+
+        byte[] scratch = new byte[BinaryCodec.CL_ORDER_ID_WIDTH];
+        Order decoded = BinaryCodec.decodeOrder(buffer, 0, scratch);
+        Assertions.assertEquals(OrderTypeEnum.MARKET, decoded.getOrdType());
+        Assertions.assertEquals(TimeInForceEnum.IOC, decoded.getTimeInForce());
+        Assertions.assertNull(decoded.getPrice());
+        Assertions.assertNull(decoded.getStopPrice());
+        JsonObject json = BinaryCodec.toJson(buffer, 0);
+        assertMatchesSchema("order.schema.json", json);
+        Assertions.assertEquals("MARKET", json.get("ordType").getAsString());
+        Assertions.assertFalse(json.has("price"));
+
+        decoded = BinaryCodec.decodeOrder(buffer, BinaryCodec.ORDER_LENGTH, scratch);
+        Assertions.assertEquals(OrderTypeEnum.STOP_LIMIT, decoded.getOrdType());
+        Assertions.assertEquals(TimeInForceEnum.FOK, decoded.getTimeInForce());
+        Assertions.assertEquals(10.5, decoded.getPrice());
+        Assertions.assertEquals(10.8, decoded.getStopPrice());
+        assertMatchesSchema("order.schema.json", BinaryCodec.toJson(buffer, BinaryCodec.ORDER_LENGTH));
+
+        // 订单类型编码非法：帧无法表示确定的委托，解码失败（网关据此关闭连接）
+        buffer.put(BinaryCodec.ORDER_V1_LENGTH, (byte) 'X');
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryCodec.decodeOrder(buffer, 0, scratch));
+    }
+
+    @Test
+    public void testVersion1OrderDecodesAsLimitDay() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.ORDER_LENGTH);
+        BinaryCodec.encodeOrder(buffer, order);
+        // 截去v2扩展字段，改写帧头为v1
+        buffer.putShort(0, (short) BinaryCodec.ORDER_V1_LENGTH).put(3, BinaryCodec.VERSION);
+        Assertions.assertEquals(BinaryCodec.ORDER_V1_LENGTH,
+                BinaryCodec.expectedLength(BinaryCodec.ORDER, BinaryCodec.frameVersion(buffer, 0)));
+        Assertions.assertEquals(-1, BinaryCodec.expectedLength(BinaryCodec.ORDER, (byte) 3));
+        Assertions.assertEquals(-1, BinaryCodec.expectedLength(BinaryCodec.CANCEL, BinaryCodec.ORDER_VERSION));
+
+        Order decoded = BinaryCodec.decodeOrder(buffer, 0, new byte[BinaryCodec.CL_ORDER_ID_WIDTH]);
+        Assertions.assertEquals(order.getPrice(), decoded.getPrice());
+        Assertions.assertNull(decoded.getOrdType());
+        Assertions.assertNull(decoded.getTimeInForce());
+        Assertions.assertFalse(BinaryCodec.toJson(buffer, 0).has("ordType"));
+    }
+
+    @Test
+    public void testOutboundMessagesMatchSchemas() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.MAX_FRAME_LENGTH);
+        BinaryCodec.encodeAck(buffer, order);
+        assertFrame(buffer, BinaryCodec.ACK_LENGTH, "ack.schema.json",
+                Map.of("clOrderId", "CL12345678901234", "side", "B", "qty", 100, "price", 10.5));
+
+        for (ErrorCodeEnum errorCode : ErrorCodeEnum.values()) {
+            buffer.clear();
+            BinaryCodec.encodeReject(buffer, order, errorCode.getCode(), errorCode.getMsg());
+            assertFrame(buffer, BinaryCodec.REJECT_LENGTH, "reject.schema.json",
+                    Map.of("rejectCode", errorCode.getCode(), "rejectText", errorCode.getMsg()));
+        }
+
+        buffer.clear();
+        Trade trade = Trade.builder().clOrderId("CL12345678901234").market("XSHG").securityId("600030")
+                .side(SideEnum.SELL).qty(100).price(10.5).shareholderId("SH00000001").execId("EX0000000001")
+                .execQty(50).execPrice(10.49).build();
+        BinaryCodec.encodeTrade(buffer, trade);
+        assertFrame(buffer, BinaryCodec.TRADE_LENGTH, "trade.schema.json",
+                Map.of("side", "S", "execId", "EX0000000001", "execQty", 50, "execPrice", 10.49));
+
+        buffer.clear();
+        BinaryCodec.encodeCancelAck(buffer, cancel, order, 60);
+        assertFrame(buffer, BinaryCodec.CANCEL_ACK_LENGTH, "ipc/cancel_ack.schema.json",
+                Map.of("origClOrderId", "CL12345678901234", "qty", 100, "cumQty", 40, "canceledQty", 60));
+
+        buffer.clear();
+        BinaryCodec.encodeCancelReject(buffer, cancel, ErrorCodeEnum.CANCEL_ORDER_NOT_FOUND.getCode(),
+                ErrorCodeEnum.CANCEL_ORDER_NOT_FOUND.getMsg());
+        assertFrame(buffer, BinaryCodec.CANCEL_REJECT_LENGTH, "ipc/cancel_reject.schema.json",
+                Map.of("rejectCode", 4001, "rejectText", ErrorCodeEnum.CANCEL_ORDER_NOT_FOUND.getMsg()));
+    }
+
+    @Test
+    public void testRejectTextTruncatedOnCharacterBoundary() {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryCodec.MAX_FRAME_LENGTH);
+        String text = "对敲".repeat(20);
+        BinaryCodec.encodeReject(buffer, order, 2001, text);
+        // 64字节只能容纳21个三字节汉字
+        Assertions.assertEquals(text.substring(0, 21), BinaryCodec.toJson(buffer, 0).get("rejectText").getAsString());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BinaryCodec.encodeOrder(ByteBuffer.allocate(BinaryCodec.ORDER_LENGTH),
+                        order.toBuilder().clOrderId("CL1234567890123456").build()));
+    }
+
+    private void assertFrame(ByteBuffer buffer, int length, String schemaFile, Map<String, Object> expected)
+            throws IOException {
+        Assertions.assertEquals(length, buffer.position());
+        Assertions.assertEquals(length, BinaryCodec.frameLength(buffer, 0));
+        Assertions.assertEquals(length,
+                BinaryCodec.expectedLength(BinaryCodec.frameType(buffer, 0), BinaryCodec.frameVersion(buffer, 0)));
+        JsonObject json = BinaryCodec.toJson(buffer, 0);
+        assertMatchesSchema(schemaFile, json);
+        expected.forEach((field, value) -> {
+            JsonElement actual = json.get(field);
+            if (value instanceof Number) {
+                Assertions.assertEquals(((Number) value).doubleValue(), actual.getAsDouble(), field);
+            } else {
+                Assertions.assertEquals(value, actual.getAsString(), field);
+            }
+        });
+    }
+
+    /**
+     * 按Schema校验：必填字段齐全，无Schema外字段，类型/maxLength/enum满足
+     */
+    private static void assertMatchesSchema(String schemaFile, JsonObject json) throws IOException {
+        JsonObject schema = schema(schemaFile);
+        JsonObject properties = schema.getAsJsonObject("properties");
+        for (JsonElement required : schema.getAsJsonArray("required")) {
+            Assertions.assertTrue(json.has(required.getAsString()) && !json.get(required.getAsString()).isJsonNull(),
+                    schemaFile + " 缺少 " + required.getAsString());
+        }
+        for (String field : json.keySet()) {
+            JsonObject property = properties.getAsJsonObject(field);
+            Assertions.assertNotNull(property, schemaFile + " 无字段 " + field);
+            JsonElement value = json.get(field);
+            String type = property.get("type").getAsString();
+            if ("string".equals(type)) {
+                String text = value.getAsString();
+                if (property.has("maxLength")) {
+                    Assertions.assertTrue(text.length() <= property.get("maxLength").getAsInt(), field);
+                }
+                if (property.has("enum")) {
+                    Assertions.assertTrue(property.getAsJsonArray("enum").contains(value), field + "=" + text);
+                }
+            } else if ("integer".equals(type)) {
+                Assertions.assertEquals(value.getAsDouble(), Math.rint(value.getAsDouble()), field);
+            } else {
+                Assertions.assertEquals("number", type);
+                Assertions.assertTrue(value.getAsJsonPrimitive().isNumber(), field);
+            }
+        }
+    }
+
+    private static JsonObject schema(String file) throws IOException {
+        return JsonParser.parseString(Files.readString(PROTOCOL.resolve(file))).getAsJsonObject();
+    }
+
+    private static int maxLength(JsonObject properties, String field) {
+        return properties.getAsJsonObject(field).get("maxLength").getAsInt();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.trading.gateway;
+
+import com.example.trading.application.ExchangeFixture;
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.GatewayConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BinaryGatewayTest {
+    private ExchangeFixture fixture;
+    private BinaryGateway gateway;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        fixture = ExchangeFixture.builder().build();
+        GatewayConfig gatewayConfig = new GatewayConfig();
+        gatewayConfig.setEnable(true);
+        gatewayConfig.setPort(0);
+        gateway = new BinaryGateway(gatewayConfig, fixture.getExchangeService(), fixture.getCancelService());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        gateway.shutdown();
+        fixture.shutdown();
+    }
+
+    @Test
+    public void testPipelinedOrdersAndCancelsOverTcp() throws IOException {
+        try (SocketChannel client = SocketChannel.open(new InetSocketAddress("127.0.0.1", gateway.getPort()))) {
+            // 一次写出多帧（流水线），其中一帧拆成两次写出验证半包处理
+            ByteBuffer out = ByteBuffer.allocate(1024);
+            BinaryCodec.encodeOrder(out, order("S1", "SH00000001", SideEnum.SELL, 300, 10.5));
+            BinaryCodec.encodeOrder(out, order("B1", "SH00000002", SideEnum.BUY, 100, 10.5));
+            BinaryCodec.encodeOrder(out, order("B2", "SH00000002", SideEnum.BUY, 100, 10.5).toBuilder()
+                    .market("XXXX").build());
+            BinaryCodec.encodeCancel(out, cancel("C1", "S1", "SH00000001", SideEnum.SELL));
+            BinaryCodec.encodeCancel(out, cancel("C2", "S9", "SH00000001", SideEnum.SELL));
+            out.flip();
+            ByteBuffer head = out.duplicate();
+            head.limit(10);
+            out.position(10);
+            client.write(head);
+            client.write(out);
+
+            // S1确认，B1确认+本方成交，B2拒绝，C1撤单确认（剩余200），C2撤单拒绝
+            Map<String, List<JsonObject>> frames = readFrames(client, 6);
+            Assertions.assertEquals(300, frames.get("ACK").get(0).get("qty").getAsInt());
+            Assertions.assertEquals("B1", frames.get("ACK").get(1).get("clOrderId").getAsString());
+            JsonObject trade = frames.get("TRADE").get(0);
+            Assertions.assertEquals("B1", trade.get("clOrderId").getAsString());
+            Assertions.assertEquals(100, trade.get("execQty").getAsInt());
+            Assertions.assertEquals(10.5, trade.get("execPrice").getAsDouble());
+            Assertions.assertEquals(ErrorCodeEnum.MARKET_INVALID.getCode(),
+                    frames.get("REJECT").get(0).get("rejectCode").getAsInt());
+            JsonObject cancelAck = frames.get("CANCEL_ACK").get(0);
+            Assertions.assertEquals(100, cancelAck.get("cumQty").getAsInt());
+            Assertions.assertEquals(200, cancelAck.get("canceledQty").getAsInt());
+            Assertions.assertEquals("C2", frames.get("CANCEL_REJECT").get(0).get("clOrderId").getAsString());
+        }
+    }
+
+    @Test
+    public void testReadingPausesAtInFlightLimitAndResumes() throws IOException {
+        gateway.shutdown();
+        GatewayConfig gatewayConfig = new GatewayConfig();
+        gatewayConfig.setEnable(true);
+        gatewayConfig.setPort(0);
+        gatewayConfig.setMaxInFlight(2);
+        gateway = new BinaryGateway(gatewayConfig, fixture.getExchangeService(), fixture.getCancelService());
+
+        try (SocketChannel client = SocketChannel.open(new InetSocketAddress("127.0.0.1", gateway.getPort()))) {
+            // 一次写出远多于上限的委托：网关每次只投递2笔，回报写出后继续处理缓冲区中已读入的帧
+            ByteBuffer out = ByteBuffer.allocate(BinaryCodec.ORDER_LENGTH * 20);
+            for (int i = 0; i < 20; i++) {
+                BinaryCodec.encodeOrder(out, order("B" + i, "SH00000001", SideEnum.BUY, 100, 10.00 + i * 0.01));
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                client.write(out);
+            }
+
+            List<JsonObject> acks = readFrames(client, 20).get("ACK");
+            Assertions.assertEquals(20, acks.size());
+            Assertions.assertEquals("B19", acks.get(19).get("clOrderId").getAsString());
+        }
+    }
+
+    /**
+     * 阻塞读取指定帧数，按消息类型分组
+     */
+    private static Map<String, List<JsonObject>> readFrames(SocketChannel client, int count) throws IOException {
+        Map<String, List<JsonObject>> frames = new HashMap<>();
+        ByteBuffer in = ByteBuffer.allocate(4096);
+        int received = 0;
+        while (received < count) {
+            Assertions.assertTrue(client.read(in) >= 0, "连接被关闭");
+            in.flip();
+            while (in.remaining() >= BinaryCodec.HEADER_LENGTH
+                    && in.remaining() >= BinaryCodec.frameLength(in, in.position())) {
+                int length = BinaryCodec.frameLength(in, in.position());
+                String type = typeName(BinaryCodec.frameType(in, in.position()));
+                frames.computeIfAbsent(type, key -> new ArrayList<>()).add(BinaryCodec.toJson(in, in.position()));
+                in.position(in.position() + length);
+                received++;
+            }
+            in.compact();
+        }
+        return frames;
+    }
+
+    private static String typeName(byte type) {
+        switch (type) {
+            case BinaryCodec.ACK:
+                return "ACK";
+            case BinaryCodec.REJECT:
+                return "REJECT";
+            case BinaryCodec.TRADE:
+                return "TRADE";
+            case BinaryCodec.CANCEL_ACK:
+                return "CANCEL_ACK";
+            case BinaryCodec.CANCEL_REJECT:
+                return "CANCEL_REJECT";
+            default:
+                throw new AssertionError("意外的消息类型：" + type);
+        }
+    }
+
+    private static Order order(String clOrderId, String shareholderId, SideEnum side, int qty, double price) {
+        return Order.builder().clOrderId(clOrderId).market("XSHG").securityId("600030").side(side).qty(qty)
+                .price(price).shareholderId(shareholderId).build();
+    }
+
+    private static CancelRequest cancel(String clOrderId, String origClOrderId, String shareholderId, SideEnum side) {
+        return CancelRequest.builder().clOrderId(clOrderId).origClOrderId(origClOrderId).market("XSHG")
+                .securityId("600030").shareholderId(shareholderId).side(side).build();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.trading.infrastructure.analysis;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.AnalysisConfig;
+import com.example.trading.config.DataConfig;
+import com.example.trading.domain.model.Bar;
+import com.example.trading.domain.model.Trade;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TradeAnalysisServiceTest {
+    /**
+     * 当地时间某日10:00:00.000
+     */
+    private static final long BASE = LocalDate.of(2026, 3, 2).atTime(10, 0).atZone(ZoneId.systemDefault())
+            .toInstant().toEpochMilli();
+
+    @TempDir
+    Path tempDir;
+
+    private TradeAnalysisService analysisService;
+    private long execNo;
+
+    @BeforeEach
+    public void setUp() {
+        AnalysisConfig analysisConfig = new AnalysisConfig();
+        analysisConfig.setBarHistory(4);
+        analysisConfig.setFlushBlockSize(3);
+        analysisConfig.setFlushIntervalMillis(60_000);
+        DataConfig dataConfig = new DataConfig();
+        dataConfig.setOutputPath(tempDir.toString());
+        analysisService = new TradeAnalysisService(analysisConfig, dataConfig);
+    }
+
+    @Test
+    public void testBarsShareholderVolumeAndSizeHistogram() throws Exception {
+        List<Trade> trades = new ArrayList<>();
+        execute(trades, "600030", BASE + 100, 10.00, 100);
+        execute(trades, "600030", BASE + 200, 10.20, 300);
+        execute(trades, "600030", BASE + 900, 9.90, 1000);
+        execute(trades, "600030", BASE + 1_500, 10.10, 1);
+        analysisService.onTrades(trades);
+
+        List<Bar> seconds = analysisService.getBars("600030", Duration.ofSeconds(1), 10);
+        Assertions.assertEquals(2, seconds.size());
+        Bar first = seconds.get(0);
+        Assertions.assertEquals(BASE, first.getStartTime());
+        Assertions.assertEquals(10.00, first.getOpen());
+        Assertions.assertEquals(10.20, first.getHigh());
+        Assertions.assertEquals(9.90, first.getLow());
+        Assertions.assertEquals(9.90, first.getClose());
+        Assertions.assertEquals(1400L, first.getVolume());
+        Assertions.assertEquals(10.00 * 100 + 10.20 * 300 + 9.90 * 1000, first.getTurnover(), 1e-9);
+        Assertions.assertEquals(3, first.getTradeCount());
+        Assertions.assertTrue(first.getClosed());
+        Assertions.assertFalse(seconds.get(1).getClosed());
+        Assertions.assertEquals(BASE + 1_000, seconds.get(1).getStartTime());
+
+        Bar minute = analysisService.getLatestBar("600030", Duration.ofMinutes(1));
+        Assertions.assertEquals(1401L, minute.getVolume());
+        Assertions.assertEquals(4, minute.getTradeCount());
+        Assertions.assertEquals(10.10, minute.getClose());
+
+        // 买卖双方各一条回报，只计一次；股东按各自方向累计
+        TradeAnalysisService.ShareholderVolume buyer = analysisService.getShareholderVolume("BUYER");
+        Assertions.assertEquals(1401L, buyer.getBuyQty());
+        Assertions.assertEquals(0L, buyer.getSellQty());
+        Assertions.assertEquals(1401L, analysisService.getShareholderVolume("SELLER").getSellQty());
+
+        long[] histogram = analysisService.getTradeSizeHistogram("600030");
+        Assertions.assertEquals(1L, histogram[0]); // 1
+        Assertions.assertEquals(1L, histogram[6]); // 100
+        Assertions.assertEquals(1L, histogram[8]); // 300
+        Assertions.assertEquals(1L, histogram[9]); // 1000
+        Assertions.assertNull(analysisService.getLatestBar("000001", Duration.ofSeconds(1)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> analysisService.getLatestBar("600030", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    public void testRingKeepsRecentBarsAndClosedBarsAreFlushedAsColumns() throws Exception {
+        List<Trade> trades = new ArrayList<>();
+        for (int second = 0; second < 10; second++) {
+            execute(trades, "600030", BASE + second * 1_000L, 10 + second / 100.0, 100 + second);
+            execute(trades, "000001", BASE + second * 1_000L + 1, 20 + second / 100.0, 200);
+        }
+        analysisService.onTrades(trades);
+
+        // 环形缓冲保留当前K线 + bar-history(4)根
+        List<Bar> recent = analysisService.getBars("600030", Duration.ofSeconds(1), 100);
+        Assertions.assertEquals(5, recent.size());
+        Assertions.assertEquals(BASE + 5_000, recent.get(0).getStartTime());
+        Assertions.assertEquals(109L, recent.get(4).getVolume());
+
+        analysisService.shutdown();
+        Path file = BarColumnFile.path(tempDir.resolve("analysis"), 1, LocalDate.of(2026, 3, 2));
+        Assertions.assertTrue(Files.exists(file));
+        List<Bar> flushed = new ArrayList<>();
+        BarColumnFile.scan(file, flushed::add);
+        Assertions.assertEquals(20, flushed.size());
+        List<Bar> flushed600030 = flushed.stream().filter(bar -> "600030".equals(bar.getSecurityId())).toList();
+        Assertions.assertEquals(10, flushed600030.size());
+        for (int second = 0; second < 10; second++) {
+            Bar bar = flushed600030.get(second);
+            Assertions.assertEquals(BASE + second * 1_000L, bar.getStartTime());
+            Assertions.assertEquals(10 + second / 100.0, bar.getClose());
+            Assertions.assertEquals(100L + second, bar.getVolume());
+            Assertions.assertEquals(1, bar.getTradeCount());
+            Assertions.assertEquals(1L, bar.getPeriodSeconds());
+        }
+    }
+
+    @Test
+    public void testConcurrentReadersSeeConsistentBars() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong inconsistent = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                Bar bar = analysisService.getLatestBar("600030", Duration.ofMinutes(5));
+                // 每笔成交数量100、价格10.00：成交量、成交额、笔数必须同步变化
+                if (bar != null && (bar.getVolume() != bar.getTradeCount() * 100L
+                        || Math.abs(bar.getTurnover() - bar.getVolume() * 10.00) > 1e-6)) {
+                    inconsistent.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int round = 0; round < 2000; round++) {
+            List<Trade> trades = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                execute(trades, "600030", BASE + round, 10.00, 100);
+            }
+            analysisService.onTrades(trades);
+        }
+        running.set(false);
+        reader.join();
+        Assertions.assertEquals(0L, inconsistent.get());
+        Assertions.assertEquals(20000, analysisService.getLatestBar("600030", Duration.ofMinutes(5)).getTradeCount());
+    }
+
+    /**
+     * 一笔成交的买卖双方回报
+     */
+    private void execute(List<Trade> trades, String securityId, long timestamp, double price, int qty) {
+        String execId = String.format("%012d", ++execNo);
+        trades.add(trade(securityId, SideEnum.BUY, "BUYER", execId, timestamp, price, qty));
+        trades.add(trade(securityId, SideEnum.SELL, "SELLER", execId, timestamp, price, qty));
+    }
+
+    private static Trade trade(String securityId, SideEnum side, String shareholderId, String execId,
+                               long timestamp, double price, int qty) {
+        return Trade.builder().clOrderId(side + execId).market("XSHG").securityId(securityId).side(side)
+                .qty(qty).price(price).shareholderId(shareholderId).execId(execId).execQty(qty)
+                .execPrice(price).timestamp(timestamp).build();
+    }
+}
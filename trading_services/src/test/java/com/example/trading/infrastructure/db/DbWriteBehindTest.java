@@ -0,0 +1,160 @@
+package com.example.trading.infrastructure.db;
+
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.DbConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.repository.ExecutionRepository;
+import com.example.trading.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DbWriteBehindTest {
+    private final OrderRepository orderRepository = new OrderRepository();
+    private final ExecutionRepository executionRepository = new ExecutionRepository();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DbConfig dbConfig;
+    private JdbcDataSource dataSource;
+    private DbWriteBehind writeBehind;
+
+    @BeforeEach
+    public void setUp() {
+        dbConfig = new DbConfig();
+        dbConfig.setEnable(true);
+        dbConfig.setBatchSize(64);
+        dbConfig.setLingerMillis(5);
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    public void testOrderLifecycleWrittenInBatches() throws Exception {
+        writeBehind = new DbWriteBehind(dbConfig, dataSource, orderRepository, executionRepository, meterRegistry);
+        writeBehind.onOrderAccepted(order("B1", SideEnum.BUY, 1000));
+        writeBehind.onOrderAccepted(order("S1", SideEnum.SELL, 300));
+        writeBehind.onTrades(List.of(
+                trade("E1", "B1", SideEnum.BUY, 300), trade("E1", "S1", SideEnum.SELL, 300)));
+        writeBehind.onOrderAccepted(order("S2", SideEnum.SELL, 200));
+        writeBehind.onTrades(List.of(
+                trade("E2", "B1", SideEnum.BUY, 200), trade("E2", "S2", SideEnum.SELL, 200)));
+        writeBehind.onOrderCancelled(CancelRequest.builder().clOrderId("C1").origClOrderId("B1").build(), 2_000L);
+        writeBehind.onOrderAccepted(order("B2", SideEnum.BUY, 100));
+        awaitWritten(9);
+
+        try (Connection connection = dataSource.getConnection()) {
+            Order buy = orderRepository.findByClOrderId(connection, "B1");
+            Assertions.assertEquals(1000, buy.getQty());
+            Assertions.assertEquals(500, buy.getCumQty());
+            Assertions.assertEquals(OrderStatusEnum.CANCELLED, buy.getStatus());
+            Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, orderRepository.findByClOrderId(connection, "S1").getStatus());
+            Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, orderRepository.findByClOrderId(connection, "S2").getStatus());
+            Assertions.assertEquals(OrderStatusEnum.MATCHING, orderRepository.findByClOrderId(connection, "B2").getStatus());
+            List<Trade> trades = executionRepository.findByClOrderId(connection, "B1");
+            Assertions.assertEquals(List.of("E1", "E2"), trades.stream().map(Trade::getExecId).toList());
+            Assertions.assertEquals(200, trades.get(1).getExecQty());
+        }
+    }
+
+    @Test
+    public void testReappliedBatchIsSkipped() throws Exception {
+        writeBehind = new DbWriteBehind(dbConfig, dataSource, orderRepository, executionRepository, meterRegistry);
+        List<Object> first = List.of(order("B1", SideEnum.BUY, 1000));
+        List<Object> second = List.of(trade("E1", "B1", SideEnum.BUY, 400));
+        Assertions.assertTrue(writeBehind.applyBatch(first, 1));
+        Assertions.assertTrue(writeBehind.applyBatch(second, 2));
+        // 提交结果不确定时按同一序号重试：不重复累加
+        Assertions.assertFalse(writeBehind.applyBatch(second, 2));
+
+        try (Connection connection = dataSource.getConnection()) {
+            Order buy = orderRepository.findByClOrderId(connection, "B1");
+            Assertions.assertEquals(400, buy.getCumQty());
+            Assertions.assertEquals(OrderStatusEnum.PART_FILLED, buy.getStatus());
+        }
+        // 重启后从已生效的序号接续
+        writeBehind.shutdown();
+        writeBehind = new DbWriteBehind(dbConfig, dataSource, orderRepository, executionRepository, meterRegistry);
+        Assertions.assertFalse(writeBehind.applyBatch(second, 2));
+        Assertions.assertTrue(writeBehind.applyBatch(List.of(trade("E2", "B1", SideEnum.BUY, 600)), 3));
+        try (Connection connection = dataSource.getConnection()) {
+            Assertions.assertEquals(OrderStatusEnum.FULL_FILLED, orderRepository.findByClOrderId(connection, "B1").getStatus());
+        }
+    }
+
+    @Test
+    public void testBackpressureBoundsQueueUntilDatabaseRecovers() throws Exception {
+        CountDownLatch databaseAvailable = new CountDownLatch(1);
+        AtomicInteger connections = new AtomicInteger();
+        // 首个连接用于初始化，之后的连接在数据库“恢复”前阻塞
+        DataSource blockingDataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getConnection") && connections.getAndIncrement() > 0) {
+                        databaseAvailable.await();
+                    }
+                    return method.invoke(dataSource, args);
+                });
+        dbConfig.setQueueCapacity(16);
+        dbConfig.setBatchSize(8);
+        writeBehind = new DbWriteBehind(dbConfig, blockingDataSource, orderRepository, executionRepository,
+                meterRegistry);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                writeBehind.onOrderAccepted(order("O" + i, SideEnum.BUY, 100));
+            }
+        });
+        producer.start();
+        producer.join(200);
+        Assertions.assertTrue(producer.isAlive());
+        Assertions.assertTrue(writeBehind.getQueueDepth() <= 16);
+        Assertions.assertTrue(meterRegistry.counter("trading.db.backpressure").count() > 0);
+
+        databaseAvailable.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        awaitWritten(100);
+        try (Connection connection = dataSource.getConnection()) {
+            Assertions.assertNotNull(orderRepository.findByClOrderId(connection, "O99"));
+        }
+    }
+
+    private void awaitWritten(int events) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.counter("trading.db.written").count() < events && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(events, (int) meterRegistry.counter("trading.db.written").count());
+    }
+
+    private static Order order(String clOrderId, SideEnum side, int qty) {
+        return Order.builder().clOrderId(clOrderId).shareholderId("SH0001").market("XSHG").securityId("600030")
+                .side(side).qty(qty).price(10.0).timestamp(1_000L).build();
+    }
+
+    private static Trade trade(String execId, String clOrderId, SideEnum side, int execQty) {
+        return Trade.builder().execId(execId).clOrderId(clOrderId).shareholderId("SH0001").market("XSHG")
+                .securityId("600030").side(side).qty(1000).price(10.0).execQty(execQty).execPrice(10.0)
+                .timestamp(1_500L).build();
+    }
+}
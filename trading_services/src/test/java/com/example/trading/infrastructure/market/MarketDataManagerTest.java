@@ -0,0 +1,217 @@
+package com.example.trading.infrastructure.market;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.MarketConfig;
+import com.example.trading.config.MatchingConfig;
+import com.example.trading.domain.engine.CallAuction;
+import com.example.trading.domain.engine.EngineFixtures;
+import com.example.trading.domain.engine.MatchingEngine;
+import com.example.trading.domain.engine.MatchingEngineBuilder;
+import com.example.trading.domain.engine.OrderBook;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.engine.PriceStrategy;
+import com.example.trading.domain.engine.ShardedMatchingExecutor;
+import com.example.trading.domain.engine.SkipListOrderBook;
+import com.example.trading.domain.engine.TickLadderOrderBook;
+import com.example.trading.domain.model.MarketData;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.IdGenerator;
+import io.micrometer.core.instrument.search.RequiredSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class MarketDataManagerTest {
+    private static final String SECURITY_ID = "600030";
+
+    private ShardedMatchingExecutor matchingExecutor;
+    private MarketDataManager marketDataManager;
+    private OrderBook orderBook;
+    private MatchingEngine matchingEngine;
+    private final List<List<MarketData>> published = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void tearDown() {
+        if (matchingExecutor != null) {
+            matchingExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testTopOfBookLastTradeAndVwap() {
+        setUp(false, 5);
+        onShard(() -> {
+            matchingEngine.match(order("S1", SideEnum.SELL, 100, 10.50));
+            matchingEngine.match(order("S2", SideEnum.SELL, 200, 10.50));
+            matchingEngine.match(order("S3", SideEnum.SELL, 300, 10.60));
+            matchingEngine.match(order("B1", SideEnum.BUY, 400, 10.40));
+            // 吃掉10.50全部300股和10.60的50股
+            matchingEngine.match(order("B2", SideEnum.BUY, 350, 10.60));
+        });
+        marketDataManager.publish();
+
+        MarketData marketData = marketDataManager.getMarketData(SECURITY_ID);
+        Assertions.assertEquals("XSHG", marketData.getMarket());
+        Assertions.assertEquals(10.40, marketData.getBidPrice());
+        Assertions.assertEquals(400L, marketData.getBidQty());
+        Assertions.assertEquals(10.60, marketData.getAskPrice());
+        Assertions.assertEquals(250L, marketData.getAskQty());
+        Assertions.assertEquals(1, marketData.getAsks().size());
+        Assertions.assertEquals(10.60, marketData.getLastPrice());
+        Assertions.assertEquals(50, marketData.getLastQty());
+        Assertions.assertEquals(350L, marketData.getVolume());
+        Assertions.assertEquals(10.50 * 300 + 10.60 * 50, marketData.getTurnover(), 1e-9);
+        Assertions.assertEquals(marketData.getTurnover() / 350, marketData.getVwap(), 1e-12);
+
+        // 撤单后档位消失
+        onShard(() -> orderBook.removeOrder(orderBook.findOrder(SECURITY_ID, "B1")));
+        marketDataManager.publish();
+        Assertions.assertNull(marketDataManager.getMarketData(SECURITY_ID).getBidPrice());
+        Assertions.assertTrue(marketDataManager.getMarketData(SECURITY_ID).getBids().isEmpty());
+    }
+
+    @Test
+    public void testBookDepthGauges() {
+        setUp(true, 1);
+        onShard(() -> {
+            matchingEngine.match(order("S1", SideEnum.SELL, 100, 10.50));
+            matchingEngine.match(order("S2", SideEnum.SELL, 100, 10.60));
+            matchingEngine.match(order("S3", SideEnum.SELL, 100, 10.60));
+            matchingEngine.match(order("B1", SideEnum.BUY, 100, 10.40));
+        });
+        marketDataManager.publish();
+        Assertions.assertEquals(1, gauge("trading.book.levels", "BUY"));
+        Assertions.assertEquals(2, gauge("trading.book.levels", "SELL"));
+        Assertions.assertEquals(4, gauge("trading.book.resting.orders", null));
+
+        // 吃掉10.50整档，档位数/挂单数随下一次发布更新
+        onShard(() -> matchingEngine.match(order("B2", SideEnum.BUY, 100, 10.50)));
+        marketDataManager.publish();
+        Assertions.assertEquals(1, gauge("trading.book.levels", "SELL"));
+        Assertions.assertEquals(3, gauge("trading.book.resting.orders", null));
+    }
+
+    @Test
+    public void testUpdatesWithinIntervalAreConflated() {
+        setUp(false, 5);
+        onShard(() -> {
+            for (int i = 0; i < 1000; i++) {
+                matchingEngine.match(order("B" + i, SideEnum.BUY, 100, (1000 + i % 10) / 100.0));
+            }
+        });
+        marketDataManager.publish();
+        marketDataManager.publish();
+
+        Assertions.assertEquals(1, published.size());
+        MarketData marketData = published.get(0).get(0);
+        Assertions.assertEquals(1000L, marketData.getSequence());
+        Assertions.assertEquals(5, marketData.getBids().size());
+        Assertions.assertEquals(10.09, marketData.getBidPrice());
+        Assertions.assertEquals(10000L, marketData.getBidQty());
+        Assertions.assertEquals(100, marketData.getBids().get(0).getOrderCount());
+    }
+
+    @Test
+    public void testDepthMatchesOrderBookRescanForBothImplementations() {
+        for (boolean tickLadder : new boolean[]{false, true}) {
+            setUp(tickLadder, 1000);
+            Random random = new Random(42);
+            List<String> placed = new ArrayList<>();
+            for (int round = 0; round < 20; round++) {
+                onShard(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        if (!placed.isEmpty() && random.nextInt(4) == 0) {
+                            String clOrderId = placed.remove(random.nextInt(placed.size()));
+                            Order resting = orderBook.findOrder(SECURITY_ID, clOrderId);
+                            if (resting != null) {
+                                orderBook.removeOrder(resting);
+                            }
+                            continue;
+                        }
+                        String clOrderId = "O" + placed.size() + "_" + random.nextInt(1_000_000);
+                        SideEnum side = random.nextBoolean() ? SideEnum.BUY : SideEnum.SELL;
+                        double price = (1000 + random.nextInt(40)) / 100.0;
+                        matchingEngine.match(order(clOrderId, side, 100 * (1 + random.nextInt(5)), price));
+                        placed.add(clOrderId);
+                    }
+                });
+                marketDataManager.publish();
+                MarketData marketData = marketDataManager.getMarketData(SECURITY_ID);
+                Assertions.assertEquals(rescan(SideEnum.BUY), levels(marketData.getBids()), "bids, tickLadder=" + tickLadder);
+                Assertions.assertEquals(rescan(SideEnum.SELL), levels(marketData.getAsks()), "asks, tickLadder=" + tickLadder);
+            }
+            matchingExecutor.shutdown();
+        }
+    }
+
+    private void setUp(boolean tickLadder, int depthLevels) {
+        MatchingConfig matchingConfig = new MatchingConfig();
+        matchingConfig.setShardCount(2);
+        IdGenerator idGenerator = new IdGenerator();
+        matchingExecutor = new ShardedMatchingExecutor(matchingConfig, idGenerator);
+        MarketConfig marketConfig = new MarketConfig();
+        marketConfig.setDepthLevels(depthLevels);
+        marketDataManager = new MarketDataManager(marketConfig, matchingExecutor,
+                new StaticListableBeanFactory().getBeanProvider(MarketDataSubscriber.class), meterRegistry);
+        // 不启动定时发布线程，由测试直接调用publish()
+        ReflectionTestUtils.setField(marketDataManager, "subscribers", List.of((MarketDataSubscriber) published::add));
+        orderBook = tickLadder ? new TickLadderOrderBook(marketDataManager, new CallAuction())
+                : new SkipListOrderBook(marketDataManager, new CallAuction());
+        PriceGenerator priceGenerator = EngineFixtures.priceGenerator(PriceStrategy.SELL_PRICE);
+        matchingEngine = MatchingEngineBuilder.of(orderBook)
+                .priceGenerator(priceGenerator)
+                .idGenerator(idGenerator)
+                .marketDataListener(marketDataManager)
+                .build();
+        published.clear();
+    }
+
+    private double gauge(String name, String side) {
+        RequiredSearch search = meterRegistry.get(name).tag("securityId", SECURITY_ID);
+        return (side == null ? search : search.tag("side", side)).gauge().value();
+    }
+
+    private void onShard(Runnable task) {
+        matchingExecutor.submit(SECURITY_ID, () -> {
+            task.run();
+            return null;
+        }).join();
+    }
+
+    /**
+     * 回扫订单簿得到的档位汇总：价格 → [总量, 订单数]
+     */
+    private Map<Double, List<Long>> rescan(SideEnum side) {
+        return matchingExecutor.submit(SECURITY_ID, () -> {
+            Map<Double, List<Long>> levels = new TreeMap<>();
+            orderBook.forEachOrder(SECURITY_ID, side, order -> levels.merge(order.getPrice(),
+                    List.of((long) order.getQty(), 1L),
+                    (a, b) -> List.of(a.get(0) + b.get(0), a.get(1) + b.get(1))));
+            return levels;
+        }).join();
+    }
+
+    private static Map<Double, List<Long>> levels(List<MarketData.PriceLevel> priceLevels) {
+        Map<Double, List<Long>> levels = new TreeMap<>();
+        for (MarketData.PriceLevel level : priceLevels) {
+            levels.put(level.getPrice(), List.of(level.getQty(), (long) level.getOrderCount()));
+        }
+        return levels;
+    }
+
+    private static Order order(String clOrderId, SideEnum side, int qty, double price) {
+        return Order.builder().clOrderId(clOrderId).shareholderId("SH" + clOrderId).market("XSHG")
+                .securityId(SECURITY_ID).side(side).qty(qty).price(price).timestamp(System.nanoTime()).build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.trading.infrastructure.market;
+
+import com.example.trading.config.MarketConfig;
+import com.example.trading.domain.model.MarketData;
+import com.example.trading.util.JsonUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+public class MarketDataStreamServiceTest {
+    private ExecutorService senderExecutor;
+    private MarketDataStreamService streamService;
+
+    @BeforeEach
+    public void setUp() {
+        MarketConfig marketConfig = new MarketConfig();
+        marketConfig.setDepthLevels(5);
+        senderExecutor = Executors.newFixedThreadPool(2);
+        streamService = new MarketDataStreamService(marketConfig, new SimpleMeterRegistry(), senderExecutor);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        senderExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testSlowSubscriberOnlyGetsLatestStateAndDoesNotStallOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<MarketData> slowReceived = new CopyOnWriteArrayList<>();
+        List<MarketData> fastReceived = new CopyOnWriteArrayList<>();
+        MarketDataStreamService.Subscription slow = streamService.subscribe(Set.of(), 5, json -> {
+            awaitQuietly(release);
+            slowReceived.add(JsonUtils.fromJson(json, MarketData.class));
+        });
+        streamService.subscribe(Set.of("600030"), 5, json -> fastReceived.add(JsonUtils.fromJson(json, MarketData.class)));
+
+        for (long sequence = 1; sequence <= 1000; sequence++) {
+            streamService.onMarketData(List.of(snapshot("600030", sequence, 1), snapshot("600031", sequence, 1),
+                    snapshot("000001", sequence, 1)));
+            Assertions.assertTrue(slow.pendingCount() <= 3, "pending=" + slow.pendingCount());
+        }
+        // 慢订阅方阻塞期间快订阅方照常收到最新行情
+        awaitTrue(() -> !fastReceived.isEmpty() && fastReceived.get(fastReceived.size() - 1).getSequence() == 1000);
+        Assertions.assertTrue(fastReceived.stream().allMatch(data -> "600030".equals(data.getSecurityId())));
+
+        release.countDown();
+        awaitTrue(() -> slow.pendingCount() == 0 && slowReceived.stream().filter(data -> data.getSequence() == 1000).count() == 3);
+        // 首条发送被阻塞期间的变化全部合并：每个股票最多收到阻塞前一条+最新一条
+        Assertions.assertTrue(slowReceived.size() <= 6, "received=" + slowReceived.size());
+    }
+
+    @Test
+    public void testDepthTruncationAndInitialSnapshot() throws Exception {
+        streamService.onMarketData(List.of(snapshot("600030", 7, 5)));
+        List<MarketData> received = new CopyOnWriteArrayList<>();
+        streamService.subscribe(Set.of("600030", "600031"), 2,
+                json -> received.add(JsonUtils.fromJson(json, MarketData.class)));
+
+        awaitTrue(() -> received.size() == 1);
+        Assertions.assertEquals(7L, received.get(0).getSequence());
+        Assertions.assertEquals(2, received.get(0).getBids().size());
+        Assertions.assertEquals(2, received.get(0).getAsks().size());
+        Assertions.assertEquals(10.00, received.get(0).getBids().get(0).getPrice());
+    }
+
+    @Test
+    public void testFailedSinkIsUnsubscribed() throws Exception {
+        streamService.subscribe(Set.of("600030"), 5, json -> {
+            throw new IOException("连接已断开");
+        });
+        Assertions.assertEquals(1, streamService.getSubscriberCount());
+        streamService.onMarketData(List.of(snapshot("600030", 1, 1)));
+        awaitTrue(() -> streamService.getSubscriberCount() == 0);
+    }
+
+    private static MarketData snapshot(String securityId, long sequence, int levels) {
+        List<MarketData.PriceLevel> bids = new ArrayList<>();
+        List<MarketData.PriceLevel> asks = new ArrayList<>();
+        for (int i = 0; i < levels; i++) {
+            bids.add(new MarketData.PriceLevel((1000 - i) / 100.0, 100L, 1));
+            asks.add(new MarketData.PriceLevel((1001 + i) / 100.0, 100L, 1));
+        }
+        return MarketData.builder().market("XSHG").securityId(securityId).bids(bids).asks(asks)
+                .bidPrice(bids.get(0).getPrice()).askPrice(asks.get(0).getPrice())
+                .volume(0L).turnover(0.0).sequence(sequence).timestamp(System.currentTimeMillis()).build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+}
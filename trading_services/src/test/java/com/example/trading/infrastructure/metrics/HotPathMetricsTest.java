@@ -0,0 +1,111 @@
+package com.example.trading.infrastructure.metrics;
+
+import com.example.trading.application.ExchangeFixture;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.config.MetricsConfig;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class HotPathMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExchangeFixture fixture;
+    private ExchangeService exchangeService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        fixture = ExchangeFixture.builder()
+                .metrics(new HotPathMetrics(new MetricsConfig(), meterRegistry))
+                .build();
+        exchangeService = fixture.getExchangeService();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    public void testStageTimersAndCounters() {
+        exchangeService.processOrder(orderJson("S1", "SH00000001", "SELL", 100));
+        exchangeService.processOrder(orderJson("B1", "SH00000002", "BUY", 60));
+        // 对敲：同一股东的反向挂单
+        exchangeService.processOrder(orderJson("B2", "SH00000001", "BUY", 10));
+        // 数量非法
+        exchangeService.processOrder(orderJson("B3", "SH00000002", "BUY", 0));
+
+        Assertions.assertEquals(4, stage("parse").count());
+        Assertions.assertEquals(4, stage("validate").count());
+        Assertions.assertEquals(3, stage("self-trade-check").count());
+        Assertions.assertEquals(2, stage("match").count());
+        Assertions.assertEquals(4, stage("serialize").count());
+        Assertions.assertTrue(stage("match").totalTime(TimeUnit.NANOSECONDS) > 0);
+        double p99 = meterRegistry.get("trading.order.stage.percentile").tag("stage", "match").tag("phi", "0.99")
+                .gauge().value();
+        Assertions.assertTrue(p99 > 0);
+        Assertions.assertTrue(meterRegistry.get("trading.order.stage.max").tag("stage", "match").gauge().value() >= p99);
+
+        Assertions.assertEquals(4, meterRegistry.get("trading.orders").counter().count());
+        Assertions.assertEquals(1, meterRegistry.get("trading.fills").counter().count());
+        Assertions.assertEquals(1, rejects(ErrorCodeEnum.SELF_TRADE));
+        Assertions.assertEquals(1, rejects(ErrorCodeEnum.QTY_INVALID));
+        Assertions.assertEquals(0, rejects(ErrorCodeEnum.PRICE_INVALID));
+    }
+
+    @Test
+    public void testHistogramQuantilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram(TimeUnit.MINUTES.toNanos(1));
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        Assertions.assertEquals(100_000, histogram.count());
+        Assertions.assertEquals(100_000L * 100_001 / 2, histogram.totalNanos());
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long expected = (long) (quantile * 100_000);
+            long actual = histogram.valueAtQuantile(quantile);
+            // 按桶上界报告：不低于真实值，相对误差不超过1/32
+            Assertions.assertTrue(actual >= expected && actual <= expected * 33 / 32, quantile + " -> " + actual);
+        }
+        Assertions.assertTrue(histogram.max() >= 100_000 && histogram.max() <= 100_000 * 33 / 32);
+
+        // 64纳秒以下精确到纳秒
+        LatencyHistogram small = new LatencyHistogram(TimeUnit.MINUTES.toNanos(1));
+        small.record(7);
+        small.record(7);
+        small.record(63);
+        Assertions.assertEquals(7, small.valueAtQuantile(0.5));
+        Assertions.assertEquals(63, small.max());
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        MetricsConfig metricsConfig = new MetricsConfig();
+        metricsConfig.setEnable(false);
+        HotPathMetrics metrics = new HotPathMetrics(metricsConfig, meterRegistry);
+        metrics.record(HotPathMetrics.Stage.MATCH, metrics.start());
+        metrics.orderReceived();
+        metrics.rejected(ErrorCodeEnum.SELF_TRADE);
+        Assertions.assertEquals(0, stage("match").count());
+        Assertions.assertEquals(0, meterRegistry.get("trading.orders").counter().count());
+        Assertions.assertEquals(0, rejects(ErrorCodeEnum.SELF_TRADE));
+    }
+
+    private FunctionTimer stage(String stage) {
+        return meterRegistry.get("trading.order.stage").tag("stage", stage).functionTimer();
+    }
+
+    private double rejects(ErrorCodeEnum code) {
+        return meterRegistry.get("trading.rejects").tag("code", code.name()).counter().count();
+    }
+
+    private static String orderJson(String clOrderId, String shareholderId, String side, int qty) {
+        return "{\"clOrderId\":\"" + clOrderId + "\",\"market\":\"XSHG\",\"securityId\":\"600030\",\"side\":\""
+                + side + "\",\"qty\":" + qty + ",\"price\":10.0,\"shareholderId\":\"" + shareholderId + "\"}";
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReplayAcrossSegmentsAndRestart() throws IOException {
+        Journal journal = new Journal(tempDir, "shard-0", SEGMENT_SIZE, 16);
+        for (int i = 0; i < 100; i++) {
+            appendOrder(journal, i);
+        }
+        journal.close();
+        Assertions.assertTrue(Files.exists(tempDir.resolve("shard-0-00000001.journal")), "应已切换到第二段");
+
+        // 重新打开后从末尾续写，序号连续
+        Journal reopened = new Journal(tempDir, "shard-0", SEGMENT_SIZE, 16);
+        Assertions.assertEquals(100, reopened.getNextSequence());
+        ByteBuffer buffer = reopened.claim();
+        RecordCodec.putString(buffer, "EXEC00000001");
+        RecordCodec.putString(buffer, "CL0000000000100");
+        RecordCodec.putString(buffer, "SH00000001");
+        RecordCodec.putString(buffer, "XSHG");
+        RecordCodec.putString(buffer, "600030");
+        RecordCodec.putSide(buffer, SideEnum.SELL);
+        // 市价单成交：委托价为空（NaN）
+        buffer.putInt(100).putDouble(Double.NaN).putInt(100).putDouble(10.5);
+        Assertions.assertEquals(100, reopened.commit(Journal.TYPE_EXECUTION, 7L));
+        reopened.close();
+
+        List<Order> orders = new ArrayList<>();
+        List<Trade> trades = new ArrayList<>();
+        Journal.replay(tempDir, "shard-0", 0, (type, sequence, timestamp, payload) -> {
+            if (type == Journal.TYPE_ORDER) {
+                Assertions.assertEquals(orders.size(), sequence);
+                orders.add(OrderStore.decodeOrder(payload, timestamp));
+            } else {
+                trades.add(TradeStore.decodeTrade(payload, timestamp));
+            }
+        });
+        Assertions.assertEquals(100, orders.size());
+        Assertions.assertEquals("CL" + String.format("%014d", 42), orders.get(42).getClOrderId());
+        Assertions.assertEquals(SideEnum.SELL, orders.get(43).getSide());
+        Assertions.assertEquals(10.5, orders.get(42).getPrice());
+        Assertions.assertEquals(1, trades.size());
+        Assertions.assertEquals("EXEC00000001", trades.get(0).getExecId());
+        Assertions.assertEquals(7L, trades.get(0).getTimestamp());
+        Assertions.assertNull(trades.get(0).getPrice());
+        Assertions.assertEquals(10.5, trades.get(0).getExecPrice());
+    }
+
+    @Test
+    public void testTornTailIsIgnoredAndOverwritten() throws IOException {
+        Journal journal = new Journal(tempDir, "shard-0", SEGMENT_SIZE, 0);
+        for (int i = 0; i < 3; i++) {
+            appendOrder(journal, i);
+        }
+        journal.close();
+
+        // 模拟写入中途崩溃：破坏最后一条记录的负载
+        Path segment = tempDir.resolve("shard-0-00000000.journal");
+        int[] offsets = new int[3];
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            int position = 0;
+            for (int i = 0; i < 3; i++) {
+                offsets[i] = position;
+                length.clear();
+                channel.read(length, position);
+                position += length.flip().getInt();
+            }
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), offsets[2] + Journal.HEADER_LENGTH + 3);
+        }
+
+        Journal reopened = new Journal(tempDir, "shard-0", SEGMENT_SIZE, 0);
+        Assertions.assertEquals(2, reopened.getNextSequence());
+        appendOrder(reopened, 9);
+        reopened.close();
+
+        List<String> clOrderIds = new ArrayList<>();
+        Journal.replay(tempDir, "shard-0", 1, (type, sequence, timestamp, payload) ->
+                clOrderIds.add(OrderStore.decodeOrder(payload, timestamp).getClOrderId()));
+        Assertions.assertEquals(List.of("CL00000000000001", "CL00000000000009"), clOrderIds);
+    }
+
+    private void appendOrder(Journal journal, int i) {
+        ByteBuffer buffer = journal.claim();
+        RecordCodec.putString(buffer, "CL" + String.format("%014d", i));
+        RecordCodec.putString(buffer, "SH00000001");
+        RecordCodec.putString(buffer, "XSHG");
+        RecordCodec.putString(buffer, "600030");
+        RecordCodec.putSide(buffer, i % 2 == 0 ? SideEnum.BUY : SideEnum.SELL);
+        buffer.putInt(100).putInt(0).putDouble(10.5);
+        journal.commit(Journal.TYPE_ORDER, i);
+    }
+}
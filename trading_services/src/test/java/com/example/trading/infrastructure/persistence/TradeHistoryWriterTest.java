@@ -0,0 +1,137 @@
+package com.example.trading.infrastructure.persistence;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.TradeHistoryConfig;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.repository.TradeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TradeHistoryWriterTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+    private static final long BASE = DAY.atTime(9, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @TempDir
+    Path tempDir;
+
+    private DataConfig dataConfig;
+    private TradeHistoryConfig tradeHistoryConfig;
+    private TradeRepository tradeRepository;
+
+    @BeforeEach
+    public void setUp() {
+        dataConfig = new DataConfig();
+        dataConfig.setHistoryPath(tempDir.toString());
+        tradeHistoryConfig = new TradeHistoryConfig();
+        tradeHistoryConfig.setBlockSize(8);
+        tradeHistoryConfig.setFlushIntervalMillis(60_000);
+        tradeRepository = new TradeRepository(tradeHistoryConfig, dataConfig);
+    }
+
+    @Test
+    public void testRangeQueryAcrossBlocksAndRestart() throws Exception {
+        TradeHistoryWriter writer = new TradeHistoryWriter(tradeHistoryConfig, dataConfig);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            trades.add(trade("600030", BASE + i * 10L, i % 2 == 0 ? SideEnum.BUY : SideEnum.SELL, "SH" + (i % 3), i));
+            trades.add(trade("000001", BASE + i * 10L, SideEnum.BUY, "SH9", i));
+        }
+        writer.onTrades(trades);
+        writer.flush();
+        writer.shutdown();
+        // 重启后继续追加，行号与时间索引接续
+        writer = new TradeHistoryWriter(tradeHistoryConfig, dataConfig);
+        writer.onTrades(List.of(trade("600030", BASE + 500, SideEnum.BUY, "SH0", 50)));
+        writer.shutdown();
+
+        Path dayDirectory = TradeColumnFile.dayDirectory(TradeHistoryWriter.tradeRoot(dataConfig), DAY);
+        Assertions.assertEquals(8, TradeColumnFile.readIndex(TradeColumnFile.indexFile(dayDirectory, "600030")).size());
+
+        List<Trade> range = tradeRepository.findBySecurity("600030", BASE + 75, BASE + 235);
+        Assertions.assertEquals(16, range.size());
+        for (int i = 0; i < range.size(); i++) {
+            Trade trade = range.get(i);
+            int n = 8 + i;
+            Assertions.assertEquals(BASE + n * 10L, trade.getTimestamp());
+            Assertions.assertEquals(String.format("%012d", n), trade.getExecId());
+            Assertions.assertEquals(10.00 + n / 100.0, trade.getExecPrice(), 1e-9);
+            Assertions.assertEquals(100 + n, trade.getExecQty());
+            Assertions.assertEquals(n % 2 == 0 ? SideEnum.BUY : SideEnum.SELL, trade.getSide());
+            Assertions.assertEquals("XSHG", trade.getMarket());
+            Assertions.assertEquals("600030", trade.getSecurityId());
+        }
+        Assertions.assertEquals(51, tradeRepository.findBySecurity("600030", BASE, BASE + 1_000).size());
+        Assertions.assertTrue(tradeRepository.findBySecurity("600030", BASE + 501, BASE + 1_000).isEmpty());
+        Assertions.assertTrue(tradeRepository.findBySecurity("600031", BASE, BASE + 1_000).isEmpty());
+    }
+
+    @Test
+    public void testShareholderQueryForDay() throws Exception {
+        TradeHistoryWriter writer = new TradeHistoryWriter(tradeHistoryConfig, dataConfig);
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            trades.add(trade(i % 2 == 0 ? "600030" : "000001", BASE + i, SideEnum.BUY, i % 5 == 0 ? "SH0001" : "SH" + i, i));
+        }
+        // 次日成交不计入
+        trades.add(trade("600030", BASE + 40, SideEnum.SELL, "SH00000001", 98));
+        trades.add(trade("600030", BASE + 86_400_000L, SideEnum.BUY, "SH0001", 99));
+        writer.onTrades(trades);
+        writer.shutdown();
+
+        List<Trade> found = tradeRepository.findByShareholder("SH0001", DAY);
+        Assertions.assertEquals(List.of("000000000000", "000000000005", "000000000010", "000000000015",
+                "000000000020", "000000000025"), found.stream().map(Trade::getExecId).toList());
+        Assertions.assertEquals("000001", found.get(1).getSecurityId());
+        Assertions.assertEquals(1, tradeRepository.findByShareholder("SH0001", DAY.plusDays(1)).size());
+        Assertions.assertTrue(tradeRepository.findByShareholder("SH0002", DAY).isEmpty());
+        // 超出列宽的股东号不按截断后的前缀匹配其他股东
+        Assertions.assertEquals(1, tradeRepository.findByShareholder("SH00000001", DAY).size());
+        Assertions.assertTrue(tradeRepository.findByShareholder("SH000000012", DAY).isEmpty());
+    }
+
+    @Test
+    public void testClockStepBackKeepsPartitionSorted() throws Exception {
+        TradeHistoryWriter writer = new TradeHistoryWriter(tradeHistoryConfig, dataConfig);
+        writer.onTrades(List.of(trade("600030", BASE + 100, SideEnum.BUY, "SH1", 1),
+                trade("600030", BASE + 50, SideEnum.BUY, "SH1", 2),
+                trade("600030", BASE + 200, SideEnum.BUY, "SH1", 3)));
+        writer.shutdown();
+
+        List<Trade> found = tradeRepository.findBySecurity("600030", BASE + 100, BASE + 101);
+        Assertions.assertEquals(List.of("000000000001", "000000000002"), found.stream().map(Trade::getExecId).toList());
+        Assertions.assertTrue(Files.exists(TradeColumnFile.dataFile(
+                TradeColumnFile.dayDirectory(TradeHistoryWriter.tradeRoot(dataConfig), DAY), "600030")));
+    }
+
+    @Test
+    public void testRangeQueryVisitsOnlyExistingPartitions() throws Exception {
+        TradeHistoryWriter writer = new TradeHistoryWriter(tradeHistoryConfig, dataConfig);
+        writer.onTrades(List.of(trade("600030", BASE, SideEnum.BUY, "SH1", 1),
+                trade("600030", BASE + 3 * 86_400_000L, SideEnum.BUY, "SH1", 2)));
+        writer.shutdown();
+
+        // 时间段跨度极大时只遍历实际存在的两个日分区
+        List<Trade> found = tradeRepository.findBySecurity("600030", 0, Long.MAX_VALUE);
+        Assertions.assertEquals(List.of("000000000001", "000000000002"), found.stream().map(Trade::getExecId).toList());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> tradeRepository.findBySecurity("../600030", 0, Long.MAX_VALUE));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> TradeColumnFile.dataFile(TradeHistoryWriter.tradeRoot(dataConfig), "../x"));
+    }
+
+    private static Trade trade(String securityId, long timestamp, SideEnum side, String shareholderId, int n) {
+        return Trade.builder().clOrderId("O" + n).market("XSHG").securityId(securityId).side(side)
+                .qty(1000).price(10.50).shareholderId(shareholderId).execId(String.format("%012d", n))
+                .execQty(100 + n).execPrice(10.00 + n / 100.0).timestamp(timestamp).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.trading.infrastructure.report;
+
+import com.example.trading.config.ReportConfig;
+import com.example.trading.domain.model.Trade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class TradeReportPipelineTest {
+
+    @Test
+    public void testReportsAreBatchedAndDelivered() throws Exception {
+        List<TradeReportBatch> batches = new CopyOnWriteArrayList<>();
+        TradeReportListener listener = batches::add;
+        ReportConfig reportConfig = new ReportConfig();
+        reportConfig.setMaxBatchSize(64);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TradeReportPipeline pipeline = new TradeReportPipeline(reportConfig,
+                new StaticListableBeanFactory(Map.of("listener", listener)).getBeanProvider(TradeReportListener.class),
+                meterRegistry);
+
+        // 回报线程启动前先积压一批，启动后应按上限分批下发
+        for (int i = 0; i < 1000; i++) {
+            pipeline.publish(Trade.builder().execId(String.format("%012d", i)).execQty(1).build());
+        }
+        Assertions.assertEquals(1000, pipeline.getQueueDepth());
+        pipeline.afterSingletonsInstantiated();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.stream().mapToInt(TradeReportBatch::size).sum() < 1000 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        pipeline.shutdown();
+
+        Assertions.assertEquals(1000, batches.stream().mapToInt(TradeReportBatch::size).sum());
+        Assertions.assertTrue(batches.stream().allMatch(batch -> batch.size() <= 64));
+        Assertions.assertEquals("000000000000", batches.get(0).getTrades().get(0).getExecId());
+        Assertions.assertTrue(batches.get(0).toJson().startsWith("[{"));
+        Assertions.assertEquals(1000, meterRegistry.get("trading.report.published").counter().count());
+        Assertions.assertEquals(batches.size(), meterRegistry.get("trading.report.batch.size").summary().count());
+        Assertions.assertEquals(0, pipeline.getQueueDepth());
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.trading.infrastructure.risk;
+
+import com.example.trading.application.ExchangeFixture;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.RiskServiceConfig;
+import com.example.trading.domain.model.Order;
+import com.example.trading.util.JsonUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 以本地替身服务（JDK HttpServer）模拟Python风控服务的批量接口
+ * 替身规则：existingOrders中存在可成交的反向挂单，或股东号在黑名单中时拦截
+ */
+public class RiskServiceClientTest {
+    private static final String BLOCKED_SHAREHOLDER = "SH_BLOCK";
+
+    private HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger checkCount = new AtomicInteger();
+    private final List<RiskCheckRequest> received = new CopyOnWriteArrayList<>();
+    private volatile long delayMillis;
+    private RiskServiceClient client;
+    private ExchangeFixture fixture;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/risk/check/batch", this::handleBatch);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (fixture != null) {
+            fixture.shutdown();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testChecksAreBatchedAndMappedBackInOrder() {
+        client = new RiskServiceClient(config(2_000_000, 5, 1000));
+        List<CompletableFuture<ErrorCodeEnum>> futures = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Order incoming = order("B" + i, "SH" + i, SideEnum.BUY, 10.5);
+            List<Order> existing = i % 3 == 0 ? List.of(order("S" + i, "SH" + i, SideEnum.SELL, 10.4)) : List.of();
+            futures.add(client.check(new RiskCheckRequest(incoming, existing)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Assertions.assertEquals(i % 3 == 0 ? ErrorCodeEnum.SELF_TRADE : null, futures.get(i).join(), "B" + i);
+        }
+        Assertions.assertEquals(300, checkCount.get());
+        Assertions.assertTrue(requestCount.get() < 300, "requests=" + requestCount.get());
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    public void testSlowServiceFallsBackWithinBudgetAndTripsBreaker() throws Exception {
+        delayMillis = 300;
+        client = new RiskServiceClient(config(20_000, 2, 300));
+        RiskCheckRequest selfTrade = new RiskCheckRequest(order("B1", "SH1", SideEnum.BUY, 10.5),
+                List.of(order("S1", "SH1", SideEnum.SELL, 10.5)));
+
+        // 超出时间预算按本地风控结果（放行）处理，不等待风控服务
+        long start = System.nanoTime();
+        Assertions.assertNull(client.check(selfTrade).join());
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+        Assertions.assertNull(client.check(selfTrade).join());
+        awaitTrue(() -> client.getCircuitState() == CircuitBreaker.State.OPEN);
+
+        // 熔断期间不再发送
+        int requestsWhenOpen = requestCount.get();
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertNull(client.check(selfTrade).join());
+        }
+        Assertions.assertEquals(requestsWhenOpen, requestCount.get());
+
+        // 熔断到期后放行探测，服务恢复则关闭熔断
+        delayMillis = 0;
+        Thread.sleep(350);
+        awaitTrue(() -> {
+            client.check(selfTrade);
+            return client.getCircuitState() == CircuitBreaker.State.CLOSED;
+        });
+        awaitTrue(() -> client.check(selfTrade).join() == ErrorCodeEnum.SELF_TRADE);
+    }
+
+    @Test
+    public void testExchangeServiceSendsOnlyRelevantRestingOrders() throws IOException {
+        client = new RiskServiceClient(config(2_000_000, 5, 1000));
+        ExchangeService exchangeService = newExchangeService();
+
+        Assertions.assertFalse(exchangeService.processOrder(orderJson("S1", "SH1", "SELL", 10.5)).contains("rejectCode"));
+        Assertions.assertFalse(exchangeService.processOrder(orderJson("S2", "SH2", "SELL", 10.5)).contains("rejectCode"));
+        Assertions.assertFalse(exchangeService.processOrder(orderJson("B1", "SH1", "BUY", 10.0)).contains("rejectCode"));
+
+        // SH1 的买单只携带 SH1 自己的反向挂单 S1
+        RiskCheckRequest last = received.get(received.size() - 1);
+        Assertions.assertEquals("B1", last.getIncomingOrder().getClOrderId());
+        Assertions.assertEquals(1, last.getExistingOrders().size());
+        Assertions.assertEquals("S1", last.getExistingOrders().get(0).getClOrderId());
+        Assertions.assertEquals(OrderStatusEnum.MATCHING, last.getExistingOrders().get(0).getStatus());
+
+        // 本地风控放行、风控服务拦截
+        String rejected = exchangeService.processOrder(orderJson("B2", BLOCKED_SHAREHOLDER, "BUY", 10.0));
+        Assertions.assertTrue(rejected.contains("\"rejectCode\":" + ErrorCodeEnum.SELF_TRADE.getCode()), rejected);
+    }
+
+    private ExchangeService newExchangeService() throws IOException {
+        fixture = ExchangeFixture.builder().riskServiceClient(client).build();
+        return fixture.getExchangeService();
+    }
+
+    private RiskServiceConfig config(long timeBudgetMicros, int failureThreshold, long openMillis) {
+        RiskServiceConfig config = new RiskServiceConfig();
+        config.setEnable(true);
+        config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        config.setTimeout(2000);
+        config.setTimeBudgetMicros(timeBudgetMicros);
+        config.setMaxBatchSize(64);
+        config.setMaxInFlight(2);
+        config.setFailureThreshold(failureThreshold);
+        config.setOpenMillis(openMillis);
+        return config;
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        RiskServiceClient.BatchRequest request = JsonUtils.fromJson(body, RiskServiceClient.BatchRequest.class);
+        List<RiskCheckResponse> results = new ArrayList<>();
+        for (RiskCheckRequest check : request.getChecks()) {
+            checkCount.incrementAndGet();
+            received.add(check);
+            boolean reject = BLOCKED_SHAREHOLDER.equals(check.getIncomingOrder().getShareholderId())
+                    || check.getExistingOrders().stream().anyMatch(resting -> crosses(check.getIncomingOrder(), resting));
+            results.add(new RiskCheckResponse(!reject, reject ? "SELF_TRADE_DETECTED" : null));
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] response = JsonUtils.toJson(new RiskServiceClient.BatchResponse(results)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    private static boolean crosses(Order incoming, Order resting) {
+        if (incoming.getSide() == resting.getSide()) {
+            return false;
+        }
+        return incoming.getSide() == SideEnum.BUY
+                ? incoming.getPrice() >= resting.getPrice() : incoming.getPrice() <= resting.getPrice();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Order order(String clOrderId, String shareholderId, SideEnum side, double price) {
+        return Order.builder().clOrderId(clOrderId).shareholderId(shareholderId).market("XSHG").securityId("600030")
+                .side(side).qty(100).price(price).status(OrderStatusEnum.MATCHING)
+                .timestamp(System.currentTimeMillis()).build();
+    }
+
+    private static String orderJson(String clOrderId, String shareholderId, String side, double price) {
+        return "{\"clOrderId\":\"" + clOrderId + "\",\"market\":\"XSHG\",\"securityId\":\"600030\",\"side\":\""
+                + side + "\",\"qty\":100,\"price\":" + price + ",\"shareholderId\":\"" + shareholderId + "\"}";
+    }
+}
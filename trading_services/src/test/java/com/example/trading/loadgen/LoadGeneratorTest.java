@@ -0,0 +1,140 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.application.CancelService;
+import com.example.trading.application.ExchangeFixture;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.config.GatewayConfig;
+import com.example.trading.config.LoadGeneratorConfig;
+import com.example.trading.gateway.BinaryGateway;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class LoadGeneratorTest {
+    private static final double TARGET_RATE = 2000;
+    /**
+     * JDK HttpServer分开写出应答头与应答体，受Nagle/延迟确认影响单连接每个请求约40毫秒，HTTP用例降低速率
+     */
+    private static final double HTTP_TARGET_RATE = 500;
+
+    private ExchangeFixture fixture;
+    private ExchangeService exchangeService;
+    private CancelService cancelService;
+    private LoadGeneratorConfig config;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        fixture = ExchangeFixture.builder().build();
+        exchangeService = fixture.getExchangeService();
+        cancelService = fixture.getCancelService();
+
+        config = new LoadGeneratorConfig();
+        config.setEnable(true);
+        config.setThreads(2);
+        config.setSymbols(8);
+        config.setShareholders(20);
+        config.setWarmupSeconds(0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fixture.shutdown();
+    }
+
+    @Test
+    public void testInProcessRunReportsThroughputAndLatency() {
+        config.setMode(LoadGenerator.IN_PROCESS);
+        LoadReport report = new LoadGenerator(config, exchangeService, cancelService).run(TARGET_RATE, 1);
+        assertReport(report, TARGET_RATE);
+        // 进程内应答直接携带成交
+        Assertions.assertTrue(report.getFills() > 0);
+    }
+
+    @Test
+    public void testTcpRunMatchesFramesToRequests() throws IOException {
+        GatewayConfig gatewayConfig = new GatewayConfig();
+        gatewayConfig.setEnable(true);
+        gatewayConfig.setPort(0);
+        BinaryGateway gateway = new BinaryGateway(gatewayConfig, exchangeService, cancelService);
+        try {
+            config.setMode(LoadGenerator.TCP);
+            config.setHost("127.0.0.1");
+            config.setPort(gateway.getPort());
+            LoadReport report = new LoadGenerator(config, exchangeService, cancelService).run(TARGET_RATE, 1);
+            assertReport(report, TARGET_RATE);
+            // 成交帧在确认帧之后单独到达
+            Assertions.assertTrue(report.getFills() > 0);
+        } finally {
+            gateway.shutdown();
+        }
+    }
+
+    @Test
+    public void testHttpRunParsesJsonResponses() throws IOException {
+        // 用JDK HttpServer代替REST接口，请求体直接交给服务的JSON入口
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        server.createContext("/trading/api/trading/order",
+                exchange -> respond(exchange, exchangeService.processOrder(exchange.getRequestBody().readAllBytes())));
+        server.createContext("/trading/api/trading/cancel",
+                exchange -> respond(exchange, cancelService.processCancel(exchange.getRequestBody().readAllBytes())));
+        server.setExecutor(executor);
+        server.start();
+        try {
+            config.setMode(LoadGenerator.HTTP);
+            config.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/trading/");
+            LoadReport report = new LoadGenerator(config, exchangeService, cancelService).run(HTTP_TARGET_RATE, 1);
+            assertReport(report, HTTP_TARGET_RATE);
+            Assertions.assertTrue(report.getFills() > 0);
+        } finally {
+            server.stop(0);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRejectsInvalidRate() {
+        LoadGenerator loadGenerator = new LoadGenerator(config, exchangeService, cancelService);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> loadGenerator.run(0.0, 1));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        LoadGenerator loadGenerator = new LoadGenerator(new LoadGeneratorConfig(), exchangeService, cancelService);
+        Assertions.assertThrows(IllegalStateException.class, () -> loadGenerator.run(100.0, 1));
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void assertReport(LoadReport report, double targetRate) {
+        long sent = report.getOrders() + report.getCancels();
+        // 泊松到达，1秒内发送数在目标速率附近
+        Assertions.assertEquals(targetRate, sent, targetRate * 0.2);
+        Assertions.assertEquals(0, report.getFailures());
+        // 股东固定买卖方向，不会触发对敲拦截
+        Assertions.assertEquals(0, report.getRejectedOrders());
+        Assertions.assertEquals(report.getOrders(), report.getAcceptedOrders());
+        Assertions.assertEquals(report.getCancels(), report.getAcceptedCancels() + report.getRejectedCancels());
+        Assertions.assertEquals(report.getOrders(), report.getOrderLatency().getCount());
+        Assertions.assertTrue(report.getAcceptedCancels() > 0);
+        Assertions.assertTrue(report.getThroughput() > 0);
+        Assertions.assertTrue(report.getOrderLatency().getP50() <= report.getOrderLatency().getP99());
+        Assertions.assertTrue(report.getOrderLatency().getP99() <= report.getOrderLatency().getP999());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.trading.loadgen;
+
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.config.LoadGeneratorConfig;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class OrderFlowModelTest {
+    private static final int EVENTS = 20000;
+
+    @Test
+    public void testSameSeedGeneratesSameFlow() {
+        LoadGeneratorConfig config = new LoadGeneratorConfig();
+        OrderFlowModel first = new OrderFlowModel(config, 1000, 1, 4, "ABCDE", 0);
+        OrderFlowModel second = new OrderFlowModel(config, 1000, 1, 4, "ABCDE", 0);
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertEquals(first.nextArrival(), second.nextArrival());
+            CancelRequest cancel = first.nextCancel();
+            Assertions.assertEquals(cancel, second.nextCancel());
+            if (cancel == null) {
+                Assertions.assertEquals(first.nextOrder(), second.nextOrder());
+            }
+        }
+    }
+
+    @Test
+    public void testFlowFollowsConfiguredModel() {
+        LoadGeneratorConfig config = new LoadGeneratorConfig();
+        config.setSymbols(10);
+        config.setCancelRatio(0.2);
+        int workers = 4;
+        double rate = 10000;
+        OrderFlowModel model = new OrderFlowModel(config, rate, 1, workers, "ABCDE", 0);
+        // 线程1负责600001、600005、600009
+        Assertions.assertArrayEquals(new String[]{"600001", "600005", "600009"}, model.getSecurityIds());
+
+        Set<String> ids = new HashSet<>();
+        long lastArrival = 0;
+        int cancels = 0;
+        double priceSum = 0;
+        int orders = 0;
+        for (int i = 0; i < EVENTS; i++) {
+            lastArrival = model.nextArrival();
+            CancelRequest cancel = model.nextCancel();
+            if (cancel != null) {
+                cancels++;
+                Assertions.assertTrue(cancel.getOrigClOrderId().startsWith("GABCDE01"));
+                Assertions.assertTrue(ids.add(cancel.getClOrderId()));
+                continue;
+            }
+            Order order = model.nextOrder();
+            orders++;
+            priceSum += order.getPrice();
+            Assertions.assertEquals(16, order.getClOrderId().length());
+            Assertions.assertTrue(ids.add(order.getClOrderId()));
+            Assertions.assertEquals(0, order.getQty() % 100);
+            Assertions.assertTrue(order.getPrice() > 0);
+            // 股东号奇偶与买卖方向一致
+            int shareholder = Integer.parseInt(order.getShareholderId().substring(2));
+            Assertions.assertEquals(order.getSide() == SideEnum.BUY ? 0 : 1, shareholder % 2);
+            Assertions.assertEquals(1, Integer.parseInt(order.getSecurityId()) % workers);
+        }
+
+        // 泊松到达：平均间隔 = 线程数 / 总速率
+        double meanInterval = lastArrival / (double) (EVENTS - 1);
+        Assertions.assertEquals(1e9 * workers / rate, meanInterval, 1e9 * workers / rate * 0.05);
+        // 撤单比例（前几笔没有可撤挂单，略低于配置值）
+        Assertions.assertEquals(0.2, cancels / (double) EVENTS, 0.02);
+        // 均值回复：委托价格围绕基准价
+        Assertions.assertEquals(config.getBasePrice(), priceSum / orders, 0.2);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.trading.replay;
+
+import com.example.trading.application.CallAuctionService;
+import com.example.trading.application.CancelService;
+import com.example.trading.application.ExchangeFixture;
+import com.example.trading.application.ExchangeService;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.config.DataConfig;
+import com.example.trading.config.JournalConfig;
+import com.example.trading.config.LoadGeneratorConfig;
+import com.example.trading.config.RiskConfig;
+import com.example.trading.domain.engine.EngineFixtures;
+import com.example.trading.domain.engine.MatchingPolicySelector;
+import com.example.trading.domain.engine.PriceGenerator;
+import com.example.trading.domain.engine.PriceStrategy;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.example.trading.loadgen.OrderFlowModel;
+import com.example.trading.util.JsonUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DifferentialReplayerTest {
+    private static final int EVENTS = 100_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testNdjsonReplayIsConsistentAcrossOrderBooks() throws IOException {
+        Path file = tempDir.resolve("flow.ndjson");
+        writeFlow(file, EVENTS);
+        DifferentialReplayer replayer = newReplayer(PriceStrategy.MID_PRICE);
+
+        ReplayReport report = replayer.verify(new NdjsonReplaySource(file), DifferentialReplayer.SKIP_LIST,
+                DifferentialReplayer.TICK_LADDER);
+
+        Assertions.assertTrue(report.getConsistent(), String.valueOf(report.getDivergence()));
+        Assertions.assertNull(report.getDivergence());
+        Assertions.assertEquals(EVENTS, report.getEvents());
+        Assertions.assertEquals(EVENTS, report.getOrders() + report.getCancels());
+        Assertions.assertTrue(report.getCancels() > 0);
+        Assertions.assertTrue(report.getTrades() > 0);
+        Assertions.assertTrue(report.getRestingOrders() > 0);
+        // 格式错误的行跳过并计数
+        Assertions.assertEquals(1, report.getSkipped());
+
+        // 相同输入重复回放，结果完全相同
+        ReplayReport again = replayer.verify(new NdjsonReplaySource(file), DifferentialReplayer.TICK_LADDER,
+                DifferentialReplayer.TICK_LADDER);
+        Assertions.assertTrue(again.getConsistent());
+        Assertions.assertEquals(report.getTrades(), again.getTrades());
+        Assertions.assertEquals(report.getRestingOrders(), again.getRestingOrders());
+    }
+
+    @Test
+    public void testReportsFirstDivergence() throws IOException {
+        Path file = tempDir.resolve("flow.ndjson");
+        writeFlow(file, 2000);
+        DifferentialReplayer replayer = newReplayer(PriceStrategy.MID_PRICE);
+        ReplayPipeline left = new ReplayPipeline(DifferentialReplayer.SKIP_LIST,
+                EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE), EngineFixtures.fifo(),
+                ExchangeFixture.selfTradeRisk());
+        ReplayPipeline right = new ReplayPipeline(DifferentialReplayer.TICK_LADDER,
+                EngineFixtures.priceGenerator(PriceStrategy.BUY_PRICE), EngineFixtures.fifo(),
+                ExchangeFixture.selfTradeRisk());
+
+        ReplayReport report = replayer.verify(new NdjsonReplaySource(file), left, right);
+
+        Assertions.assertFalse(report.getConsistent());
+        ReplayReport.Divergence divergence = report.getDivergence();
+        Assertions.assertNotNull(divergence);
+        // 第一笔成交价不同即停止：撮合后订单状态相同，第一条成交回报不同
+        Assertions.assertEquals("trades[0]", divergence.getItem());
+        Assertions.assertEquals(report.getEvents(), divergence.getEventIndex());
+        Assertions.assertTrue(divergence.getEvent().startsWith("ORDER "), divergence.getEvent());
+        Assertions.assertNotEquals(divergence.getLeft(), divergence.getRight());
+        Assertions.assertTrue(report.getEvents() < 2000);
+    }
+
+    @Test
+    public void testReplayClockAndIdsAreDeterministic() {
+        ReplayPipeline first = new ReplayPipeline(DifferentialReplayer.SKIP_LIST,
+                EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE), EngineFixtures.fifo(),
+                ExchangeFixture.selfTradeRisk());
+        ReplayPipeline second = new ReplayPipeline(DifferentialReplayer.TICK_LADDER,
+                EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE), EngineFixtures.fifo(),
+                ExchangeFixture.selfTradeRisk());
+        ReplayEvent sell = ReplayEvent.order(order("CL000000000001", SideEnum.SELL, 10.01, "SH00000001"), 1_000L);
+        ReplayEvent buy = ReplayEvent.order(order("CL000000000002", SideEnum.BUY, 10.02, "SH00000002"), 2_000L);
+
+        first.apply(sell);
+        second.apply(sell);
+        List<Trade> trades = new ArrayList<>(first.apply(buy).trades);
+        ReplayOutcome outcome = second.apply(buy);
+
+        Assertions.assertEquals(2, trades.size());
+        Assertions.assertEquals(trades, outcome.trades);
+        for (Trade trade : trades) {
+            // 成交时间取回放事件时间，不读系统时钟
+            Assertions.assertEquals(2_000L, trade.getTimestamp());
+        }
+        Assertions.assertEquals(2_000L, outcome.order.getTimestamp());
+        // 输入原型不被链路修改
+        Assertions.assertEquals(0, buy.getOrder().getCumQty());
+    }
+
+    @Test
+    public void testJournalReplayIsConsistentAcrossOrderBooks() throws Exception {
+        DataConfig dataConfig = new DataConfig();
+        dataConfig.setHistoryPath(tempDir.toString());
+        recordJournal(dataConfig);
+        DifferentialReplayer replayer = new DifferentialReplayer(
+                EngineFixtures.priceGenerator(PriceStrategy.MID_PRICE), EngineFixtures.fifo(), new RiskConfig(),
+                dataConfig);
+
+        ReplayReport report = replayer.verify((String) null, DifferentialReplayer.SKIP_LIST,
+                DifferentialReplayer.TICK_LADDER);
+
+        Assertions.assertTrue(report.getConsistent(), String.valueOf(report.getDivergence()));
+        Assertions.assertEquals(2, report.getAuctions());
+        Assertions.assertTrue(report.getOrders() > 0);
+        Assertions.assertTrue(report.getCancels() > 0);
+        Assertions.assertTrue(report.getTrades() > 0);
+    }
+
+    /**
+     * 线上链路（分片执行、写预写日志）处理一段委托流，期间对一只股票做一次集合竞价
+     */
+    private void recordJournal(DataConfig dataConfig) throws Exception {
+        JournalConfig journalConfig = new JournalConfig();
+        journalConfig.setSegmentSize(256 * 1024);
+        ExchangeFixture fixture = ExchangeFixture.builder()
+                .dataConfig(dataConfig)
+                .journalConfig(journalConfig)
+                .build();
+        try {
+            ExchangeService exchangeService = fixture.getExchangeService();
+            CancelService cancelService = fixture.getCancelService();
+            CallAuctionService callAuctionService = fixture.getCallAuctionService();
+
+            OrderFlowModel model = newModel(4);
+            String auctionSecurity = model.getSecurityIds()[0];
+            for (int i = 0; i < 5000; i++) {
+                if (i == 1000) {
+                    Assertions.assertTrue(callAuctionService.beginAuction(auctionSecurity).get());
+                } else if (i == 2000) {
+                    Assertions.assertNotNull(callAuctionService.uncross(auctionSecurity, 10.0).get());
+                }
+                CancelRequest cancel = model.nextCancel();
+                if (cancel != null) {
+                    cancelService.submitCancel(cancel).join();
+                } else {
+                    exchangeService.submitOrder(model.nextOrder()).join();
+                }
+            }
+        } finally {
+            fixture.shutdown();
+        }
+    }
+
+    private static DifferentialReplayer newReplayer(PriceStrategy priceStrategy) {
+        DataConfig dataConfig = new DataConfig();
+        return new DifferentialReplayer(EngineFixtures.priceGenerator(priceStrategy), EngineFixtures.fifo(),
+                new RiskConfig(), dataConfig);
+    }
+
+    private static OrderFlowModel newModel(int symbols) {
+        LoadGeneratorConfig config = new LoadGeneratorConfig();
+        config.setSymbols(symbols);
+        return new OrderFlowModel(config, 10000, 0, 1, "REPLY", 0);
+    }
+
+    /**
+     * 模拟委托流写成NDJSON：混入市价、止损限价、IOC、FOK委托，第100行为格式错误的记录
+     */
+    private static void writeFlow(Path file, int events) throws IOException {
+        OrderFlowModel model = newModel(8);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < events; i++) {
+                if (i == 99) {
+                    writer.write("{\"clOrderId\":\"BROKEN\",\"qty\":\n\n");
+                }
+                CancelRequest cancel = model.nextCancel();
+                if (cancel != null) {
+                    writer.write(JsonUtils.toJson(cancel));
+                } else {
+                    Order order = model.nextOrder();
+                    if (i % 41 == 0) {
+                        order.setOrdType(OrderTypeEnum.STOP_LIMIT);
+                        order.setStopPrice(order.getPrice());
+                    } else if (i % 53 == 0) {
+                        order.setOrdType(OrderTypeEnum.MARKET);
+                        order.setPrice(null);
+                    } else if (i % 67 == 0) {
+                        order.setTimeInForce(TimeInForceEnum.IOC);
+                    } else if (i % 71 == 0) {
+                        order.setTimeInForce(TimeInForceEnum.FOK);
+                    }
+                    writer.write(JsonUtils.toJson(order));
+                }
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static Order order(String clOrderId, SideEnum side, double price, String shareholderId) {
+        return Order.builder()
+                .clOrderId(clOrderId)
+                .market("XSHG")
+                .securityId("600030")
+                .side(side)
+                .qty(100)
+                .price(price)
+                .shareholderId(shareholderId)
+                .build();
+    }
+}
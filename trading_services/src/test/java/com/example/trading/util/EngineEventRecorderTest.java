@@ -0,0 +1,60 @@
+package com.example.trading.util;
+
+import com.example.trading.common.enums.SideEnum;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EngineEventRecorderTest {
+
+    @Test
+    public void testDrainFormatsRecordsInOrderPerThread() throws InterruptedException {
+        EngineEventRecorder recorder = new EngineEventRecorder();
+        recorder.append(EngineEvent.ORDER_RECEIVED, "B1", null, 0, 0, 0, 0);
+        recorder.enable(16);
+        recorder.append(EngineEvent.BOOK_ORDER_ADDED, "B1", "600030",
+                SideEnum.BUY.ordinal(), EngineEventRecorder.bits(10.5), 3, 0);
+        Thread shard = new Thread(() -> recorder.append(EngineEvent.MATCH_EXECUTED, "S1", "B1",
+                EngineEventRecorder.bits(10.25), 100, 0, 200), "matching-shard-0");
+        shard.start();
+        shard.join();
+
+        List<String> lines = new ArrayList<>();
+        int drained = recorder.drain((threadName, nanoTime, event, ref0, ref1, args) -> {
+            StringBuilder line = new StringBuilder(threadName).append(' ');
+            event.format(line, ref0, ref1, args);
+            lines.add(line.toString());
+        });
+
+        // 启用前的事件不记录
+        Assertions.assertEquals(2, drained);
+        Assertions.assertTrue(lines.contains(Thread.currentThread().getName()
+                + " 订单[B1]已加入[" + SideEnum.BUY.getDesc() + "]方向订单簿，股票[600030]，价格[10.5]，队列长度[3]"));
+        Assertions.assertTrue(lines.contains("matching-shard-0 撮合成交：新订单[S1] vs 对手方订单[B1] | "
+                + "成交价格[10.25] | 成交数量[100] | 新订单剩余[0] | 对手方剩余[200]"));
+        // 已退出线程的缓冲区取空后注销，再次取出为空
+        Assertions.assertEquals(0, recorder.drain((threadName, nanoTime, event, ref0, ref1, args) -> { }));
+    }
+
+    @Test
+    public void testFullRingDropsInsteadOfBlocking() {
+        EngineEventRecorder recorder = new EngineEventRecorder();
+        recorder.enable(8);
+        for (int i = 0; i < 20; i++) {
+            recorder.append(EngineEvent.ORDER_VALIDATED, "B" + i, null, 0, 0, 0, 0);
+        }
+
+        List<Object> ids = new ArrayList<>();
+        Assertions.assertEquals(8, recorder.drain((threadName, nanoTime, event, ref0, ref1, args) -> ids.add(ref0)));
+        Assertions.assertEquals("B0", ids.get(0));
+        Assertions.assertEquals("B7", ids.get(7));
+        Assertions.assertEquals(12, recorder.takeDropped());
+        Assertions.assertEquals(0, recorder.takeDropped());
+
+        // 取出后缓冲区可继续写入
+        recorder.append(EngineEvent.ORDER_VALIDATED, "B20", null, 0, 0, 0, 0);
+        Assertions.assertEquals(1, recorder.drain((threadName, nanoTime, event, ref0, ref1, args) -> { }));
+    }
+}
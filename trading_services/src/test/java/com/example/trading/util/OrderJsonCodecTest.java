@@ -0,0 +1,123 @@
+package com.example.trading.util;
+
+import com.example.trading.common.enums.ErrorCodeEnum;
+import com.example.trading.common.enums.OrderStatusEnum;
+import com.example.trading.common.enums.OrderTypeEnum;
+import com.example.trading.common.enums.SideEnum;
+import com.example.trading.common.enums.TimeInForceEnum;
+import com.example.trading.domain.model.CancelRequest;
+import com.example.trading.domain.model.Order;
+import com.example.trading.domain.model.Trade;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 手写编解码与原Gson路径（JsonUtils）的一致性
+ */
+public class OrderJsonCodecTest {
+
+    @Test
+    public void testParseOrderMatchesGson() {
+        String[] inputs = {
+                "{\"clOrderId\":\"CL1234567890123456\",\"market\":\"XSHG\",\"securityId\":\"600030\",\"side\":\"BUY\","
+                        + "\"qty\":100,\"price\":10.5,\"shareholderId\":\"SH1234567890\"}",
+                " {\n  \"price\" : 9.99 , \"qty\" : \"300\", \"unknown\": {\"a\": [1, \"}\", {}]}, \"side\": \"SELL\",\n"
+                        + "  \"clOrderId\": \"C\\\"1\\u0041\\n\", \"shareholderId\": null, \"market\": \"上海\" }",
+                "{\"qty\":1.0E2,\"price\":1234567.891234567,\"cumQty\":5,\"status\":\"MATCHING\",\"timestamp\":1700000000000}",
+                "{\"price\":-0.01,\"securityId\":600030,\"side\":\"X\"}",
+                "{\"side\":\"SELL\",\"qty\":100,\"ordType\":\"STOP_LIMIT\",\"timeInForce\":\"IOC\",\"price\":9.5,"
+                        + "\"stopPrice\":9.6}",
+                "{\"ordType\":\"MARKET\",\"timeInForce\":\"FOK\",\"stopPrice\":null,\"price\":null}",
+                "{}"
+        };
+        for (String input : inputs) {
+            Assertions.assertEquals(JsonUtils.fromJson(input, Order.class), OrderJsonCodec.parseOrder(input), input);
+        }
+    }
+
+    @Test
+    public void testSideCodesAreMappedInline() {
+        Assertions.assertEquals(SideEnum.BUY, OrderJsonCodec.parseOrder("{\"side\":\"B\"}").getSide());
+        Assertions.assertEquals(SideEnum.SELL, OrderJsonCodec.parseOrder("{\"side\":\"S\"}").getSide());
+        CancelRequest cancel = OrderJsonCodec.parseCancel("{\"clOrderId\":\"C2\",\"origClOrderId\":\"C1\","
+                + "\"market\":\"XSHG\",\"securityId\":\"600030\",\"shareholderId\":\"SH1\",\"side\":\"S\"}");
+        Assertions.assertEquals(new CancelRequest("C2", "C1", "XSHG", "600030", "SH1", SideEnum.SELL), cancel);
+    }
+
+    @Test
+    public void testMalformedInputIsRejected() {
+        for (String input : new String[]{"", "[]", "{\"qty\":}", "{\"qty\":1.5}", "{\"clOrderId\":\"C1\"", "{} x"}) {
+            Assertions.assertThrows(JsonParseException.class, () -> OrderJsonCodec.parseOrder(input), input);
+        }
+    }
+
+    @Test
+    public void testCancelDetectedFromTopLevelKeys() {
+        Assertions.assertTrue(isCancel("{\"clOrderId\":\"C2\",\"origClOrderId\":\"C1\",\"side\":\"S\"}"));
+        Assertions.assertTrue(isCancel("{\"origClOrder\\u0049d\":\"C1\"}"));
+        // 字段值或嵌套对象中出现origClOrderId字样的仍是委托
+        Assertions.assertFalse(isCancel("{\"clOrderId\":\"\\\"origClOrderId\\\"\",\"side\":\"B\",\"qty\":100}"));
+        Assertions.assertFalse(isCancel("{\"memo\":{\"origClOrderId\":\"C1\"},\"side\":\"B\"}"));
+        Assertions.assertFalse(isCancel("{}"));
+        Assertions.assertThrows(JsonParseException.class, () -> isCancel("{\"clOrderId\":"));
+    }
+
+    @Test
+    public void testBackslashSideIsRejected() {
+        Assertions.assertThrows(JsonParseException.class, () -> OrderJsonCodec.parseOrder("{\"side\":\"\\\"}"));
+        Assertions.assertThrows(JsonParseException.class,
+                () -> OrderJsonCodec.parseCancel("{\"side\":\"\\\",\"qty\":1}"));
+    }
+
+    @Test
+    public void testReportsMatchGsonOutput() {
+        Order order = Order.builder().clOrderId("CL<1>&'=\"\\").shareholderId("SH\u2028股东").market("XSHG")
+                .securityId("600030").side(SideEnum.BUY).qty(100).cumQty(40).price(10.5)
+                .status(OrderStatusEnum.PART_FILLED).timestamp(1700000000000L).build();
+        Order stop = Order.builder().clOrderId("CL2").side(SideEnum.SELL).qty(100).ordType(OrderTypeEnum.STOP)
+                .timeInForce(TimeInForceEnum.DAY).stopPrice(9.95).status(OrderStatusEnum.PENDING_TRIGGER).build();
+        Trade trade = Trade.builder().clOrderId("CL1").market("XSHG").securityId("600030").side(SideEnum.SELL)
+                .qty(100).price(1e-7).shareholderId("SH1").execId("EX1\t").execQty(40).execPrice(10.0)
+                .timestamp(1L).build();
+        Order empty = new Order();
+
+        StringBuilder out = OrderJsonCodec.buffer();
+        out.append('[');
+        OrderJsonCodec.writeOrder(out, order);
+        out.append(',');
+        OrderJsonCodec.writeOrder(out, empty);
+        out.append(',');
+        OrderJsonCodec.writeOrder(out, stop);
+        out.append(']');
+        Assertions.assertEquals(JsonUtils.toJson(List.of(order, empty, stop)), out.toString());
+
+        out = OrderJsonCodec.buffer();
+        OrderJsonCodec.writeTrades(out, List.of(trade, new Trade()));
+        Assertions.assertEquals(JsonUtils.toJson(List.of(trade, new Trade())), out.toString());
+
+        Map<String, Object> reject = new LinkedHashMap<>();
+        reject.put("clOrderId", order.getClOrderId());
+        reject.put("market", order.getMarket());
+        reject.put("securityId", order.getSecurityId());
+        reject.put("side", "BUY");
+        reject.put("qty", order.getQty());
+        reject.put("price", order.getPrice());
+        reject.put("shareholderId", order.getShareholderId());
+        reject.put("rejectCode", ErrorCodeEnum.SELF_TRADE.getCode());
+        reject.put("rejectText", ErrorCodeEnum.SELF_TRADE.getMsg());
+        out = OrderJsonCodec.buffer();
+        OrderJsonCodec.writeOrderReject(out, order, ErrorCodeEnum.SELF_TRADE);
+        Assertions.assertEquals(JsonUtils.toJson(reject), out.toString());
+    }
+
+    private static boolean isCancel(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return OrderJsonCodec.isCancel(bytes, 0, bytes.length);
+    }
+}